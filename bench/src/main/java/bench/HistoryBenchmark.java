@@ -0,0 +1,96 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.history.HistoryReader;
+import geoguesser.engine.history.HistoryWriter;
+import geoguesser.engine.history.RoundRecord;
+import org.openjdk.jmh.annotations.*;
+
+// Writing and reading the round history file. append is one round into the writer's block buffer
+// (a block write every few thousand rounds); scan reads a whole 1M-round file, so MB/s is
+// the file's uncompressed size (printed by setUp) times the score.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoryBenchmark {
+    private static final int ROUNDS = 1_000_000;
+
+    private Path scanFile;
+    private Path appendFile;
+    private HistoryWriter appender;
+    private final RoundRecord record = new RoundRecord();
+    private final Random player = new Random(11);
+    private long clock = 1_700_000_000_000L;
+
+    @Setup
+    public void setUp() throws IOException {
+        scanFile = Files.createTempFile("history-scan", ".ggh");
+        Files.delete(scanFile);
+        try (HistoryWriter writer = HistoryWriter.open(scanFile)) {
+            for (int i = 0; i < ROUNDS; i++) {
+                appendRound(writer);
+            }
+        }
+        try (HistoryReader reader = HistoryReader.open(scanFile)) {
+            while (reader.next(record)) {
+            }
+            System.out.printf("%n%,d rounds: %,d bytes on disk, %,d uncompressed%n",
+                    reader.getEventCount(), Files.size(scanFile), reader.getBytesDecoded());
+        }
+        appendFile = Files.createTempFile("history-append", ".ggh");
+        Files.delete(appendFile);
+        appender = HistoryWriter.open(appendFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        appender.close();
+        Files.deleteIfExists(appendFile);
+        Files.deleteIfExists(scanFile);
+    }
+
+    @Benchmark
+    public void append() throws IOException {
+        appendRound(appender);
+    }
+
+    @Benchmark
+    public long scan() throws IOException {
+        long points = 0;
+        try (HistoryReader reader = HistoryReader.open(scanFile)) {
+            while (reader.next(record)) {
+                points += record.points;
+            }
+        }
+        return points;
+    }
+
+    // A round the way MainGame logs it: 5-round sessions, a guess near the spot or the odd timeout
+    private void appendRound(HistoryWriter writer) throws IOException {
+        int round = 1 + (int)((clock / 20_000) % 5);
+        long sessionStart = clock - (round - 1) * 20_000L;
+        Location location = LocationCatalog.all().get(player.nextInt(LocationCatalog.all().size()));
+        int seconds = 1 + player.nextInt(ScoreRules.ROUND_SECONDS);
+        clock += seconds * 1000L + player.nextInt(1000);
+        boolean hint = player.nextInt(8) == 0;
+        if (seconds == ScoreRules.ROUND_SECONDS) {
+            writer.timedOut(clock, sessionStart, round, location.getId(), hint);
+            return;
+        }
+        double x = location.getMapX() + player.nextGaussian() * 40;
+        double y = location.getMapY() + player.nextGaussian() * 40;
+        int secondsLeft = ScoreRules.ROUND_SECONDS - seconds;
+        writer.guessed(clock, sessionStart, round, location.getId(), hint, x, y, secondsLeft,
+                ScoreRules.roundPoints(location.distanceTo(x, y), secondsLeft));
+    }
+}
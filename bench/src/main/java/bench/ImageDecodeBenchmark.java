@@ -0,0 +1,44 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import geoguesser.client.AssetLocator;
+import geoguesser.client.RoundImageLoader;
+import org.openjdk.jmh.annotations.*;
+
+// The loadNewRound path: decode a location photo for the 900x750 round view.
+// "legacy" is the original ImageIO.read + getScaledInstance(SCALE_SMOOTH); "fitted" is
+// RoundImageLoader's subsampled decode. Photos are read from the client's classpath assets.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageDecodeBenchmark {
+    @Param({"bus_stop.png", "cs_lawn (2).png"})
+    public String asset;
+
+    @Benchmark
+    public BufferedImage fitted() throws Exception {
+        return RoundImageLoader.decodeFitted(asset, 900, 750);
+    }
+
+    @Benchmark
+    public BufferedImage legacy() throws Exception {
+        Image scaled;
+        try (InputStream in = AssetLocator.open(asset)) {
+            scaled = ImageIO.read(in).getScaledInstance(900, 750, Image.SCALE_SMOOTH);
+        }
+        // getScaledInstance is lazy; draw it so the scaling work is actually measured
+        BufferedImage target = new BufferedImage(900, 750, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = target.createGraphics();
+        g2d.drawImage(scaled, 0, 0, null);
+        g2d.dispose();
+        return target;
+    }
+}
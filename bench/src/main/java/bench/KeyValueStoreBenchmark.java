@@ -0,0 +1,66 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import geoguesser.engine.store.KeyValueStore;
+import geoguesser.engine.store.PlayerProfile;
+import org.openjdk.jmh.annotations.*;
+
+// The player store's KeyValueStore with 100k profiles: get is a point lookup of a stored profile
+// (hash probe in the mapped index plus one read of the log), miss a name that was never stored,
+// put an updated profile appended to the log (not synced; compaction runs now and then).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyValueStoreBenchmark {
+    private static final int PLAYERS = 100_000;
+
+    private Path dir;
+    private KeyValueStore store;
+    private final String[] keys = new String[PLAYERS];
+    private final byte[] profile = new PlayerProfile("player", 1_700_000_000_000L).toBytes();
+    private SplittableRandom random;
+    private int misses;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("kv-bench");
+        store = KeyValueStore.open(dir);
+        for (int i = 0; i < PLAYERS; i++) {
+            keys[i] = PlayerProfile.profileKey("player" + i);
+            store.put(keys[i], profile);
+        }
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] get() throws IOException {
+        return store.get(keys[random.nextInt(PLAYERS)]);
+    }
+
+    @Benchmark
+    public byte[] miss() throws IOException {
+        return store.get(PlayerProfile.profileKey("nobody" + misses++));
+    }
+
+    @Benchmark
+    public void put() throws IOException {
+        store.put(keys[random.nextInt(PLAYERS)], profile);
+    }
+}
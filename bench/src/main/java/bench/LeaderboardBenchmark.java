@@ -0,0 +1,55 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import geoguesser.engine.Leaderboard;
+import geoguesser.engine.Leaderboard.PlayerScore;
+import org.openjdk.jmh.annotations.*;
+
+// GameRanking.addScore (insert + sort + top-10 trim) and loadScores (parsing rankings.txt),
+// both without the file I/O so the numbers are about the code, not the disk.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeaderboardBenchmark {
+    // Lines in the parsed file; the real file holds the top 10, larger sizes show scaling
+    @Param({"10", "10000"})
+    public int lines;
+
+    private final List<PlayerScore> topTen = new ArrayList<>();
+    private String rankingsText;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append("player").append(i).append(',').append(random.nextInt(6000)).append('\n');
+        }
+        rankingsText = text.toString();
+
+        for (int i = 0; i < 10; i++) {
+            topTen.add(new PlayerScore("player" + i, 6000 - i * 300));
+        }
+    }
+
+    @Benchmark
+    public List<PlayerScore> addScore() {
+        // addScore starts from a freshly loaded list each time, so copy
+        return Leaderboard.insertScore(new ArrayList<>(topTen), "bench", random.nextInt(6000));
+    }
+
+    @Benchmark
+    public List<PlayerScore> loadScores() throws IOException {
+        return Leaderboard.parseScores(new BufferedReader(new StringReader(rankingsText)));
+    }
+}
@@ -0,0 +1,148 @@
+package bench;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import geoguesser.engine.net.FrameReader;
+import geoguesser.engine.net.RemotePlayProtocol;
+import geoguesser.server.RemotePlayServer;
+import org.openjdk.jmh.annotations.*;
+
+// A RemotePlayServer on loopback and a bare client that never grants photo credit, so only the
+// protocol's small messages move. guessRoundTrip is one GUESS on the wire until its RESULT is back
+// (every few rounds that includes a pipelined NEW_GAME); pipelinedGuesses sends a whole game's
+// guesses in one write and reads the acks as they stream back, scored per guess.
+// Run from the repository root so the server finds the photos, or pass -Dbench.photos=<dir>.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RemotePlayBenchmark {
+    // A normal game, as MainGame plays it
+    private static final int ROUNDS = 5;
+
+    private RemotePlayServer server;
+    private SocketChannel channel;
+    private final FrameReader reader = new FrameReader(RemotePlayProtocol.MAX_FRAME_BYTES);
+    private final ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+    private final Acks acks = new Acks();
+    private int seq;
+    private int round;
+
+    // Remembers the last acks; everything else the server sends is skipped
+    private static final class Acks implements RemotePlayProtocol.ServerMessages {
+        int resultSeq = -1;
+        int points;
+        boolean gameEnded;
+
+        public void gameStarted(int seq, int totalRounds) {
+        }
+
+        public void roundStarted(int round, String photoName, int photoBytes) {
+        }
+
+        public void photoChunk(int round, int offset, ByteBuffer data) {
+        }
+
+        public void result(int seq, int round, int locationId, boolean timedOut, int points, int totalScore) {
+            resultSeq = seq;
+            this.points = points;
+        }
+
+        public void gameEnded(int rounds, int totalScore) {
+            gameEnded = true;
+        }
+
+        public void error(int seq, String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        server = RemotePlayServer.open(0, Paths.get(System.getProperty("bench.photos", RemotePlayServer.DEFAULT_PHOTO_DIR)));
+        Thread thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "remote-play-server");
+        thread.setDaemon(true);
+        thread.start();
+        channel = SocketChannel.open(new InetSocketAddress("localhost", server.getPort()));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        newGame();
+        send();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        channel.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int guessRoundTrip() throws IOException {
+        int guessSeq = seq++;
+        RemotePlayProtocol.guess(out, guessSeq, round, 250, 250);
+        if (round == ROUNDS) {
+            newGame(); // Right behind the last guess, the server answers both in one go
+        } else {
+            round++;
+        }
+        send();
+        awaitResult(guessSeq);
+        return acks.points;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUNDS)
+    public int pipelinedGuesses() throws IOException {
+        int lastSeq = -1;
+        while (true) {
+            lastSeq = seq++;
+            RemotePlayProtocol.guess(out, lastSeq, round, 250, 250);
+            if (round == ROUNDS) {
+                break;
+            }
+            round++;
+        }
+        newGame();
+        send();
+        awaitResult(lastSeq);
+        return acks.points;
+    }
+
+    private void newGame() {
+        RemotePlayProtocol.newGame(out, seq++, "bench", ROUNDS);
+        round = 1;
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void awaitResult(int resultSeq) throws IOException {
+        while (acks.resultSeq != resultSeq) {
+            ByteBuffer frame = reader.next();
+            if (frame == null) {
+                if (reader.read(channel) < 0) {
+                    throw new IOException("Server closed the connection");
+                }
+                continue;
+            }
+            RemotePlayProtocol.readServerMessage(frame, acks);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.replay.SessionAudit;
+import geoguesser.engine.replay.SessionRecorder;
+import org.openjdk.jmh.annotations.*;
+
+// Replaying recorded sessions through the scoring rules, as SessionAudit --repeat does.
+// The logs are synthetic 5-round games played the way MainGame records them; one op audits one game,
+// so rounds per second is 5x the score.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private static final int SESSIONS = 1024;
+    private static final int ROUNDS = 5;
+
+    private final List<byte[]> logs = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random player = new Random(7);
+        for (int s = 0; s < SESSIONS; s++) {
+            logs.add(recordGame(player.nextLong(), player));
+        }
+    }
+
+    @Benchmark
+    public int audit() throws IOException {
+        byte[] log = logs.get(next++ & (SESSIONS - 1));
+        return SessionAudit.audit(new ByteArrayInputStream(log)).getReplayedScore();
+    }
+
+    // Plays a game the way MainGame does: seeded draws, a guess near the spot, the odd hint
+    static byte[] recordGame(long seed, Random player) {
+        Random random = new Random(seed);
+        List<Location> remaining = new ArrayList<>(LocationCatalog.all());
+        SessionRecorder recorder = new SessionRecorder(seed, "bench", ROUNDS, 0);
+        int at = 0;
+        int total = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            Location location = LocationCatalog.drawRound(random, remaining);
+            recorder.roundStarted(at, round, location.getId());
+            at += 50 + player.nextInt(200);
+            recorder.clockStarted(at, round);
+            if (total >= ScoreRules.HINT_COST && player.nextInt(4) == 0) {
+                recorder.hintUsed(at + 500, round, ScoreRules.HINT_COST);
+                total -= ScoreRules.HINT_COST;
+            }
+            int seconds = 1 + player.nextInt(ScoreRules.ROUND_SECONDS - 1);
+            at += seconds * 1000;
+            double x = location.getMapX() + player.nextGaussian() * 40;
+            double y = location.getMapY() + player.nextGaussian() * 40;
+            int secondsLeft = ScoreRules.ROUND_SECONDS - seconds;
+            int points = ScoreRules.roundPoints(location.distanceTo(x, y), secondsLeft);
+            recorder.guessed(at, round, x, y, secondsLeft, points);
+            total += points;
+        }
+        recorder.sessionEnded(at, total);
+        return recorder.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.difficulty.DifficultyEngine;
+import geoguesser.engine.difficulty.LocationStats;
+import org.openjdk.jmh.annotations.*;
+
+// Round selection: drawGame is the old uniform pick removed from a copy of the remaining locations,
+// adaptiveGame is what loadNewRound does now (DifficultyEngine), including the statistics update and
+// re-binning after every round. One op is a whole 5-round game.
+// The copy of the catalog drawGame starts from is made per invocation outside the measurement
+// (Remaining); copyCatalog reports what that copy costs on its own.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundSelectionBenchmark {
+    // 11 is the bundled catalog
+    @Param({"11", "10000", "1000000"})
+    public int catalogSize;
+
+    private final List<Location> catalog = new ArrayList<>();
+    private final Random random = new Random(42);
+    private DifficultyEngine difficulty;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < catalogSize; i++) {
+            Location template = LocationCatalog.get(i % LocationCatalog.size());
+            catalog.add(new Location(i, template.getImage(), template.getName(), template.getMapX(), template.getMapY()));
+        }
+        // Some history so the locations are spread over the difficulty bins
+        LocationStats stats = new LocationStats(catalogSize);
+        Random player = new Random(7);
+        for (int i = 0; i < catalogSize * 4; i++) {
+            int id = player.nextInt(catalogSize);
+            if (player.nextInt(10) == 0) {
+                stats.recordTimeout(id, false);
+            } else {
+                stats.recordGuess(id, Math.abs(player.nextGaussian()) * 40 * (1 + id % 7), player.nextInt(8) == 0);
+            }
+        }
+        difficulty = new DifficultyEngine(catalogSize, stats);
+    }
+
+    // A fresh copy of the catalog for every drawGame call
+    @State(Scope.Thread)
+    public static class Remaining {
+        final List<Location> locations = new ArrayList<>();
+
+        @Setup(Level.Invocation)
+        public void refill(RoundSelectionBenchmark benchmark) {
+            // Element by element: addAll would allocate a temporary array of the whole catalog
+            locations.clear();
+            for (Location location : benchmark.catalog) {
+                locations.add(location);
+            }
+        }
+    }
+
+    @Benchmark
+    public Location drawGame(Remaining remaining) {
+        Location last = null;
+        for (int round = 0; round < 5; round++) {
+            last = LocationCatalog.drawRound(random, remaining.locations);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public List<Location> copyCatalog() {
+        return new ArrayList<>(catalog);
+    }
+
+    @Benchmark
+    public int adaptiveGame() {
+        difficulty.startGame();
+        int last = -1;
+        for (int round = 0; round < 5; round++) {
+            last = difficulty.nextRound(random);
+            if (random.nextInt(10) == 0) {
+                difficulty.recordTimeout(last, false);
+            } else {
+                double error = Math.abs(random.nextGaussian()) * 60;
+                difficulty.recordGuess(last, error, false, ScoreRules.roundPoints(error, 15));
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,40 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import geoguesser.engine.ScoreRules;
+import org.openjdk.jmh.annotations.*;
+
+// submitGuess math: distance from the actual location plus ScoreRules.roundPoints
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+    private static final int GUESSES = 1024;
+
+    private final double[] guessX = new double[GUESSES];
+    private final double[] guessY = new double[GUESSES];
+    private final int[] secondsLeft = new int[GUESSES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < GUESSES; i++) {
+            guessX[i] = random.nextDouble(500);
+            guessY[i] = random.nextDouble(500);
+            secondsLeft[i] = random.nextInt(31);
+        }
+    }
+
+    @Benchmark
+    public int scoreGuess() {
+        int i = next++ & (GUESSES - 1);
+        double dx = guessX[i] - 246;
+        double dy = guessY[i] - 178;
+        return ScoreRules.roundPoints(Math.sqrt(dx * dx + dy * dy), secondsLeft[i]);
+    }
+}
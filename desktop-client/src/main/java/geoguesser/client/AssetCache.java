@@ -0,0 +1,76 @@
+package geoguesser.client;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+// Process-wide cache of decoded images, keyed by asset name (resolved through AssetLocator).
+// Filled in parallel by AssetWarmup during startup; screens ask here first so an image that was
+// already decoded (background, campus map, early round photos) is never read twice.
+public class AssetCache {
+    // Screen background; the jpg wins if both are present
+    public static final String[] BACKGROUND_ASSETS = {"background.jpg", "background.png"};
+
+    private static final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    private AssetCache() {
+    }
+
+    // Full-size image, decoded on first use
+    public static BufferedImage getImage(String asset) throws IOException {
+        BufferedImage image = images.get(asset);
+        GameEvents.assetCache(asset, "full", image != null);
+        if (image == null) {
+            // Decode from the stream with an in-memory cache; ImageIO's default would spool to a temp file
+            try (InputStream in = AssetLocator.open(asset)) {
+                image = ImageIO.read(new MemoryCacheImageInputStream(in));
+            }
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + asset);
+            }
+            images.put(asset, image);
+        }
+        return image;
+    }
+
+    // Shared screen background, or null when the build ships without one
+    public static BufferedImage getBackground() {
+        String asset = AssetLocator.firstExisting(BACKGROUND_ASSETS);
+        if (asset == null) {
+            return null;
+        }
+        try {
+            return getImage(asset);
+        } catch (IOException e) {
+            System.err.println("Error loading background image: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Image decoded with RoundImageLoader's subsampling for the given view size, decoded on first use
+    public static BufferedImage getFittedImage(String asset, int width, int height) throws IOException {
+        String key = fittedKey(asset, width, height);
+        BufferedImage image = images.get(key);
+        GameEvents.assetCache(asset, "fitted", image != null);
+        if (image == null) {
+            image = RoundImageLoader.decodeFitted(asset, width, height);
+            images.put(key, image);
+        }
+        return image;
+    }
+
+    // Only returns what is already cached; never opens the asset
+    public static BufferedImage getCachedFittedImage(String asset, int width, int height) {
+        BufferedImage image = images.get(fittedKey(asset, width, height));
+        GameEvents.assetCache(asset, "fitted", image != null);
+        return image;
+    }
+
+    private static String fittedKey(String asset, int width, int height) {
+        return asset + "@" + width + "x" + height;
+    }
+}
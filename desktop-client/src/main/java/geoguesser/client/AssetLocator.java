@@ -0,0 +1,117 @@
+package geoguesser.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Resolves asset names to URLs once and remembers the answer, including "not found".
+// Lookup order:
+//  1. an asset pack, if one is configured with -Dgeoguesser.assetPack=<zip> (entries at the root
+//     of the zip or under assets/); lets a new photo set ship without rebuilding the jar
+//  2. the classpath, under /assets/ - desktop-client/src/main/resources/assets in the source tree
+//     and inside geoguesser.jar when packaged
+// Opening a resolved URL streams straight from the jar or zip; nothing is extracted to disk.
+public final class AssetLocator {
+    public static final String PACK_PROPERTY = "geoguesser.assetPack";
+
+    private static final String ASSET_ROOT = "assets/";
+
+    private static final Map<String, Optional<URL>> resolved = new ConcurrentHashMap<>();
+    private static final Pack pack = Pack.open(System.getProperty(PACK_PROPERTY));
+
+    private AssetLocator() {
+    }
+
+    // URL of the asset, or null if it doesn't exist anywhere
+    public static URL resolve(String asset) {
+        return resolved.computeIfAbsent(asset, AssetLocator::lookup).orElse(null);
+    }
+
+    public static boolean exists(String asset) {
+        return resolve(asset) != null;
+    }
+
+    // First of the candidates that exists, or null
+    public static String firstExisting(String... assets) {
+        for (String asset : assets) {
+            if (exists(asset)) {
+                return asset;
+            }
+        }
+        return null;
+    }
+
+    public static InputStream open(String asset) throws IOException {
+        URL url = resolve(asset);
+        if (url == null) {
+            throw new IOException("Missing asset: " + asset);
+        }
+        return url.openStream();
+    }
+
+    private static Optional<URL> lookup(String asset) {
+        if (pack != null) {
+            URL url = pack.find(asset);
+            if (url != null) {
+                return Optional.of(url);
+            }
+        }
+        return Optional.ofNullable(AssetLocator.class.getClassLoader().getResource(ASSET_ROOT + asset));
+    }
+
+    // Entry names of the pack are read once up front; lookups never touch the zip again
+    private static final class Pack {
+        private final String base;
+        private final Set<String> entries;
+
+        private Pack(String base, Set<String> entries) {
+            this.base = base;
+            this.entries = entries;
+        }
+
+        static Pack open(String path) {
+            if (path == null || path.isEmpty()) {
+                return null;
+            }
+            File file = new File(path);
+            try (ZipFile zip = new ZipFile(file)) {
+                Set<String> entries = new HashSet<>();
+                Enumeration<? extends ZipEntry> all = zip.entries();
+                while (all.hasMoreElements()) {
+                    ZipEntry entry = all.nextElement();
+                    if (!entry.isDirectory()) {
+                        entries.add(entry.getName());
+                    }
+                }
+                return new Pack("jar:" + file.toURI() + "!/", entries);
+            } catch (IOException e) {
+                System.err.println("Ignoring asset pack " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        URL find(String asset) {
+            try {
+                if (entries.contains(ASSET_ROOT + asset)) {
+                    return new URL(base + ASSET_ROOT + asset);
+                }
+                if (entries.contains(asset)) {
+                    return new URL(base + asset);
+                }
+            } catch (MalformedURLException e) {
+                System.err.println("Bad asset name " + asset + ": " + e.getMessage());
+            }
+            return null;
+        }
+    }
+}
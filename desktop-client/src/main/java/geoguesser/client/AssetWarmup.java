@@ -0,0 +1,103 @@
+package geoguesser.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Startup phase that decodes images into AssetCache in parallel, before the first window appears.
+// Decoding is mostly waiting on the disk and inflating PNG data, both of which overlap well,
+// so the pool is sized for I/O rather than strictly for the number of cores.
+// A failed asset is only logged; the screen that needs it will retry and report the error itself.
+public class AssetWarmup {
+    public interface ProgressListener {
+        // Called from pool threads, once per finished asset
+        void progress(int done, int total, String asset);
+    }
+
+    // How many round photos to decode before the menu appears; the rest follow in the background
+    // (runInBackground) so they don't hold up time-to-interactive
+    public static final int WARM_ROUND_IMAGES = 3;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Callable<Object>> tasks = new ArrayList<>();
+
+    public AssetWarmup addImage(String asset) {
+        names.add(asset);
+        tasks.add(() -> AssetCache.getImage(asset));
+        return this;
+    }
+
+    // Adds the first existing asset out of several candidates, if any
+    public AssetWarmup addFirstExistingImage(String... candidateAssets) {
+        String asset = AssetLocator.firstExisting(candidateAssets);
+        return asset != null ? addImage(asset) : this;
+    }
+
+    public AssetWarmup addFittedImage(String asset, int width, int height) {
+        names.add(asset);
+        tasks.add(() -> AssetCache.getFittedImage(asset, width, height));
+        return this;
+    }
+
+    // The precomputed location hints (LocationHints), read along with the images
+    public AssetWarmup addHints() {
+        names.add(HintPacker.HINTS_ASSET);
+        tasks.add(() -> {
+            LocationHints.preload();
+            return null;
+        });
+        return this;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    // Decodes everything added so far and blocks until done. Returns the elapsed time in nanoseconds.
+    public long run(ProgressListener listener) {
+        long start = System.nanoTime();
+        int total = tasks.size();
+        AtomicInteger done = new AtomicInteger();
+        List<Callable<Object>> tracked = new ArrayList<>(total);
+
+        for (int i = 0; i < total; i++) {
+            Callable<Object> task = tasks.get(i);
+            String name = names.get(i);
+            tracked.add(() -> {
+                try {
+                    long taskStart = System.nanoTime();
+                    task.call();
+                    PerfMonitor.imageLoaded(name, System.nanoTime() - taskStart);
+                } catch (IOException e) {
+                    System.err.println("Warm-up failed for " + name + ": " + e.getMessage());
+                } finally {
+                    listener.progress(done.incrementAndGet(), total, name);
+                }
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            pool.invokeAll(tracked);
+        } finally {
+            pool.shutdown();
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Same as run(), on a daemon thread, for assets that are only wanted by the time a game starts.
+    // Whatever isn't done yet when a screen needs it is simply decoded there.
+    public void runInBackground() {
+        Thread thread = new Thread(() -> {
+            long nanos = run((done, total, asset) -> { });
+            System.out.printf("Background warm-up of %d assets done in %.0f ms%n", size(), nanos / 1e6);
+        }, "asset-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+}
@@ -0,0 +1,141 @@
+package geoguesser.client;
+
+import geoguesser.engine.Leaderboard;
+import geoguesser.engine.net.ClassroomProtocol;
+import geoguesser.engine.net.FrameReader;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+// Desktop side of classroom mode: one connection to the ClassroomServer. A reader thread decodes the
+// server's messages and hands them to the listener on the EDT; guesses are written straight from the
+// EDT (a few dozen bytes, never blocks for long).
+public final class ClassroomClient {
+    private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+
+    // ClassroomProtocol.ServerMessages on the EDT, plus the connection going away
+    public interface Listener extends ClassroomProtocol.ServerMessages {
+        void disconnected(String reason);
+    }
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(ClassroomProtocol.MAX_MESSAGE_BYTES);
+    private volatile boolean closed;
+
+    private ClassroomClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    // "host" or "host:port"
+    public static ClassroomClient connect(String address) throws IOException {
+        return new ClassroomClient(openChannel(address, ClassroomProtocol.DEFAULT_PORT));
+    }
+
+    // Blocking channel to "host" or "host:port", shared with RemotePlayClient
+    static SocketChannel openChannel(String address, int defaultPort) throws IOException {
+        String host = address.trim();
+        int port = defaultPort;
+        int colon = host.lastIndexOf(':');
+        if (colon > 0) {
+            try {
+                port = Integer.parseInt(host.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad port in " + address);
+            }
+            host = host.substring(0, colon);
+        }
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    // Introduces the player and starts listening; the listener's calls come on the EDT
+    public void join(String username, Listener listener) throws IOException {
+        ClassroomProtocol.hello(out, username);
+        flush();
+        Thread reader = new Thread(() -> readLoop(listener), "classroom-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public void guess(int round, double x, double y) throws IOException {
+        ClassroomProtocol.guess(out, round, x, y);
+        flush();
+    }
+
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to tell the server
+        }
+    }
+
+    private synchronized void flush() throws IOException {
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } finally {
+            out.clear();
+        }
+    }
+
+    private void readLoop(Listener listener) {
+        FrameReader reader = new FrameReader(ClassroomProtocol.MAX_FRAME_BYTES);
+        ClassroomProtocol.ServerMessages onEdt = new ClassroomProtocol.ServerMessages() {
+            public void welcome(int playerId) {
+                SwingUtilities.invokeLater(() -> listener.welcome(playerId));
+            }
+
+            public void roundStarted(int round, int totalRounds, int locationId, int millisLeft) {
+                SwingUtilities.invokeLater(() -> listener.roundStarted(round, totalRounds, locationId, millisLeft));
+            }
+
+            public void guessScored(int round, int points, int totalScore) {
+                SwingUtilities.invokeLater(() -> listener.guessScored(round, points, totalScore));
+            }
+
+            public void standings(int round, int players, List<Leaderboard.PlayerScore> top) {
+                SwingUtilities.invokeLater(() -> listener.standings(round, players, top));
+            }
+
+            public void roundEnded(int round, int locationId) {
+                SwingUtilities.invokeLater(() -> listener.roundEnded(round, locationId));
+            }
+
+            public void gameOver(int roundsPlayed) {
+                SwingUtilities.invokeLater(() -> listener.gameOver(roundsPlayed));
+            }
+        };
+        String reason = "The classroom server closed the connection.";
+        try {
+            while (reader.read(channel) >= 0) {
+                ByteBuffer frame;
+                while ((frame = reader.next()) != null) {
+                    ClassroomProtocol.readServerMessage(frame, onEdt);
+                }
+            }
+        } catch (IOException e) {
+            reason = "Lost the classroom server: " + e.getMessage();
+        }
+        if (!closed) {
+            close();
+            String message = reason;
+            SwingUtilities.invokeLater(() -> listener.disconnected(message));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package geoguesser.client;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+// Gaussian blur approximated by three box blurs, each split into a horizontal and a vertical pass.
+// The image is blurred one channel at a time on a plain int plane, so the passes are simple integer
+// loops: a box pass keeps running sums (its cost doesn't grow with the radius), and the vertical one
+// keeps a sum per column while walking the rows, which reads memory sequentially and lets the JIT
+// vectorize it. Works on opaque TYPE_INT_RGB / TYPE_INT_ARGB images; alpha comes out as 0xFF.
+final class FastBlur {
+    private static final int BOX_PASSES = 3;
+
+    private FastBlur() {
+    }
+
+    // Blurs the image in place. scratch must hold at least 2 * width * height ints.
+    static void gaussian(BufferedImage image, double sigma, int[] scratch) {
+        if (sigma <= 0) {
+            return;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int size = width * height;
+        int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+        int[] radii = boxRadii(sigma);
+        int[] columnSums = new int[width];
+        for (int shift = 16; shift >= 0; shift -= 8) {
+            // plane and temp both live in scratch: [0, size) and [size, 2 * size)
+            for (int i = 0; i < size; i++) {
+                scratch[i] = pixels[i] >> shift & 0xFF;
+            }
+            for (int radius : radii) {
+                horizontalPass(scratch, 0, scratch, size, width, height, radius);
+                verticalPass(scratch, size, scratch, 0, width, height, radius, columnSums);
+            }
+            int keep = ~(0xFF << shift);
+            for (int i = 0; i < size; i++) {
+                pixels[i] = pixels[i] & keep | scratch[i] << shift | 0xFF000000;
+            }
+        }
+    }
+
+    // Box radii whose successive blurs match a Gaussian of the given sigma (W. Wells / P. Kovesi)
+    static int[] boxRadii(double sigma) {
+        double idealWidth = Math.sqrt(12 * sigma * sigma / BOX_PASSES + 1);
+        int lower = (int)Math.floor(idealWidth);
+        if (lower % 2 == 0) {
+            lower--;
+        }
+        int upper = lower + 2;
+        double idealLower = (12 * sigma * sigma - BOX_PASSES * lower * lower - 4 * BOX_PASSES * lower - 3 * BOX_PASSES)
+                / (-4.0 * lower - 4);
+        int lowerCount = (int)Math.round(idealLower);
+        int[] radii = new int[BOX_PASSES];
+        for (int i = 0; i < BOX_PASSES; i++) {
+            radii[i] = ((i < lowerCount ? lower : upper) - 1) / 2;
+        }
+        return radii;
+    }
+
+    private static void horizontalPass(int[] src, int srcOffset, int[] dst, int dstOffset, int width, int height,
+                                       int radius) {
+        int window = 2 * radius + 1;
+        // Fixed-point reciprocal of the window, so the inner loops multiply instead of divide
+        int scale = (1 << 16) / window;
+        int last = width - 1;
+        for (int y = 0; y < height; y++) {
+            int row = srcOffset + y * width;
+            int out = dstOffset + y * width;
+            int first = src[row];
+            int end = src[row + last];
+            int sum = first * (radius + 1);
+            for (int x = 1; x <= radius; x++) {
+                sum += src[row + Math.min(x, last)];
+            }
+            // Left edge, middle and right edge, so the middle loop needs no clamping
+            int x = 0;
+            for (; x < width && x <= radius; x++) {
+                dst[out + x] = sum * scale >>> 16;
+                sum += src[row + Math.min(x + radius + 1, last)] - first;
+            }
+            for (; x < width - radius - 1; x++) {
+                dst[out + x] = sum * scale >>> 16;
+                sum += src[row + x + radius + 1] - src[row + x - radius];
+            }
+            for (; x < width; x++) {
+                dst[out + x] = sum * scale >>> 16;
+                sum += end - src[row + Math.max(x - radius, 0)];
+            }
+        }
+    }
+
+    // Same as horizontalPass down the columns, with a running sum per column
+    private static void verticalPass(int[] src, int srcOffset, int[] dst, int dstOffset, int width, int height,
+                                     int radius, int[] sums) {
+        int window = 2 * radius + 1;
+        int scale = (1 << 16) / window;
+        int lastRow = srcOffset + (height - 1) * width;
+        for (int x = 0; x < width; x++) {
+            sums[x] = src[srcOffset + x] * (radius + 1);
+        }
+        for (int y = 1; y <= radius; y++) {
+            int row = Math.min(srcOffset + y * width, lastRow);
+            for (int x = 0; x < width; x++) {
+                sums[x] += src[row + x];
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            int out = dstOffset + y * width;
+            int enter = Math.min(srcOffset + (y + radius + 1) * width, lastRow);
+            int leave = Math.max(srcOffset + (y - radius) * width, srcOffset);
+            for (int x = 0; x < width; x++) {
+                dst[out + x] = sums[x] * scale >>> 16;
+                sums[x] += src[enter + x] - src[leave + x];
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package geoguesser.client;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR events for the game lifecycle and its I/O. They cost next to nothing without a recording:
+// isEnabled() is false and the JIT drops the field writes. Record a session with
+//   java -XX:StartFlightRecording=filename=geoguesser.jfr -jar geoguesser.jar
+// and look at category "GeoGuesser" (PerfMonitor adds the EDT / paint events to the same category).
+final class GameEvents {
+    private GameEvents() {
+    }
+
+    static void assetCache(String asset, String kind, boolean hit) {
+        AssetCacheEvent event = new AssetCacheEvent();
+        if (event.isEnabled()) {
+            event.asset = asset;
+            event.kind = kind;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    // Size of the decoded pixels, which is what the heap pays for
+    static long imageBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long)buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    // Duration spans load() until the full image is handed to the screen
+    @Name("geoguesser.RoundLoad")
+    @Label("Round Image Load")
+    @Category("GeoGuesser")
+    static class RoundLoadEvent extends Event {
+        @Label("Asset")
+        String asset;
+
+        @Label("From Cache")
+        @Description("Decoded during startup warm-up")
+        boolean cached;
+
+        @Label("Decode Time")
+        @Description("Time the worker thread spent reading and decoding")
+        @Timespan(Timespan.NANOSECONDS)
+        long decodeTime;
+
+        @Label("Time To First Pixel")
+        @Timespan(Timespan.NANOSECONDS)
+        long firstPixelTime;
+
+        @Label("Source Width")
+        int sourceWidth;
+
+        @Label("Source Height")
+        int sourceHeight;
+
+        @Label("Decoded Width")
+        int width;
+
+        @Label("Decoded Height")
+        int height;
+
+        @Label("Bytes Read")
+        @DataAmount
+        long bytesRead;
+
+        @Label("Decoded Bytes")
+        @DataAmount
+        long decodedBytes;
+    }
+
+    @Name("geoguesser.GuessSubmit")
+    @Label("Guess Submitted")
+    @Category("GeoGuesser")
+    static class GuessSubmitEvent extends Event {
+        @Label("Round")
+        int round;
+
+        @Label("Location")
+        String location;
+
+        @Label("Distance")
+        @Description("Distance between the guess and the location, in map pixels")
+        double distance;
+
+        @Label("Seconds Left")
+        int secondsLeft;
+
+        @Label("Points")
+        int points;
+    }
+
+    @Name("geoguesser.LeaderboardSave")
+    @Label("Leaderboard Save")
+    @Category("GeoGuesser")
+    static class LeaderboardSaveEvent extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Entries")
+        int entries;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("geoguesser.AssetCache")
+    @Label("Asset Cache Lookup")
+    @Category("GeoGuesser")
+    static class AssetCacheEvent extends Event {
+        @Label("Asset")
+        String asset;
+
+        @Label("Kind")
+        @Description("full or fitted")
+        String kind;
+
+        @Label("Hit")
+        boolean hit;
+    }
+}
@@ -0,0 +1,132 @@
+package geoguesser.client;
+
+import geoguesser.engine.history.HistoryWriter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Every guessed or timed-out round of every game, appended to history.ggh in the working directory
+// (next to rankings.txt) for analytics; read it with HistoryReader. Rounds are buffered in memory and
+// written a block at a time, across games, so blocks are big enough to compress; at the end of a game
+// the unfinished block is saved to history.ggh.tail instead, which the next start turns into a block
+// if the game was killed. The shutdown hook writes the last block and the index.
+// Opening the file may walk every block, so all of it runs on one background thread, in call order.
+final class GameHistory {
+    static final String HISTORY_FILE = "history.ggh";
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "history-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // How long the shutdown hook waits for rounds still queued
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    // Only touched on the writer thread, and by the shutdown hook once that has stopped
+    private static HistoryWriter writer;
+    private static boolean failed;
+
+    private GameHistory() {
+    }
+
+    static void guessed(long sessionStart, int round, int locationId, boolean hintUsed,
+                        double x, double y, int secondsLeft, int points) {
+        long now = System.currentTimeMillis();
+        later(() -> {
+            HistoryWriter out = writer();
+            if (out == null) {
+                return;
+            }
+            try {
+                out.guessed(now, sessionStart, round, locationId, hintUsed, x, y, secondsLeft, points);
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    static void timedOut(long sessionStart, int round, int locationId, boolean hintUsed) {
+        long now = System.currentTimeMillis();
+        later(() -> {
+            HistoryWriter out = writer();
+            if (out == null) {
+                return;
+            }
+            try {
+                out.timedOut(now, sessionStart, round, locationId, hintUsed);
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    static void sessionEnded() {
+        later(() -> {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.saveTail();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    private static void later(Runnable task) {
+        try {
+            WRITER.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: a round finished after the hook started is not recorded
+        }
+    }
+
+    private static HistoryWriter writer() {
+        if (writer == null && !failed && !Main.isRecordingDisabled()) {
+            try {
+                writer = HistoryWriter.open(Paths.get(HISTORY_FILE));
+                Runtime.getRuntime().addShutdownHook(new Thread(GameHistory::shutdown, "history-close"));
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return writer;
+    }
+
+    // Lets the queued rounds go out, then closes the file
+    private static void shutdown() {
+        WRITER.shutdown();
+        try {
+            if (!WRITER.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Round history still busy at exit; rounds since the last game ended may be lost");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        close();
+    }
+
+    private static void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Error closing round history: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    private static void fail(IOException e) {
+        // History is a nice-to-have; stop trying rather than bother the player every round
+        System.err.println("Round history disabled: " + e.getMessage());
+        failed = true;
+        close();
+    }
+}
@@ -0,0 +1,35 @@
+package geoguesser.client;
+
+import geoguesser.engine.metrics.Counter;
+import geoguesser.engine.metrics.Gauge;
+import geoguesser.engine.metrics.Histogram;
+import geoguesser.engine.metrics.MetricsRegistry;
+
+// The game's metrics, scraped from -Dgeoguesser.metricsPort (see PrometheusEndpoint).
+// Guesses per second is rate(geoguesser_guesses_total[1m]) on the Prometheus side.
+final class GameMetrics {
+    private static final MetricsRegistry registry = MetricsRegistry.getDefault();
+
+    static final Counter ROUNDS_STARTED = registry.counter("geoguesser_rounds_started_total",
+            "Rounds whose photo started loading");
+    static final Counter GUESSES = registry.counter("geoguesser_guesses_total",
+            "Guesses submitted");
+    static final Counter ROUNDS_TIMED_OUT = registry.counter("geoguesser_rounds_timed_out_total",
+            "Rounds that ran out of time without a guess");
+    static final Gauge ACTIVE_SESSIONS = registry.gauge("geoguesser_active_sessions",
+            "Games started and not yet over");
+    static final Histogram ROUND_POINTS = registry.histogram("geoguesser_round_points",
+            "Points scored per guessed round", 0, 100, 250, 500, 750, 900, 1000, 1090);
+    static final Histogram ROUND_LOAD_SECONDS = registry.timer("geoguesser_round_load_seconds",
+            "Time from starting a round until its photo is fully decoded",
+            0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5);
+    static final Histogram HINT_BLUR_SECONDS = registry.timer("geoguesser_hint_blur_seconds",
+            "Time to blur one step of a picture hint",
+            0.001, 0.0025, 0.005, 0.01, 0.016, 0.025, 0.05, 0.1);
+    static final Histogram LEADERBOARD_WRITE_SECONDS = registry.timer("geoguesser_leaderboard_write_seconds",
+            "Time to merge a score into the rankings file and write it back",
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 1);
+
+    private GameMetrics() {
+    }
+}
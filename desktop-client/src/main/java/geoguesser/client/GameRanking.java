@@ -0,0 +1,654 @@
+package geoguesser.client;
+
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.border.Border;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.JTableHeader;
+import geoguesser.engine.Leaderboard;
+import geoguesser.engine.Leaderboard.PlayerScore;
+import geoguesser.engine.TimeWindowedLeaderboard;
+
+public class GameRanking extends JFrame {
+    private static final String RANKINGS_FILE = "rankings.txt";
+    // Recent scores with their times, for the daily/weekly/semester boards (TimeWindowedLeaderboard)
+    private static final String WINDOWED_RANKINGS_FILE = "rankings-by-time.txt";
+
+    // Color scheme matching MainGame
+    private static final Color PRIMARY_BLUE = new Color(40, 124, 253);
+    private static final Color SUCCESS_GREEN = new Color(34, 197, 94);
+    private static final Color WARNING_ORANGE = new Color(249, 115, 22);
+    private static final Color DANGER_RED = new Color(239, 68, 68);
+    private static final Color DARK_BG = new Color(15, 23, 42);
+    private static final Color CARD_BG = new Color(30, 41, 59);
+    private static final Color TEXT_PRIMARY = new Color(248, 250, 252);
+    private static final Color TEXT_SECONDARY = new Color(148, 163, 184);
+    private static final Color ACCENT_PURPLE = new Color(168, 85, 247);
+    private static final Color TABLE_HEADER_BG = new Color(51, 65, 85);
+    private static final Color TABLE_ROW_BG = new Color(30, 41, 59);
+    private static final Color TABLE_ALT_ROW_BG = new Color(40, 51, 69);
+    private static final Color CARD_BG_BOTTOM = new Color(CARD_BG.getRed() + 10, CARD_BG.getGreen() + 10, CARD_BG.getBlue() + 15);
+    private static final Color BACKDROP_SHADE = new Color(0, 0, 0, 140); // More opaque overlay than MainMenu
+    private static final Color SELECTED_ROW_BG = PRIMARY_BLUE.darker();
+    private static final Color GOLD = new Color(255, 215, 0);
+    private static final Color SILVER = new Color(192, 192, 192);
+    private static final Color BRONZE = new Color(205, 127, 50);
+    // Cell borders are shared by every cell the renderers paint
+    private static final Border NAME_CELL_PADDING = BorderFactory.createEmptyBorder(0, 20, 0, 0);
+    private static final Border SCORE_CELL_PADDING = BorderFactory.createEmptyBorder(0, 0, 0, 20);
+    private static final Border HEADER_CELL_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(0, 0, 2, 0, PRIMARY_BLUE), // Blue line at bottom of header
+            BorderFactory.createEmptyBorder(10, 10, 10, 10) // Padding
+    );
+
+    // Open leaderboard windows apply score changes at most this often, however fast they come in
+    static final int COALESCE_MILLIS = 250;
+
+    private static BufferedImage backgroundImage;
+    // Tables of the open leaderboard windows; every save is pushed to them
+    private static final List<LiveRankingModel> subscribers = new CopyOnWriteArrayList<>();
+    // Loaded on first use; games and leaderboard windows share it under the class lock
+    private static TimeWindowedLeaderboard windowedBoard;
+
+    // Static block to load background image once when the class is loaded
+    static {
+        loadBackgroundImage();
+    }
+
+    private static void loadBackgroundImage() {
+        backgroundImage = AssetCache.getBackground();
+    }
+
+    // Constructor to instantiate the GameRanking window
+    public GameRanking() {
+        // The showRankings() method handles the JFrame creation and setup,
+        // so we just call it here to display the window when a new GameRanking object is created.
+        showRankings();
+    }
+
+    public static void addScore(String username, int score) {
+        long start = System.nanoTime();
+        saveScores(Leaderboard.insertScore(loadScores(), username, score));
+        synchronized (GameRanking.class) {
+            long now = System.currentTimeMillis();
+            windowedBoard().add(username, score, now, now);
+            saveWindowedBoard();
+        }
+        GameMetrics.LEADERBOARD_WRITE_SECONDS.record(System.nanoTime() - start);
+        publish();
+    }
+
+    // The board of one time window as of now
+    static synchronized List<PlayerScore> topScores(TimeWindowedLeaderboard.Window window) {
+        return windowedBoard().top(window, System.currentTimeMillis());
+    }
+
+    // Hands every open leaderboard the new list for the window it shows; safe from any thread
+    private static void publish() {
+        for (LiveRankingModel model : subscribers) {
+            TimeWindowedLeaderboard.Window window = model.getWindow();
+            model.offer(window, topScores(window));
+        }
+    }
+
+    public static void showRankings() {
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("COMSATS Geo Guesser - Leaderboard");
+            frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // Closes only this window
+            frame.setExtendedState(JFrame.MAXIMIZED_BOTH); // Maximizes the window
+            frame.setLayout(new BorderLayout());
+            frame.setLocationRelativeTo(null); // Center the frame on screen
+
+            // Subscribe before reading the scores so no save in between is missed
+            LiveRankingModel model = new LiveRankingModel();
+            subscribers.add(model);
+            model.select(TimeWindowedLeaderboard.Window.ALL_TIME, topScores(TimeWindowedLeaderboard.Window.ALL_TIME));
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    subscribers.remove(model);
+                    model.stop();
+                }
+            });
+
+            // Main panel with custom background painting
+            JPanel mainPanel = new JPanel(new BorderLayout()) {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    super.paintComponent(g);
+                    Graphics2D g2d = (Graphics2D) g.create();
+                    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+                    if (backgroundImage != null) {
+                        // Draw image and then overlay a semi-transparent black
+                        g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+                        g2d.setColor(BACKDROP_SHADE);
+                        g2d.fillRect(0, 0, getWidth(), getHeight());
+                    } else {
+                        // Fallback gradient if no image
+                        GradientPaint gradient = new GradientPaint(
+                                0, 0, DARK_BG,
+                                getWidth(), getHeight(), CARD_BG
+                        );
+                        g2d.setPaint(gradient);
+                        g2d.fillRect(0, 0, getWidth(), getHeight());
+                    }
+                    g2d.dispose();
+                }
+            };
+
+            // Header panel (Title and Subtitle)
+            JPanel headerPanel = createHeaderPanel(model);
+            mainPanel.add(headerPanel, BorderLayout.NORTH);
+
+            // Table panel (holds the JTable)
+            JPanel tablePanel = createTablePanel(model);
+            mainPanel.add(tablePanel, BorderLayout.CENTER);
+
+            // Button panel (Back, Refresh, Clear, Exit buttons)
+            JPanel buttonPanel = createButtonPanel(frame, model);
+            mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+            frame.add(mainPanel); // Add the main panel to the frame
+            frame.setVisible(true); // Make the frame visible
+        });
+    }
+
+    private static JPanel createHeaderPanel(LiveRankingModel rankings) {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createEmptyBorder(40, 50, 30, 50));
+        panel.setOpaque(false); // Make panel transparent to show background
+
+        JLabel titleLabel = new JLabel("LEADERBOARD", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 48));
+        titleLabel.setForeground(TEXT_PRIMARY);
+
+        JLabel subtitleLabel = new JLabel("Top Players - COMSATS Geo Guesser", SwingConstants.CENTER);
+        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 20));
+        subtitleLabel.setForeground(TEXT_SECONDARY);
+        subtitleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+
+        // One tab per time window; the boards are kept merged-ready, so switching is just a table update
+        JPanel windowPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 0));
+        windowPanel.setOpaque(false);
+        windowPanel.setBorder(BorderFactory.createEmptyBorder(20, 0, 0, 0));
+        for (TimeWindowedLeaderboard.Window window : TimeWindowedLeaderboard.Window.values()) {
+            JButton tab = new JButton(window.label) {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    ThemeRenderer.paintButton(g, this, rankings.getWindow() == window ? PRIMARY_BLUE : TABLE_HEADER_BG, 12);
+                }
+            };
+            tab.setPreferredSize(new Dimension(170, 40));
+            tab.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            tab.setOpaque(false);
+            tab.setBorderPainted(false);
+            tab.setContentAreaFilled(false);
+            tab.setFocusPainted(false);
+            tab.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            tab.addActionListener(e -> {
+                rankings.select(window, topScores(window));
+                windowPanel.repaint();
+            });
+            windowPanel.add(tab);
+        }
+
+        JPanel subtitlePanel = new JPanel(new BorderLayout());
+        subtitlePanel.setOpaque(false);
+        subtitlePanel.add(subtitleLabel, BorderLayout.NORTH);
+        subtitlePanel.add(windowPanel, BorderLayout.SOUTH);
+
+        panel.add(titleLabel, BorderLayout.CENTER);
+        panel.add(subtitlePanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    private static JPanel createTablePanel(LiveRankingModel model) {
+        // Custom JPanel to draw a rounded rectangle background for the table
+        JPanel panel = new JPanel(new BorderLayout()) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                // Do not call super.paintComponent(g) here,
+                // as it would paint the default JPanel background over our custom drawing.
+                // Slightly varying gradient card with a blue border, rendered once per size
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, PRIMARY_BLUE, 24);
+            }
+        };
+
+        panel.setBorder(BorderFactory.createEmptyBorder(30, 50, 30, 50)); // Padding around the table card
+        panel.setOpaque(false); // Make transparent to show background image/gradient of mainPanel
+
+        // Create the JTable with data and styling
+        JTable table = createStyledTable(model);
+
+        // Create a JScrollPane for the table
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setOpaque(false); // Make scroll pane transparent
+        scrollPane.getViewport().setOpaque(false); // Make viewport transparent
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20)); // Padding inside the card
+        // Setting background to 0 alpha makes it fully transparent if it were to paint,
+        // but with setOpaque(false) on viewport, it relies on parent painting.
+        scrollPane.setBackground(new Color(0, 0, 0, 0));
+        scrollPane.getViewport().setBackground(new Color(0, 0, 0, 0));
+
+
+        panel.add(scrollPane, BorderLayout.CENTER); // Add scroll pane to the table panel
+
+        return panel;
+    }
+
+    private static JTable createStyledTable(LiveRankingModel model) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 18));
+        table.setRowHeight(60); // Set row height for better appearance
+        table.setShowGrid(false); // Hide grid lines
+        table.setIntercellSpacing(new Dimension(0, 1)); // Small vertical spacing between cells
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION); // Only one row can be selected
+        table.setOpaque(false); // Make table transparent to show scroll pane's background (or card background)
+
+        // Custom cell renderer for advanced styling of individual cells
+        table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                                                           boolean isSelected, boolean hasFocus, int row, int column) {
+
+                // Call super to get default component and properties
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+
+                setOpaque(true); // Make sure the renderer paints its background
+                setFont(ThemeRenderer.font(Font.BOLD, 20)); // Default font for cells
+
+                // Alternating row colors for better readability
+                if (row % 2 == 0) {
+                    setBackground(TABLE_ROW_BG);
+                } else {
+                    setBackground(TABLE_ALT_ROW_BG);
+                }
+
+                // Apply specific styling based on column index
+                switch (column) {
+                    case 0: // Rank column
+                        setHorizontalAlignment(SwingConstants.CENTER); // Center align rank
+                        setForeground(getRankColor(row)); // Special colors for top ranks
+                        setFont(ThemeRenderer.font(Font.BOLD, 24)); // Larger font for rank
+                        break;
+                    case 1: // Player Name column
+                        setHorizontalAlignment(SwingConstants.LEFT); // Left align name
+                        setForeground(TEXT_PRIMARY); // Primary text color
+                        setBorder(NAME_CELL_PADDING); // Left padding
+                        break;
+                    case 2: // Score column
+                        setHorizontalAlignment(SwingConstants.RIGHT); // Right align score
+                        setForeground(SUCCESS_GREEN); // Green for scores
+                        setFont(ThemeRenderer.font(Font.BOLD, 22)); // Larger, bold font for score
+                        setBorder(SCORE_CELL_PADDING); // Right padding
+                        break;
+                }
+
+                // Override background if row is selected
+                if (isSelected) {
+                    setBackground(SELECTED_ROW_BG); // Darker blue for selected row
+                }
+
+                return this;
+            }
+
+            // Helper method to get special colors for top ranks
+            private Color getRankColor(int rank) {
+                switch (rank) {
+                    case 0: return GOLD; // Gold for 1st
+                    case 1: return SILVER; // Silver for 2nd
+                    case 2: return BRONZE; // Bronze for 3rd
+                    default: return ACCENT_PURPLE; // Default for others
+                }
+            }
+        });
+
+        // Header styling
+        JTableHeader header = table.getTableHeader();
+        header.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        header.setBackground(TABLE_HEADER_BG);
+        header.setForeground(TEXT_SECONDARY);
+        header.setPreferredSize(new Dimension(0, 50)); // Set header height
+        header.setBorder(BorderFactory.createEmptyBorder()); // Remove default header border
+
+        // Custom header renderer for border and alignment
+        header.setDefaultRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                                                           boolean isSelected, boolean hasFocus, int row, int column) {
+
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+
+                setOpaque(true);
+                setBackground(TABLE_HEADER_BG);
+                setForeground(TEXT_SECONDARY);
+                setFont(ThemeRenderer.font(Font.BOLD, 16));
+                setHorizontalAlignment(SwingConstants.CENTER); // Center align header text
+                setBorder(HEADER_CELL_BORDER);
+
+                return this;
+            }
+        });
+
+        // Set preferred column widths
+        table.getColumnModel().getColumn(0).setPreferredWidth(100); // Rank
+        table.getColumnModel().getColumn(1).setPreferredWidth(300); // Player Name
+        table.getColumnModel().getColumn(2).setPreferredWidth(150); // Score
+
+        return table;
+    }
+
+    private static JPanel createButtonPanel(JFrame frame, LiveRankingModel model) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 0)); // Center buttons with spacing
+        panel.setBorder(BorderFactory.createEmptyBorder(30, 50, 40, 50)); // Padding around buttons
+        panel.setOpaque(false); // Transparent to show background
+
+        JButton backButton = createModernButton("BACK TO MAIN MENU", SUCCESS_GREEN);
+        backButton.addActionListener(e -> {
+            frame.dispose(); // Close the current GameRanking window
+            new MainMenu(); // Reopen the MainMenu
+        });
+
+        JButton refreshButton = createModernButton("REFRESH RANKINGS", PRIMARY_BLUE);
+        // Saves from this game show up by themselves; this picks up another instance's writes to the files
+        refreshButton.addActionListener(e -> {
+            reloadWindowedBoard();
+            model.select(model.getWindow(), topScores(model.getWindow()));
+        });
+
+        JButton clearButton = createModernButton("CLEAR RANKINGS", DANGER_RED);
+        clearButton.addActionListener(e -> {
+            int result = JOptionPane.showConfirmDialog( // Confirmation dialog
+                    frame,
+                    "Are you sure you want to clear all rankings?",
+                    "Clear Rankings",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE
+            );
+            if (result == JOptionPane.YES_OPTION) {
+                clearRankings(); // Delete the rankings files
+                publish(); // Every open leaderboard empties
+            }
+        });
+
+        JButton exitButton = createModernButton("EXIT", WARNING_ORANGE);
+        exitButton.addActionListener(e -> {
+            frame.dispose(); // Close current window
+            System.exit(0); // Terminate the application
+        });
+
+        panel.add(backButton);
+        panel.add(refreshButton);
+        panel.add(clearButton);
+        panel.add(exitButton);
+
+        return panel;
+    }
+
+    private static JButton createModernButton(String text, Color color) {
+        JButton button = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                ThemeRenderer.paintButton(g, this, color, 12);
+            }
+        };
+
+        button.setPreferredSize(new Dimension(220, 55)); // Standard button size
+        button.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        button.setOpaque(false);
+        button.setBorderPainted(false);
+        button.setContentAreaFilled(false);
+        button.setFocusPainted(false);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR)); // Hand cursor on hover
+
+        return button;
+    }
+
+    private static List<PlayerScore> loadScores() {
+        List<PlayerScore> scores = new ArrayList<>();
+        // Use try-with-resources for automatic resource closing
+        try (BufferedReader reader = new BufferedReader(new FileReader(RANKINGS_FILE))) {
+            scores = Leaderboard.parseScores(reader);
+        } catch (FileNotFoundException e) {
+            // File might not exist yet, which is fine for the first run.
+            // No need to print stack trace for this common scenario.
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error loading rankings from file: " + e.getMessage());
+            // Consider logging this or notifying the user if the file is corrupted
+        }
+        return scores;
+    }
+
+    private static void saveScores(List<PlayerScore> scores) {
+        GameEvents.LeaderboardSaveEvent event = new GameEvents.LeaderboardSaveEvent();
+        event.begin();
+        // Use try-with-resources for automatic resource closing
+        try (PrintWriter writer = new PrintWriter(new FileWriter(RANKINGS_FILE))) {
+            for (PlayerScore score : scores) {
+                writer.println(score.username + "," + score.score);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving rankings to file: " + e.getMessage());
+            e.printStackTrace();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = RANKINGS_FILE;
+            event.entries = scores.size();
+            event.bytes = new File(RANKINGS_FILE).length();
+            event.commit();
+        }
+    }
+
+    private static TimeWindowedLeaderboard windowedBoard() {
+        if (windowedBoard == null) {
+            windowedBoard = loadWindowedBoard();
+        }
+        return windowedBoard;
+    }
+
+    private static synchronized void reloadWindowedBoard() {
+        windowedBoard = null;
+    }
+
+    private static TimeWindowedLeaderboard loadWindowedBoard() {
+        TimeWindowedLeaderboard board = new TimeWindowedLeaderboard(ZoneId.systemDefault());
+        try (BufferedReader reader = new BufferedReader(new FileReader(WINDOWED_RANKINGS_FILE))) {
+            board.load(reader, System.currentTimeMillis());
+        } catch (FileNotFoundException e) {
+            // First run with time windows: the old top ten has no times, so it only counts for all time
+            for (PlayerScore score : loadScores()) {
+                board.add(score.username, score.score, 0L, System.currentTimeMillis());
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading rankings from file: " + e.getMessage());
+        }
+        return board;
+    }
+
+    // Rewrites the few dozen retained scores; the board never holds more than its buckets' top tens
+    private static void saveWindowedBoard() {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(WINDOWED_RANKINGS_FILE))) {
+            for (TimeWindowedLeaderboard.Entry entry : windowedBoard().entries()) {
+                writer.println(entry.username + "," + entry.score + "," + entry.millis);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving rankings to file: " + e.getMessage());
+        }
+    }
+
+    private static void clearRankings() {
+        try {
+            for (String name : new String[]{RANKINGS_FILE, WINDOWED_RANKINGS_FILE}) {
+                File file = new File(name);
+                if (file.exists()) {
+                    if (!file.delete()) {
+                        System.err.println("Failed to delete rankings file: " + name);
+                    }
+                }
+            }
+            synchronized (GameRanking.class) {
+                windowedBoard().clear();
+            }
+        } catch (SecurityException e) {
+            System.err.println("Security exception while trying to clear rankings: " + e.getMessage());
+            e.printStackTrace();
+        } catch (Exception e) {
+            System.err.println("An unexpected error occurred while clearing rankings: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Table rows of the leaderboard, kept up to date by pushed score lists (offer, from any thread).
+    // Changes are coalesced: the first one starts a COALESCE_MILLIS timer and when it fires only the
+    // latest list is applied, as row-level events for the rows that actually differ, so the table and
+    // the column layout are never rebuilt. Switching the time window (select, on the EDT) applies at
+    // once and drops anything pending for the old window.
+    static final class LiveRankingModel extends AbstractTableModel {
+        private static final String[] COLUMN_NAMES = {"RANK", "PLAYER NAME", "SCORE"};
+        private static final String EMPTY_MESSAGE = "No scores yet. Play a game!";
+
+        // A pushed list and the window it was computed for
+        private static final class Update {
+            final TimeWindowedLeaderboard.Window window;
+            final List<PlayerScore> scores;
+
+            Update(TimeWindowedLeaderboard.Window window, List<PlayerScore> scores) {
+                this.window = window;
+                this.scores = scores;
+            }
+        }
+
+        private final AtomicReference<Update> pending = new AtomicReference<>();
+        private final Timer applyTimer = new Timer(COALESCE_MILLIS, e -> apply());
+        private volatile TimeWindowedLeaderboard.Window window = TimeWindowedLeaderboard.Window.ALL_TIME;
+        private List<PlayerScore> rows = Collections.emptyList();
+        private int applied;
+
+        LiveRankingModel() {
+            applyTimer.setRepeats(false);
+        }
+
+        TimeWindowedLeaderboard.Window getWindow() {
+            return window;
+        }
+
+        void offer(TimeWindowedLeaderboard.Window forWindow, List<PlayerScore> scores) {
+            if (pending.getAndSet(new Update(forWindow, scores)) == null) {
+                // First change since the last apply; later ones only replace the pending list
+                SwingUtilities.invokeLater(applyTimer::start);
+            }
+        }
+
+        // On the EDT: shows another window's board right away
+        void select(TimeWindowedLeaderboard.Window newWindow, List<PlayerScore> scores) {
+            window = newWindow;
+            pending.set(null);
+            show(scores);
+        }
+
+        void stop() {
+            applyTimer.stop();
+        }
+
+        // Number of coalesced updates applied so far
+        int getAppliedCount() {
+            return applied;
+        }
+
+        private void apply() {
+            Update update = pending.getAndSet(null);
+            if (update != null && update.window == window) {
+                show(update.scores);
+            }
+        }
+
+        private void show(List<PlayerScore> next) {
+            List<PlayerScore> previous = rows;
+            rows = next;
+            applied++;
+
+            // The "no scores" row counts as a row, so the table never goes blank
+            int oldCount = Math.max(1, previous.size());
+            int newCount = Math.max(1, next.size());
+            int firstChanged = -1;
+            int lastChanged = -1;
+            for (int i = 0; i < Math.min(oldCount, newCount); i++) {
+                if (!sameRow(previous, next, i)) {
+                    if (firstChanged < 0) {
+                        firstChanged = i;
+                    }
+                    lastChanged = i;
+                }
+            }
+            if (firstChanged >= 0) {
+                fireTableRowsUpdated(firstChanged, lastChanged);
+            }
+            if (newCount > oldCount) {
+                fireTableRowsInserted(oldCount, newCount - 1);
+            } else if (newCount < oldCount) {
+                fireTableRowsDeleted(newCount, oldCount - 1);
+            }
+        }
+
+        private static boolean sameRow(List<PlayerScore> a, List<PlayerScore> b, int row) {
+            if (row >= a.size() || row >= b.size()) {
+                return a.size() == b.size(); // Both showing the "no scores" row
+            }
+            PlayerScore x = a.get(row);
+            PlayerScore y = b.get(row);
+            return x.score == y.score && x.username.equals(y.username);
+        }
+
+        @Override
+        public int getRowCount() {
+            return Math.max(1, rows.size());
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (rows.isEmpty()) {
+                return column == 1 ? EMPTY_MESSAGE : "";
+            }
+            PlayerScore score = rows.get(row);
+            switch (column) {
+                case 0: return String.valueOf(row + 1); // Rank (1-based index)
+                case 1: return score.username;
+                default: return String.valueOf(score.score);
+            }
+        }
+    }
+
+    // Test method - for standalone testing of GameRanking
+    public static void main(String[] args) {
+        // Add some test data
+
+        // Show the rankings window
+        new GameRanking(); // Creates an instance, which calls showRankings()
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package geoguesser.client;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.history.GuessDensity;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// Heat overlay of where players have clicked for a location, drawn over the campus map.
+// The density grid is turned into a small translucent image (one pixel per grid cell) the first
+// time a location is shown, and scaled up bilinearly onto the map, which smooths the cells out.
+// Colours follow log(count) so a few stray clicks still show next to the big cluster. EDT only.
+public class HeatmapOverlay {
+    // Colour ramp from a few guesses to the busiest cell
+    private static final Color[] RAMP = {
+            new Color(40, 124, 253), new Color(34, 211, 238), new Color(250, 204, 21), new Color(239, 68, 68)
+    };
+    private static final int MAX_ALPHA = 190;
+
+    private final GuessDensity density;
+    private final BufferedImage[] images;
+
+    public HeatmapOverlay(GuessDensity density) {
+        this.density = density;
+        this.images = new BufferedImage[density.getLocationCount()];
+    }
+
+    public long getGuessCount(int locationId) {
+        return density.getGuessCount(locationId);
+    }
+
+    // Paints the overlay in map coordinates, i.e. onto a Graphics2D already transformed like the map
+    public void paint(Graphics2D g, int locationId) {
+        BufferedImage image = getImage(locationId);
+        if (image == null) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D)g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        int cell = density.getCellSize();
+        g2d.drawImage(image, 0, 0, image.getWidth() * cell, image.getHeight() * cell, null);
+        g2d.dispose();
+    }
+
+    private BufferedImage getImage(int locationId) {
+        if (locationId < 0 || locationId >= images.length || density.getGuessCount(locationId) == 0) {
+            return null;
+        }
+        if (images[locationId] == null) {
+            images[locationId] = render(locationId);
+        }
+        return images[locationId];
+    }
+
+    private BufferedImage render(int locationId) {
+        int columns = density.getColumns();
+        int rows = density.getRows();
+        double scale = 1.0 / Math.log1p(density.getMaxCount(locationId));
+        int[] argb = new int[columns * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int count = density.getCount(locationId, column, row);
+                if (count > 0) {
+                    argb[row * columns + column] = heat(Math.log1p(count) * scale);
+                }
+            }
+        }
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, columns, rows, argb, 0, columns);
+        return image;
+    }
+
+    // Colour for a heat level in (0, 1]
+    private static int heat(double level) {
+        double position = level * (RAMP.length - 1);
+        int index = Math.min((int)position, RAMP.length - 2);
+        double t = position - index;
+        Color from = RAMP[index];
+        Color to = RAMP[index + 1];
+        int r = (int)(from.getRed() + (to.getRed() - from.getRed()) * t);
+        int g = (int)(from.getGreen() + (to.getGreen() - from.getGreen()) * t);
+        int b = (int)(from.getBlue() + (to.getBlue() - from.getBlue()) * t);
+        int alpha = (int)(60 + (MAX_ALPHA - 60) * level);
+        return alpha << 24 | r << 16 | g << 8 | b;
+    }
+
+    // Writes one map with its heat overlay per location, e.g. to compare "CS Lawn" and "CS Lawn (2)":
+    // HeatmapOverlay [history.ggh] [output directory]
+    public static void main(String[] args) throws IOException {
+        String historyFile = args.length > 0 ? args[0] : GameHistory.HISTORY_FILE;
+        File outputDir = new File(args.length > 1 ? args[1] : "heatmaps");
+        BufferedImage map = AssetCache.getImage(LocationCatalog.CAMPUS_MAP_IMAGE);
+
+        long start = System.nanoTime();
+        GuessDensity density = GuessDensity.aggregate(Paths.get(historyFile), map.getWidth(), map.getHeight(),
+                GuessDensity.DEFAULT_CELL_SIZE);
+        System.out.printf("Aggregated %s in %.0f ms%n", historyFile, (System.nanoTime() - start) / 1e6);
+
+        HeatmapOverlay overlay = new HeatmapOverlay(density);
+        outputDir.mkdirs();
+        for (Location location : LocationCatalog.all()) {
+            BufferedImage out = new BufferedImage(map.getWidth(), map.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = out.createGraphics();
+            g.drawImage(map, 0, 0, null);
+            overlay.paint(g, location.getId());
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.setStroke(new BasicStroke(2));
+            g.drawOval(location.getMapX() - 6, location.getMapY() - 6, 12, 12);
+            g.dispose();
+
+            File file = new File(outputDir, location.getId() + " " + location.getImage());
+            ImageIO.write(out, "png", file);
+            System.out.printf("%-40s %,10d guesses -> %s%n", location, density.getGuessCount(location.getId()), file);
+        }
+    }
+}
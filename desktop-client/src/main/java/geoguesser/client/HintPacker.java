@@ -0,0 +1,155 @@
+package geoguesser.client;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+// Pack-time tool that writes the hint of every catalog location to hints.txt, which ships with the
+// assets and is read by LocationHints. A hint has up to three lines:
+//  - what kind of place it is, from the location name (the old MainGame.generateHint rules)
+//  - which part of the campus map it is in, from its coordinates
+//  - the dominant colours of the map around it (lawns are green, buildings grey, ...)
+// Run it after adding locations or changing the map, before building the jar or an asset pack:
+//   HintPacker [output directory]   (default desktop-client/src/main/resources/assets)
+public final class HintPacker {
+    public static final String HINTS_ASSET = "hints.txt";
+
+    // Map pixels around the spot whose colours are summarized
+    private static final int SURROUNDING_RADIUS = 25;
+    // A colour has to cover this share of the surroundings to be mentioned
+    private static final double DOMINANT_SHARE = 0.2;
+
+    private static final String[] AREAS = {
+            "the north-west", "the north", "the north-east",
+            "the west", "the middle", "the east",
+            "the south-west", "the south", "the south-east"
+    };
+
+    // Named colours of the campus map and what they usually are
+    private static final String[] COLOUR_NAMES = {"green", "grey", "beige", "white", "blue", "red", "brown"};
+    private static final String[] COLOUR_MEANINGS = {
+            "lawns or trees", "buildings", "paths or parking", "open ground", "water", "landmarks", "bare ground"
+    };
+    private static final int[][] COLOUR_RGB = {
+            {176, 214, 160}, {190, 190, 195}, {240, 230, 200}, {250, 250, 250}, {170, 210, 240}, {220, 120, 110},
+            {190, 160, 130}
+    };
+
+    private HintPacker() {
+    }
+
+    static String hintFor(Location location, BufferedImage map) {
+        return describe(location.getName()) + "\n" + areaHint(location, map.getWidth(), map.getHeight()) + "\n"
+                + surroundingsHint(location, map);
+    }
+
+    // What kind of place it is, from the name; new locations get the general line
+    static String describe(String name) {
+        if (name.contains("Bus Stop")) {
+            return "Hint: Where students wait for campus shuttles.";
+        } else if (name.contains("Cafe")) {
+            return "Hint: Place to grab a quick bite and hang out.";
+        } else if (name.contains("CS Lawn")) {
+            return "Hint: A green area often associated with the Computer Science department.";
+        } else if (name.contains("CS View")) {
+            return "Hint: Offers a specific perspective near the Computer Science block.";
+        } else if (name.contains("Kia ker raha ha bhai?")) {
+            return "Hint: This is a unique, perhaps informal, campus spot.";
+        } else if (name.contains("N-Block")) {
+            return "Hint: One of the main academic blocks, starting with 'N'.";
+        } else if (name.contains("CUI Logo")) {
+            return "Hint: You'll find the university's emblem here.";
+        } else if (name.contains("Mosque")) {
+            return "Hint: The campus prayer area.";
+        } else if (name.contains("Parking")) {
+            return "Hint: Where you'd leave your vehicle.";
+        } else if (name.contains("Physics")) {
+            return "Hint: The building dedicated to the study of physical sciences.";
+        } else {
+            return "Hint: An important location on campus.";
+        }
+    }
+
+    // Which ninth of the map the spot is in; needs nothing but the coordinates
+    static String areaHint(Location location, int mapWidth, int mapHeight) {
+        int column = Math.min(2, Math.max(0, location.getMapX() * 3 / mapWidth));
+        int row = Math.min(2, Math.max(0, location.getMapY() * 3 / mapHeight));
+        return "It is in " + AREAS[row * 3 + column] + " of the map.";
+    }
+
+    static String surroundingsHint(Location location, BufferedImage map) {
+        int[] counts = new int[COLOUR_NAMES.length];
+        int total = 0;
+        int r2 = SURROUNDING_RADIUS * SURROUNDING_RADIUS;
+        for (int dy = -SURROUNDING_RADIUS; dy <= SURROUNDING_RADIUS; dy++) {
+            for (int dx = -SURROUNDING_RADIUS; dx <= SURROUNDING_RADIUS; dx++) {
+                int x = location.getMapX() + dx;
+                int y = location.getMapY() + dy;
+                if (dx * dx + dy * dy > r2 || x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight()) {
+                    continue;
+                }
+                counts[nearestColour(map.getRGB(x, y))]++;
+                total++;
+            }
+        }
+
+        StringBuilder hint = new StringBuilder();
+        boolean[] used = new boolean[counts.length];
+        for (int pick = 0; pick < 2; pick++) {
+            int best = -1;
+            for (int i = 0; i < counts.length; i++) {
+                if (!used[i] && (best < 0 || counts[i] > counts[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0 || total == 0 || counts[best] < total * DOMINANT_SHARE) {
+                break;
+            }
+            used[best] = true;
+            hint.append(hint.length() == 0 ? "Around it the map is mostly " : " and ")
+                    .append(COLOUR_NAMES[best]).append(" (").append(COLOUR_MEANINGS[best]).append(')');
+        }
+        return hint.length() == 0 ? "" : hint.append('.').toString();
+    }
+
+    private static int nearestColour(int rgb) {
+        int r = rgb >> 16 & 0xFF;
+        int g = rgb >> 8 & 0xFF;
+        int b = rgb & 0xFF;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < COLOUR_RGB.length; i++) {
+            int dr = r - COLOUR_RGB[i][0];
+            int dg = g - COLOUR_RGB[i][1];
+            int db = b - COLOUR_RGB[i][2];
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    public static void main(String[] args) throws IOException {
+        File outputDir = new File(args.length > 0 ? args[0] : "desktop-client/src/main/resources/assets");
+        BufferedImage map = AssetCache.getImage(LocationCatalog.CAMPUS_MAP_IMAGE);
+        File file = new File(outputDir, HINTS_ASSET);
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            out.println("# Location hints, generated by HintPacker - do not edit by hand");
+            out.println("# map\t" + map.getWidth() + "\t" + map.getHeight());
+            out.println("# photo<TAB>hint lines separated by \\n");
+            for (Location location : LocationCatalog.all()) {
+                String hint = hintFor(location, map).trim();
+                out.println(location.getImage() + "\t" + hint.replace("\n", "\\n"));
+                System.out.println(location + ":\n  " + hint.replace("\n", "\n  "));
+            }
+        }
+        System.out.println("Wrote " + file);
+    }
+}
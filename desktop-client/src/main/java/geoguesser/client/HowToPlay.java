@@ -1,8 +1,7 @@
+package geoguesser.client;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 
 public class HowToPlay extends JFrame {
@@ -18,6 +17,8 @@ public class HowToPlay extends JFrame {
     private final Color TEXT_PRIMARY = new Color(248, 250, 252);
     private final Color TEXT_SECONDARY = new Color(148, 163, 184);
     private final Color ACCENT_PURPLE = new Color(168, 85, 247);
+    private final Color CARD_BG_BOTTOM = new Color(CARD_BG.getRed() + 15, CARD_BG.getGreen() + 15, CARD_BG.getBlue() + 20);
+    private final Color BACKDROP_SHADE = new Color(0, 0, 0, 140);
 
     public HowToPlay() {
         loadBackgroundImage();
@@ -26,19 +27,7 @@ public class HowToPlay extends JFrame {
     }
 
     private void loadBackgroundImage() {
-        try {
-            String[] possiblePaths = {"background.jpg", "background.png", "src/background.jpg", "src/background.png"};
-            for (String path : possiblePaths) {
-                File imageFile = new File(path);
-                if (imageFile.exists()) {
-                    backgroundImage = ImageIO.read(imageFile);
-                    return;
-                }
-            }
-            backgroundImage = null;
-        } catch (IOException e) {
-            backgroundImage = null;
-        }
+        backgroundImage = AssetCache.getBackground();
     }
 
     private void setupUI() {
@@ -58,7 +47,7 @@ public class HowToPlay extends JFrame {
 
                 if (backgroundImage != null) {
                     g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
-                    g2d.setColor(new Color(0, 0, 0, 140));
+                    g2d.setColor(BACKDROP_SHADE);
                     g2d.fillRect(0, 0, getWidth(), getHeight());
                 } else {
                     GradientPaint gradient = new GradientPaint(0, 0, DARK_BG, getWidth(), getHeight(), CARD_BG);
@@ -187,17 +176,7 @@ public class HowToPlay extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                GradientPaint gradient = new GradientPaint(0, 0, CARD_BG, 0, getHeight(),
-                        new Color(CARD_BG.getRed() + 15, CARD_BG.getGreen() + 15, CARD_BG.getBlue() + 20));
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 20, 20);
-
-                g2d.setColor(accentColor);
-                g2d.setStroke(new BasicStroke(2));
-                g2d.drawRoundRect(1, 1, getWidth() - 2, getHeight() - 2, 20, 20);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, accentColor, 20);
             }
         };
 
@@ -228,17 +207,7 @@ public class HowToPlay extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                GradientPaint gradient = new GradientPaint(0, 0, CARD_BG, 0, getHeight(),
-                        new Color(CARD_BG.getRed() + 15, CARD_BG.getGreen() + 15, CARD_BG.getBlue() + 20));
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 20, 20);
-
-                g2d.setColor(accentColor);
-                g2d.setStroke(new BasicStroke(2));
-                g2d.drawRoundRect(1, 1, getWidth() - 2, getHeight() - 2, 20, 20);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, accentColor, 20);
             }
         };
 
@@ -295,36 +264,7 @@ public class HowToPlay extends JFrame {
         JButton button = new JButton(text) {
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                int w = getWidth();
-                int h = getHeight();
-
-                if (isEnabled()) {
-                    Color darkColor = new Color(
-                            (int)(color.getRed() * 0.8),
-                            (int)(color.getGreen() * 0.8),
-                            (int)(color.getBlue() * 0.8));
-                    GradientPaint gradient = new GradientPaint(0, 0, color, 0, h, darkColor);
-                    g2d.setPaint(gradient);
-                } else {
-                    g2d.setColor(new Color(100, 100, 100));
-                }
-
-                g2d.fillRoundRect(0, 0, w, h, 15, 15);
-
-                if (isEnabled()) {
-                    g2d.setColor(new Color(255, 255, 255, 51));
-                    g2d.drawRoundRect(0, 0, w - 1, h - 1, 15, 15);
-                }
-
-                g2d.setColor(isEnabled() ? Color.WHITE : Color.LIGHT_GRAY);
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int textW = fm.stringWidth(getText());
-                int textH = fm.getAscent();
-                g2d.drawString(getText(), (w - textW) / 2, (h + textH) / 2 - 2);
+                ThemeRenderer.paintButton(g, this, color, 15);
             }
         };
 
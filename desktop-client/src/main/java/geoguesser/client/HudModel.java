@@ -0,0 +1,151 @@
+package geoguesser.client;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+// Text of the in-game HUD (timer, hint countdown, round, score).
+// A JLabel revalidates its whole layout and repaints itself on every setText, which for the
+// translucent cards means repainting the card and backdrop behind it - twice a second with the
+// countdown and hint timers. Here updates only mark a label dirty; once per frame the pending texts
+// are applied together and each label repaints just the strip its old and new glyphs cover. Layout
+// is only revalidated when a text outgrows the label's reserved width.
+final class HudModel {
+    // One 60 Hz frame
+    private static final int FRAME_MILLIS = 16;
+
+    // Text anti-aliasing the desktop uses, so HUD text looks like the JLabels around it
+    private static final Map<?, ?> TEXT_HINTS =
+            (Map<?, ?>)Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+
+    private final List<Label> dirty = new ArrayList<>();
+    private final Timer frameTimer = new Timer(FRAME_MILLIS, e -> flush());
+
+    HudModel() {
+        frameTimer.setRepeats(false);
+    }
+
+    // widestText reserves room up front ("00" for a 2 digit timer) so normal updates never relayout
+    Label createLabel(String text, String widestText, Font font, Color color) {
+        return new Label(text, widestText, font, color);
+    }
+
+    // Applies the texts set since the last frame; runs off the frame timer
+    void flush() {
+        frameTimer.stop();
+        for (int i = 0; i < dirty.size(); i++) {
+            dirty.get(i).apply();
+        }
+        dirty.clear();
+    }
+
+    private void markDirty(Label label) {
+        dirty.add(label);
+        if (!frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+    }
+
+    // Single line, horizontally centred text
+    final class Label extends JComponent {
+        private final String widestText;
+        private String text;
+        private String pendingText;
+        private boolean pending;
+        // Glyph bounds of what is on screen now, relative to the component
+        private int textX;
+        private int textWidth;
+
+        private Label(String text, String widestText, Font font, Color color) {
+            this.text = text;
+            this.widestText = widestText;
+            setFont(font);
+            setForeground(color);
+            setOpaque(false);
+        }
+
+        String getText() {
+            return pending ? pendingText : text;
+        }
+
+        // Takes effect on the next frame; setting the same text again is free
+        void setText(String newText) {
+            if (newText.equals(getText())) {
+                return;
+            }
+            pendingText = newText;
+            if (!pending) {
+                pending = true;
+                markDirty(this);
+            }
+        }
+
+        private void apply() {
+            if (!pending) {
+                return;
+            }
+            pending = false;
+            String oldText = text;
+            text = pendingText;
+            pendingText = null;
+            if (text.equals(oldText)) {
+                return;
+            }
+
+            FontMetrics fm = getFontMetrics(getFont());
+            if (fm.stringWidth(text) > availableWidth()) {
+                revalidate();
+                repaint();
+                return;
+            }
+
+            // Old glyphs are still on screen at textX..textX+textWidth; the new ones go where layoutText() puts them
+            int oldX = textX;
+            int oldRight = textX + textWidth;
+            layoutText(fm);
+            int left = Math.min(oldX, textX);
+            int right = Math.max(oldRight, textX + textWidth);
+            repaint(left - 2, 0, right - left + 4, getHeight());
+        }
+
+        private int availableWidth() {
+            Insets insets = getInsets();
+            return getWidth() - insets.left - insets.right;
+        }
+
+        private void layoutText(FontMetrics fm) {
+            textWidth = fm.stringWidth(text);
+            textX = getInsets().left + (availableWidth() - textWidth) / 2;
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            if (isPreferredSizeSet()) {
+                return super.getPreferredSize();
+            }
+            FontMetrics fm = getFontMetrics(getFont());
+            Insets insets = getInsets();
+            int width = Math.max(fm.stringWidth(widestText), fm.stringWidth(text));
+            return new Dimension(width + insets.left + insets.right, fm.getHeight() + insets.top + insets.bottom);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2d = (Graphics2D)g;
+            if (TEXT_HINTS != null) {
+                g2d.addRenderingHints(TEXT_HINTS);
+            }
+            FontMetrics fm = getFontMetrics(getFont());
+            layoutText(fm);
+            Insets insets = getInsets();
+            int available = getHeight() - insets.top - insets.bottom;
+            int baseline = insets.top + (available - fm.getHeight()) / 2 + fm.getAscent();
+            g2d.setFont(getFont());
+            g2d.setColor(getForeground());
+            g2d.drawString(text, textX, baseline);
+        }
+    }
+}
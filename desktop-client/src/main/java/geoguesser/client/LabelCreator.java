@@ -0,0 +1,233 @@
+package geoguesser.client;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+
+public class LabelCreator {
+
+    JFrame frame = new JFrame("Developer Label Tool");
+    JLabel label1 = new JLabel(); // for image
+    JLabel mapLabel = new JLabel(); // for map
+    JButton nextButton = new JButton("Save & Next");
+    JLabel duplicateLabel = new JLabel("Checking for duplicate photos...");
+
+    // Catalog photos and this batch, hashed in the background; null/empty until done, then set on the EDT
+    NearDuplicateIndex duplicateIndex;
+    Map<String, PhotoHash> batchHashes = new HashMap<>();
+    // Catalog locations plus the photos labelled so far in this session, for the same-spot check
+    List<Location> labelled = new ArrayList<>(LocationCatalog.all());
+    // Campus map size in its own pixels (the catalog's coordinates), for converting clicks
+    int mapWidth = -1, mapHeight = -1;
+
+    ArrayList<String> images = new ArrayList<>();
+    int currentIndex = 0;
+    int clickX = -1, clickY = -1;
+
+    LabelCreator() {
+        // Load image paths
+        images.add("src/10th.png");
+
+        frame.setSize(1920, 1080);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+
+        // Image Panel (left)
+        label1.setPreferredSize(new Dimension(1040, 650));
+        label1.setOpaque(true);
+        label1.setBackground(Color.DARK_GRAY);
+        label1.setHorizontalAlignment(SwingConstants.CENTER);
+        frame.add(label1, BorderLayout.WEST);
+
+        // Map Panel (center)
+        java.net.URL mapUrl = AssetLocator.resolve(LocationCatalog.CAMPUS_MAP_IMAGE);
+        ImageIcon mapIcon = mapUrl != null ? new ImageIcon(mapUrl) : new ImageIcon();
+        mapWidth = mapIcon.getIconWidth();
+        mapHeight = mapIcon.getIconHeight();
+        if (mapWidth > 0) {
+            Image scaledMapImage = mapIcon.getImage().getScaledInstance(500, 650, Image.SCALE_SMOOTH);
+            mapLabel.setIcon(new ImageIcon(scaledMapImage));
+        }
+        mapLabel.setPreferredSize(new Dimension(500, 650));
+        mapLabel.setOpaque(true);
+        mapLabel.addMouseListener(new MouseAdapter() {
+            public void mouseClicked(MouseEvent e) {
+                clickX = e.getX();
+                clickY = e.getY();
+                JOptionPane.showMessageDialog(frame, "Location selected: (" + clickX + ", " + clickY + ")");
+                showDuplicates();
+            }
+        });
+        frame.add(mapLabel, BorderLayout.CENTER);
+
+        // Button Panel (bottom)
+        nextButton.setFont(new Font("Arial", Font.BOLD, 18));
+        nextButton.setBackground(Color.CYAN);
+        nextButton.addActionListener(e -> saveAndNext());
+        duplicateLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        JPanel bottomPanel = new JPanel();
+        bottomPanel.add(duplicateLabel);
+        bottomPanel.add(nextButton);
+        frame.add(bottomPanel, BorderLayout.SOUTH);
+
+        loadImage();
+        indexPhotos();
+        frame.setVisible(true);
+    }
+
+    // Hashes the packed catalog photos and every photo of this batch in parallel, so near-duplicates
+    // (of the catalog or of each other) are flagged before they get labelled and packed
+    private void indexPhotos() {
+        new SwingWorker<NearDuplicateIndex, Void>() {
+            // Filled on the worker thread, handed to the EDT in done()
+            private final Map<String, PhotoHash> hashes = new HashMap<>();
+
+            protected NearDuplicateIndex doInBackground() {
+                List<String> assets = new ArrayList<>();
+                for (Location location : LocationCatalog.all()) {
+                    assets.add(location.getImage());
+                }
+                List<File> files = new ArrayList<>();
+                for (String path : images) {
+                    files.add(new File(path));
+                }
+                NearDuplicateIndex index = new NearDuplicateIndex();
+                for (PhotoHash hash : PhotoHash.hashAll(assets, files)) {
+                    index.add(hash);
+                    hashes.put(hash.getName(), hash);
+                }
+                return index;
+            }
+
+            protected void done() {
+                try {
+                    duplicateIndex = get();
+                    batchHashes = hashes;
+                } catch (Exception e) {
+                    System.err.println("Duplicate check failed: " + e.getMessage());
+                }
+                showDuplicates();
+            }
+        }.execute();
+    }
+
+    // Near-duplicates of the current photo, empty if none or not known yet
+    private List<NearDuplicateIndex.Match> currentDuplicates() {
+        PhotoHash hash = currentIndex < images.size() ? batchHashes.get(images.get(currentIndex)) : null;
+        if (duplicateIndex == null || hash == null) {
+            return new ArrayList<>();
+        }
+        return duplicateIndex.findNearDuplicates(hash);
+    }
+
+    // Photos already labelled where the current photo's click is, empty if none or nothing clicked yet
+    private List<Location> currentSameSpot() {
+        if (clickX == -1 || mapWidth <= 0 || currentIndex >= images.size()) {
+            return new ArrayList<>();
+        }
+        // The map is shown stretched to 500x650
+        return NearDuplicateIndex.findSameSpot(labelled, images.get(currentIndex),
+                clickX * mapWidth / 500.0, clickY * mapHeight / 650.0);
+    }
+
+    private void showDuplicates() {
+        List<NearDuplicateIndex.Match> matches = currentDuplicates();
+        List<Location> sameSpot = currentSameSpot();
+        if (!matches.isEmpty()) {
+            duplicateLabel.setForeground(new Color(249, 115, 22));
+            duplicateLabel.setText("⚠ Looks like " + matches.get(0) + (matches.size() > 1 ? " and " + (matches.size() - 1) + " more" : ""));
+        } else if (!sameSpot.isEmpty()) {
+            duplicateLabel.setForeground(new Color(234, 179, 8));
+            duplicateLabel.setText("ⓘ Same spot as " + describe(sameSpot.get(0)) + (sameSpot.size() > 1 ? " and " + (sameSpot.size() - 1) + " more" : ""));
+        } else if (duplicateIndex == null) {
+            duplicateLabel.setText(" ");
+        } else {
+            duplicateLabel.setForeground(new Color(34, 197, 94));
+            duplicateLabel.setText("✔ No near-duplicates");
+        }
+    }
+
+    private static String describe(Location location) {
+        return location.getImage() + " (" + location.getName() + ")";
+    }
+
+    private void loadImage() {
+        if (currentIndex < images.size()) {
+            String path = images.get(currentIndex);
+            ImageIcon imgIcon = new ImageIcon(path);
+            Image scaledImg = imgIcon.getImage().getScaledInstance(1040, 650, Image.SCALE_SMOOTH);
+            label1.setIcon(new ImageIcon(scaledImg));
+            showDuplicates();
+        } else {
+            JOptionPane.showMessageDialog(frame, "✅ All images labeled!");
+            frame.dispose();
+        }
+    }
+
+    private void saveAndNext() {
+        if (clickX == -1 || clickY == -1) {
+            JOptionPane.showMessageDialog(frame, "❗ Please click on the map first!");
+            return;
+        }
+
+        List<NearDuplicateIndex.Match> matches = currentDuplicates();
+        List<Location> sameSpot = currentSameSpot();
+        if (!matches.isEmpty() || !sameSpot.isEmpty()) {
+            StringBuilder message = new StringBuilder();
+            if (!matches.isEmpty()) {
+                message.append("This photo is a near-duplicate of:\n");
+                for (NearDuplicateIndex.Match match : matches) {
+                    message.append("  ").append(match).append('\n');
+                }
+                message.append("\nDuplicates make rounds repetitive. Label it anyway?");
+            } else {
+                message.append("Already labelled at this spot:\n");
+                for (Location location : sameSpot) {
+                    message.append("  ").append(describe(location)).append('\n');
+                }
+                message.append("\nAnother shot of a spot is fine, but several make it come up more often. Label it anyway?");
+            }
+            Object[] options = {"Label Anyway", "Skip Photo", "Cancel"};
+            int choice = JOptionPane.showOptionDialog(frame, message.toString(),
+                    matches.isEmpty() ? "Same Spot" : "Near-Duplicate Photo", JOptionPane.DEFAULT_OPTION,
+                    matches.isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE,
+                    null, options, matches.isEmpty() ? options[0] : options[1]);
+            if (choice == 1) {
+                currentIndex++;
+                clickX = clickY = -1;
+                loadImage();
+                return;
+            }
+            if (choice != 0) {
+                return;
+            }
+        }
+
+        String imagePath = images.get(currentIndex);
+        try (FileWriter fw = new FileWriter("labels.csv", true)) {
+            fw.write(imagePath + "," + clickX + "," + clickY + "\n");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (mapWidth > 0) {
+            labelled.add(new Location(-1, imagePath, "labelled this session",
+                    clickX * mapWidth / 500, clickY * mapHeight / 650));
+        }
+
+        // Reset and go to next image
+        currentIndex++;
+        clickX = clickY = -1;
+        loadImage();
+    }
+
+    public static void main(String[] args) {
+        new LabelCreator();
+    }
+}
@@ -0,0 +1,68 @@
+package geoguesser.client;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Hints shown by the hint button, precomputed by HintPacker and shipped as hints.txt with the assets
+// (an asset pack can bring its own). Read once into an array indexed by location id, so a lookup is
+// an array access and showing a hint does no image work on the EDT. A location missing from the file
+// gets a hint built from its name and coordinates alone.
+public final class LocationHints {
+    private static String[] hints;
+
+    private LocationHints() {
+    }
+
+    public static synchronized String get(int locationId) {
+        preload();
+        return hints[locationId];
+    }
+
+    // Reads the hints now (AssetWarmup does this at startup) instead of on the first hint
+    public static synchronized void preload() {
+        if (hints == null) {
+            hints = load();
+        }
+    }
+
+    private static String[] load() {
+        Map<String, String> byPhoto = new HashMap<>();
+        // Until the file says otherwise, the size the bundled map has
+        int mapWidth = 500;
+        int mapHeight = 500;
+        if (AssetLocator.exists(HintPacker.HINTS_ASSET)) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    AssetLocator.open(HintPacker.HINTS_ASSET), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String[] fields = line.split("\t");
+                    if (line.startsWith("# map") && fields.length == 3) {
+                        mapWidth = Integer.parseInt(fields[1]);
+                        mapHeight = Integer.parseInt(fields[2]);
+                    } else if (!line.startsWith("#") && fields.length == 2) {
+                        byPhoto.put(fields[0], fields[1].replace("\\n", "\n"));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Could not read " + HintPacker.HINTS_ASSET + ": " + e.getMessage());
+            }
+        }
+
+        String[] result = new String[LocationCatalog.size()];
+        for (Location location : LocationCatalog.all()) {
+            String hint = byPhoto.get(location.getImage());
+            if (hint == null) {
+                hint = HintPacker.describe(location.getName()) + "\n" + HintPacker.areaHint(location, mapWidth, mapHeight);
+            }
+            result[location.getId()] = hint;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package geoguesser.client;
+
+import java.lang.management.ManagementFactory;
+import javax.swing.SwingUtilities;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.metrics.MetricsRegistry;
+import geoguesser.engine.metrics.PrometheusEndpoint;
+
+public class Main {
+    // Set for scripted runs (CdsTraining): the game plays normally but its rounds, replay and player
+    // profile are not recorded, so they don't end up in history.ggh, the heatmaps or the stats
+    public static final String NO_RECORDING_PROPERTY = "geoguesser.noRecording";
+
+    static boolean isRecordingDisabled() {
+        return Boolean.getBoolean(NO_RECORDING_PROPERTY);
+    }
+
+    public static void main(String[] args) throws Exception {
+        PerfMonitor.install();
+        PrometheusEndpoint.startFromSystemProperty(MetricsRegistry.getDefault());
+
+        StartupSplash[] splash = new StartupSplash[1];
+        SwingUtilities.invokeAndWait(() -> {
+            splash[0] = new StartupSplash();
+            splash[0].setVisible(true);
+        });
+
+        // Decode the menu background, the campus map and the first few round photos in parallel
+        // while the splash is up, so no screen has to hit the disk on the EDT afterwards.
+        // The remaining photos are decoded in the background once the menu is up.
+        AssetWarmup warmup = new AssetWarmup()
+                .addFirstExistingImage(AssetCache.BACKGROUND_ASSETS)
+                .addImage(LocationCatalog.CAMPUS_MAP_IMAGE)
+                .addHints();
+        AssetWarmup later = new AssetWarmup();
+        int rounds = Math.min(LocationCatalog.size(), AssetWarmup.WARM_ROUND_IMAGES);
+        for (int i = 0; i < LocationCatalog.size(); i++) {
+            Location location = LocationCatalog.all().get(i);
+            (i < rounds ? warmup : later).addFittedImage(location.getImage(),
+                    MainGame.ROUND_IMAGE_WIDTH, MainGame.ROUND_IMAGE_HEIGHT);
+        }
+
+        PlayerStore.openInBackground();
+        long warmupNanos = warmup.run((done, total, asset) -> SwingUtilities.invokeLater(
+                () -> splash[0].setProgress(done, total, "Loading " + asset)));
+
+        SwingUtilities.invokeLater(() -> {
+            new MainMenu();
+            splash[0].dispose();
+            System.out.printf("Assets warmed in %.0f ms, interactive %d ms after JVM start%n",
+                    warmupNanos / 1e6, ManagementFactory.getRuntimeMXBean().getUptime());
+            // Used by scripts/startup-bench.sh to time repeated cold starts
+            if (Boolean.getBoolean("geoguesser.exitWhenInteractive")) {
+                System.exit(0);
+            }
+            later.runInBackground();
+        });
+    }
+}
@@ -0,0 +1,1306 @@
+package geoguesser.client;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.*;
+import javax.swing.Timer;
+import geoguesser.engine.Leaderboard;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.difficulty.DifficultyEngine;
+import geoguesser.engine.difficulty.LocationStats;
+import geoguesser.engine.history.GuessDensity;
+import geoguesser.engine.replay.SessionLog;
+import geoguesser.engine.replay.SessionRecorder;
+import geoguesser.engine.store.PlayerProfile;
+
+public class MainGame {
+    private JFrame frame;
+    private String username;
+    private BufferedImage backgroundImage;
+    private JLabel imageLabel;
+    private JLabel mapLabel;
+    private JLabel userLabel;
+    private final HudModel hud = new HudModel();
+    private HudModel.Label roundLabel;
+    private HudModel.Label scoreLabel;
+    private HudModel.Label timerLabel;
+    private HudModel.Label hintLabel;
+    private Random random;
+    private SessionRecorder recorder;
+    private int currentRound = 1;
+    private int totalScore = 0;
+    private int timeLeft = ScoreRules.ROUND_SECONDS;
+    private Timer countdownTimer;
+    private Timer hintTimer;
+    private int totalRounds = 5;
+    private String currentLocation;
+    private int currentLocationId;
+    private boolean roundHintUsed;
+    // For the player's profile (PlayerStore)
+    private long gameStartMillis;
+    private int roundsTimedOut;
+    // The profile as it was when the game started, loaded in the background (loadProfile). Null for a
+    // new player; profileLoaded stays false until it is known or if the store is unavailable.
+    private PlayerProfile profile;
+    private boolean profileLoaded;
+    private HeatmapOverlay heatmap;
+    private int heatmapLocationId = -1;
+
+    // Shared by every game in this run so the target difficulty carries over between games
+    private static final DifficultyEngine difficulty = new DifficultyEngine(LocationCatalog.size());
+    private static boolean difficultyStatsLoaded;
+    private Point actualLocation;
+    private Point2D guessedLocation;
+    private JButton submitButton;
+    private JButton hintButton;
+    private ImageIcon campusMap;
+    private MapViewport mapViewport;
+    private RoundImageLoader roundImageLoader = new RoundImageLoader(ROUND_IMAGE_WIDTH, ROUND_IMAGE_HEIGHT);
+    private VisualHint visualHint = new VisualHint(HINT_IMAGE_WIDTH, HINT_IMAGE_HEIGHT);
+    private SwingWorker<BufferedImage, BufferedImage> roundImageWorker;
+    private BufferedImage roundImage;
+    private boolean roundClockStarted;
+    private boolean sessionActive;
+
+    // Set in classroom mode, where a ClassroomServer picks the rounds, runs the clock and keeps score
+    private final ClassroomClient classroom;
+    private long classroomStartMillis;
+    private boolean classroomGuessed;
+    private JLabel classroomStatus;
+    private DefaultListModel<String> standingsModel;
+
+    // Set in remote play, where a RemotePlayServer picks the rounds, streams the photos and keeps score
+    private final RemotePlayClient remote;
+    private long remoteStartMillis;
+    private boolean remoteAnswered;
+    private boolean remoteResultShowing;
+    private boolean remoteGameOver;
+    // The next ROUND arrives right behind a RESULT; it waits here until the result dialog is closed
+    private Runnable pendingRemoteRound;
+
+    // UI Colors
+    private final Color PRIMARY_BLUE = new Color(40, 124, 253);
+    private final Color SUCCESS_GREEN = new Color(34, 197, 94);
+    private final Color WARNING_ORANGE = new Color(249, 115, 22);
+    private final Color DANGER_RED = new Color(239, 68, 68);
+    private final Color DARK_BG = new Color(15, 23, 42);
+    private final Color CARD_BG = new Color(30, 41, 59);
+    private final Color TEXT_PRIMARY = new Color(248, 250, 252);
+    private final Color TEXT_SECONDARY = new Color(148, 163, 184);
+    private final Color ACCENT_PURPLE = new Color(168, 85, 247);
+    private final Color CARD_BG_BOTTOM = new Color(CARD_BG.getRed() + 10, CARD_BG.getGreen() + 10, CARD_BG.getBlue() + 15);
+    private final Color BACKDROP_SHADE = new Color(0, 0, 0, 120);
+
+    // Map dimensions (should match your map image dimensions)
+    private static final int MAP_WIDTH = 1000;
+    private static final int MAP_HEIGHT = 800;
+
+    // Size the location photo is shown at
+    static final int ROUND_IMAGE_WIDTH = 900;
+    static final int ROUND_IMAGE_HEIGHT = 750;
+    // Size the picture hint is shown (and rendered) at in the hint dialog
+    static final int HINT_IMAGE_WIDTH = ROUND_IMAGE_WIDTH / 2;
+    static final int HINT_IMAGE_HEIGHT = ROUND_IMAGE_HEIGHT / 2;
+
+    // Session logs of finished games, relative to the working directory like rankings.txt
+    static final String REPLAY_DIR = "replays";
+
+    public MainGame() {
+        this(null, null);
+    }
+
+    // Classroom mode with a connected client (MainMenu's JOIN CLASSROOM), single player with null
+    public MainGame(ClassroomClient classroom) {
+        this(classroom, null);
+    }
+
+    // Remote play with a connected client (START GAME with -Dgeoguesser.remote set)
+    public MainGame(RemotePlayClient remote) {
+        this(null, remote);
+    }
+
+    private MainGame(ClassroomClient classroom, RemotePlayClient remote) {
+        this.classroom = classroom;
+        this.remote = remote;
+        loadBackgroundImage();
+        loadLocations();
+        setupUI();
+        loadHeatmap();
+        loadDifficultyStats();
+        startGame();
+    }
+
+    private void loadBackgroundImage() {
+        backgroundImage = AssetCache.getBackground();
+    }
+
+    private void loadLocations() {
+        try {
+            campusMap = loadImageIcon(LocationCatalog.CAMPUS_MAP_IMAGE);
+            if (campusMap == null) {
+                JOptionPane.showMessageDialog(null, "Failed to load campus map!", "Error", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            }
+            mapViewport = new MapViewport(campusMap.getIconWidth(), campusMap.getIconHeight());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+        }
+    }
+
+    // Past guesses from the round history, shown on the map while a round's result is up
+    private void loadHeatmap() {
+        if (!new File(GameHistory.HISTORY_FILE).isFile()) {
+            return;
+        }
+        new SwingWorker<GuessDensity, Void>() {
+            protected GuessDensity doInBackground() throws IOException {
+                return GuessDensity.aggregate(Paths.get(GameHistory.HISTORY_FILE), campusMap.getIconWidth(),
+                        campusMap.getIconHeight(), GuessDensity.DEFAULT_CELL_SIZE);
+            }
+
+            protected void done() {
+                try {
+                    heatmap = new HeatmapOverlay(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Could not load guess heatmap: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    // Opening the store may replay its log after an unclean exit, so it is never done on the EDT
+    private void loadProfile() {
+        String name = username;
+        new SwingWorker<PlayerProfile, Void>() {
+            private boolean available;
+
+            protected PlayerProfile doInBackground() {
+                PlayerProfile loaded = PlayerStore.profile(name);
+                available = PlayerStore.isAvailable();
+                return loaded;
+            }
+
+            protected void done() {
+                try {
+                    profile = get();
+                    profileLoaded = available;
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Could not load player profile: " + e.getMessage());
+                    return;
+                }
+                if (profile != null) {
+                    userLabel.setToolTipText(String.format("Personal best %d, %d games played, %.0f average",
+                            profile.bestScore, profile.gamesPlayed, profile.getAverageScore()));
+                }
+            }
+        }.execute();
+    }
+
+    // Per-location statistics of earlier runs, so round selection doesn't start from scratch.
+    // Rounds played before they arrive are kept; the loaded statistics are merged into them.
+    private void loadDifficultyStats() {
+        if (difficultyStatsLoaded || !new File(GameHistory.HISTORY_FILE).isFile()) {
+            return;
+        }
+        difficultyStatsLoaded = true;
+        new SwingWorker<LocationStats, Void>() {
+            protected LocationStats doInBackground() throws IOException {
+                return LocationStats.fromHistory(Paths.get(GameHistory.HISTORY_FILE));
+            }
+
+            protected void done() {
+                try {
+                    difficulty.merge(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Could not load location statistics: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private ImageIcon loadImageIcon(String path) {
+        try {
+            return new ImageIcon(AssetCache.getImage(path));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void setupUI() {
+        frame = new JFrame("COMSATS Geo Guesser");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+        frame.setSize(1920, 1080);
+        frame.setLayout(new BorderLayout(0, 0));
+
+        JPanel mainPanel = new JPanel(new BorderLayout()) {
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                Graphics2D g2d = (Graphics2D)g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+                if (backgroundImage != null) {
+                    g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+                    g2d.setColor(BACKDROP_SHADE);
+                    g2d.fillRect(0, 0, getWidth(), getHeight());
+                } else {
+                    GradientPaint gradient = new GradientPaint(0, 0, DARK_BG, getWidth(), getHeight(), CARD_BG);
+                    g2d.setPaint(gradient);
+                    g2d.fillRect(0, 0, getWidth(), getHeight());
+                }
+            }
+        };
+
+        mainPanel.add(createTopPanel(), BorderLayout.NORTH);
+        mainPanel.add(createGameArea(), BorderLayout.CENTER);
+        mainPanel.add(createControlPanel(), BorderLayout.SOUTH);
+        frame.add(mainPanel);
+    }
+
+    private JPanel createTopPanel() {
+        JPanel panel = new JPanel(new GridLayout(1, 4, 15, 0));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+        panel.setOpaque(false);
+
+        panel.add(createStatsCard("PLAYER", "", userLabel = new JLabel(), PRIMARY_BLUE));
+        panel.add(createRoundScoreCard());
+        panel.add(createTimerCard());
+        panel.add(createHintCard());
+
+        return panel;
+    }
+
+    private JPanel createStatsCard(String title, String subtitle, JLabel valueLabel, Color accentColor) {
+        JPanel card = new JPanel() {
+            protected void paintComponent(Graphics g) {
+                long paintStart = System.nanoTime();
+                super.paintComponent(g);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, accentColor, 16);
+                PerfMonitor.paintDone("player card", paintStart);
+            }
+        };
+
+        card.setLayout(new BorderLayout(5, 5));
+        card.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+        card.setOpaque(false);
+
+        JLabel titleLabel = new JLabel(title, SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        titleLabel.setForeground(TEXT_SECONDARY);
+
+        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        valueLabel.setForeground(TEXT_PRIMARY);
+        valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        card.add(titleLabel, BorderLayout.NORTH);
+        card.add(valueLabel, BorderLayout.CENTER);
+
+        return card;
+    }
+
+    private JPanel createRoundScoreCard() {
+        JPanel card = new JPanel() {
+            protected void paintComponent(Graphics g) {
+                long paintStart = System.nanoTime();
+                super.paintComponent(g);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, SUCCESS_GREEN, 16);
+                PerfMonitor.paintDone("round card", paintStart);
+            }
+        };
+
+        card.setLayout(new GridLayout(2, 2, 10, 5));
+        card.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+        card.setOpaque(false);
+
+        JLabel roundText = new JLabel("ROUND", SwingConstants.CENTER);
+        roundText.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        roundText.setForeground(TEXT_SECONDARY);
+
+        roundLabel = hud.createLabel("1/" + totalRounds, "00/00", new Font("Segoe UI", Font.BOLD, 18), SUCCESS_GREEN);
+
+        JLabel scoreText = new JLabel("SCORE", SwingConstants.CENTER);
+        scoreText.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        scoreText.setForeground(TEXT_SECONDARY);
+
+        scoreLabel = hud.createLabel("0", "00000", new Font("Segoe UI", Font.BOLD, 18), WARNING_ORANGE);
+
+        card.add(roundText);
+        card.add(roundLabel);
+        card.add(scoreText);
+        card.add(scoreLabel);
+
+        return card;
+    }
+
+    private JPanel createTimerCard() {
+        JPanel card = new JPanel() {
+            protected void paintComponent(Graphics g) {
+                long paintStart = System.nanoTime();
+                super.paintComponent(g);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, DANGER_RED, 16);
+                PerfMonitor.paintDone("timer card", paintStart);
+            }
+        };
+
+        card.setLayout(new BorderLayout(5, 5));
+        card.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+        card.setOpaque(false);
+
+        JLabel titleLabel = new JLabel("TIME LEFT", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        titleLabel.setForeground(TEXT_SECONDARY);
+
+        timerLabel = hud.createLabel("30", "00", new Font("Segoe UI", Font.BOLD, 28), DANGER_RED);
+
+        card.add(titleLabel, BorderLayout.NORTH);
+        card.add(timerLabel, BorderLayout.CENTER);
+
+        return card;
+    }
+
+    private JPanel createHintCard() {
+        JPanel card = new JPanel() {
+            protected void paintComponent(Graphics g) {
+                long paintStart = System.nanoTime();
+                super.paintComponent(g);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, ACCENT_PURPLE, 16);
+                PerfMonitor.paintDone("hint card", paintStart);
+            }
+        };
+
+        card.setLayout(new BorderLayout(5, 5));
+        card.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+        card.setOpaque(false);
+
+        JLabel titleLabel = new JLabel("HINT READY", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        titleLabel.setForeground(TEXT_SECONDARY);
+
+        hintLabel = hud.createLabel("10s", "Ready!", new Font("Segoe UI", Font.BOLD, 20), ACCENT_PURPLE);
+
+        card.add(titleLabel, BorderLayout.NORTH);
+        card.add(hintLabel, BorderLayout.CENTER);
+
+        return card;
+    }
+
+    private JPanel createGameArea() {
+        JPanel panel = new JPanel(new BorderLayout(20, 0));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+        panel.setOpaque(false);
+
+        panel.add(createImagePanel(), BorderLayout.CENTER);
+        panel.add(createMapPanel(), BorderLayout.EAST);
+
+        return panel;
+    }
+
+    private JPanel createImagePanel() {
+        JPanel panel = new JPanel(new BorderLayout()) {
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, PRIMARY_BLUE, 20);
+            }
+        };
+
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        panel.setOpaque(false);
+
+        JLabel titleLabel = new JLabel("LOCATION VIEW", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        titleLabel.setForeground(TEXT_PRIMARY);
+        titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
+
+        imageLabel = new JLabel();
+        imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        imageLabel.setVerticalAlignment(SwingConstants.CENTER);
+
+        panel.add(titleLabel, BorderLayout.NORTH);
+        panel.add(imageLabel, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private JPanel createMapPanel() {
+        JPanel panel = new JPanel(new BorderLayout()) {
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                ThemeRenderer.paintCard(g, this, CARD_BG, CARD_BG_BOTTOM, SUCCESS_GREEN, 20);
+            }
+        };
+
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        panel.setOpaque(false);
+        panel.setPreferredSize(new Dimension(500, 0));
+
+        JLabel titleLabel = new JLabel("CLICK ON MAP TO GUESS", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        titleLabel.setForeground(TEXT_PRIMARY);
+        titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
+
+        // The map is painted through mapViewport so drawing and click hit testing share one transform
+        mapLabel = new JLabel() {
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                mapViewport.layout(getWidth(), getHeight(), getInsets());
+
+                Graphics2D g2d = (Graphics2D)g.create();
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.transform(mapViewport.getTransform());
+                g2d.drawImage(campusMap.getImage(), 0, 0, this);
+                if (heatmap != null && heatmapLocationId >= 0) {
+                    heatmap.paint(g2d, heatmapLocationId);
+                }
+                g2d.dispose();
+
+                if (guessedLocation != null) {
+                    Point2D marker = mapViewport.toScreen(guessedLocation);
+                    Graphics2D m = (Graphics2D)g.create();
+                    m.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    m.translate(marker.getX(), marker.getY());
+                    m.setColor(DANGER_RED);
+                    m.fillOval(-6, -6, 12, 12);
+                    m.setColor(Color.WHITE);
+                    m.setStroke(ThemeRenderer.stroke(2));
+                    m.drawOval(-6, -6, 12, 12);
+                    m.dispose();
+                }
+            }
+        };
+        mapLabel.setPreferredSize(new Dimension(campusMap.getIconWidth(), campusMap.getIconHeight()));
+        mapLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        mapLabel.addMouseListener(new MouseAdapter() {
+            public void mouseClicked(MouseEvent e) {
+                if (guessedLocation == null && countdownTimer != null && countdownTimer.isRunning()) {
+                    mapViewport.layout(mapLabel.getWidth(), mapLabel.getHeight(), mapLabel.getInsets());
+                    Point2D mapPoint = mapViewport.toMap(e.getPoint());
+
+                    // Clicks on the letterbox around the map are not guesses
+                    if (!mapViewport.contains(mapPoint)) {
+                        return;
+                    }
+
+                    guessedLocation = mapPoint;
+                    mapLabel.repaint();
+
+                    if (JOptionPane.showConfirmDialog(frame,
+                            "Confirm your guess at this location?", "Confirm Guess",
+                            JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE) == JOptionPane.YES_OPTION) {
+                        submitGuess();
+                    } else {
+                        guessedLocation = null; // User cancelled, allow re-guessing
+                        mapLabel.repaint();
+                    }
+                }
+            }
+        });
+
+        panel.add(titleLabel, BorderLayout.NORTH);
+        panel.add(mapLabel, BorderLayout.CENTER);
+        if (classroom != null) {
+            panel.add(createStandingsPanel(), BorderLayout.SOUTH);
+        }
+
+        return panel;
+    }
+
+    // Classroom mode: what the server is doing and the room's live top ten, under the map
+    private JPanel createStandingsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.setOpaque(false);
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 0, 0, 0));
+
+        classroomStatus = new JLabel("Joining the classroom...", SwingConstants.CENTER);
+        classroomStatus.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        classroomStatus.setForeground(ACCENT_PURPLE);
+
+        standingsModel = new DefaultListModel<>();
+        JList<String> standings = new JList<>(standingsModel);
+        standings.setFont(new Font(Font.MONOSPACED, Font.BOLD, 14));
+        standings.setForeground(TEXT_PRIMARY);
+        standings.setBackground(CARD_BG);
+        standings.setFocusable(false);
+        standings.setVisibleRowCount(Leaderboard.MAX_RANKINGS);
+
+        panel.add(classroomStatus, BorderLayout.NORTH);
+        panel.add(standings, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private JPanel createControlPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 0));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 30, 30, 30));
+        panel.setOpaque(false);
+
+        hintButton = createModernButton("GET HINT (Cost: 50)", WARNING_ORANGE);
+        hintButton.setEnabled(false);
+        hintButton.addActionListener(e -> showHint());
+
+        submitButton = createModernButton("SUBMIT GUESS", SUCCESS_GREEN);
+        submitButton.addActionListener(e -> {
+            if (guessedLocation == null) {
+                JOptionPane.showMessageDialog(frame, "Please click on the map to make a guess first!", "No Guess", JOptionPane.WARNING_MESSAGE);
+            } else {
+                submitGuess();
+            }
+        });
+
+        panel.add(hintButton);
+        panel.add(submitButton);
+
+        return panel;
+    }
+
+    private JButton createModernButton(String text, Color color) {
+        JButton button = new JButton(text) {
+            protected void paintComponent(Graphics g) {
+                ThemeRenderer.paintButton(g, this, color, 12);
+            }
+        };
+
+        button.setPreferredSize(new Dimension(200, 50));
+        button.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        button.setOpaque(false);
+        button.setBorderPainted(false);
+        button.setContentAreaFilled(false);
+        button.setFocusPainted(false);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        return button;
+    }
+
+    private void startGame() {
+        while (username == null || username.trim().isEmpty()) {
+            username = JOptionPane.showInputDialog(frame, "Enter your username:", "Welcome", JOptionPane.PLAIN_MESSAGE);
+            if (username == null) {
+                System.exit(0);
+            }
+
+            if (username.trim().length() > 12) {
+                JOptionPane.showMessageDialog(frame, "Maximum 12 characters allowed.", "Invalid Username", JOptionPane.WARNING_MESSAGE);
+                username = null;
+            }
+        }
+
+        userLabel.setText(username);
+        loadProfile();
+        frame.setVisible(true);
+        sessionActive = true;
+        GameMetrics.ACTIVE_SESSIONS.increment();
+        // Reset game state for a new game
+        currentRound = 1;
+        totalScore = 0;
+        gameStartMillis = System.currentTimeMillis();
+        roundsTimedOut = 0;
+        roundLabel.setText(currentRound + "/" + totalRounds);
+        scoreLabel.setText(String.valueOf(totalScore));
+
+        if (classroom != null) {
+            joinClassroom();
+            return;
+        }
+        if (remote != null) {
+            startRemoteGame();
+            return;
+        }
+
+        difficulty.startGame(); // Every location can come up again
+
+        // Seeded explicitly for the replay; rounds are picked adaptively, so the audit checks them by id
+        long seed = new Random().nextLong();
+        random = new Random(seed);
+        recorder = new SessionRecorder(seed, username, totalRounds, SessionLog.SELECTION_ADAPTIVE,
+                System.currentTimeMillis());
+
+        loadNewRound();
+    }
+
+    private void loadNewRound() {
+        if (difficulty.remaining() == 0 || currentRound > totalRounds) {
+            endGame();
+            return;
+        }
+
+        timeLeft = ScoreRules.ROUND_SECONDS;
+        timerLabel.setText(String.valueOf(timeLeft));
+        hintButton.setEnabled(false);
+        hintLabel.setText("10s");
+        guessedLocation = null;
+
+        stopRoundTimers();
+        roundClockStarted = false;
+
+        Location round = LocationCatalog.get(difficulty.nextRound(random));
+        currentLocation = round.getName();
+        currentLocationId = round.getId();
+        roundHintUsed = false;
+        actualLocation = new Point(round.getMapX(), round.getMapY());
+        recorder.roundStarted(currentRound, round.getId());
+
+        loadRoundImage(round);
+    }
+
+    private void loadRoundImage(Location round) {
+        loadRoundImage(round.getImage(), null);
+    }
+
+    // Decode off the EDT, from the assets or, in remote play, from the photo stream (null otherwise).
+    // Outside classroom mode the round clock starts once the first pixels are on screen.
+    private void loadRoundImage(String photoName, InputStream photo) {
+        GameMetrics.ROUNDS_STARTED.increment();
+        long loadStart = System.nanoTime();
+
+        cancelRoundImageLoad();
+        roundImage = null;
+        imageLabel.setIcon(null);
+        RoundImageLoader.Listener listener = new RoundImageLoader.Listener() {
+            public void previewReady(BufferedImage preview) {
+                showRoundImage(preview);
+            }
+
+            public void imageReady(BufferedImage image) {
+                GameMetrics.ROUND_LOAD_SECONDS.record(System.nanoTime() - loadStart);
+                showRoundImage(image);
+            }
+
+            public void loadFailed(IOException e) {
+                JOptionPane.showMessageDialog(frame, "Error loading image: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                // A round without its photo can't be played; end the game rather than guess blind
+                endGame();
+            }
+        };
+        roundImageWorker = photo != null ? roundImageLoader.load(photoName, photo, listener)
+                : roundImageLoader.load(photoName, listener);
+    }
+
+    private void showRoundImage(BufferedImage image) {
+        if (image != roundImage) {
+            roundImage = image;
+            imageLabel.setIcon(fitToRoundView(image));
+        } else {
+            // Same image, more rows decoded
+            imageLabel.repaint();
+        }
+
+        if (!roundClockStarted) {
+            roundClockStarted = true;
+            if (remote != null) {
+                remoteClockStarted();
+            } else {
+                recorder.clockStarted(currentRound);
+            }
+            startRoundTimers();
+        }
+    }
+
+    // Draws any image (thumbnail, partial or full decode) at the round view size
+    private Icon fitToRoundView(BufferedImage image) {
+        return new Icon() {
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                Graphics2D g2d = (Graphics2D)g.create();
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.drawImage(image, x, y, ROUND_IMAGE_WIDTH, ROUND_IMAGE_HEIGHT, null);
+                g2d.dispose();
+            }
+
+            public int getIconWidth() {
+                return ROUND_IMAGE_WIDTH;
+            }
+
+            public int getIconHeight() {
+                return ROUND_IMAGE_HEIGHT;
+            }
+        };
+    }
+
+    private void cancelRoundImageLoad() {
+        if (roundImageWorker != null) {
+            roundImageWorker.cancel(false);
+            roundImageWorker = null;
+        }
+    }
+
+    private void stopRoundTimers() {
+        if (countdownTimer != null) {
+            countdownTimer.stop();
+        }
+
+        if (hintTimer != null) {
+            hintTimer.stop();
+        }
+    }
+
+    private void startRoundTimers() {
+        countdownTimer = new Timer(1000, e -> {
+            timeLeft--;
+            timerLabel.setText(String.valueOf(timeLeft));
+            if (timeLeft <= 0) {
+                countdownTimer.stop();
+                if (classroom != null) {
+                    classroomTimeUp();
+                } else if (remote != null) {
+                    remoteTimeUp();
+                } else {
+                    timeExpired();
+                }
+            }
+        });
+        countdownTimer.start();
+
+        if (classroom != null || remote != null) {
+            return; // No hints when a server keeps score, everyone plays on the same terms
+        }
+
+        hintTimer = new Timer(1000, new ActionListener() {
+            int count = 10;
+
+            public void actionPerformed(ActionEvent e) {
+                count--;
+                hintLabel.setText(count + "s");
+                if (count == 3) {
+                    // Start blurring the picture hint so it is ready if the player asks for it
+                    visualHint.render(currentLocationId, null);
+                }
+                if (count <= 0) {
+                    hintTimer.stop();
+                    hintButton.setEnabled(true);
+                    hintLabel.setText("Ready!");
+                }
+            }
+        });
+        hintTimer.start();
+    }
+
+    private void showHint() {
+        if (totalScore >= ScoreRules.HINT_COST) {
+            totalScore -= ScoreRules.HINT_COST;
+            recorder.hintUsed(currentRound, ScoreRules.HINT_COST);
+            roundHintUsed = true;
+            scoreLabel.setText(String.valueOf(totalScore));
+            VisualHint.HintView view = new VisualHint.HintView(HINT_IMAGE_WIDTH, HINT_IMAGE_HEIGHT);
+            visualHint.render(currentLocationId, view);
+            JOptionPane.showMessageDialog(frame, new Object[]{LocationHints.get(currentLocationId), view}, "Hint",
+                    JOptionPane.INFORMATION_MESSAGE);
+            hintButton.setEnabled(false);
+            hintLabel.setText("Used");
+        } else {
+            JOptionPane.showMessageDialog(frame, "You need at least 50 points for a hint.", "Insufficient Points", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private void submitGuess() {
+        if (countdownTimer != null) {
+            countdownTimer.stop();
+        }
+
+        if (hintTimer != null) {
+            hintTimer.stop();
+        }
+
+        if (guessedLocation == null || (actualLocation == null && remote == null)) {
+            JOptionPane.showMessageDialog(frame, "Please click on the map to make a guess first!", "No Guess", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        if (classroom != null) {
+            submitClassroomGuess();
+            return;
+        }
+        if (remote != null) {
+            submitRemoteGuess();
+            return;
+        }
+
+        double pixelDistance = actualLocation.distance(guessedLocation);
+        int points = ScoreRules.roundPoints(pixelDistance, timeLeft);
+        totalScore += points;
+        recorder.guessed(currentRound, guessedLocation.getX(), guessedLocation.getY(), timeLeft, points);
+        GameHistory.guessed(recorder.getStartMillis(), currentRound, currentLocationId, roundHintUsed,
+                guessedLocation.getX(), guessedLocation.getY(), timeLeft, points);
+        difficulty.recordGuess(currentLocationId, pixelDistance, roundHintUsed, points);
+        GameMetrics.GUESSES.increment();
+        GameMetrics.ROUND_POINTS.record(points);
+
+        GameEvents.GuessSubmitEvent event = new GameEvents.GuessSubmitEvent();
+        if (event.isEnabled()) {
+            event.round = currentRound;
+            event.location = currentLocation;
+            event.distance = pixelDistance;
+            event.secondsLeft = timeLeft;
+            event.points = points;
+            event.commit();
+        }
+
+        showRoundResult(pixelDistance, points);
+
+        currentRound++;
+        roundLabel.setText(currentRound + "/" + totalRounds);
+        scoreLabel.setText(String.valueOf(totalScore));
+        guessedLocation = null;
+        mapLabel.repaint();
+        loadNewRound();
+    }
+
+    private void showRoundResult(double pixelDistance, int points) {
+        String message = String.format("\uD83C\uDFAF ROUND %d RESULTS\n\n" +
+                        "✅ Correct Location: %s\n" +
+                        "\uD83D\uDCCD Your Guess: %.0f pixels away\n" +
+                        "⭐ Points Earned: %d points\n" +
+                        "\uD83C\uDFC6 Total Score: %d points",
+                currentRound, currentLocation, pixelDistance, points, totalScore);
+
+        showHeatmap();
+        JOptionPane.showMessageDialog(frame, message, "Round Results", JOptionPane.INFORMATION_MESSAGE);
+        heatmapLocationId = -1;
+    }
+
+    private void showTimeUp() {
+        showHeatmap();
+        JOptionPane.showMessageDialog(frame,
+                "⏰ Time's Up!\n\nCorrect Location: " + currentLocation + "\n\nNo points earned for this round.",
+                "Time Expired", JOptionPane.WARNING_MESSAGE);
+        heatmapLocationId = -1;
+    }
+
+    // Where everyone else clicked for this location, behind the round result dialog
+    private void showHeatmap() {
+        if (heatmap != null) {
+            heatmapLocationId = currentLocationId;
+            mapLabel.repaint();
+        }
+    }
+
+    private void timeExpired() {
+        if (countdownTimer != null) {
+            countdownTimer.stop();
+        }
+        if (hintTimer != null) {
+            hintTimer.stop();
+        }
+        difficulty.recordTimeout(currentLocationId, roundHintUsed);
+        roundsTimedOut++;
+        GameMetrics.ROUNDS_TIMED_OUT.increment();
+        recorder.timedOut(currentRound);
+        GameHistory.timedOut(recorder.getStartMillis(), currentRound, currentLocationId, roundHintUsed);
+
+        showTimeUp();
+
+        currentRound++;
+        roundLabel.setText(currentRound + "/" + totalRounds);
+        guessedLocation = null;
+        mapLabel.repaint();
+        loadNewRound();
+    }
+
+    private void endGame() {
+        stopRoundTimers();
+        cancelRoundImageLoad();
+        if (classroom != null && sessionActive) {
+            classroom.close();
+            GameHistory.sessionEnded();
+        }
+        if (remote != null && sessionActive) {
+            remote.close();
+            GameHistory.sessionEnded();
+        }
+        String bestLine = "";
+        if (sessionActive) {
+            sessionActive = false;
+            GameMetrics.ACTIVE_SESSIONS.decrement();
+            bestLine = recordPlayerGame();
+        }
+        if (recorder != null && !recorder.isEnded()) {
+            recorder.sessionEnded(totalScore);
+            saveReplay();
+            GameHistory.sessionEnded();
+        }
+
+        String performance;
+        if (totalScore > 5000) {
+            performance = "\uD83C\uDFC6 EXCELLENT WORK!";
+        } else if (totalScore > 3000) {
+            performance = "\uD83C\uDF89 GOOD JOB!";
+        } else {
+            performance = "\uD83D\uDC4D NICE TRY!";
+        }
+
+        String message = String.format("%s\n\n" +
+                        "Player: %s\n" + // Added username
+                        "\uD83C\uDFAF Final Score: %d points\n" +
+                        "\uD83D\uDD22 Rounds Completed: %d/%d\n" +
+                        "%s\n" +
+                        "Thanks for playing COMSATS Geo Guesser!",
+                performance, username, totalScore, currentRound - 1, totalRounds, bestLine);
+
+        Object[] options = {"Back to Main Menu", "Ranking", "Exit"};
+        int choice = JOptionPane.showOptionDialog(frame, message, "Game Over",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
+
+        switch (choice) {
+            case 0: // "Back to Main Menu"
+                frame.dispose(); // Close current game frame
+                // In a full application, you'd navigate back to a main menu.
+                // For this example, we'll just exit after showing a message.
+                JOptionPane.showMessageDialog(null, "Returning to main menu (functionality to be implemented).", "Main Menu", JOptionPane.INFORMATION_MESSAGE);
+                System.exit(0);
+                break;
+            case 1: // "Ranking"
+                // In a full application, you'd open a ranking/leaderboard window.
+                // Save the current player's score before showing rankings
+                GameRanking.addScore(username, totalScore);
+                new GameRanking(); // Create and show the GameRanking window
+                frame.dispose(); // Close the MainGame window
+// No System.exit(0) here, as GameRanking will handle its own exit or return to MainMenu
+                break;
+            case 2: // "Exit"
+            case JOptionPane.CLOSED_OPTION: // User clicked the 'x' to close dialog
+                frame.dispose();
+                System.exit(0);
+                break;
+        }
+    }
+
+    // Adds the game to the player's profile in the background (two writes and an fsync); the line about
+    // their personal best for the game over dialog comes from the profile loaded at the start
+    private String recordPlayerGame() {
+        int rounds = currentRound - 1;
+        if (rounds <= 0) {
+            return "";
+        }
+        int mode = classroom != null ? PlayerProfile.MODE_CLASSROOM
+                : remote != null ? PlayerProfile.MODE_REMOTE : PlayerProfile.MODE_SINGLE;
+        String name = username;
+        long startMillis = gameStartMillis;
+        int score = totalScore;
+        int timedOut = roundsTimedOut;
+        new SwingWorker<Void, Void>() {
+            protected Void doInBackground() {
+                PlayerStore.gameFinished(name, startMillis, score, rounds, timedOut, mode);
+                return null;
+            }
+        }.execute();
+
+        if (!profileLoaded) {
+            return "";
+        }
+        if (profile != null && score > profile.bestScore) {
+            return "\uD83C\uDF1F NEW PERSONAL BEST!\n";
+        }
+        return String.format("\uD83C\uDFC5 Personal Best: %d points\n", profile != null ? profile.bestScore : score);
+    }
+
+    private void joinClassroom() {
+        classroomStartMillis = System.currentTimeMillis();
+        roundLabel.setText("0/0");
+        hintLabel.setText("Off");
+        try {
+            classroom.join(username, new ClassroomClient.Listener() {
+                public void welcome(int playerId) {
+                    classroomStatus.setText("Waiting for the host to start the game...");
+                }
+
+                public void roundStarted(int round, int totalRounds, int locationId, int millisLeft) {
+                    classroomRoundStarted(round, totalRounds, locationId, millisLeft);
+                }
+
+                public void guessScored(int round, int points, int totalScore) {
+                    classroomGuessScored(round, points, totalScore);
+                }
+
+                public void standings(int round, int players, List<Leaderboard.PlayerScore> top) {
+                    showStandings(top);
+                }
+
+                public void roundEnded(int round, int locationId) {
+                    classroomRoundEnded(round);
+                }
+
+                public void gameOver(int roundsPlayed) {
+                    currentRound = roundsPlayed + 1;
+                    endGame();
+                }
+
+                public void disconnected(String reason) {
+                    classroomLost(reason);
+                }
+            });
+        } catch (IOException e) {
+            classroomLost("Could not join the classroom: " + e.getMessage());
+        }
+    }
+
+    // The same round for the whole room; the server's clock has been running for a moment already
+    private void classroomRoundStarted(int round, int roundCount, int locationId, int millisLeft) {
+        if (locationId < 0 || locationId >= LocationCatalog.size()) {
+            classroomLost("The classroom server has locations this version of the game doesn't know.");
+            return;
+        }
+        stopRoundTimers();
+        heatmapLocationId = -1;
+        currentRound = round;
+        totalRounds = roundCount;
+        roundLabel.setText(currentRound + "/" + totalRounds);
+
+        Location location = LocationCatalog.get(locationId);
+        currentLocation = location.getName();
+        currentLocationId = location.getId();
+        actualLocation = new Point(location.getMapX(), location.getMapY());
+        guessedLocation = null;
+        classroomGuessed = false;
+        mapLabel.repaint();
+
+        timeLeft = (millisLeft + 999) / 1000;
+        timerLabel.setText(String.valueOf(timeLeft));
+        roundClockStarted = true;
+        startRoundTimers();
+        loadRoundImage(location);
+        classroomStatus.setText("Round " + round + ": where was this photo taken?");
+    }
+
+    private void submitClassroomGuess() {
+        if (classroomGuessed) {
+            return;
+        }
+        try {
+            classroom.guess(currentRound, guessedLocation.getX(), guessedLocation.getY());
+            classroomGuessed = true;
+            classroomStatus.setText("Guess sent, waiting for the others...");
+        } catch (IOException e) {
+            classroomLost("Could not send your guess: " + e.getMessage());
+        }
+    }
+
+    private void classroomGuessScored(int round, int points, int newTotal) {
+        totalScore = newTotal;
+        scoreLabel.setText(String.valueOf(totalScore));
+        if (round != currentRound || guessedLocation == null) {
+            return;
+        }
+        GameHistory.guessed(classroomStartMillis, round, currentLocationId, false, guessedLocation.getX(),
+                guessedLocation.getY(), timeLeft, points);
+        GameMetrics.GUESSES.increment();
+        GameMetrics.ROUND_POINTS.record(points);
+        classroomStatus.setText(String.format("+%d points (%.0f pixels away), waiting for the others...", points,
+                actualLocation.distance(guessedLocation)));
+    }
+
+    private void classroomTimeUp() {
+        if (!classroomGuessed) {
+            classroomStatus.setText("Time's up! Waiting for the results...");
+        }
+    }
+
+    private void classroomRoundEnded(int round) {
+        stopRoundTimers();
+        if (!classroomGuessed) {
+            roundsTimedOut++;
+            GameHistory.timedOut(classroomStartMillis, round, currentLocationId, false);
+            GameMetrics.ROUNDS_TIMED_OUT.increment();
+        }
+        showHeatmap();
+        classroomStatus.setText("It was " + currentLocation + ". Next round in a moment...");
+    }
+
+    // Rewrites only the rows that changed, so a busy room doesn't repaint the whole list every update
+    private void showStandings(List<Leaderboard.PlayerScore> top) {
+        for (int i = 0; i < top.size(); i++) {
+            Leaderboard.PlayerScore score = top.get(i);
+            String row = String.format("%2d. %-12s %6d", i + 1, score.username, score.score);
+            if (i >= standingsModel.size()) {
+                standingsModel.addElement(row);
+            } else if (!row.equals(standingsModel.get(i))) {
+                standingsModel.set(i, row);
+            }
+        }
+        while (standingsModel.size() > top.size()) {
+            standingsModel.remove(standingsModel.size() - 1);
+        }
+    }
+
+    private void classroomLost(String reason) {
+        if (!sessionActive) {
+            return;
+        }
+        JOptionPane.showMessageDialog(frame, reason, "Classroom", JOptionPane.ERROR_MESSAGE);
+        endGame();
+    }
+
+    private void startRemoteGame() {
+        remoteStartMillis = System.currentTimeMillis();
+        hintLabel.setText("Off");
+        try {
+            remote.newGame(username, totalRounds, new RemotePlayClient.Listener() {
+                public void gameStarted(int roundCount) {
+                    totalRounds = roundCount;
+                    roundLabel.setText(currentRound + "/" + totalRounds);
+                }
+
+                public void roundStarted(int round, String photoName, InputStream photo) {
+                    Runnable start = () -> remoteRoundStarted(round, photoName, photo);
+                    if (remoteResultShowing) {
+                        pendingRemoteRound = start; // Its photo keeps streaming up to the credit window
+                    } else {
+                        start.run();
+                    }
+                }
+
+                public void result(int round, int locationId, boolean timedOut, int points, int newTotal) {
+                    remoteResult(round, locationId, timedOut, points, newTotal);
+                }
+
+                public void gameEnded(int rounds, int newTotal) {
+                    totalScore = newTotal;
+                    remoteGameOver = true;
+                    if (!remoteResultShowing) {
+                        currentRound = rounds + 1;
+                        endGame();
+                    }
+                }
+
+                public void failed(String reason) {
+                    remoteLost(reason);
+                }
+            });
+        } catch (IOException e) {
+            remoteLost("Could not start a remote game: " + e.getMessage());
+        }
+    }
+
+    private void remoteRoundStarted(int round, String photoName, InputStream photo) {
+        stopRoundTimers();
+        currentRound = round;
+        roundLabel.setText(currentRound + "/" + totalRounds);
+        timeLeft = ScoreRules.ROUND_SECONDS;
+        timerLabel.setText(String.valueOf(timeLeft));
+        // The server says where this was only with the result
+        actualLocation = null;
+        guessedLocation = null;
+        remoteAnswered = false;
+        roundClockStarted = false;
+        mapLabel.repaint();
+        loadRoundImage(photoName, photo);
+    }
+
+    private void remoteClockStarted() {
+        try {
+            remote.clockStarted(currentRound);
+        } catch (IOException e) {
+            remoteLost("Lost the remote play server: " + e.getMessage());
+        }
+    }
+
+    private void submitRemoteGuess() {
+        if (remoteAnswered) {
+            return;
+        }
+        try {
+            remote.guess(currentRound, guessedLocation.getX(), guessedLocation.getY());
+            remoteAnswered = true;
+        } catch (IOException e) {
+            remoteLost("Could not send your guess: " + e.getMessage());
+        }
+    }
+
+    private void remoteTimeUp() {
+        if (remoteAnswered) {
+            return;
+        }
+        try {
+            remote.timedOut(currentRound);
+            remoteAnswered = true;
+        } catch (IOException e) {
+            remoteLost("Lost the remote play server: " + e.getMessage());
+        }
+    }
+
+    private void remoteResult(int round, int locationId, boolean timedOut, int points, int newTotal) {
+        if (round != currentRound || locationId < 0 || locationId >= LocationCatalog.size()) {
+            remoteLost("The remote play server sent a result this version of the game doesn't understand.");
+            return;
+        }
+        stopRoundTimers();
+        Location location = LocationCatalog.get(locationId);
+        currentLocation = location.getName();
+        currentLocationId = location.getId();
+        actualLocation = new Point(location.getMapX(), location.getMapY());
+        totalScore = newTotal;
+        scoreLabel.setText(String.valueOf(totalScore));
+
+        remoteResultShowing = true;
+        if (timedOut || guessedLocation == null) {
+            roundsTimedOut++;
+            GameHistory.timedOut(remoteStartMillis, round, locationId, false);
+            GameMetrics.ROUNDS_TIMED_OUT.increment();
+            showTimeUp();
+        } else {
+            GameHistory.guessed(remoteStartMillis, round, locationId, false, guessedLocation.getX(),
+                    guessedLocation.getY(), timeLeft, points);
+            GameMetrics.GUESSES.increment();
+            GameMetrics.ROUND_POINTS.record(points);
+            showRoundResult(actualLocation.distance(guessedLocation), points);
+        }
+        remoteResultShowing = false;
+        if (!sessionActive) {
+            return; // The connection went while the dialog was up
+        }
+
+        currentRound++;
+        roundLabel.setText(currentRound + "/" + totalRounds);
+        guessedLocation = null;
+        mapLabel.repaint();
+        if (remoteGameOver) {
+            endGame();
+        } else if (pendingRemoteRound != null) {
+            Runnable start = pendingRemoteRound;
+            pendingRemoteRound = null;
+            start.run();
+        }
+    }
+
+    private void remoteLost(String reason) {
+        if (!sessionActive) {
+            return;
+        }
+        JOptionPane.showMessageDialog(frame, reason, "Remote Play", JOptionPane.ERROR_MESSAGE);
+        endGame();
+    }
+
+    // Keeps the session log next to rankings.txt so a disputed score can be checked with SessionAudit
+    private void saveReplay() {
+        if (Main.isRecordingDisabled()) {
+            return;
+        }
+        File dir = new File(REPLAY_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.println("Could not create replay directory " + dir.getAbsolutePath());
+            return;
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File file = new File(dir, stamp + "-" + username.replaceAll("[^A-Za-z0-9_-]", "_") + SessionLog.FILE_EXTENSION);
+        try (OutputStream out = new FileOutputStream(file)) {
+            recorder.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("Error saving replay: " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new MainGame());
+    }
+}
\ No newline at end of file
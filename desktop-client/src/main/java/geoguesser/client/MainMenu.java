@@ -1,10 +1,11 @@
+package geoguesser.client;
+
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.GradientPaint;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -12,15 +13,14 @@ import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
@@ -32,6 +32,7 @@ public class MainMenu extends JFrame implements ActionListener {
     private JLabel versionLabel;
     private JPanel buttonContainer;
     private JButton startButton;
+    private JButton classroomButton;
     private JButton leaderboardButton;
     private JButton tutorialButton;
     private JButton exitButton;
@@ -40,10 +41,12 @@ public class MainMenu extends JFrame implements ActionListener {
     private final Color SUCCESS_GREEN = new Color(34, 197, 94);
     private final Color WARNING_ORANGE = new Color(249, 115, 22);
     private final Color DANGER_RED = new Color(239, 68, 68);
+    private final Color ACCENT_PURPLE = new Color(168, 85, 247);
     private final Color DARK_BG = new Color(15, 23, 42);
     private final Color CARD_BG = new Color(30, 41, 59);
     private final Color TEXT_PRIMARY = new Color(248, 250, 252);
     private final Color TEXT_SECONDARY = new Color(148, 163, 184);
+    private final Color BACKDROP_SHADE = new Color(0, 0, 0, 100);
 
     public MainMenu() {
         this.loadBackgroundImage();
@@ -58,28 +61,7 @@ public class MainMenu extends JFrame implements ActionListener {
     }
 
     private void loadBackgroundImage() {
-        try {
-            System.out.println("Current working directory: " + System.getProperty("user.dir"));
-            String[] possiblePaths = new String[]{"background.jpg", "background.png", "src/background.jpg", "src/background.png", "./background.jpg", "./background.png"};
-
-            for(String path : possiblePaths) {
-                File imageFile = new File(path);
-                System.out.println("Trying to load: " + imageFile.getAbsolutePath());
-                System.out.println("File exists: " + imageFile.exists());
-                if (imageFile.exists()) {
-                    this.backgroundImage = ImageIO.read(imageFile);
-                    System.out.println("Background image loaded successfully from: " + path);
-                    return;
-                }
-            }
-
-            System.out.println("No background image found in any of the expected locations.");
-            System.out.println("Please place 'background.jpg' or 'background.png' in your project directory.");
-            this.backgroundImage = null;
-        } catch (IOException e) {
-            System.out.println("Error loading background image: " + e.getMessage());
-            this.backgroundImage = null;
-        }
+        this.backgroundImage = AssetCache.getBackground();
     }
 
     private void initComponents() {
@@ -91,7 +73,7 @@ public class MainMenu extends JFrame implements ActionListener {
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 if (MainMenu.this.backgroundImage != null) {
                     g2d.drawImage(MainMenu.this.backgroundImage, 0, 0, this.getWidth(), this.getHeight(), this);
-                    g2d.setColor(new Color(0, 0, 0, 100));
+                    g2d.setColor(MainMenu.this.BACKDROP_SHADE);
                     g2d.fillRect(0, 0, this.getWidth(), this.getHeight());
                 } else {
                     GradientPaint gradient = new GradientPaint(0.0F, 0.0F, MainMenu.this.DARK_BG, (float)this.getWidth(), (float)this.getHeight(), MainMenu.this.CARD_BG);
@@ -116,11 +98,13 @@ public class MainMenu extends JFrame implements ActionListener {
         this.buttonContainer.setOpaque(false);
 
         this.startButton = this.createButton("START GAME", this.PRIMARY_BLUE);
+        this.classroomButton = this.createButton("JOIN CLASSROOM", this.ACCENT_PURPLE);
         this.leaderboardButton = this.createButton("LEADERBOARD", this.SUCCESS_GREEN);
         this.tutorialButton = this.createButton("HOW TO PLAY", this.WARNING_ORANGE);
         this.exitButton = this.createButton("EXIT GAME", this.DANGER_RED);
 
         this.startButton.addActionListener(this);
+        this.classroomButton.addActionListener(this);
         this.leaderboardButton.addActionListener(this);
         this.tutorialButton.addActionListener(this);
         this.exitButton.addActionListener(this);
@@ -128,6 +112,8 @@ public class MainMenu extends JFrame implements ActionListener {
         this.buttonContainer.add(Box.createVerticalStrut(20));
         this.buttonContainer.add(this.startButton);
         this.buttonContainer.add(Box.createVerticalStrut(15));
+        this.buttonContainer.add(this.classroomButton);
+        this.buttonContainer.add(Box.createVerticalStrut(15));
         this.buttonContainer.add(this.leaderboardButton);
         this.buttonContainer.add(Box.createVerticalStrut(15));
         this.buttonContainer.add(this.tutorialButton);
@@ -143,23 +129,7 @@ public class MainMenu extends JFrame implements ActionListener {
         JButton button = new JButton(text) {
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D)g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                int w = this.getWidth();
-                int h = this.getHeight();
-                Color darkColor = new Color((int)((double)color.getRed() * 0.8), (int)((double)color.getGreen() * 0.8), (int)((double)color.getBlue() * 0.8));
-                GradientPaint gradient = new GradientPaint(0.0F, 0.0F, color, 0.0F, (float)h, darkColor);
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, w, h, 12, 12);
-                g2d.setColor(new Color(255, 255, 255, 51));
-                g2d.drawRoundRect(0, 0, w - 1, h - 1, 12, 12);
-                g2d.setColor(Color.WHITE);
-                g2d.setFont(this.getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int textW = fm.stringWidth(this.getText());
-                int textH = fm.getAscent();
-                g2d.drawString(this.getText(), (w - textW) / 2, (h + textH) / 2 - 2);
-                g2d.dispose();
+                ThemeRenderer.paintButton(g, this, color, 12);
             }
         };
         button.setPreferredSize(new Dimension(300, 50));
@@ -200,8 +170,15 @@ public class MainMenu extends JFrame implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == this.startButton) {
+            String remoteAddress = System.getProperty(RemotePlayClient.ADDRESS_PROPERTY);
+            if (remoteAddress != null) {
+                this.startRemoteGame(remoteAddress);
+                return;
+            }
             new MainGame();
             this.dispose();
+        } else if (e.getSource() == this.classroomButton) {
+            this.joinClassroom();
         } else if (e.getSource() == this.leaderboardButton) {
             new GameRanking();
             this.dispose();
@@ -213,6 +190,33 @@ public class MainMenu extends JFrame implements ActionListener {
         }
     }
 
+    // Everyone connected to the same ClassroomServer plays the same rounds at the same time
+    private void joinClassroom() {
+        Object address = JOptionPane.showInputDialog(this, "Classroom server (host or host:port):", "Join Classroom",
+                JOptionPane.PLAIN_MESSAGE, null, null, "localhost");
+        if (address == null || address.toString().trim().isEmpty()) {
+            return;
+        }
+        try {
+            new MainGame(ClassroomClient.connect(address.toString()));
+            this.dispose();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not reach the classroom server: " + ex.getMessage(),
+                    "Join Classroom", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // The game runs on a RemotePlayServer; this window only shows it
+    private void startRemoteGame(String address) {
+        try {
+            new MainGame(RemotePlayClient.connect(address));
+            this.dispose();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not reach the remote play server: " + ex.getMessage(),
+                    "Start Game", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
@@ -0,0 +1,71 @@
+package geoguesser.client;
+
+import java.awt.Insets;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+
+// Screen <-> map coordinate transform for the campus map.
+// The map is scaled to fit inside the component (inside its insets), keeping the aspect ratio
+// and centered. Painting, click hit testing and scoring all go through this one transform,
+// so a click always maps to the map pixel that was drawn under the cursor.
+// Coordinates are Swing user-space doubles, so HiDPI scaling is handled by Java2D underneath.
+public class MapViewport {
+    private final double mapWidth;
+    private final double mapHeight;
+    private final AffineTransform mapToScreen = new AffineTransform();
+    private final AffineTransform screenToMap = new AffineTransform();
+
+    public MapViewport(double mapWidth, double mapHeight) {
+        if (mapWidth <= 0 || mapHeight <= 0) {
+            throw new IllegalArgumentException("Map size must be positive: " + mapWidth + "x" + mapHeight);
+        }
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+    }
+
+    // Recompute the transform for the current component size. Cheap enough to call on every paint/click.
+    public void layout(int width, int height, Insets insets) {
+        double innerWidth = width - insets.left - insets.right;
+        double innerHeight = height - insets.top - insets.bottom;
+
+        if (innerWidth <= 0 || innerHeight <= 0) {
+            mapToScreen.setToIdentity();
+            screenToMap.setToIdentity();
+            return;
+        }
+
+        double scale = Math.min(innerWidth / mapWidth, innerHeight / mapHeight);
+        double offsetX = insets.left + (innerWidth - mapWidth * scale) / 2.0;
+        double offsetY = insets.top + (innerHeight - mapHeight * scale) / 2.0;
+
+        mapToScreen.setTransform(scale, 0, 0, scale, offsetX, offsetY);
+        // Inverse written out directly: uniform scale + translation, no need for createInverse()
+        screenToMap.setTransform(1.0 / scale, 0, 0, 1.0 / scale, -offsetX / scale, -offsetY / scale);
+    }
+
+    // Copy of the map -> screen transform, for concatenating onto a Graphics2D before drawing the map
+    public AffineTransform getTransform() {
+        return new AffineTransform(mapToScreen);
+    }
+
+    public Point2D toMap(Point2D screenPoint) {
+        return screenToMap.transform(screenPoint, new Point2D.Double());
+    }
+
+    public Point2D toScreen(Point2D mapPoint) {
+        return mapToScreen.transform(mapPoint, new Point2D.Double());
+    }
+
+    public boolean contains(Point2D mapPoint) {
+        return mapPoint.getX() >= 0 && mapPoint.getX() <= mapWidth
+                && mapPoint.getY() >= 0 && mapPoint.getY() <= mapHeight;
+    }
+
+    public double getMapWidth() {
+        return mapWidth;
+    }
+
+    public double getMapHeight() {
+        return mapHeight;
+    }
+}
@@ -0,0 +1,207 @@
+package geoguesser.client;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// BK-tree of PhotoHashes keyed by pHash Hamming distance. Hamming distance is a metric, so a
+// lookup within radius r only descends into children whose edge distance d to the node satisfies
+// |d - dist(probe, node)| <= r; with a small radius that visits a small part of the tree instead of
+// comparing against every photo. A pHash match is confirmed with the dHash so that two different
+// photos with a similar overall layout are not flagged.
+// Different shots of one spot (cs_lawn.png and cs_lawn (2).png) are too far apart in either hash to
+// tell from unrelated photos, so they are a second, warning-only tier found by where the photos are
+// labelled on the map instead (findSameSpot).
+public final class NearDuplicateIndex {
+    // Bits out of 64 a resized, re-encoded or slightly cropped copy of a photo may differ by
+    public static final int PHASH_RADIUS = 12;
+    public static final int DHASH_RADIUS = 16;
+    // Map pixels between two labels that count as the same spot
+    public static final int SAME_SPOT_RADIUS = 12;
+
+    public static final class Match {
+        private final PhotoHash photo;
+        private final int pHashDistance;
+        private final int dHashDistance;
+
+        Match(PhotoHash photo, int pHashDistance, int dHashDistance) {
+            this.photo = photo;
+            this.pHashDistance = pHashDistance;
+            this.dHashDistance = dHashDistance;
+        }
+
+        public PhotoHash getPhoto() {
+            return photo;
+        }
+
+        public int getPHashDistance() {
+            return pHashDistance;
+        }
+
+        public int getDHashDistance() {
+            return dHashDistance;
+        }
+
+        @Override
+        public String toString() {
+            return photo.getName() + " (pHash " + pHashDistance + ", dHash " + dHashDistance + " bits apart)";
+        }
+    }
+
+    private static final class Node {
+        final PhotoHash photo;
+        // Indexed by distance to this node, 0..64; allocated with the first child
+        Node[] children;
+
+        Node(PhotoHash photo) {
+            this.photo = photo;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public synchronized void add(PhotoHash photo) {
+        size++;
+        if (root == null) {
+            root = new Node(photo);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = PhotoHash.distance(photo.getPHash(), node.photo.getPHash());
+            if (node.children == null) {
+                node.children = new Node[65];
+            }
+            Node child = node.children[distance];
+            if (child == null) {
+                node.children[distance] = new Node(photo);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Other photos within the radii of the probe, closest first. The probe itself (same name) is skipped.
+    public synchronized List<Match> findNearDuplicates(PhotoHash probe) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = PhotoHash.distance(probe.getPHash(), node.photo.getPHash());
+            if (distance <= PHASH_RADIUS && !node.photo.getName().equals(probe.getName())) {
+                int dDistance = PhotoHash.distance(probe.getDHash(), node.photo.getDHash());
+                if (dDistance <= DHASH_RADIUS) {
+                    matches.add(new Match(node.photo, distance, dDistance));
+                }
+            }
+            if (node.children != null) {
+                int from = Math.max(0, distance - PHASH_RADIUS);
+                int to = Math.min(64, distance + PHASH_RADIUS);
+                for (int d = from; d <= to; d++) {
+                    if (node.children[d] != null) {
+                        pending.add(node.children[d]);
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::getPHashDistance).thenComparingInt(Match::getDHashDistance));
+        return matches;
+    }
+
+    // Locations labelled within SAME_SPOT_RADIUS of the map point, closest first, except the photo itself
+    public static List<Location> findSameSpot(List<Location> locations, String image, double mapX, double mapY) {
+        List<Location> matches = new ArrayList<>();
+        for (Location location : locations) {
+            if (!location.getImage().equals(image) && spotDistance(location, mapX, mapY) <= SAME_SPOT_RADIUS) {
+                matches.add(location);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(location -> spotDistance(location, mapX, mapY)));
+        return matches;
+    }
+
+    private static double spotDistance(Location location, double mapX, double mapY) {
+        return Math.hypot(location.getMapX() - mapX, location.getMapY() - mapY);
+    }
+
+    // Hashes the catalog photos plus any photo files or directories given, and lists near-duplicates,
+    // then catalog photos taken at the same spot: NearDuplicateIndex [photo or directory]...
+    public static void main(String[] args) {
+        Set<String> assets = new LinkedHashSet<>();
+        for (Location location : LocationCatalog.all()) {
+            assets.add(location.getImage());
+        }
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            collect(new File(arg), files);
+        }
+
+        long start = System.nanoTime();
+        List<PhotoHash> hashes = PhotoHash.hashAll(assets, files);
+        long hashed = System.nanoTime();
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        for (PhotoHash hash : hashes) {
+            index.add(hash);
+        }
+        int pairs = 0;
+        for (PhotoHash hash : hashes) {
+            for (Match match : index.findNearDuplicates(hash)) {
+                // Each pair is found from both ends; print it once
+                if (hash.getName().compareTo(match.getPhoto().getName()) < 0) {
+                    System.out.println(hash.getName() + "  ~  " + match);
+                    pairs++;
+                }
+            }
+        }
+        long done = System.nanoTime();
+        System.out.printf("%d photos hashed in %.0f ms, %d near-duplicate pairs found in %.1f ms%n",
+                hashes.size(), (hashed - start) / 1e6, pairs, (done - hashed) / 1e6);
+
+        int spots = 0;
+        for (Location location : LocationCatalog.all()) {
+            for (Location other : findSameSpot(LocationCatalog.all(), location.getImage(), location.getMapX(), location.getMapY())) {
+                if (location.getImage().compareTo(other.getImage()) < 0) {
+                    System.out.println(location.getImage() + "  @  " + other.getImage() + " (same spot, "
+                            + Math.round(spotDistance(other, location.getMapX(), location.getMapY())) + " px apart)");
+                    spots++;
+                }
+            }
+        }
+        System.out.printf("%d catalog pairs taken at the same spot%n", spots);
+    }
+
+    private static void collect(File file, List<File> files) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                List<File> sorted = new ArrayList<>();
+                Collections.addAll(sorted, children);
+                Collections.sort(sorted);
+                for (File child : sorted) {
+                    collect(child, files);
+                }
+            }
+        } else {
+            String name = file.getName().toLowerCase();
+            if (name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+                files.add(file);
+            }
+        }
+    }
+}
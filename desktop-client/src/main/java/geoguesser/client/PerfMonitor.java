@@ -0,0 +1,288 @@
+package geoguesser.client;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyEvent;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import javax.swing.*;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Where does the stutter come from? Times EDT dispatch (through a custom EventQueue), how long events
+// waited in the queue, paintComponent of the game's cards, image loads and GC pauses.
+// Press F3 in any window to toggle an overlay with count / average / max per measurement since it was
+// opened. The same measurements are emitted as JFR events (category "GeoGuesser"), so a recording
+// from lab hardware can be inspected later:
+//   java -XX:StartFlightRecording=filename=geoguesser.jfr -jar geoguesser.jar
+// GC pauses are only shown in the overlay; JFR already records them as jdk.GarbageCollection.
+public final class PerfMonitor {
+    public static final int TOGGLE_KEY = KeyEvent.VK_F3;
+
+    // EDT work longer than one 60 Hz frame is what shows up as a stutter
+    private static final long SLOW_DISPATCH_NANOS = 16_000_000L;
+    private static final int REFRESH_MILLIS = 500;
+
+    private static final Map<String, Stat> stats = new ConcurrentSkipListMap<>();
+    private static volatile boolean recording;
+    private static boolean installed;
+    private static JWindow overlay;
+    private static Timer refreshTimer;
+
+    private PerfMonitor() {
+    }
+
+    // Call once, before the first window is shown
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimedEventQueue());
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(e -> {
+            if (e.getID() == KeyEvent.KEY_PRESSED && e.getKeyCode() == TOGGLE_KEY) {
+                toggleOverlay();
+                return true;
+            }
+            return false;
+        });
+        listenForGcPauses();
+    }
+
+    // Usage inside paintComponent:
+    //   long paintStart = System.nanoTime();
+    //   ... painting ...
+    //   PerfMonitor.paintDone("timer card", paintStart);
+    public static void paintDone(String component, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        if (recording) {
+            record("paint  " + component, nanos);
+        }
+        PaintEvent event = new PaintEvent();
+        if (event.isEnabled()) {
+            event.component = component;
+            event.paintTime = nanos;
+            event.commit();
+        }
+    }
+
+    public static void imageLoaded(String asset, long nanos) {
+        if (recording) {
+            record("image  " + asset, nanos);
+        }
+        ImageLoadEvent event = new ImageLoadEvent();
+        if (event.isEnabled()) {
+            event.asset = asset;
+            event.loadTime = nanos;
+            event.commit();
+        }
+    }
+
+    // One blur step of a picture hint (VisualHint), rendered off the EDT
+    public static void hintBlurred(double sigma, int width, int height, long nanos) {
+        if (recording) {
+            record("hint   blur", nanos);
+        }
+        GameMetrics.HINT_BLUR_SECONDS.record(nanos);
+        HintBlurEvent event = new HintBlurEvent();
+        if (event.isEnabled()) {
+            event.sigma = sigma;
+            event.width = width;
+            event.height = height;
+            event.blurTime = nanos;
+            event.commit();
+        }
+    }
+
+    private static void dispatched(AWTEvent e, long dispatchNanos) {
+        // Input and invocation events (which includes Swing timers) carry their creation time
+        long waitNanos = -1;
+        if (e instanceof InvocationEvent) {
+            waitNanos = (System.currentTimeMillis() - ((InvocationEvent)e).getWhen()) * 1_000_000L;
+        } else if (e instanceof InputEvent) {
+            waitNanos = (System.currentTimeMillis() - ((InputEvent)e).getWhen()) * 1_000_000L;
+        }
+
+        record("edt    dispatch", dispatchNanos);
+        if (waitNanos >= 0) {
+            record("edt    queue wait", waitNanos);
+        }
+
+        if (dispatchNanos >= SLOW_DISPATCH_NANOS) {
+            SlowDispatchEvent event = new SlowDispatchEvent();
+            if (event.isEnabled()) {
+                event.eventType = e.getClass().getSimpleName();
+                event.source = e.getSource() != null ? e.getSource().getClass().getName() : null;
+                event.dispatchTime = dispatchNanos;
+                event.queueWait = Math.max(0, waitNanos);
+                event.commit();
+            }
+        }
+    }
+
+    private static void record(String key, long nanos) {
+        if (recording) {
+            stats.computeIfAbsent(key, k -> new Stat()).add(nanos);
+        }
+    }
+
+    private static void listenForGcPauses() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter)) {
+                continue;
+            }
+            ((NotificationEmitter)gc).addNotificationListener((notification, handback) -> {
+                if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    GarbageCollectionNotificationInfo info =
+                            GarbageCollectionNotificationInfo.from((CompositeData)notification.getUserData());
+                    record("gc     " + info.getGcName(), info.getGcInfo().getDuration() * 1_000_000L);
+                }
+            }, null, null);
+        }
+    }
+
+    private static void toggleOverlay() {
+        if (overlay != null) {
+            recording = false;
+            refreshTimer.stop();
+            overlay.dispose();
+            overlay = null;
+            return;
+        }
+
+        stats.clear();
+        recording = true;
+
+        JTextArea text = new JTextArea();
+        text.setEditable(false);
+        text.setFocusable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        text.setBackground(new Color(15, 23, 42));
+        text.setForeground(new Color(248, 250, 252));
+        text.setBorder(BorderFactory.createEmptyBorder(8, 10, 8, 10));
+
+        overlay = new JWindow();
+        overlay.setAlwaysOnTop(true);
+        overlay.setFocusableWindowState(false);
+        overlay.add(text);
+
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> {
+            text.setText(report());
+            overlay.pack();
+        });
+        text.setText(report());
+        overlay.pack();
+        overlay.setLocation(20, 20);
+        overlay.setVisible(true);
+        refreshTimer.start();
+    }
+
+    static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-36s %7s %9s %9s%n", "F3 to close", "count", "avg ms", "max ms"));
+        for (Map.Entry<String, Stat> entry : stats.entrySet()) {
+            Stat stat = entry.getValue();
+            synchronized (stat) {
+                sb.append(String.format("%-36s %7d %9.2f %9.2f%n", entry.getKey(), stat.count,
+                        stat.totalNanos / 1e6 / stat.count, stat.maxNanos / 1e6));
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static final class Stat {
+        long count;
+        long totalNanos;
+        long maxNanos;
+
+        synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+
+    private static final class TimedEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            long start = System.nanoTime();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                dispatched(event, System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Name("geoguesser.SlowDispatch")
+    @Label("Slow EDT Dispatch")
+    @Category("GeoGuesser")
+    @Description("An event that kept the Swing event dispatch thread busy for longer than a frame")
+    static class SlowDispatchEvent extends Event {
+        @Label("Event Type")
+        String eventType;
+
+        @Label("Source")
+        String source;
+
+        @Label("Dispatch Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long dispatchTime;
+
+        @Label("Queue Wait")
+        @Timespan(Timespan.NANOSECONDS)
+        long queueWait;
+    }
+
+    @Name("geoguesser.Paint")
+    @Label("Component Paint")
+    @Category("GeoGuesser")
+    static class PaintEvent extends Event {
+        @Label("Component")
+        String component;
+
+        @Label("Paint Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long paintTime;
+    }
+
+    @Name("geoguesser.ImageLoad")
+    @Label("Image Load")
+    @Category("GeoGuesser")
+    static class ImageLoadEvent extends Event {
+        @Label("Asset")
+        String asset;
+
+        @Label("Load Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long loadTime;
+    }
+
+    @Name("geoguesser.HintBlur")
+    @Label("Picture Hint Blur")
+    @Category("GeoGuesser")
+    static class HintBlurEvent extends Event {
+        @Label("Sigma")
+        double sigma;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Blur Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long blurTime;
+    }
+}
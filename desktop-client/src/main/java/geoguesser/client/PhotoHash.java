@@ -0,0 +1,185 @@
+package geoguesser.client;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Two 64-bit perceptual hashes of a photo, for spotting the same spot shot twice. Photos that
+// look alike have hashes a few bits apart (Hamming distance), whatever their size or encoding.
+//  - dHash: 9x8 grayscale thumbnail, one bit per "is this cell brighter than its right neighbour"
+//  - pHash: 32x32 grayscale thumbnail, 2D DCT, one bit per low-frequency 8x8 coefficient above
+//           their median; survives recompression, brightness changes and small crops better
+// Photos are decoded with RoundImageLoader's subsampling at HASH_DECODE_SIZE, so a 12 MP photo
+// costs about as much to hash as a thumbnail.
+public final class PhotoHash {
+    private static final int HASH_DECODE_SIZE = 128;
+    private static final int DCT_SIZE = 32;
+    private static final int DCT_KEEP = 8;
+    // cos((2x + 1) * u * pi / 2N) for the coefficients pHash keeps
+    private static final double[][] DCT_COS = new double[DCT_KEEP][DCT_SIZE];
+
+    static {
+        for (int u = 0; u < DCT_KEEP; u++) {
+            for (int x = 0; x < DCT_SIZE; x++) {
+                DCT_COS[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2 * DCT_SIZE));
+            }
+        }
+    }
+
+    private final String name;
+    private final long dHash;
+    private final long pHash;
+
+    private PhotoHash(String name, long dHash, long pHash) {
+        this.name = name;
+        this.dHash = dHash;
+        this.pHash = pHash;
+    }
+
+    public static PhotoHash of(String name, BufferedImage image) {
+        return new PhotoHash(name, dHash(image), pHash(image));
+    }
+
+    public static PhotoHash ofAsset(String asset) throws IOException {
+        try (InputStream in = AssetLocator.open(asset)) {
+            return of(asset, RoundImageLoader.decodeFitted(in, asset, HASH_DECODE_SIZE, HASH_DECODE_SIZE));
+        }
+    }
+
+    public static PhotoHash ofFile(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return of(file.getPath(), RoundImageLoader.decodeFitted(in, file.getPath(), HASH_DECODE_SIZE, HASH_DECODE_SIZE));
+        }
+    }
+
+    // Hashes assets and files in parallel. Photos that fail to decode are logged and left out.
+    public static List<PhotoHash> hashAll(Collection<String> assets, Collection<File> files) {
+        List<Callable<PhotoHash>> tasks = new ArrayList<>();
+        for (String asset : assets) {
+            tasks.add(() -> ofAsset(asset));
+        }
+        for (File file : files) {
+            tasks.add(() -> ofFile(file));
+        }
+        // Mostly decoding, which waits on the disk as much as the CPU (same sizing as AssetWarmup)
+        ForkJoinPool pool = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        List<PhotoHash> hashes = new ArrayList<>(tasks.size());
+        try {
+            for (Future<PhotoHash> result : pool.invokeAll(tasks)) {
+                try {
+                    hashes.add(result.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Could not hash photo: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return hashes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDHash() {
+        return dHash;
+    }
+
+    public long getPHash() {
+        return pHash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static long dHash(BufferedImage image) {
+        double[] cells = grayscale(image, 9, 8);
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash = hash << 1 | (cells[y * 9 + x] > cells[y * 9 + x + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static long pHash(BufferedImage image) {
+        double[] pixels = grayscale(image, DCT_SIZE, DCT_SIZE);
+        // Separable DCT-II, only the DCT_KEEP lowest frequencies on each axis: rows first, then columns
+        double[] rows = new double[DCT_SIZE * DCT_KEEP];
+        for (int y = 0; y < DCT_SIZE; y++) {
+            for (int u = 0; u < DCT_KEEP; u++) {
+                double sum = 0;
+                for (int x = 0; x < DCT_SIZE; x++) {
+                    sum += DCT_COS[u][x] * pixels[y * DCT_SIZE + x];
+                }
+                rows[y * DCT_KEEP + u] = sum;
+            }
+        }
+        double[] coefficients = new double[DCT_KEEP * DCT_KEEP];
+        for (int v = 0; v < DCT_KEEP; v++) {
+            for (int u = 0; u < DCT_KEEP; u++) {
+                double sum = 0;
+                for (int y = 0; y < DCT_SIZE; y++) {
+                    sum += DCT_COS[v][y] * rows[y * DCT_KEEP + u];
+                }
+                coefficients[v * DCT_KEEP + u] = sum;
+            }
+        }
+
+        // Median without the DC term, which only says how bright the photo is overall
+        double[] sorted = Arrays.copyOfRange(coefficients, 1, coefficients.length);
+        Arrays.sort(sorted);
+        double median = sorted[sorted.length / 2];
+        long hash = 0;
+        for (double coefficient : coefficients) {
+            hash = hash << 1 | (coefficient > median ? 1 : 0);
+        }
+        return hash;
+    }
+
+    // Box-filtered luma of the image on a width x height grid
+    private static double[] grayscale(BufferedImage image, int width, int height) {
+        int sourceWidth = image.getWidth();
+        int sourceHeight = image.getHeight();
+        double[] sums = new double[width * height];
+        int[] counts = new int[width * height];
+        int[] row = new int[sourceWidth];
+        for (int y = 0; y < sourceHeight; y++) {
+            image.getRGB(0, y, sourceWidth, 1, row, 0, sourceWidth);
+            int cellRow = y * height / sourceHeight * width;
+            for (int x = 0; x < sourceWidth; x++) {
+                int rgb = row[x];
+                int cell = cellRow + x * width / sourceWidth;
+                sums[cell] += 0.299 * (rgb >> 16 & 0xFF) + 0.587 * (rgb >> 8 & 0xFF) + 0.114 * (rgb & 0xFF);
+                counts[cell]++;
+            }
+        }
+        for (int i = 0; i < sums.length; i++) {
+            if (counts[i] > 0) {
+                sums[i] /= counts[i];
+            }
+        }
+        return sums;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s dHash %016x pHash %016x", name, dHash, pHash);
+    }
+}
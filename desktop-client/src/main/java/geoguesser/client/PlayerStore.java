@@ -0,0 +1,122 @@
+package geoguesser.client;
+
+import geoguesser.engine.store.KeyValueStore;
+import geoguesser.engine.store.PlayerProfile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Player profiles, personal bests, recent games and stats in a KeyValueStore under players/ in the
+// working directory (next to rankings.txt). Opened in the background at startup (openInBackground)
+// or on first use, and closed by a shutdown hook; a game's results are synced to disk when it ends.
+// Every call may touch the disk - opening replays the log after an unclean exit - so none of them
+// belong on the EDT.
+final class PlayerStore {
+    static final String STORE_DIR = "players";
+
+    private static KeyValueStore store;
+    private static boolean failed;
+
+    private PlayerStore() {
+    }
+
+    // Opens the store on a background thread, so the log replay after an unclean exit is done by the
+    // time a game asks for a profile
+    static void openInBackground() {
+        Thread thread = new Thread(PlayerStore::isAvailable, "player-store-open");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    static synchronized boolean isAvailable() {
+        return store() != null;
+    }
+
+    // The player's profile, or null for someone who hasn't finished a game here yet
+    static synchronized PlayerProfile profile(String username) {
+        KeyValueStore kv = store();
+        if (kv == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = kv.get(PlayerProfile.profileKey(username));
+            return bytes == null ? null : PlayerProfile.fromBytes(username, bytes);
+        } catch (IOException e) {
+            fail(e);
+            return null;
+        }
+    }
+
+    static synchronized List<PlayerProfile.Game> recentGames(String username) {
+        KeyValueStore kv = store();
+        if (kv == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return PlayerProfile.gamesFromBytes(kv.get(PlayerProfile.gamesKey(username)));
+        } catch (IOException e) {
+            fail(e);
+            return new ArrayList<>();
+        }
+    }
+
+    // Records a finished game; returns the updated profile (null if the store is unavailable)
+    static synchronized PlayerProfile gameFinished(String username, long startMillis, int score, int rounds,
+                                                   int timedOut, int mode) {
+        KeyValueStore kv = store();
+        if (kv == null) {
+            return null;
+        }
+        try {
+            PlayerProfile profile = profile(username);
+            if (profile == null) {
+                profile = new PlayerProfile(username, startMillis);
+            }
+            PlayerProfile.Game game = new PlayerProfile.Game(startMillis, score, rounds, mode);
+            profile.gameFinished(game, timedOut);
+            List<PlayerProfile.Game> games = new ArrayList<>(recentGames(username));
+            games.add(game);
+            // Two records, and a crash can land between them: the profile (stats and personal best) goes
+            // first, so at worst the game is missing from the recent games list
+            kv.put(PlayerProfile.profileKey(username), profile.toBytes());
+            kv.put(PlayerProfile.gamesKey(username), PlayerProfile.gamesToBytes(games));
+            kv.sync();
+            return profile;
+        } catch (IOException e) {
+            fail(e);
+            return null;
+        }
+    }
+
+    private static KeyValueStore store() {
+        if (store == null && !failed && !Main.isRecordingDisabled()) {
+            try {
+                store = KeyValueStore.open(Paths.get(STORE_DIR));
+                Runtime.getRuntime().addShutdownHook(new Thread(PlayerStore::close, "player-store-close"));
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return store;
+    }
+
+    private static synchronized void close() {
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Error closing player store: " + e.getMessage());
+            }
+            store = null;
+        }
+    }
+
+    private static void fail(IOException e) {
+        // Profiles are extras; the game goes on without them
+        System.err.println("Player store disabled: " + e.getMessage());
+        failed = true;
+        close();
+    }
+}
@@ -0,0 +1,273 @@
+package geoguesser.client;
+
+import geoguesser.engine.net.FrameReader;
+import geoguesser.engine.net.RemotePlayProtocol;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+// Desktop side of remote play: the RemotePlayServer runs the game, this only sends what the player
+// does and hands back what the server decided. Requests are pipelined (each carries a sequence
+// number, nothing waits for its ack before the next is sent) and the server follows a guess's RESULT
+// with the next ROUND in the same write.
+// A round's photo arrives as a PhotoStream that the RoundImageLoader decodes while the chunks are
+// still coming in. The stream grants the server more credit as the decoder consumes bytes, so at
+// most one credit window of photo is ever buffered here, however slow the decoder or the player.
+public final class RemotePlayClient {
+    // -Dgeoguesser.remote=host[:port] makes START GAME play against a RemotePlayServer
+    public static final String ADDRESS_PROPERTY = "geoguesser.remote";
+    // Credit goes back to the server in steps of this many consumed bytes
+    private static final int GRANT_BYTES = RemotePlayProtocol.INITIAL_CREDIT / 4;
+
+    // Calls come on the EDT. The photo stream is read off the EDT (RoundImageLoader) and closed when done.
+    public interface Listener {
+        void gameStarted(int totalRounds);
+
+        void roundStarted(int round, String photoName, InputStream photo);
+
+        void result(int round, int locationId, boolean timedOut, int points, int totalScore);
+
+        void gameEnded(int rounds, int totalScore);
+
+        void failed(String reason);
+    }
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(RemotePlayProtocol.MAX_MESSAGE_BYTES);
+    private int nextSeq;
+    private volatile boolean closed;
+    // The photo being streamed; only the reader thread replaces it
+    private PhotoStream photo;
+
+    private RemotePlayClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    // "host" or "host:port"
+    public static RemotePlayClient connect(String address) throws IOException {
+        return new RemotePlayClient(ClassroomClient.openChannel(address, RemotePlayProtocol.DEFAULT_PORT));
+    }
+
+    // Opens the credit window and asks for a game in one write, then starts listening
+    public void newGame(String username, int rounds, Listener listener) throws IOException {
+        synchronized (this) {
+            RemotePlayProtocol.credit(out, RemotePlayProtocol.INITIAL_CREDIT);
+            RemotePlayProtocol.newGame(out, nextSeq++, username, rounds);
+            flush();
+        }
+        Thread reader = new Thread(() -> readLoop(listener), "remote-play-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    // The round's first pixels are on screen; the server's clock for it starts now
+    public synchronized void clockStarted(int round) throws IOException {
+        RemotePlayProtocol.clockStart(out, round);
+        flush();
+    }
+
+    public synchronized void guess(int round, double x, double y) throws IOException {
+        RemotePlayProtocol.guess(out, nextSeq++, round, x, y);
+        flush();
+    }
+
+    public synchronized void timedOut(int round) throws IOException {
+        RemotePlayProtocol.timeout(out, nextSeq++, round);
+        flush();
+    }
+
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to tell the server
+        }
+    }
+
+    // Lets the server send this many more photo bytes; called from the decoder and the reader thread
+    private synchronized void grant(int bytes) {
+        if (bytes <= 0 || closed) {
+            return;
+        }
+        RemotePlayProtocol.credit(out, bytes);
+        try {
+            flush();
+        } catch (IOException e) {
+            close(); // The reader thread sees the channel go and reports it
+        }
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } finally {
+            out.clear();
+        }
+    }
+
+    private void readLoop(Listener listener) {
+        FrameReader reader = new FrameReader(RemotePlayProtocol.MAX_FRAME_BYTES);
+        RemotePlayProtocol.ServerMessages messages = new RemotePlayProtocol.ServerMessages() {
+            public void gameStarted(int seq, int totalRounds) {
+                SwingUtilities.invokeLater(() -> listener.gameStarted(totalRounds));
+            }
+
+            public void roundStarted(int round, String photoName, int photoBytes) {
+                if (photo != null) {
+                    photo.close(); // Whatever the last round's decoder didn't take is not coming
+                }
+                PhotoStream stream = new PhotoStream(round, photoBytes);
+                photo = stream;
+                SwingUtilities.invokeLater(() -> listener.roundStarted(round, photoName, stream));
+            }
+
+            // Straight into the stream from this thread, the decoder is waiting on it
+            public void photoChunk(int round, int offset, ByteBuffer data) {
+                byte[] bytes = new byte[data.remaining()];
+                data.get(bytes);
+                if (photo == null || photo.round != round || !photo.add(bytes)) {
+                    grant(bytes.length); // Nobody will read it, so it doesn't count against the window
+                }
+            }
+
+            public void result(int seq, int round, int locationId, boolean timedOut, int points, int totalScore) {
+                SwingUtilities.invokeLater(() -> listener.result(round, locationId, timedOut, points, totalScore));
+            }
+
+            public void gameEnded(int rounds, int totalScore) {
+                SwingUtilities.invokeLater(() -> listener.gameEnded(rounds, totalScore));
+            }
+
+            public void error(int seq, String message) {
+                SwingUtilities.invokeLater(() -> listener.failed("The server refused a request: " + message));
+            }
+        };
+        String reason = "The remote play server closed the connection.";
+        try {
+            while (reader.read(channel) >= 0) {
+                ByteBuffer frame;
+                while ((frame = reader.next()) != null) {
+                    RemotePlayProtocol.readServerMessage(frame, messages);
+                }
+            }
+        } catch (IOException e) {
+            reason = "Lost the remote play server: " + e.getMessage();
+        }
+        if (photo != null) {
+            photo.fail();
+        }
+        if (!closed) {
+            close();
+            String message = reason;
+            SwingUtilities.invokeLater(() -> listener.failed(message));
+        }
+    }
+
+    // One round's photo as it arrives. read() blocks until the next chunk is in; every GRANT_BYTES
+    // consumed (and whatever is left unread on close) go back to the server as credit.
+    private final class PhotoStream extends InputStream {
+        final int round;
+        private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+        private byte[] chunk;
+        private int chunkPos;
+        // Bytes of the photo not yet read, and bytes read but not yet granted back
+        private int unread;
+        private int ungranted;
+        private boolean closed;
+        private boolean failed;
+
+        PhotoStream(int round, int size) {
+            this.round = round;
+            this.unread = size;
+        }
+
+        // From the reader thread; false once the stream is closed
+        synchronized boolean add(byte[] bytes) {
+            if (closed) {
+                return false;
+            }
+            chunks.add(bytes);
+            notifyAll();
+            return true;
+        }
+
+        synchronized void fail() {
+            failed = true;
+            notifyAll();
+        }
+
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int count;
+            int grant = 0;
+            synchronized (this) {
+                while (!closed && unread > 0 && (chunk == null || chunkPos == chunk.length) && chunks.isEmpty()) {
+                    if (failed) {
+                        throw new IOException("The photo stopped arriving");
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted while waiting for the photo");
+                    }
+                }
+                if (closed || unread == 0) {
+                    return -1;
+                }
+                if (chunk == null || chunkPos == chunk.length) {
+                    chunk = chunks.poll();
+                    chunkPos = 0;
+                }
+                count = Math.min(len, chunk.length - chunkPos);
+                System.arraycopy(chunk, chunkPos, b, off, count);
+                chunkPos += count;
+                unread -= count;
+                ungranted += count;
+                if (ungranted >= GRANT_BYTES || unread == 0) {
+                    grant = ungranted;
+                    ungranted = 0;
+                }
+            }
+            grant(grant); // Outside the lock, the reader thread may be waiting for it to add a chunk
+            return count;
+        }
+
+        public void close() {
+            int grant;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                grant = ungranted;
+                ungranted = 0;
+                if (chunk != null) {
+                    grant += chunk.length - chunkPos;
+                    chunk = null;
+                }
+                for (byte[] bytes : chunks) {
+                    grant += bytes.length;
+                }
+                chunks.clear();
+                notifyAll();
+            }
+            grant(grant);
+        }
+    }
+}
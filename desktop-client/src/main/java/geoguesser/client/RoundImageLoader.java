@@ -0,0 +1,333 @@
+package geoguesser.client;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadUpdateListener;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.swing.SwingWorker;
+
+// Decodes a round's location photo off the EDT and hands out partial results as they arrive,
+// so something is on screen long before the whole PNG has been inflated.
+//  1. If the file carries an embedded thumbnail it is shown first.
+//  2. The full decode reports rows through IIOReadUpdateListener; the partially filled image is
+//     published (throttled) so the photo fills in top to bottom.
+//  3. The finished image replaces it.
+// Photos larger than the view are decoded with source subsampling, so a multi-megapixel file
+// never gets materialized at full resolution just to be shrunk afterwards.
+// All Listener callbacks run on the EDT.
+public class RoundImageLoader {
+    // Don't flood the EDT with row updates; ~30 refreshes a second is plenty for a reveal
+    private static final long PUBLISH_INTERVAL_NANOS = 33_000_000L;
+
+    public interface Listener {
+        // Called for the first visible pixels and then again for every refinement
+        void previewReady(BufferedImage preview);
+
+        void imageReady(BufferedImage image);
+
+        void loadFailed(IOException e);
+    }
+
+    private final int targetWidth;
+    private final int targetHeight;
+
+    public RoundImageLoader(int targetWidth, int targetHeight) {
+        this.targetWidth = targetWidth;
+        this.targetHeight = targetHeight;
+    }
+
+    // Where a photo's bytes come from; opened on the worker thread
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    // Loads a photo from the assets on the classpath (see AssetCache)
+    public SwingWorker<BufferedImage, BufferedImage> load(String asset, Listener listener) {
+        return load(asset, () -> AssetLocator.open(asset), null, true, listener);
+    }
+
+    // Loads a photo from a stream that may still be arriving (RemotePlayClient), decoding rows as the
+    // bytes come in. The stream is closed when the decode ends or is cancelled.
+    public SwingWorker<BufferedImage, BufferedImage> load(String name, InputStream photo, Listener listener) {
+        return load(name, () -> photo, photo, false, listener);
+    }
+
+    // opened is a stream the caller already opened, closed here too if the load is cancelled before
+    // (or while) the worker reads it
+    private SwingWorker<BufferedImage, BufferedImage> load(String asset, Source source, InputStream opened,
+                                                          boolean cached, Listener listener) {
+        long startNanos = System.nanoTime();
+        GameEvents.RoundLoadEvent event = new GameEvents.RoundLoadEvent();
+        event.begin();
+        event.asset = asset;
+
+        // Timing state lives in the worker, so a cancelled load still winding down can't touch the next one
+        SwingWorker<BufferedImage, BufferedImage> worker = new SwingWorker<BufferedImage, BufferedImage>() {
+            private long lastPublish;
+            private volatile long firstPixelNanos;
+
+            @Override
+            protected BufferedImage doInBackground() throws IOException {
+                long decodeStart = System.nanoTime();
+                // Already decoded during startup warm-up
+                BufferedImage warm = cached ? AssetCache.getCachedFittedImage(asset, targetWidth, targetHeight) : null;
+                if (warm != null) {
+                    event.cached = true;
+                    return warm;
+                }
+
+                try (InputStream raw = source.open();
+                     ImageInputStream in = new MemoryCacheImageInputStream(raw)) {
+                    ImageReader reader = readerFor(in, asset);
+                    try {
+                        reader.setInput(in, false, false);
+
+                        if (reader.readerSupportsThumbnails() && reader.getNumThumbnails(0) > 0) {
+                            markFirstPixel();
+                            publish(reader.readThumbnail(0, 0));
+                        }
+
+                        reader.addIIOReadUpdateListener(new RowUpdateListener() {
+                            @Override
+                            public void imageUpdate(ImageReader updated, BufferedImage theImage, int minX, int minY,
+                                                    int width, int height, int periodX, int periodY, int[] bands) {
+                                if (isCancelled()) {
+                                    // The round moved on; the reader stops at the next row instead of
+                                    // inflating the rest of a photo nobody will see
+                                    updated.abort();
+                                    return;
+                                }
+                                long now = System.nanoTime();
+                                if (firstPixelNanos == 0 || now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+                                    markFirstPixel();
+                                    lastPublish = now;
+                                    publish(theImage);
+                                }
+                            }
+                        });
+
+                        if (isCancelled()) {
+                            return null;
+                        }
+                        BufferedImage image = reader.read(0, fitReadParam(reader, targetWidth, targetHeight));
+                        event.decodeTime = System.nanoTime() - decodeStart;
+                        if (event.isEnabled()) {
+                            event.sourceWidth = reader.getWidth(0);
+                            event.sourceHeight = reader.getHeight(0);
+                            event.bytesRead = in.getStreamPosition();
+                        }
+                        return image;
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+            }
+
+            @Override
+            protected void process(List<BufferedImage> chunks) {
+                if (!isDone()) {
+                    listener.previewReady(chunks.get(chunks.size() - 1));
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    // doInBackground may never run to close it; closing twice is harmless
+                    closeQuietly(opened);
+                    return;
+                }
+                try {
+                    BufferedImage image = get();
+                    long fullImageNanos = System.nanoTime() - startNanos;
+                    if (firstPixelNanos == 0) {
+                        firstPixelNanos = fullImageNanos;
+                    }
+                    PerfMonitor.imageLoaded(asset, fullImageNanos);
+                    if (event.isEnabled()) {
+                        event.firstPixelTime = firstPixelNanos;
+                        event.width = image.getWidth();
+                        event.height = image.getHeight();
+                        event.decodedBytes = GameEvents.imageBytes(image);
+                        event.commit();
+                    }
+                    listener.imageReady(image);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    listener.loadFailed(cause instanceof IOException ? (IOException)cause : new IOException(cause));
+                }
+            }
+
+            private void markFirstPixel() {
+                if (firstPixelNanos == 0) {
+                    firstPixelNanos = System.nanoTime() - startNanos;
+                }
+            }
+        };
+        worker.execute();
+        return worker;
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Nobody is waiting for it any more
+            }
+        }
+    }
+
+    // Read param that subsamples the source down to (at least) the target size.
+    // Each axis gets its own integer period since the view stretches to the target size anyway;
+    // the source region is trimmed to whole periods so no partial sample row/column is produced.
+    static ImageReadParam fitReadParam(ImageReader reader, int targetWidth, int targetHeight) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        int sourceWidth = reader.getWidth(0);
+        int sourceHeight = reader.getHeight(0);
+
+        int periodX = Math.max(1, sourceWidth / targetWidth);
+        int periodY = Math.max(1, sourceHeight / targetHeight);
+        if (periodX > 1 || periodY > 1) {
+            int regionWidth = periodX > 1 ? (sourceWidth / periodX) * periodX : sourceWidth;
+            int regionHeight = periodY > 1 ? (sourceHeight / periodY) * periodY : sourceHeight;
+            param.setSourceRegion(new Rectangle(0, 0, regionWidth, regionHeight));
+            param.setSourceSubsampling(periodX, periodY, 0, 0);
+        }
+        return param;
+    }
+
+    // Synchronous decode with the same subsampling the worker uses
+    public static BufferedImage decodeFitted(String asset, int targetWidth, int targetHeight) throws IOException {
+        try (InputStream raw = AssetLocator.open(asset)) {
+            return decodeFitted(raw, asset, targetWidth, targetHeight);
+        }
+    }
+
+    // Decodes from any stream (asset, file); the stream is left open for the caller to close
+    static BufferedImage decodeFitted(InputStream raw, String name, int targetWidth, int targetHeight) throws IOException {
+        try (ImageInputStream in = new MemoryCacheImageInputStream(raw)) {
+            ImageReader reader = readerFor(in, name);
+            try {
+                reader.setInput(in, true, true);
+                return reader.read(0, fitReadParam(reader, targetWidth, targetHeight));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static ImageReader readerFor(ImageInputStream in, String name) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) {
+            throw new IOException("Unsupported image format: " + name);
+        }
+        return readers.next();
+    }
+
+    // Memory benchmark - compares heap allocated per round load for a full decode + scale (the old
+    // ImageIO.read/getScaledInstance path) against the subsampled decode.
+    // Usage: java geoguesser.client.RoundImageLoader [image file]; without an argument a 4800x3600 photo-like PNG is generated.
+    public static void main(String[] args) throws IOException {
+        File file;
+        if (args.length > 0) {
+            file = new File(args[0]);
+        } else {
+            file = File.createTempFile("round-bench", ".png");
+            file.deleteOnExit();
+            ImageIO.write(syntheticPhoto(4800, 3600), "png", file);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int runs = 5;
+
+        // Warm up both paths so class loading/JIT isn't counted
+        decodeFullAndScale(file, 900, 750);
+        decodeFittedFile(file, 900, 750);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < runs; i++) {
+            decodeFullAndScale(file, 900, 750);
+        }
+        long fullBytes = (threads.getThreadAllocatedBytes(threadId) - before) / runs;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        BufferedImage fitted = null;
+        for (int i = 0; i < runs; i++) {
+            fitted = decodeFittedFile(file, 900, 750);
+        }
+        long fittedBytes = (threads.getThreadAllocatedBytes(threadId) - before) / runs;
+
+        System.out.printf("%s (%d bytes on disk)%n", file.getName(), file.length());
+        System.out.printf("Full decode + scale: %,d bytes allocated per load%n", fullBytes);
+        System.out.printf("Subsampled decode:   %,d bytes allocated per load (%dx%d)%n",
+                fittedBytes, fitted.getWidth(), fitted.getHeight());
+        System.out.printf("Reduction: %.1fx%n", (double)fullBytes / fittedBytes);
+    }
+
+    private static BufferedImage decodeFittedFile(File file, int width, int height) throws IOException {
+        try (InputStream raw = new FileInputStream(file)) {
+            return decodeFitted(raw, file.getName(), width, height);
+        }
+    }
+
+    private static BufferedImage decodeFullAndScale(File file, int width, int height) throws IOException {
+        BufferedImage full = ImageIO.read(file);
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = scaled.createGraphics();
+        g2d.drawImage(full.getScaledInstance(width, height, java.awt.Image.SCALE_SMOOTH), 0, 0, null);
+        g2d.dispose();
+        return scaled;
+    }
+
+    private static BufferedImage syntheticPhoto(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (x * 255 / width + random.nextInt(24)) & 0xFF;
+                int g = (y * 255 / height + random.nextInt(24)) & 0xFF;
+                int b = ((x + y) * 127 / (width + height) + random.nextInt(24)) & 0xFF;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    // IIOReadUpdateListener with no-op pass callbacks; only row updates matter here
+    private abstract static class RowUpdateListener implements IIOReadUpdateListener {
+        public void passStarted(ImageReader source, BufferedImage theImage, int pass, int minPass, int maxPass,
+                                int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        public void passComplete(ImageReader source, BufferedImage theImage) {
+        }
+
+        public void thumbnailPassStarted(ImageReader source, BufferedImage theThumbnail, int pass, int minPass,
+                                         int maxPass, int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        public void thumbnailUpdate(ImageReader source, BufferedImage theThumbnail, int minX, int minY,
+                                    int width, int height, int periodX, int periodY, int[] bands) {
+        }
+
+        public void thumbnailPassComplete(ImageReader source, BufferedImage theThumbnail) {
+        }
+    }
+}
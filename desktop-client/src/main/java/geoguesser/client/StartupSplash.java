@@ -0,0 +1,65 @@
+package geoguesser.client;
+
+import java.awt.*;
+import javax.swing.*;
+
+// Undecorated splash with a progress bar, shown while AssetWarmup decodes the startup images
+public class StartupSplash extends JWindow {
+    private final Color PRIMARY_BLUE = new Color(40, 124, 253);
+    private final Color DARK_BG = new Color(15, 23, 42);
+    private final Color CARD_BG = new Color(30, 41, 59);
+    private final Color TEXT_PRIMARY = new Color(248, 250, 252);
+    private final Color TEXT_SECONDARY = new Color(148, 163, 184);
+
+    private int done;
+    private int total;
+    private String status = "Loading campus...";
+
+    public StartupSplash() {
+        JPanel panel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D)g.create();
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                int w = getWidth();
+                int h = getHeight();
+
+                g2d.setPaint(new GradientPaint(0, 0, DARK_BG, w, h, CARD_BG));
+                g2d.fillRect(0, 0, w, h);
+
+                g2d.setColor(TEXT_PRIMARY);
+                g2d.setFont(new Font("Segoe UI", Font.BOLD, 32));
+                FontMetrics fm = g2d.getFontMetrics();
+                String title = "COMSATS Geo Guesser";
+                g2d.drawString(title, (w - fm.stringWidth(title)) / 2, 90);
+
+                g2d.setColor(TEXT_SECONDARY);
+                g2d.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+                fm = g2d.getFontMetrics();
+                g2d.drawString(status, (w - fm.stringWidth(status)) / 2, 150);
+
+                int barX = 40;
+                int barY = 170;
+                int barW = w - 80;
+                g2d.setColor(CARD_BG.brighter());
+                g2d.fillRoundRect(barX, barY, barW, 10, 10, 10);
+                if (total > 0) {
+                    g2d.setColor(PRIMARY_BLUE);
+                    g2d.fillRoundRect(barX, barY, barW * done / total, 10, 10, 10);
+                }
+                g2d.dispose();
+            }
+        };
+        setContentPane(panel);
+        setSize(480, 220);
+        setLocationRelativeTo(null);
+    }
+
+    // EDT only
+    public void setProgress(int done, int total, String status) {
+        this.done = done;
+        this.total = total;
+        this.status = status;
+        repaint();
+    }
+}
@@ -0,0 +1,207 @@
+package geoguesser.client;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
+
+// Shared painting for the rounded gradient cards and buttons used by every screen.
+// The card and button backgrounds are rendered once per size/colour into an image and blitted after
+// that, and the fonts, strokes and derived colours they use are created once. A repaint of an
+// unchanged card (the HUD timer ticking every second) then allocates nothing.
+// Swing painting is single threaded, so none of this is synchronized - call it on the EDT only.
+final class ThemeRenderer {
+    static final String FONT_FAMILY = "Segoe UI";
+
+    private static final Color BUTTON_DISABLED = new Color(100, 100, 100);
+    private static final Color BUTTON_HIGHLIGHT = new Color(255, 255, 255, 51);
+    // Rendered backgrounds kept around; enough for every card of a screen at two window sizes
+    private static final int MAX_CACHED_IMAGES = 64;
+
+    // Indexed by style and point size / width, so a lookup doesn't box a key
+    private static final Font[] fonts = new Font[4 * 128];
+    private static final BasicStroke[] strokes = new BasicStroke[8];
+    private static final Map<Long, Color> shades = new HashMap<>();
+    private static final Map<Key, BufferedImage> images = new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    };
+    // Reused for lookups so a cache hit doesn't allocate a key
+    private static final Key probe = new Key();
+    private static GraphicsConfiguration lastConfig;
+    private static double lastScale = 1;
+
+    private ThemeRenderer() {
+    }
+
+    static Font font(int style, int size) {
+        if (style < 0 || style > 3 || size < 0 || size >= 128) {
+            return new Font(FONT_FAMILY, style, size);
+        }
+        int i = style * 128 + size;
+        if (fonts[i] == null) {
+            fonts[i] = new Font(FONT_FAMILY, style, size);
+        }
+        return fonts[i];
+    }
+
+    static BasicStroke stroke(int width) {
+        if (width < 0 || width >= strokes.length) {
+            return new BasicStroke(width);
+        }
+        if (strokes[width] == null) {
+            strokes[width] = new BasicStroke(width);
+        }
+        return strokes[width];
+    }
+
+    // The colour with each RGB channel multiplied by factor (0.8 for the bottom of a button)
+    static Color shade(Color color, double factor) {
+        // Masked: a negative factor's bits would otherwise sign-extend over the colour
+        long key = (long)color.getRGB() << 32 | (Float.floatToIntBits((float)factor) & 0xFFFFFFFFL);
+        return shades.computeIfAbsent(key, k -> new Color(
+                Math.min(255, (int)(color.getRed() * factor)),
+                Math.min(255, (int)(color.getGreen() * factor)),
+                Math.min(255, (int)(color.getBlue() * factor))));
+    }
+
+    // Vertical gradient from top to bottom, filled as a rounded rectangle with a 2px border
+    static void paintCard(Graphics g, JComponent c, Color top, Color bottom, Color border, int arc) {
+        BufferedImage image = cached(c, Key.CARD, top, bottom, border, arc);
+        if (image == null) {
+            image = render(c, Key.CARD, top, bottom, border, arc);
+        }
+        g.drawImage(image, 0, 0, c.getWidth(), c.getHeight(), null);
+    }
+
+    // Gradient button from color to 80% of it with a faint highlight, grey when disabled, text centred
+    static void paintButton(Graphics g, AbstractButton button, Color color, int arc) {
+        int kind = button.isEnabled() ? Key.BUTTON : Key.BUTTON_DISABLED;
+        BufferedImage image = cached(button, kind, color, null, null, arc);
+        if (image == null) {
+            image = render(button, kind, color, null, null, arc);
+        }
+        g.drawImage(image, 0, 0, button.getWidth(), button.getHeight(), null);
+
+        Graphics2D g2d = (Graphics2D)g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(button.isEnabled() ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.setFont(button.getFont());
+        FontMetrics fm = g2d.getFontMetrics();
+        int textW = fm.stringWidth(button.getText());
+        int textH = fm.getAscent();
+        g2d.drawString(button.getText(), (button.getWidth() - textW) / 2, (button.getHeight() + textH) / 2 - 2);
+    }
+
+    private static BufferedImage cached(JComponent c, int kind, Color a, Color b, Color border, int arc) {
+        probe.set(kind, c.getWidth(), c.getHeight(), deviceScale(c), a, b, border, arc);
+        return images.get(probe);
+    }
+
+    private static BufferedImage render(JComponent c, int kind, Color a, Color b, Color border, int arc) {
+        int w = Math.max(1, c.getWidth());
+        int h = Math.max(1, c.getHeight());
+        // Render at device resolution so HiDPI screens get a sharp image
+        double scale = deviceScale(c);
+        int pw = (int)Math.ceil(w * scale);
+        int ph = (int)Math.ceil(h * scale);
+        GraphicsConfiguration config = c.getGraphicsConfiguration();
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(pw, ph, Transparency.TRANSLUCENT)
+                : new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2d = image.createGraphics();
+        g2d.scale(scale, scale);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (kind == Key.CARD) {
+            g2d.setPaint(new GradientPaint(0, 0, a, 0, h, b));
+            g2d.fillRoundRect(0, 0, w, h, arc, arc);
+            g2d.setColor(border);
+            g2d.setStroke(stroke(2));
+            g2d.drawRoundRect(1, 1, w - 2, h - 2, arc, arc);
+        } else if (kind == Key.BUTTON) {
+            g2d.setPaint(new GradientPaint(0, 0, a, 0, h, shade(a, 0.8)));
+            g2d.fillRoundRect(0, 0, w, h, arc, arc);
+            g2d.setColor(BUTTON_HIGHLIGHT);
+            g2d.drawRoundRect(0, 0, w - 1, h - 1, arc, arc);
+        } else {
+            g2d.setColor(BUTTON_DISABLED);
+            g2d.fillRoundRect(0, 0, w, h, arc, arc);
+        }
+        g2d.dispose();
+
+        images.put(new Key().set(kind, c.getWidth(), c.getHeight(), scale, a, b, border, arc), image);
+        return image;
+    }
+
+    // Screen scale of the component's display (2 on a 200% HiDPI screen); remembered per display
+    // because getDefaultTransform() hands out a new transform on every call
+    private static double deviceScale(JComponent c) {
+        GraphicsConfiguration config = c.getGraphicsConfiguration();
+        if (config == null) {
+            return 1;
+        }
+        if (config != lastConfig) {
+            AffineTransform tx = config.getDefaultTransform();
+            lastScale = Math.max(1, Math.max(tx.getScaleX(), tx.getScaleY()));
+            lastConfig = config;
+        }
+        return lastScale;
+    }
+
+    private static final class Key {
+        static final int CARD = 0;
+        static final int BUTTON = 1;
+        static final int BUTTON_DISABLED = 2;
+
+        int kind;
+        int width;
+        int height;
+        double scale;
+        int arc;
+        int a;
+        int b;
+        int border;
+
+        Key set(int kind, int width, int height, double scale, Color a, Color b, Color border, int arc) {
+            this.kind = kind;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+            this.arc = arc;
+            this.a = a.getRGB();
+            this.b = b != null ? b.getRGB() : 0;
+            this.border = border != null ? border.getRGB() : 0;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key)o;
+            return kind == k.kind && width == k.width && height == k.height && scale == k.scale
+                    && arc == k.arc && a == k.a && b == k.b && border == k.border;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = kind;
+            h = 31 * h + width;
+            h = 31 * h + height;
+            h = 31 * h + Double.hashCode(scale);
+            h = 31 * h + arc;
+            h = 31 * h + a;
+            h = 31 * h + b;
+            h = 31 * h + border;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package geoguesser.client;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Picture hint: a zoomed-in crop of the campus map around the answer that starts out blurred and
+// sharpens step by step. The answer is somewhere inside the crop, not at its centre.
+// Frames are rendered at the size the hint dialog shows them (MainGame.HINT_IMAGE_*) on a
+// SwingWorker (crop, scale, FastBlur) and handed to the EDT as they finish, most blurred first; the
+// frames of the last few locations are kept. HintView plays them back.
+public final class VisualHint {
+    // Map pixels the crop covers, and how blurred each step is (sigma at the rendered size)
+    static final int CROP_WIDTH = 120;
+    static final int CROP_HEIGHT = 100;
+    static final double[] BLUR_STEPS = {14, 9, 5.5, 3, 1.5};
+    // Time each step stays up before the next, sharper one
+    static final int STEP_MILLIS = 600;
+
+    private static final int CACHED_LOCATIONS = 4;
+
+    private final int width;
+    private final int height;
+    private final Map<Integer, Rendering> cache = new LinkedHashMap<Integer, Rendering>(8, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<Integer, Rendering> eldest) {
+            return size() > CACHED_LOCATIONS;
+        }
+    };
+
+    // Frames of one location so far, and who still wants to hear about the rest
+    private static final class Rendering {
+        final List<BufferedImage> frames = new ArrayList<>();
+        final List<Listener> listeners = new ArrayList<>();
+    }
+
+    public interface Listener {
+        // On the EDT, once per frame in BLUR_STEPS order
+        void frameReady(int step, BufferedImage frame);
+    }
+
+    public VisualHint(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    // Starts rendering the frames for a location in the background, unless that is already done or
+    // under way; the listener gets the frames rendered so far right away and the rest as they come.
+    // A null listener just warms the cache. EDT only.
+    public void render(int locationId, Listener listener) {
+        Rendering rendering = cache.get(locationId);
+        if (rendering == null) {
+            rendering = new Rendering();
+            cache.put(locationId, rendering);
+            start(locationId, rendering);
+        }
+        if (listener != null) {
+            for (int step = 0; step < rendering.frames.size(); step++) {
+                listener.frameReady(step, rendering.frames.get(step));
+            }
+            if (rendering.frames.size() < BLUR_STEPS.length) {
+                rendering.listeners.add(listener);
+            }
+        }
+    }
+
+    private void start(int locationId, Rendering rendering) {
+        new SwingWorker<Void, BufferedImage>() {
+            protected Void doInBackground() throws IOException {
+                BufferedImage map = AssetCache.getImage(LocationCatalog.CAMPUS_MAP_IMAGE);
+                BufferedImage sharp = crop(map, LocationCatalog.get(locationId));
+                int[] scratch = new int[2 * width * height];
+                for (double sigma : BLUR_STEPS) {
+                    BufferedImage frame = copy(sharp);
+                    long start = System.nanoTime();
+                    FastBlur.gaussian(frame, sigma, scratch);
+                    PerfMonitor.hintBlurred(sigma, frame.getWidth(), frame.getHeight(), System.nanoTime() - start);
+                    publish(frame);
+                }
+                return null;
+            }
+
+            protected void process(List<BufferedImage> chunk) {
+                for (BufferedImage frame : chunk) {
+                    rendering.frames.add(frame);
+                    for (Listener listener : rendering.listeners) {
+                        listener.frameReady(rendering.frames.size() - 1, frame);
+                    }
+                }
+            }
+
+            protected void done() {
+                rendering.listeners.clear();
+                try {
+                    get();
+                } catch (Exception e) {
+                    System.err.println("Could not render picture hint: " + e.getMessage());
+                    cache.remove(locationId, rendering);
+                }
+            }
+        }.execute();
+    }
+
+    // The part of the map around the location, scaled up to the hint size. The offset of the answer
+    // inside the crop is fixed per location so the cached frames and a re-render agree.
+    BufferedImage crop(BufferedImage map, Location location) {
+        Random offset = new Random(location.getId() * 7919L + 17);
+        int x = location.getMapX() - CROP_WIDTH / 5 - offset.nextInt(CROP_WIDTH * 3 / 5);
+        int y = location.getMapY() - CROP_HEIGHT / 5 - offset.nextInt(CROP_HEIGHT * 3 / 5);
+        x = Math.max(0, Math.min(map.getWidth() - CROP_WIDTH, x));
+        y = Math.max(0, Math.min(map.getHeight() - CROP_HEIGHT, y));
+
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(map, 0, 0, width, height, x, y, x + CROP_WIDTH, y + CROP_HEIGHT, null);
+        g.dispose();
+        return out;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        image.copyData(copy.getRaster());
+        return copy;
+    }
+
+    // Shows the frames of a picture hint, stepping to the next, sharper one every STEP_MILLIS
+    // (never ahead of the renderer). The frame is scaled to fit the component.
+    public static final class HintView extends JComponent implements Listener {
+        private final List<BufferedImage> frames = new ArrayList<>();
+        private final Timer stepTimer;
+        private int shown = -1;
+
+        public HintView(int width, int height) {
+            setPreferredSize(new Dimension(width, height));
+            stepTimer = new Timer(STEP_MILLIS, e -> {
+                if (shown + 1 < frames.size()) {
+                    shown++;
+                    repaint();
+                }
+                if (shown == BLUR_STEPS.length - 1) {
+                    ((Timer)e.getSource()).stop();
+                }
+            });
+        }
+
+        public void frameReady(int step, BufferedImage frame) {
+            frames.add(frame);
+            if (shown < 0) {
+                shown = 0;
+                repaint();
+                stepTimer.start();
+            }
+        }
+
+        public void removeNotify() {
+            super.removeNotify();
+            stepTimer.stop();
+        }
+
+        protected void paintComponent(Graphics g) {
+            g.setColor(Color.DARK_GRAY);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            if (shown < 0) {
+                g.setColor(Color.LIGHT_GRAY);
+                g.drawString("Rendering hint...", 12, 24);
+                return;
+            }
+            BufferedImage frame = frames.get(shown);
+            double scale = Math.min((double)getWidth() / frame.getWidth(), (double)getHeight() / frame.getHeight());
+            int w = (int)(frame.getWidth() * scale);
+            int h = (int)(frame.getHeight() * scale);
+            Graphics2D g2d = (Graphics2D)g.create();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(frame, (getWidth() - w) / 2, (getHeight() - h) / 2, w, h, null);
+            g2d.dispose();
+        }
+    }
+
+    // Times the blur at the hint size: VisualHint [runs]
+    public static void main(String[] args) throws IOException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        VisualHint hint = new VisualHint(MainGame.HINT_IMAGE_WIDTH, MainGame.HINT_IMAGE_HEIGHT);
+        BufferedImage map = AssetCache.getImage(LocationCatalog.CAMPUS_MAP_IMAGE);
+        BufferedImage sharp = hint.crop(map, LocationCatalog.get(0));
+        int[] scratch = new int[2 * sharp.getWidth() * sharp.getHeight()];
+        for (double sigma : BLUR_STEPS) {
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            for (int i = 0; i < runs; i++) {
+                BufferedImage frame = copy(sharp);
+                long start = System.nanoTime();
+                FastBlur.gaussian(frame, sigma, scratch);
+                long elapsed = System.nanoTime() - start;
+                best = Math.min(best, elapsed);
+                total += elapsed;
+            }
+            System.out.printf("sigma %4.1f at %dx%d: best %.2f ms, mean %.2f ms%n", sigma, sharp.getWidth(),
+                    sharp.getHeight(), best / 1e6, total / 1e6 / runs);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package geoguesser.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Insets;
+import java.awt.geom.Point2D;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Property checks over random map sizes, component sizes and insets (fixed seeds, so a failure
+// reproduces): screen -> map -> screen lands back on the same point up to floating-point error,
+// and clicks in the letterbox around the map are rejected. Rounding to whole pixels anywhere on the
+// way is off by up to half a pixel, far outside MAX_ERROR_PX.
+class MapViewportTest {
+    private static final int CASES = 2000;
+    private static final int POINTS_PER_CASE = 50;
+    private static final double INTERIOR_MARGIN = 1e-3;
+    private static final double MAX_ERROR_PX = 1e-6;
+
+    @Test
+    void screenToMapRoundTripIsExact() {
+        Random random = new Random(26);
+        for (int c = 0; c < CASES; c++) {
+            MapViewport viewport = randomViewport(random);
+            int width = 1 + random.nextInt(3000);
+            int height = 1 + random.nextInt(2000);
+            Insets insets = randomInsets(random, width, height);
+            viewport.layout(width, height, insets);
+
+            for (int i = 0; i < POINTS_PER_CASE; i++) {
+                Point2D screen = new Point2D.Double(random.nextDouble() * width, random.nextDouble() * height);
+                Point2D back = viewport.toScreen(viewport.toMap(screen));
+                assertEquals(screen.getX(), back.getX(), MAX_ERROR_PX, () -> describe(viewport, width, height, insets, screen));
+                assertEquals(screen.getY(), back.getY(), MAX_ERROR_PX, () -> describe(viewport, width, height, insets, screen));
+            }
+        }
+    }
+
+    @Test
+    void mapToScreenRoundTripIsExact() {
+        Random random = new Random(260);
+        for (int c = 0; c < CASES; c++) {
+            MapViewport viewport = randomViewport(random);
+            int width = 1 + random.nextInt(3000);
+            int height = 1 + random.nextInt(2000);
+            Insets insets = randomInsets(random, width, height);
+            viewport.layout(width, height, insets);
+
+            for (int i = 0; i < POINTS_PER_CASE; i++) {
+                // Interior points, kept well clear of the edges so contains() must hold exactly
+                double innerWidth = viewport.getMapWidth() - 2 * INTERIOR_MARGIN;
+                double innerHeight = viewport.getMapHeight() - 2 * INTERIOR_MARGIN;
+                Point2D map = new Point2D.Double(INTERIOR_MARGIN + random.nextDouble() * innerWidth,
+                        INTERIOR_MARGIN + random.nextDouble() * innerHeight);
+                Point2D screen = viewport.toScreen(map);
+                Point2D back = viewport.toMap(screen);
+                assertEquals(map.getX(), back.getX(), MAX_ERROR_PX, () -> describe(viewport, width, height, insets, screen));
+                assertEquals(map.getY(), back.getY(), MAX_ERROR_PX, () -> describe(viewport, width, height, insets, screen));
+                assertTrue(viewport.contains(back), () -> describe(viewport, width, height, insets, screen));
+            }
+        }
+    }
+
+    @Test
+    void neitherDirectionRoundsToWholePixels() {
+        // Scale 0.3: fractional on both sides
+        MapViewport viewport = new MapViewport(1000, 1000);
+        viewport.layout(300, 300, new Insets(0, 0, 0, 0));
+
+        Point2D map = viewport.toMap(new Point2D.Double(100.5, 200.25));
+        assertEquals(335.0, map.getX(), 1e-9);
+        assertEquals(667.5, map.getY(), 1e-9);
+
+        Point2D screen = viewport.toScreen(new Point2D.Double(10.5, 20.25));
+        assertEquals(3.15, screen.getX(), 1e-9);
+        assertEquals(6.075, screen.getY(), 1e-9);
+    }
+
+    @Test
+    void clicksOutsideTheDrawnMapAreRejected() {
+        Random random = new Random(2626);
+        for (int c = 0; c < CASES; c++) {
+            MapViewport viewport = randomViewport(random);
+            int width = 50 + random.nextInt(3000);
+            int height = 50 + random.nextInt(2000);
+            Insets insets = randomInsets(random, width, height);
+            viewport.layout(width, height, insets);
+            if (width - insets.left - insets.right <= 0 || height - insets.top - insets.bottom <= 0) {
+                continue;
+            }
+
+            Point2D topLeft = viewport.toScreen(new Point2D.Double(0, 0));
+            Point2D bottomRight = viewport.toScreen(new Point2D.Double(viewport.getMapWidth(), viewport.getMapHeight()));
+            double midX = (topLeft.getX() + bottomRight.getX()) / 2;
+            double midY = (topLeft.getY() + bottomRight.getY()) / 2;
+
+            // One screen pixel past each edge of the drawn map, and the component corners
+            Point2D[] outside = {
+                    new Point2D.Double(topLeft.getX() - 1, midY),
+                    new Point2D.Double(bottomRight.getX() + 1, midY),
+                    new Point2D.Double(midX, topLeft.getY() - 1),
+                    new Point2D.Double(midX, bottomRight.getY() + 1),
+                    new Point2D.Double(topLeft.getX() - 1, topLeft.getY() - 1),
+                    new Point2D.Double(bottomRight.getX() + 1, bottomRight.getY() + 1),
+            };
+            for (Point2D screen : outside) {
+                assertFalse(viewport.contains(viewport.toMap(screen)), () -> describe(viewport, width, height, insets, screen));
+            }
+            assertTrue(viewport.contains(viewport.toMap(new Point2D.Double(midX, midY))));
+        }
+    }
+
+    @Test
+    void mapIsCenteredInsideTheInsets() {
+        MapViewport viewport = new MapViewport(1000, 500);
+        viewport.layout(1000 + 10 + 30, 1000 + 20 + 40, new Insets(20, 10, 40, 30));
+
+        // Width-bound: scale 1, letterboxed vertically by (1000 - 500) / 2 above and below
+        Point2D topLeft = viewport.toScreen(new Point2D.Double(0, 0));
+        assertEquals(10, topLeft.getX(), 1e-9);
+        assertEquals(20 + 250, topLeft.getY(), 1e-9);
+        assertFalse(viewport.contains(viewport.toMap(new Point2D.Double(500, 20 + 249))));
+        assertTrue(viewport.contains(viewport.toMap(new Point2D.Double(500, 20 + 251))));
+    }
+
+    private static MapViewport randomViewport(Random random) {
+        return new MapViewport(1 + random.nextInt(4000) + random.nextDouble(), 1 + random.nextInt(4000) + random.nextDouble());
+    }
+
+    // Up to a third of each dimension per side, so the inner area is usually but not always positive
+    private static Insets randomInsets(Random random, int width, int height) {
+        return new Insets(random.nextInt(height / 3 + 1), random.nextInt(width / 3 + 1),
+                random.nextInt(height / 3 + 1), random.nextInt(width / 3 + 1));
+    }
+
+    private static String describe(MapViewport viewport, int width, int height, Insets insets, Point2D screen) {
+        return String.format("map %.2fx%.2f in %dx%d %s at %s", viewport.getMapWidth(), viewport.getMapHeight(),
+                width, height, insets, screen);
+    }
+}
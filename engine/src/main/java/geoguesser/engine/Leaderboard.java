@@ -0,0 +1,49 @@
+package geoguesser.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Top-score list logic behind GameRanking, without any file or UI handling
+public final class Leaderboard {
+    public static final int MAX_RANKINGS = 10;
+
+    private Leaderboard() {
+    }
+
+    // Adds a score to a leaderboard list and returns the top MAX_RANKINGS, best first
+    public static List<PlayerScore> insertScore(List<PlayerScore> scores, String username, int score) {
+        scores.add(new PlayerScore(username, score));
+        scores.sort((a, b) -> Integer.compare(b.score, a.score)); // Sort in descending order
+
+        // Keep only top scores
+        if (scores.size() > MAX_RANKINGS) {
+            scores = scores.subList(0, MAX_RANKINGS);
+        }
+        return scores;
+    }
+
+    // Reads "username,score" lines; anything else is skipped
+    public static List<PlayerScore> parseScores(BufferedReader reader) throws IOException {
+        List<PlayerScore> scores = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.split(",");
+            if (parts.length == 2) {
+                scores.add(new PlayerScore(parts[0], Integer.parseInt(parts[1])));
+            }
+        }
+        return scores;
+    }
+
+    public static class PlayerScore {
+        public final String username;
+        public final int score;
+
+        public PlayerScore(String username, int score) {
+            this.username = username;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package geoguesser.engine;
+
+// One playable spot: the photo shown for the round and where it actually is on the campus map
+public final class Location {
+    private final int id;
+    private final String image;
+    private final String name;
+    private final int mapX;
+    private final int mapY;
+
+    public Location(int id, String image, String name, int mapX, int mapY) {
+        this.id = id;
+        this.image = image;
+        this.name = name;
+        this.mapX = mapX;
+        this.mapY = mapY;
+    }
+
+    // Index in the catalog
+    public int getId() {
+        return id;
+    }
+
+    // Photo file name, resolved by the client against its assets
+    public String getImage() {
+        return image;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Actual pixel coordinates on the campus map image
+    public int getMapX() {
+        return mapX;
+    }
+
+    public int getMapY() {
+        return mapY;
+    }
+
+    public double distanceTo(double x, double y) {
+        double dx = x - mapX;
+        double dy = y - mapY;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + image + ")";
+    }
+}
@@ -0,0 +1,54 @@
+package geoguesser.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// The campus locations a game draws its rounds from
+public final class LocationCatalog {
+    public static final String CAMPUS_MAP_IMAGE = "FINAL MAP.png";
+
+    private static final List<Location> LOCATIONS;
+
+    static {
+        // Photo, name and actual pixel coordinates on the map image (x, y)
+        List<Location> locations = new ArrayList<>();
+        add(locations, "bus_stop.png", "Bus Stop", 412, 414);
+        add(locations, "cafe_front.png", "Cafe Front", 187, 347);
+        add(locations, "cs_lawn.png", "CS Lawn", 205, 103);
+        add(locations, "cs_lawn (2).png", "CS Lawn", 205, 103);
+        add(locations, "cs_view.png", "CS View", 239, 197);
+        add(locations, "kia ker raha ha bhai.png", "Kia ker raha ha bhai?", 105, 255);
+        add(locations, "nblock_front.png", "N-Block Front", 71, 268);
+        add(locations, "near_logo.png", "CUI Logo", 297, 69);
+        add(locations, "near_mosque.png", "Near Mosque", 278, 54);
+        add(locations, "near_parking.png", "Near Parking", 99, 200);
+        add(locations, "physics block.png", "Physics Block", 246, 178);
+        LOCATIONS = Collections.unmodifiableList(locations);
+    }
+
+    private LocationCatalog() {
+    }
+
+    private static void add(List<Location> locations, String image, String name, int mapX, int mapY) {
+        locations.add(new Location(locations.size(), image, name, mapX, mapY));
+    }
+
+    public static List<Location> all() {
+        return LOCATIONS;
+    }
+
+    public static Location get(int id) {
+        return LOCATIONS.get(id);
+    }
+
+    public static int size() {
+        return LOCATIONS.size();
+    }
+
+    // Picks a random remaining location and removes it so it can't come up again this game
+    public static Location drawRound(Random random, List<Location> remaining) {
+        return remaining.remove(random.nextInt(remaining.size()));
+    }
+}
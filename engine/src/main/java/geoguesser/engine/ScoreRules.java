@@ -0,0 +1,21 @@
+package geoguesser.engine;
+
+// Round scoring, kept free of any UI so replays, benchmarks and the game all score the same way.
+// Formula (also shown in HowToPlay): max(0, 1000 - 0.5 * pixelDistance) + 3 * secondsLeft
+public class ScoreRules {
+    public static final int BASE_POINTS = 1000;
+    public static final double DISTANCE_PENALTY_PER_PIXEL = 0.5;
+    public static final int TIME_BONUS_PER_SECOND = 3;
+    // Length of a round's countdown, and what a hint costs
+    public static final int ROUND_SECONDS = 30;
+    public static final int HINT_COST = 50;
+
+    private ScoreRules() {
+    }
+
+    public static int roundPoints(double pixelDistance, int secondsLeft) {
+        int distancePenalty = (int)(pixelDistance * DISTANCE_PENALTY_PER_PIXEL);
+        int timeBonus = secondsLeft * TIME_BONUS_PER_SECOND;
+        return Math.max(0, BASE_POINTS - distancePenalty) + timeBonus;
+    }
+}
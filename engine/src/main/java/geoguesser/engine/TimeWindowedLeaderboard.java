@@ -0,0 +1,236 @@
+package geoguesser.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Top scores per time window: today, the last 7 days, the current semester and all time.
+// Scores go into time buckets, each holding only its own top MAX_RANKINGS (the top of a union is
+// always inside the union of the tops), and a window's board is those buckets merged on read:
+//   day buckets        a ring of DAYS, one per calendar day
+//   semester bucket    this semester's days that have left the ring
+//   archive            everything older
+// When the day rolls over, the day leaving the ring is compacted into the semester bucket (or the
+// archive if it belongs to an earlier semester), and a finished semester into the archive. So the
+// whole structure never holds more than (DAYS + 2) * MAX_RANKINGS scores, adding one is a
+// bounded insertion and no history is ever rescanned.
+// Scores stamped later than the caller's now (clock skew, an edited rankings file) count as made
+// now: a future day would push today's scores out of the ring before their time.
+// Not thread-safe; reads advance the ring to the given time.
+public final class TimeWindowedLeaderboard {
+    public static final int DAYS = 7;
+    // Semesters start on these days (Spring and Fall), latest in the year last
+    private static final MonthDay[] SEMESTER_STARTS = {MonthDay.of(2, 1), MonthDay.of(9, 1)};
+    private static final long NO_KEY = Long.MIN_VALUE;
+
+    public enum Window {
+        DAILY("TODAY"),
+        WEEKLY("THIS WEEK"),
+        SEMESTER("THIS SEMESTER"),
+        ALL_TIME("ALL TIME");
+
+        public final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+    }
+
+    // A leaderboard score and when it was made; ties go to whoever got there first
+    public static class Entry extends Leaderboard.PlayerScore {
+        public final long millis;
+
+        public Entry(String username, int score, long millis) {
+            super(username, score);
+            this.millis = millis;
+        }
+
+        boolean beats(Entry other) {
+            return score > other.score || (score == other.score && millis < other.millis);
+        }
+    }
+
+    // Best MAX_RANKINGS entries of one stretch of time, best first; key is its day or semester
+    private static final class Bucket {
+        final Entry[] top = new Entry[Leaderboard.MAX_RANKINGS];
+        int size;
+        long key = NO_KEY;
+
+        void add(Entry entry) {
+            int pos = size;
+            while (pos > 0 && entry.beats(top[pos - 1])) {
+                pos--;
+            }
+            if (pos == top.length) {
+                return;
+            }
+            int moved = Math.min(size, top.length - 1) - pos;
+            System.arraycopy(top, pos, top, pos + 1, moved);
+            top[pos] = entry;
+            size = Math.min(size + 1, top.length);
+        }
+
+        void addAll(Bucket other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.top[i]);
+            }
+        }
+
+        void reset(long newKey) {
+            Arrays.fill(top, 0, size, null);
+            size = 0;
+            key = newKey;
+        }
+    }
+
+    private final ZoneId zone;
+    private final Bucket[] days = new Bucket[DAYS];
+    private final Bucket semester = new Bucket();
+    private final Bucket archive = new Bucket();
+    private final Bucket merged = new Bucket();
+    private long today = NO_KEY;
+
+    public TimeWindowedLeaderboard(ZoneId zone) {
+        this.zone = zone;
+        for (int i = 0; i < DAYS; i++) {
+            days[i] = new Bucket();
+        }
+    }
+
+    public void add(String username, int score, long millis, long nowMillis) {
+        Entry entry = new Entry(username, score, Math.min(millis, nowMillis));
+        long day = dayOf(entry.millis);
+        advance(day);
+        if (day > today - DAYS) {
+            Bucket bucket = days[Math.floorMod(day, DAYS)];
+            bucket.key = day; // Empty or already this day, advance() cleared anything older
+            bucket.add(entry);
+        } else if (semesterOf(day) == semester.key) {
+            semester.add(entry);
+        } else {
+            archive.add(entry); // Scores from before the current semester only count for all time
+        }
+    }
+
+    // The window's board as of now, best first
+    // The window's board as of now, best first. Windows are measured from now's day, not from the
+    // latest day the ring has seen, so a board asked for a moment earlier still comes out right.
+    public List<Leaderboard.PlayerScore> top(Window window, long nowMillis) {
+        long now = dayOf(nowMillis);
+        advance(now);
+        merged.reset(NO_KEY);
+        switch (window) {
+            case DAILY:
+                for (Bucket bucket : days) {
+                    if (bucket.key == now) {
+                        merged.addAll(bucket);
+                    }
+                }
+                break;
+            case WEEKLY:
+                for (Bucket bucket : days) {
+                    if (bucket.key != NO_KEY && bucket.key > now - DAYS && bucket.key <= now) {
+                        merged.addAll(bucket);
+                    }
+                }
+                break;
+            case SEMESTER:
+                long current = semesterOf(now);
+                if (semester.key == current) {
+                    merged.addAll(semester);
+                }
+                for (Bucket bucket : days) {
+                    if (bucket.key != NO_KEY && bucket.key <= now && semesterOf(bucket.key) == current) {
+                        merged.addAll(bucket);
+                    }
+                }
+                break;
+            case ALL_TIME:
+                merged.addAll(archive);
+                merged.addAll(semester);
+                for (Bucket bucket : days) {
+                    merged.addAll(bucket);
+                }
+                break;
+        }
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(merged.top).subList(0, merged.size)));
+    }
+
+    // Every retained score, for saving; adding them back in any order rebuilds the same boards
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>();
+        for (Bucket bucket : days) {
+            entries.addAll(Arrays.asList(bucket.top).subList(0, bucket.size));
+        }
+        entries.addAll(Arrays.asList(semester.top).subList(0, semester.size));
+        entries.addAll(Arrays.asList(archive.top).subList(0, archive.size));
+        return entries;
+    }
+
+    public void clear() {
+        for (Bucket bucket : days) {
+            bucket.reset(NO_KEY);
+        }
+        semester.reset(NO_KEY);
+        archive.reset(NO_KEY);
+        today = NO_KEY;
+    }
+
+    // Reads "username,score,millis" lines as written from entries(); anything else is skipped
+    public void load(BufferedReader reader, long nowMillis) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.split(",");
+            if (parts.length == 3) {
+                try {
+                    add(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]), nowMillis);
+                } catch (NumberFormatException e) {
+                    // A damaged line costs one score, not the board
+                }
+            }
+        }
+    }
+
+    // Moves the ring to a later day, compacting the days that fall out of it
+    private void advance(long day) {
+        if (day <= today) {
+            return;
+        }
+        today = day;
+        long currentSemester = semesterOf(day);
+        if (semester.key != currentSemester) {
+            archive.addAll(semester);
+            semester.reset(currentSemester);
+        }
+        for (Bucket bucket : days) {
+            if (bucket.key != NO_KEY && bucket.key <= day - DAYS) {
+                (semesterOf(bucket.key) == currentSemester ? semester : archive).addAll(bucket);
+                bucket.reset(NO_KEY);
+            }
+        }
+    }
+
+    private long dayOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    // The semester a day belongs to, as the epoch day it started on
+    static long semesterOf(long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        for (int year = date.getYear(); ; year--) {
+            for (int i = SEMESTER_STARTS.length - 1; i >= 0; i--) {
+                LocalDate start = SEMESTER_STARTS[i].atYear(year);
+                if (!start.isAfter(date)) {
+                    return start.toEpochDay();
+                }
+            }
+        }
+    }
+}
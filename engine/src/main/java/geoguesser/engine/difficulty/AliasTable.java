@@ -0,0 +1,80 @@
+package geoguesser.engine.difficulty;
+
+import java.util.Random;
+
+// Walker/Vose alias table: after an O(n) build, samples index i with probability
+// weights[i] / sum(weights) in O(1), with one nextInt and one nextDouble.
+// The arrays are allocated once for a fixed capacity and reused by every build.
+public final class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+    private final int[] small;
+    private final int[] large;
+    private final double[] scaled;
+    private int size;
+
+    public AliasTable(int capacity) {
+        probability = new double[capacity];
+        alias = new int[capacity];
+        small = new int[capacity];
+        large = new int[capacity];
+        scaled = new double[capacity];
+    }
+
+    // Rebuilds the table for the first count weights. Weights must be >= 0 and not all zero.
+    public void build(double[] weights, int count) {
+        if (count <= 0 || count > probability.length) {
+            throw new IllegalArgumentException("Bad weight count " + count + " for capacity " + probability.length);
+        }
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            if (weights[i] < 0 || Double.isNaN(weights[i])) {
+                throw new IllegalArgumentException("Bad weight " + weights[i] + " at " + i);
+            }
+            total += weights[i];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("All weights are zero");
+        }
+
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+        size = count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int sample(Random random) {
+        int column = random.nextInt(size);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
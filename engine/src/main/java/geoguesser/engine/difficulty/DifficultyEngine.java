@@ -0,0 +1,203 @@
+package geoguesser.engine.difficulty;
+
+import geoguesser.engine.ScoreRules;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Picks rounds that match how well the player is doing. Every location gets a difficulty in [0, 1]
+// from its LocationStats; the player has a target difficulty that goes up after good rounds and
+// down after bad ones, and rounds near the target are drawn more often.
+//
+// To keep a draw O(1) however big the catalog is, locations are kept in BINS buckets by
+// difficulty. A draw picks a bucket from an alias table over the buckets (weight: bucket size times
+// closeness to the target) and then a uniform location inside it. A finished round only moves that
+// one location to another bucket (swap-remove, O(1)), and the bucket table is rebuilt in O(BINS).
+// Locations already played this game are rejected and redrawn. Ids run from 0 to size - 1.
+public final class DifficultyEngine {
+    static final int BINS = 32;
+
+    // Locations with few rounds are pulled towards an average difficulty
+    private static final double PRIOR_ROUNDS = 10;
+    private static final double PRIOR_DIFFICULTY = 0.5;
+    // A mean error this far off counts as fully hard; the map is about 500 px across
+    private static final double ERROR_SCALE_PIXELS = 250;
+    private static final double ERROR_WEIGHT = 0.6;
+    private static final double TIMEOUT_WEIGHT = 0.25;
+    private static final double HINT_WEIGHT = 0.15;
+
+    // How wide the band of difficulties around the target is, and a floor so nothing is never drawn
+    private static final double TARGET_SPREAD = 0.15;
+    private static final double MIN_BIN_WEIGHT = 0.02;
+    // The target moves by ADJUST_RATE times how far the round's score was from TARGET_SCORE
+    private static final double TARGET_SCORE = 0.7;
+    private static final double ADJUST_RATE = 0.2;
+    private static final double MIN_TARGET = 0.05;
+    private static final double MAX_TARGET = 0.95;
+
+    private static final int MAX_REJECTIONS = 64;
+
+    private final int size;
+    private final LocationStats stats;
+
+    private final int[][] binMembers = new int[BINS][];
+    private final int[] binSizes = new int[BINS];
+    private final int[] binOf;
+    private final int[] slotOf;
+    private final double[] binWeights = new double[BINS];
+    private final AliasTable binTable = new AliasTable(BINS);
+    private boolean binTableStale = true;
+
+    private double target = PRIOR_DIFFICULTY;
+
+    // usedInGame[id] == game marks a location as played this game; bumping game clears them all
+    private final int[] usedInGame;
+    private int game = 1;
+    private int usedCount;
+    // Draws that ran out of rejections and took the scan, for tests and tuning
+    private long fallbackDraws;
+
+    public DifficultyEngine(int size) {
+        this(size, new LocationStats(size));
+    }
+
+    public DifficultyEngine(int size, LocationStats stats) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("No locations to draw from");
+        }
+        this.size = size;
+        this.stats = stats;
+        this.binOf = new int[size];
+        this.slotOf = new int[size];
+        this.usedInGame = new int[size];
+        for (int b = 0; b < BINS; b++) {
+            binMembers[b] = new int[16];
+        }
+        for (int id = 0; id < size; id++) {
+            binOf[id] = -1;
+            place(id);
+        }
+    }
+
+    public void startGame() {
+        game++;
+        usedCount = 0;
+    }
+
+    public int remaining() {
+        return size - usedCount;
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    long getFallbackDraws() {
+        return fallbackDraws;
+    }
+
+    // Draws a location not yet played this game, or -1 if there is none
+    public int nextRound(Random random) {
+        if (usedCount >= size) {
+            return -1;
+        }
+        if (binTableStale) {
+            rebuildBinTable();
+        }
+        for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+            int bin = binTable.sample(random);
+            int id = binMembers[bin][random.nextInt(binSizes[bin])];
+            if (usedInGame[id] != game) {
+                return use(id);
+            }
+        }
+        // Nearly everything near the target has been played: take the next unplayed one
+        fallbackDraws++;
+        int start = random.nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int id = (start + i) % size;
+            if (usedInGame[id] != game) {
+                return use(id);
+            }
+        }
+        return -1;
+    }
+
+    public void recordGuess(int locationId, double errorPixels, boolean hintUsed, int points) {
+        stats.recordGuess(locationId, errorPixels, hintUsed);
+        place(locationId);
+        adjustTarget(Math.min(1.0, (double)points / ScoreRules.BASE_POINTS));
+    }
+
+    public void recordTimeout(int locationId, boolean hintUsed) {
+        stats.recordTimeout(locationId, hintUsed);
+        place(locationId);
+        adjustTarget(0);
+    }
+
+    // Folds in statistics gathered elsewhere, e.g. loaded from the history file in the background
+    public void merge(LocationStats loaded) {
+        stats.merge(loaded);
+        for (int id = 0; id < size; id++) {
+            place(id);
+        }
+    }
+
+    public double difficulty(int locationId) {
+        long rounds = stats.getRounds(locationId);
+        if (rounds == 0) {
+            return PRIOR_DIFFICULTY;
+        }
+        double error = Math.min(1.0, stats.getMeanError(locationId) / ERROR_SCALE_PIXELS);
+        double observed = ERROR_WEIGHT * error
+                + TIMEOUT_WEIGHT * stats.getTimeoutRate(locationId)
+                + HINT_WEIGHT * stats.getHintRate(locationId);
+        return (observed * rounds + PRIOR_DIFFICULTY * PRIOR_ROUNDS) / (rounds + PRIOR_ROUNDS);
+    }
+
+    private int use(int id) {
+        usedInGame[id] = game;
+        usedCount++;
+        return id;
+    }
+
+    private void adjustTarget(double score) {
+        target = Math.max(MIN_TARGET, Math.min(MAX_TARGET, target + ADJUST_RATE * (score - TARGET_SCORE)));
+        binTableStale = true;
+    }
+
+    // Moves a location into the bin its current difficulty belongs to
+    private void place(int id) {
+        if (id >= size) {
+            return;
+        }
+        int bin = Math.min(BINS - 1, (int)(difficulty(id) * BINS));
+        int old = binOf[id];
+        if (old == bin) {
+            return;
+        }
+        if (old >= 0) {
+            // Swap-remove: the bin's last member takes this one's slot
+            int last = binMembers[old][--binSizes[old]];
+            binMembers[old][slotOf[id]] = last;
+            slotOf[last] = slotOf[id];
+        }
+        if (binSizes[bin] == binMembers[bin].length) {
+            binMembers[bin] = Arrays.copyOf(binMembers[bin], binSizes[bin] * 2);
+        }
+        slotOf[id] = binSizes[bin];
+        binMembers[bin][binSizes[bin]++] = id;
+        binOf[id] = bin;
+        binTableStale = true;
+    }
+
+    private void rebuildBinTable() {
+        for (int b = 0; b < BINS; b++) {
+            double center = (b + 0.5) / BINS;
+            double distance = (center - target) / TARGET_SPREAD;
+            binWeights[b] = binSizes[b] * (Math.exp(-0.5 * distance * distance) + MIN_BIN_WEIGHT);
+        }
+        binTable.build(binWeights, BINS);
+        binTableStale = false;
+    }
+}
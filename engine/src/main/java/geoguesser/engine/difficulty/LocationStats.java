@@ -0,0 +1,155 @@
+package geoguesser.engine.difficulty;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.history.HistoryReader;
+import geoguesser.engine.history.RoundRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Streaming per-location statistics: how far off guesses are (mean and variance by Welford's
+// update, so nothing per round is kept), how often the round times out and how often a hint is
+// bought. Everything lives in primitive arrays indexed by location id. Not thread-safe.
+public final class LocationStats {
+    private long[] rounds;
+    private long[] guesses;
+    private long[] timeouts;
+    private long[] hints;
+    private double[] meanError;
+    // Sum of squared differences from the mean (Welford's M2)
+    private double[] errorM2;
+
+    public LocationStats(int locations) {
+        int capacity = Math.max(1, locations);
+        rounds = new long[capacity];
+        guesses = new long[capacity];
+        timeouts = new long[capacity];
+        hints = new long[capacity];
+        meanError = new double[capacity];
+        errorM2 = new double[capacity];
+    }
+
+    // Rebuilds the statistics from the round history file (see GameHistory in the client)
+    public static LocationStats fromHistory(Path file) throws IOException {
+        LocationStats stats = new LocationStats(LocationCatalog.size());
+        RoundRecord round = new RoundRecord();
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            while (reader.next(round)) {
+                if (round.locationId >= LocationCatalog.size()) {
+                    continue;
+                }
+                if (round.timedOut) {
+                    stats.recordTimeout(round.locationId, round.hintUsed);
+                } else {
+                    Location location = LocationCatalog.get(round.locationId);
+                    stats.recordGuess(round.locationId, location.distanceTo(round.x, round.y), round.hintUsed);
+                }
+            }
+        }
+        return stats;
+    }
+
+    public void recordGuess(int locationId, double errorPixels, boolean hintUsed) {
+        ensureCapacity(locationId);
+        rounds[locationId]++;
+        long n = ++guesses[locationId];
+        double delta = errorPixels - meanError[locationId];
+        meanError[locationId] += delta / n;
+        errorM2[locationId] += delta * (errorPixels - meanError[locationId]);
+        if (hintUsed) {
+            hints[locationId]++;
+        }
+    }
+
+    public void recordTimeout(int locationId, boolean hintUsed) {
+        ensureCapacity(locationId);
+        rounds[locationId]++;
+        timeouts[locationId]++;
+        if (hintUsed) {
+            hints[locationId]++;
+        }
+    }
+
+    // Adds another set of statistics into this one (Chan et al.'s pairwise combination)
+    public void merge(LocationStats other) {
+        ensureCapacity(other.rounds.length - 1);
+        for (int id = 0; id < other.rounds.length; id++) {
+            long theirGuesses = other.guesses[id];
+            if (theirGuesses > 0) {
+                long myGuesses = guesses[id];
+                long n = myGuesses + theirGuesses;
+                double delta = other.meanError[id] - meanError[id];
+                meanError[id] += delta * theirGuesses / n;
+                errorM2[id] += other.errorM2[id] + delta * delta * ((double)myGuesses * theirGuesses / n);
+                guesses[id] = n;
+            }
+            rounds[id] += other.rounds[id];
+            timeouts[id] += other.timeouts[id];
+            hints[id] += other.hints[id];
+        }
+    }
+
+    // One past the highest location id with room for statistics
+    public int size() {
+        return rounds.length;
+    }
+
+    public long getRounds(int locationId) {
+        return locationId < rounds.length ? rounds[locationId] : 0;
+    }
+
+    public long getGuesses(int locationId) {
+        return locationId < guesses.length ? guesses[locationId] : 0;
+    }
+
+    // Mean distance of guesses from the spot, in map pixels; 0 before the first guess
+    public double getMeanError(int locationId) {
+        return locationId < meanError.length ? meanError[locationId] : 0;
+    }
+
+    public double getErrorStdDev(int locationId) {
+        long n = getGuesses(locationId);
+        return n < 2 ? 0 : Math.sqrt(errorM2[locationId] / (n - 1));
+    }
+
+    public double getTimeoutRate(int locationId) {
+        long n = getRounds(locationId);
+        return n == 0 ? 0 : (double)timeouts[locationId] / n;
+    }
+
+    public double getHintRate(int locationId) {
+        long n = getRounds(locationId);
+        return n == 0 ? 0 : (double)hints[locationId] / n;
+    }
+
+    private void ensureCapacity(int locationId) {
+        if (locationId < rounds.length) {
+            return;
+        }
+        int size = Math.max(locationId + 1, rounds.length * 2);
+        rounds = Arrays.copyOf(rounds, size);
+        guesses = Arrays.copyOf(guesses, size);
+        timeouts = Arrays.copyOf(timeouts, size);
+        hints = Arrays.copyOf(hints, size);
+        meanError = Arrays.copyOf(meanError, size);
+        errorM2 = Arrays.copyOf(errorM2, size);
+    }
+
+    // Prints the statistics of a history file: LocationStats [history.ggh]
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "history.ggh");
+        LocationStats stats = fromHistory(file);
+        DifficultyEngine engine = new DifficultyEngine(LocationCatalog.size(), stats);
+        System.out.printf("%-40s %10s %10s %8s %8s %8s %10s%n",
+                "Location", "Rounds", "Mean err", "Std dev", "Timeout", "Hint", "Difficulty");
+        for (Location location : LocationCatalog.all()) {
+            int id = location.getId();
+            System.out.printf("%-40s %,10d %8.1fpx %8.1f %7.1f%% %7.1f%% %10.2f%n", location, stats.getRounds(id),
+                    stats.getMeanError(id), stats.getErrorStdDev(id), stats.getTimeoutRate(id) * 100,
+                    stats.getHintRate(id) * 100, engine.difficulty(id));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package geoguesser.engine.history;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+// Where each block of a history file starts, what it holds and where the blocks end
+final class BlockIndex {
+    private long[] offsets = new long[16];
+    private long[] firstTimestamps = new long[16];
+    private int[] eventCounts = new int[16];
+    private int size;
+    // End of the last block: the footer goes (or went) here
+    long dataEnd = HistoryFormat.FILE_HEADER_BYTES;
+
+    void add(long offset, long firstTimestamp, int eventCount, long end) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            firstTimestamps = Arrays.copyOf(firstTimestamps, size * 2);
+            eventCounts = Arrays.copyOf(eventCounts, size * 2);
+        }
+        offsets[size] = offset;
+        firstTimestamps[size] = firstTimestamp;
+        eventCounts[size] = eventCount;
+        size++;
+        dataEnd = end;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offset(int block) {
+        return offsets[block];
+    }
+
+    long firstTimestamp(int block) {
+        return firstTimestamps[block];
+    }
+
+    long eventCount() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += eventCounts[i];
+        }
+        return total;
+    }
+
+    // Last block whose first event is before the timestamp (0 if none is). Strictly before: rounds
+    // with the timestamp itself may end the previous block, and seek() has to start there.
+    int blockFor(long timestamp) {
+        int lo = 0;
+        int hi = size - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (firstTimestamps[mid] < timestamp) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // Writes the footer at dataEnd and cuts off anything after it
+    void writeFooter(FileChannel channel) throws IOException {
+        ByteBuffer footer = ByteBuffer.allocate(8 + size * HistoryFormat.INDEX_ENTRY_BYTES + HistoryFormat.TRAILER_BYTES);
+        footer.putInt(HistoryFormat.INDEX_MAGIC).putInt(size);
+        for (int i = 0; i < size; i++) {
+            footer.putLong(offsets[i]).putLong(firstTimestamps[i]).putInt(eventCounts[i]);
+        }
+        footer.putLong(dataEnd).putInt(HistoryFormat.FILE_MAGIC);
+        footer.flip();
+        long position = dataEnd;
+        while (footer.hasRemaining()) {
+            position += channel.write(footer, position);
+        }
+        channel.truncate(position);
+    }
+
+    // Index of an existing file: from its footer, or rebuilt by walking the block headers when the
+    // footer is missing or damaged (writer killed). A torn last block is left out.
+    static BlockIndex load(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HistoryFormat.FILE_HEADER_BYTES);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != HistoryFormat.FILE_MAGIC) {
+            throw new IOException("Not a round history file");
+        }
+        int version = header.get() & 0xFF;
+        if (version != HistoryFormat.VERSION) {
+            throw new IOException("Unsupported round history version " + version);
+        }
+
+        BlockIndex fromFooter = readFooter(channel, fileSize);
+        return fromFooter != null ? fromFooter : scan(channel, fileSize);
+    }
+
+    private static BlockIndex readFooter(FileChannel channel, long fileSize) throws IOException {
+        if (fileSize < HistoryFormat.FILE_HEADER_BYTES + 8 + HistoryFormat.TRAILER_BYTES) {
+            return null;
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(HistoryFormat.TRAILER_BYTES);
+        readFully(channel, trailer, fileSize - HistoryFormat.TRAILER_BYTES);
+        trailer.flip();
+        long indexOffset = trailer.getLong();
+        if (trailer.getInt() != HistoryFormat.FILE_MAGIC
+                || indexOffset < HistoryFormat.FILE_HEADER_BYTES || indexOffset > fileSize - 8 - HistoryFormat.TRAILER_BYTES) {
+            return null;
+        }
+        ByteBuffer index = ByteBuffer.allocate((int)(fileSize - HistoryFormat.TRAILER_BYTES - indexOffset));
+        readFully(channel, index, indexOffset);
+        index.flip();
+        if (index.getInt() != HistoryFormat.INDEX_MAGIC) {
+            return null;
+        }
+        int count = index.getInt();
+        if (count < 0 || index.remaining() != count * HistoryFormat.INDEX_ENTRY_BYTES) {
+            return null;
+        }
+        BlockIndex result = new BlockIndex();
+        for (int i = 0; i < count; i++) {
+            result.add(index.getLong(), index.getLong(), index.getInt(), indexOffset);
+        }
+        result.dataEnd = indexOffset;
+        return result;
+    }
+
+    private static BlockIndex scan(FileChannel channel, long fileSize) throws IOException {
+        BlockIndex result = new BlockIndex();
+        ByteBuffer header = ByteBuffer.allocate(HistoryFormat.BLOCK_HEADER_BYTES);
+        long position = HistoryFormat.FILE_HEADER_BYTES;
+        while (position + HistoryFormat.BLOCK_HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            if (header.getInt() != HistoryFormat.BLOCK_MAGIC) {
+                break;
+            }
+            header.get();
+            int storedLength = header.getInt();
+            header.getInt();
+            int eventCount = header.getInt();
+            long firstTimestamp = header.getLong();
+            long end = position + HistoryFormat.BLOCK_HEADER_BYTES + storedLength;
+            if (storedLength < 0 || end > fileSize) {
+                break;
+            }
+            result.add(position, firstTimestamp, eventCount, end);
+            position = end;
+        }
+        return result;
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new EOFException();
+            }
+            position += n;
+        }
+    }
+}
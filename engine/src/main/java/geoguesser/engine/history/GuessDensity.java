@@ -0,0 +1,223 @@
+package geoguesser.engine.history;
+
+import geoguesser.engine.LocationCatalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Where players clicked for each location: the guesses of a history file counted into a grid of
+// cellSize x cellSize map pixels per location id. The file is split by blocks across the common
+// fork-join pool; every leaf task reads its blocks with its own HistoryReader into private grids,
+// and the grids are summed on the way back up, so there is no sharing while counting. The block
+// index is loaded once up front and only read by the leaves.
+public final class GuessDensity {
+    public static final int DEFAULT_CELL_SIZE = 4;
+
+    // Leaves read at least this many blocks (a few thousand rounds each)
+    private static final int MIN_BLOCKS_PER_TASK = 8;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    // Per location id; null for a location nobody has guessed yet
+    private final int[][] grids;
+    private final long[] guessCounts;
+
+    private GuessDensity(int cellSize, int columns, int rows, Counts counts) {
+        this.cellSize = cellSize;
+        this.columns = columns;
+        this.rows = rows;
+        this.grids = counts.grids;
+        this.guessCounts = counts.guesses;
+    }
+
+    // Counts every guess in the file that falls inside a mapWidth x mapHeight map
+    public static GuessDensity aggregate(Path file, int mapWidth, int mapHeight, int cellSize) throws IOException {
+        if (mapWidth <= 0 || mapHeight <= 0 || cellSize <= 0) {
+            throw new IllegalArgumentException("Bad grid: " + mapWidth + "x" + mapHeight + " / " + cellSize);
+        }
+        int columns = (mapWidth + cellSize - 1) / cellSize;
+        int rows = (mapHeight + cellSize - 1) / cellSize;
+        BlockIndex index;
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            index = reader.getIndex();
+        }
+        int blocks = index.size();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int perTask = Math.max(MIN_BLOCKS_PER_TASK, blocks / (pool.getParallelism() * 4));
+        try {
+            Counts counts = pool.invoke(new CountTask(file, index, mapWidth, mapHeight, cellSize, columns, rows,
+                    0, blocks, perTask));
+            return new GuessDensity(cellSize, columns, rows, counts);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // One past the highest location id seen
+    public int getLocationCount() {
+        return grids.length;
+    }
+
+    public long getGuessCount(int locationId) {
+        return locationId < guessCounts.length ? guessCounts[locationId] : 0;
+    }
+
+    public int getCount(int locationId, int column, int row) {
+        int[] grid = locationId < grids.length ? grids[locationId] : null;
+        return grid == null ? 0 : grid[row * columns + column];
+    }
+
+    public int getMaxCount(int locationId) {
+        int[] grid = locationId < grids.length ? grids[locationId] : null;
+        int max = 0;
+        if (grid != null) {
+            for (int count : grid) {
+                max = Math.max(max, count);
+            }
+        }
+        return max;
+    }
+
+    private static final class Counts {
+        int[][] grids = new int[LocationCatalog.size()][];
+        long[] guesses = new long[LocationCatalog.size()];
+
+        void grow(int locationId) {
+            int size = Math.max(locationId + 1, grids.length * 2);
+            grids = Arrays.copyOf(grids, size);
+            guesses = Arrays.copyOf(guesses, size);
+        }
+
+        // Adds the other counts into these ones
+        Counts merge(Counts other) {
+            if (other.grids.length > grids.length) {
+                grow(other.grids.length - 1);
+            }
+            for (int id = 0; id < other.grids.length; id++) {
+                int[] theirs = other.grids[id];
+                if (theirs == null) {
+                    continue;
+                }
+                int[] mine = grids[id];
+                if (mine == null) {
+                    grids[id] = theirs;
+                } else {
+                    for (int i = 0; i < mine.length; i++) {
+                        mine[i] += theirs[i];
+                    }
+                }
+                guesses[id] += other.guesses[id];
+            }
+            return this;
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Counts> {
+        private final Path file;
+        private final BlockIndex index;
+        private final int mapWidth;
+        private final int mapHeight;
+        private final int cellSize;
+        private final int columns;
+        private final int rows;
+        private final int fromBlock;
+        private final int toBlock;
+        private final int perTask;
+
+        CountTask(Path file, BlockIndex index, int mapWidth, int mapHeight, int cellSize, int columns, int rows,
+                  int fromBlock, int toBlock, int perTask) {
+            this.file = file;
+            this.index = index;
+            this.mapWidth = mapWidth;
+            this.mapHeight = mapHeight;
+            this.cellSize = cellSize;
+            this.columns = columns;
+            this.rows = rows;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.perTask = perTask;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (toBlock - fromBlock > perTask) {
+                int middle = (fromBlock + toBlock) >>> 1;
+                CountTask left = split(fromBlock, middle);
+                left.fork();
+                Counts right = split(middle, toBlock).compute();
+                return left.join().merge(right);
+            }
+            try {
+                return count();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private CountTask split(int from, int to) {
+            return new CountTask(file, index, mapWidth, mapHeight, cellSize, columns, rows, from, to, perTask);
+        }
+
+        private Counts count() throws IOException {
+            Counts counts = new Counts();
+            RoundRecord round = new RoundRecord();
+            try (HistoryReader reader = HistoryReader.open(file, index)) {
+                reader.readBlocks(fromBlock, toBlock);
+                while (reader.next(round)) {
+                    if (round.timedOut || round.x < 0 || round.y < 0 || round.x >= mapWidth || round.y >= mapHeight) {
+                        continue;
+                    }
+                    int id = round.locationId;
+                    if (id >= counts.grids.length) {
+                        counts.grow(id);
+                    }
+                    int[] grid = counts.grids[id];
+                    if (grid == null) {
+                        grid = counts.grids[id] = new int[columns * rows];
+                    }
+                    grid[(int)round.y / cellSize * columns + (int)round.x / cellSize]++;
+                    counts.guesses[id]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    // Prints guess counts per location and how long the aggregation took:
+    // GuessDensity [history.ggh] [mapWidth mapHeight]
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "history.ggh");
+        int mapWidth = args.length > 2 ? Integer.parseInt(args[1]) : 1000;
+        int mapHeight = args.length > 2 ? Integer.parseInt(args[2]) : 800;
+        long start = System.nanoTime();
+        GuessDensity density = aggregate(file, mapWidth, mapHeight, DEFAULT_CELL_SIZE);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = 0;
+        for (int id = 0; id < density.getLocationCount(); id++) {
+            long guesses = density.getGuessCount(id);
+            total += guesses;
+            String name = id < LocationCatalog.size() ? LocationCatalog.get(id).toString() : "location " + id;
+            System.out.printf("%-40s %,12d guesses, busiest cell %,d%n", name, guesses, density.getMaxCount(id));
+        }
+        System.out.printf("%,d guesses aggregated in %.3f s (%,.0f guesses/s on %d threads)%n",
+                total, seconds, total / seconds, ForkJoinPool.commonPool().getParallelism());
+    }
+}
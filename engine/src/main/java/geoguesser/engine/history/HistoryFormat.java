@@ -0,0 +1,80 @@
+package geoguesser.engine.history;
+
+import java.nio.ByteBuffer;
+
+// On-disk layout of a round history file (.ggh): every guessed or timed-out round of every game,
+// for analytics. Version 1:
+//
+//   file header   int FILE_MAGIC "GGH1", byte version
+//   block*        int BLOCK_MAGIC, byte flags (FLAG_DEFLATED), int storedLength, int rawLength,
+//                 int eventCount, long firstTimestamp, then storedLength bytes of events
+//   footer        int INDEX_MAGIC, int blockCount, blockCount x (long offset, long firstTimestamp,
+//                 int eventCount), long indexOffset, int FILE_MAGIC
+//
+// An event inside a block:
+//   byte          kind (EVENT_GUESS / EVENT_TIMEOUT) | FLAG_HINT
+//   zigzag varint ms since the previous event in the block (the first is relative to firstTimestamp)
+//   varint        ms since the session started (identifies the session together with the timestamp)
+//   varint        round, varint locationId
+//   guesses only: zigzag varint x and y in 1/8 map pixels, varint secondsLeft, varint points
+//
+// A typical event is 10-14 bytes before compression. The footer lets a reader jump to the block
+// holding a timestamp; if the writer died before writing it, the blocks are found by scanning
+// their headers instead.
+//
+// Events not yet in a block can be saved next to the file in <file>.tail, so a writer killed before
+// its block fills loses nothing:
+//   int TAIL_MAGIC, long dataEnd, int eventCount, long firstTimestamp, int rawLength, raw events,
+//   int CRC32 of everything before it
+// The next writer turns the tail into a block, but only if the file still ends at dataEnd; a tail
+// left over after its events went into a block is stale and dropped.
+final class HistoryFormat {
+    static final int FILE_MAGIC = 0x47474831;
+    static final int BLOCK_MAGIC = 0x47474842;
+    static final int INDEX_MAGIC = 0x47474849;
+    static final int TAIL_MAGIC = 0x47474854;
+    static final int VERSION = 1;
+
+    static final int FILE_HEADER_BYTES = 5;
+    static final int BLOCK_HEADER_BYTES = 25;
+    static final int INDEX_ENTRY_BYTES = 20;
+    static final int TRAILER_BYTES = 12;
+    static final int TAIL_HEADER_BYTES = 28;
+
+    static final int FLAG_DEFLATED = 1;
+
+    static final int EVENT_GUESS = 1;
+    static final int EVENT_TIMEOUT = 2;
+    static final int FLAG_HINT = 0x10;
+
+    // Uncompressed block size; big enough for Deflate to find repetition, small enough to seek well
+    static final int BLOCK_BYTES = 64 * 1024;
+    // Upper bound of one encoded event: a kind byte and eight varints of at most 10 bytes
+    static final int MAX_EVENT_BYTES = 1 + 8 * 10;
+
+    // A block is stored deflated only if that saves at least 1/MIN_DEFLATE_SAVING of it
+    static final int MIN_DEFLATE_SAVING = 4;
+
+    static final int COORDINATE_SCALE = 8;
+
+    static final String TAIL_SUFFIX = ".tail";
+
+    private HistoryFormat() {
+    }
+
+    static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte)value);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
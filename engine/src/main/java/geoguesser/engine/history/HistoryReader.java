@@ -0,0 +1,234 @@
+package geoguesser.engine.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Streams the rounds of a history file (see HistoryFormat) block by block. The block buffers, the
+// Inflater and the RoundRecord are reused, so reading allocates nothing per event; varints are decoded
+// straight from the block's byte array.
+//   try (HistoryReader reader = HistoryReader.open(path)) {
+//       RoundRecord round = new RoundRecord();
+//       reader.seek(since);
+//       while (reader.next(round)) { ... }
+//   }
+public final class HistoryReader implements Closeable {
+    private final FileChannel channel;
+    private final BlockIndex index;
+    private final ByteBuffer header = ByteBuffer.allocate(HistoryFormat.BLOCK_HEADER_BYTES);
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer stored = ByteBuffer.allocate(HistoryFormat.BLOCK_BYTES);
+    private byte[] raw = new byte[HistoryFormat.BLOCK_BYTES];
+
+    private int nextBlock;
+    private int endBlock = Integer.MAX_VALUE;
+    private int rawLength;
+    private int position;
+    private int eventsLeft;
+    private long timestamp;
+    private long bytesDecoded;
+
+    private HistoryReader(FileChannel channel, BlockIndex index) {
+        this.channel = channel;
+        this.index = index;
+    }
+
+    public static HistoryReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new HistoryReader(channel, BlockIndex.load(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // A reader over an index loaded earlier, so readers splitting one file between them don't each
+    // load it again. While a writer has the file open there is no footer and loading walks every block.
+    static HistoryReader open(Path file, BlockIndex index) throws IOException {
+        return new HistoryReader(FileChannel.open(file, StandardOpenOption.READ), index);
+    }
+
+    BlockIndex getIndex() {
+        return index;
+    }
+
+    public int getBlockCount() {
+        return index.size();
+    }
+
+    public long getEventCount() {
+        return index.eventCount();
+    }
+
+    // Uncompressed bytes of all blocks read so far
+    public long getBytesDecoded() {
+        return bytesDecoded;
+    }
+
+    // Restricts the reader to blocks [fromBlock, toBlock), so a file can be split across threads
+    // that each open their own reader
+    public void readBlocks(int fromBlock, int toBlock) {
+        eventsLeft = 0;
+        nextBlock = fromBlock;
+        endBlock = toBlock;
+    }
+
+    // Positions the reader on the first round at or after the timestamp. Only the block that
+    // holds it is read; everything before is skipped through the index.
+    public void seek(long fromTimestamp) throws IOException {
+        eventsLeft = 0;
+        nextBlock = index.blockFor(fromTimestamp);
+        RoundRecord skipped = new RoundRecord();
+        while (true) {
+            int savedPosition = position;
+            int savedLeft = eventsLeft;
+            long savedTimestamp = timestamp;
+            int savedBlock = nextBlock;
+            if (!next(skipped)) {
+                return;
+            }
+            if (skipped.timestamp >= fromTimestamp) {
+                // Step back so next() returns this round again
+                if (savedBlock != nextBlock) {
+                    nextBlock = savedBlock;
+                    eventsLeft = 0;
+                } else {
+                    position = savedPosition;
+                    eventsLeft = savedLeft;
+                    timestamp = savedTimestamp;
+                }
+                return;
+            }
+        }
+    }
+
+    // Fills the record with the next round; false at the end of the file
+    public boolean next(RoundRecord record) throws IOException {
+        while (eventsLeft == 0) {
+            if (nextBlock >= Math.min(endBlock, index.size())) {
+                return false;
+            }
+            loadBlock(nextBlock++);
+        }
+        eventsLeft--;
+
+        byte[] b = raw;
+        int kind = b[position++];
+        timestamp += HistoryFormat.unzigzag(varint(b));
+        record.timestamp = timestamp;
+        record.sessionStart = timestamp - varint(b);
+        record.round = (int)varint(b);
+        record.locationId = (int)varint(b);
+        record.hintUsed = (kind & HistoryFormat.FLAG_HINT) != 0;
+        record.timedOut = (kind & 0x0F) == HistoryFormat.EVENT_TIMEOUT;
+        if (record.timedOut) {
+            record.x = 0;
+            record.y = 0;
+            record.secondsLeft = 0;
+            record.points = 0;
+        } else {
+            record.x = HistoryFormat.unzigzag(varint(b)) / (double)HistoryFormat.COORDINATE_SCALE;
+            record.y = HistoryFormat.unzigzag(varint(b)) / (double)HistoryFormat.COORDINATE_SCALE;
+            record.secondsLeft = (int)varint(b);
+            record.points = (int)varint(b);
+        }
+        return true;
+    }
+
+    private long varint(byte[] b) {
+        int p = position;
+        long value = b[p++];
+        if (value >= 0) {
+            position = p;
+            return value;
+        }
+        value &= 0x7F;
+        for (int shift = 7; ; shift += 7) {
+            byte next = b[p++];
+            value |= (long)(next & 0x7F) << shift;
+            if (next >= 0) {
+                position = p;
+                return value;
+            }
+        }
+    }
+
+    private void loadBlock(int block) throws IOException {
+        long offset = index.offset(block);
+        header.clear();
+        BlockIndex.readFully(channel, header, offset);
+        header.flip();
+        header.getInt();
+        int flags = header.get();
+        int storedLength = header.getInt();
+        rawLength = header.getInt();
+        eventsLeft = header.getInt();
+        timestamp = header.getLong();
+
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+        }
+        if ((flags & HistoryFormat.FLAG_DEFLATED) == 0) {
+            BlockIndex.readFully(channel, ByteBuffer.wrap(raw, 0, storedLength), offset + HistoryFormat.BLOCK_HEADER_BYTES);
+        } else {
+            if (stored.capacity() < storedLength) {
+                stored = ByteBuffer.allocate(storedLength);
+            }
+            stored.clear().limit(storedLength);
+            BlockIndex.readFully(channel, stored, offset + HistoryFormat.BLOCK_HEADER_BYTES);
+            inflater.reset();
+            inflater.setInput(stored.array(), 0, storedLength);
+            try {
+                int n = inflater.inflate(raw, 0, rawLength);
+                if (n != rawLength) {
+                    throw new IOException("Block " + block + " is truncated");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Block " + block + " is corrupt: " + e.getMessage(), e);
+            }
+        }
+        position = 0;
+        bytesDecoded += rawLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    // Prints a summary of a history file and how fast it reads: HistoryReader history.ggh
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "history.ggh");
+        long bytes = Files.size(file);
+        RoundRecord round = new RoundRecord();
+        long start = System.nanoTime();
+        long events = 0;
+        long guesses = 0;
+        long points = 0;
+        try (HistoryReader reader = open(file)) {
+            while (reader.next(round)) {
+                events++;
+                if (!round.timedOut) {
+                    guesses++;
+                    points += round.points;
+                }
+            }
+            long rawBytes = reader.getBytesDecoded();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s: %,d rounds in %d blocks, %,d bytes on disk (%,d uncompressed)%n",
+                    file, events, reader.getBlockCount(), bytes, rawBytes);
+            System.out.printf("%,d guesses, %.1f points on average%n", guesses, guesses == 0 ? 0.0 : (double)points / guesses);
+            System.out.printf("Read in %.3f s: %,.0f rounds/s, %.1f MB/s uncompressed%n",
+                    seconds, events / seconds, rawBytes / seconds / 1e6);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package geoguesser.engine.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Appends rounds to a history file (see HistoryFormat). Events are encoded straight into one
+// reusable block buffer; when it fills, the block is deflated into a second reusable buffer and
+// written out. Appending an event allocates nothing. Not thread-safe.
+// An existing file is continued: its footer is read, cut off and written again on close().
+// saveTail() puts the events of the unfinished block in <file>.tail, so a process that is killed
+// loses nothing without writing tiny blocks; the next open() turns a leftover tail into a block.
+public final class HistoryWriter implements Closeable {
+    private final FileChannel channel;
+    private final Path tailFile;
+    private final BlockIndex index;
+    private final ByteBuffer block = ByteBuffer.allocate(HistoryFormat.BLOCK_BYTES);
+    private final byte[] compressed = new byte[HistoryFormat.BLOCK_BYTES + HistoryFormat.BLOCK_BYTES / 16 + 64];
+    private final ByteBuffer header = ByteBuffer.allocate(HistoryFormat.BLOCK_HEADER_BYTES);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private int eventCount;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private boolean tailSaved;
+
+    private HistoryWriter(FileChannel channel, Path tailFile, BlockIndex index) {
+        this.channel = channel;
+        this.tailFile = tailFile;
+        this.index = index;
+    }
+
+    public static HistoryWriter open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            BlockIndex index;
+            if (channel.size() == 0) {
+                ByteBuffer fileHeader = ByteBuffer.allocate(HistoryFormat.FILE_HEADER_BYTES);
+                fileHeader.putInt(HistoryFormat.FILE_MAGIC).put((byte)HistoryFormat.VERSION).flip();
+                channel.write(fileHeader, 0);
+                index = new BlockIndex();
+            } else {
+                index = BlockIndex.load(channel);
+            }
+            // New blocks overwrite the old footer; a crash from here on is recovered by scanning
+            channel.truncate(index.dataEnd);
+            Path tailFile = file.resolveSibling(file.getFileName() + HistoryFormat.TAIL_SUFFIX);
+            HistoryWriter writer = new HistoryWriter(channel, tailFile, index);
+            writer.recoverTail();
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void guessed(long timestamp, long sessionStart, int round, int locationId, boolean hintUsed,
+                        double x, double y, int secondsLeft, int points) throws IOException {
+        int kind = HistoryFormat.EVENT_GUESS | (hintUsed ? HistoryFormat.FLAG_HINT : 0);
+        beginEvent(kind, timestamp, sessionStart, round, locationId);
+        HistoryFormat.putVarint(block, HistoryFormat.zigzag(Math.round(x * HistoryFormat.COORDINATE_SCALE)));
+        HistoryFormat.putVarint(block, HistoryFormat.zigzag(Math.round(y * HistoryFormat.COORDINATE_SCALE)));
+        HistoryFormat.putVarint(block, secondsLeft);
+        HistoryFormat.putVarint(block, points);
+    }
+
+    public void timedOut(long timestamp, long sessionStart, int round, int locationId, boolean hintUsed)
+            throws IOException {
+        int kind = HistoryFormat.EVENT_TIMEOUT | (hintUsed ? HistoryFormat.FLAG_HINT : 0);
+        beginEvent(kind, timestamp, sessionStart, round, locationId);
+    }
+
+    private void beginEvent(int kind, long timestamp, long sessionStart, int round, int locationId) throws IOException {
+        if (block.remaining() < HistoryFormat.MAX_EVENT_BYTES) {
+            flush();
+        }
+        if (eventCount == 0) {
+            firstTimestamp = timestamp;
+            lastTimestamp = timestamp;
+        }
+        block.put((byte)kind);
+        HistoryFormat.putVarint(block, HistoryFormat.zigzag(timestamp - lastTimestamp));
+        HistoryFormat.putVarint(block, Math.max(0, timestamp - sessionStart));
+        HistoryFormat.putVarint(block, round);
+        HistoryFormat.putVarint(block, locationId);
+        lastTimestamp = timestamp;
+        eventCount++;
+    }
+
+    // Writes out the current block, however full. Blocks are self-contained, so this is safe at any time.
+    public void flush() throws IOException {
+        if (eventCount == 0) {
+            return;
+        }
+        int rawLength = block.position();
+        deflater.reset();
+        deflater.setInput(block.array(), 0, rawLength);
+        deflater.finish();
+        int storedLength = deflater.deflate(compressed);
+        // Inflating costs several times the varint decode, so a block is only kept deflated when that
+        // buys a real saving; otherwise it is stored as is
+        boolean deflated = deflater.finished() && storedLength <= rawLength - rawLength / HistoryFormat.MIN_DEFLATE_SAVING;
+
+        header.clear();
+        header.putInt(HistoryFormat.BLOCK_MAGIC)
+                .put((byte)(deflated ? HistoryFormat.FLAG_DEFLATED : 0))
+                .putInt(deflated ? storedLength : rawLength)
+                .putInt(rawLength)
+                .putInt(eventCount)
+                .putLong(firstTimestamp)
+                .flip();
+        ByteBuffer body = deflated ? ByteBuffer.wrap(compressed, 0, storedLength) : ByteBuffer.wrap(block.array(), 0, rawLength);
+
+        long offset = index.dataEnd;
+        long position = offset;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        while (body.hasRemaining()) {
+            position += channel.write(body, position);
+        }
+        index.add(offset, firstTimestamp, eventCount, position);
+
+        block.clear();
+        eventCount = 0;
+        if (tailSaved) {
+            // Its events are in the block now; a tail left behind anyway is stale by its dataEnd
+            Files.deleteIfExists(tailFile);
+            tailSaved = false;
+        }
+    }
+
+    // Saves the events not yet in a block to the tail file, replacing what was saved before. One write
+    // of the raw events, no compression and no new block, so it can be called after every game. The
+    // old tail is only replaced once the new one is complete.
+    public void saveTail() throws IOException {
+        if (eventCount == 0) {
+            return;
+        }
+        int rawLength = block.position();
+        ByteBuffer tail = ByteBuffer.allocate(HistoryFormat.TAIL_HEADER_BYTES + rawLength + 4);
+        tail.putInt(HistoryFormat.TAIL_MAGIC)
+                .putLong(index.dataEnd)
+                .putInt(eventCount)
+                .putLong(firstTimestamp)
+                .putInt(rawLength)
+                .put(block.array(), 0, rawLength);
+        CRC32 crc = new CRC32();
+        crc.update(tail.array(), 0, tail.position());
+        tail.putInt((int)crc.getValue());
+        Path partial = tailFile.resolveSibling(tailFile.getFileName() + ".tmp");
+        Files.write(partial, tail.array());
+        Files.move(partial, tailFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tailSaved = true;
+    }
+
+    // Writes a tail left by a writer that never closed as a block of its own. A damaged tail, or one
+    // whose events already made it into a block, is dropped.
+    private void recoverTail() throws IOException {
+        if (!Files.isRegularFile(tailFile)) {
+            return;
+        }
+        ByteBuffer tail = ByteBuffer.wrap(Files.readAllBytes(tailFile));
+        if (validTail(tail)) {
+            eventCount = tail.getInt(12);
+            firstTimestamp = tail.getLong(16);
+            block.put(tail.array(), HistoryFormat.TAIL_HEADER_BYTES, tail.getInt(24));
+            flush();
+        } else {
+            System.err.println("Dropping stale or damaged round history tail " + tailFile);
+        }
+        Files.deleteIfExists(tailFile);
+    }
+
+    private boolean validTail(ByteBuffer tail) {
+        if (tail.remaining() < HistoryFormat.TAIL_HEADER_BYTES + 4) {
+            return false;
+        }
+        int rawLength = tail.getInt(24);
+        if (rawLength <= 0 || rawLength > HistoryFormat.BLOCK_BYTES
+                || tail.remaining() != HistoryFormat.TAIL_HEADER_BYTES + rawLength + 4) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(tail.array(), 0, tail.remaining() - 4);
+        return tail.getInt(tail.remaining() - 4) == (int)crc.getValue()
+                && tail.getInt(0) == HistoryFormat.TAIL_MAGIC
+                && tail.getLong(4) == index.dataEnd
+                && tail.getInt(12) > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            index.writeFooter(channel);
+            channel.force(false);
+            Files.deleteIfExists(tailFile);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package geoguesser.engine.history;
+
+// One round read back from a history file. HistoryReader fills the same instance again for every
+// event, so copy out what you need to keep.
+public final class RoundRecord {
+    public long timestamp;
+    public long sessionStart;
+    public int round;
+    public int locationId;
+    public boolean timedOut;
+    public boolean hintUsed;
+    // Guesses only; map pixels, accurate to 1/8 pixel
+    public double x;
+    public double y;
+    public int secondsLeft;
+    public int points;
+
+    @Override
+    public String toString() {
+        return timedOut
+                ? String.format("%d session@%d round %d location %d timed out%s", timestamp, sessionStart, round,
+                        locationId, hintUsed ? " (hint)" : "")
+                : String.format("%d session@%d round %d location %d guess (%.1f, %.1f) %ds left %d points%s",
+                        timestamp, sessionStart, round, locationId, x, y, secondsLeft, points, hintUsed ? " (hint)" : "");
+    }
+}
@@ -0,0 +1,37 @@
+package geoguesser.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic count. Rates (guesses per second and so on) come from rate() on the scraping side.
+public final class Counter extends Metric {
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help) {
+        super(name, help);
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Counters only go up: " + amount);
+        }
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void write(StringBuilder out) {
+        out.append(name).append(' ').append(get()).append('\n');
+    }
+}
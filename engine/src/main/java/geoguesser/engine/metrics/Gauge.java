@@ -0,0 +1,34 @@
+package geoguesser.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Value that goes up and down, e.g. sessions currently in progress
+public final class Gauge extends Metric {
+    private final LongAdder value = new LongAdder();
+
+    Gauge(String name, String help) {
+        super(name, help);
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void decrement() {
+        value.decrement();
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void write(StringBuilder out) {
+        out.append(name).append(' ').append(get()).append('\n');
+    }
+}
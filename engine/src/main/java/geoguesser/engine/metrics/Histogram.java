@@ -0,0 +1,121 @@
+package geoguesser.engine.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// HDR-style histogram: log-linear buckets, 16 per power of two, so any recorded value lands in a
+// bucket at most 1/16 (6.25%) wider than the value itself, from 0 up to Long.MAX_VALUE, in a fixed
+// 960-slot array; valueAtQuantile reads them. Prometheus wants fixed "le" bounds, and those rarely
+// fall on a fine bucket's edge (round points 1001-1023 share a bucket with 1000), so each exported
+// bound also has its own exact counter: a value counts towards the first bound at or above it.
+// Recording is two atomic increments, a binary search over the bounds and two LongAdder adds - no
+// locks, no allocation.
+public final class Histogram extends Metric {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final double unit;
+    private final long[] bounds;
+    // Values in (bounds[i - 1], bounds[i]], and above the last bound at bounds.length
+    private final AtomicLongArray boundCounts;
+
+    // unit: recorded values per exported unit (1e9 to record nanoseconds and export seconds)
+    // bounds: exported "le" bounds, in recorded units, ascending
+    Histogram(String name, String help, double unit, long[] bounds) {
+        super(name, help);
+        this.unit = unit;
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException(name + ": bounds must be ascending");
+            }
+        }
+        this.bounds = bounds.clone();
+        this.boundCounts = new AtomicLongArray(bounds.length + 1);
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        int bound = Arrays.binarySearch(bounds, value);
+        boundCounts.incrementAndGet(bound >= 0 ? bound : -bound - 1);
+        count.increment();
+        sum.add(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    // Value at the given quantile (0..1), accurate to the bucket width
+    public long valueAtQuantile(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int)(value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << shift;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return lowerBoundOf(bucket + 1) - 1;
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void write(StringBuilder out) {
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += boundCounts.get(i);
+            out.append(name).append("_bucket{le=\"").append(format(bounds[i] / unit)).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        cumulative += boundCounts.get(bounds.length);
+        out.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum ").append(format(sum.sum() / unit)).append('\n');
+        out.append(name).append("_count ").append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,29 @@
+package geoguesser.engine.metrics;
+
+// Base of the registry's metric types; knows its name and how to print itself in the
+// Prometheus text format (https://prometheus.io/docs/instrumenting/exposition_formats/)
+public abstract class Metric {
+    final String name;
+    final String help;
+
+    Metric(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    abstract String type();
+
+    // Sample lines only; the registry writes the HELP and TYPE header
+    abstract void write(StringBuilder out);
+
+    static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long)value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,60 @@
+package geoguesser.engine.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Named counters, gauges and histograms. Metrics are created once (usually as static finals) and
+// updated lock-free from any thread; scraping walks them in name order.
+public final class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name, String help) {
+        return register(new Counter(name, help), Counter.class);
+    }
+
+    public Gauge gauge(String name, String help) {
+        return register(new Gauge(name, help), Gauge.class);
+    }
+
+    // Histogram of durations recorded in nanoseconds and exported in seconds
+    public Histogram timer(String name, String help, double... boundsSeconds) {
+        long[] bounds = new long[boundsSeconds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = Math.round(boundsSeconds[i] * 1e9);
+        }
+        return register(new Histogram(name, help, 1e9, bounds), Histogram.class);
+    }
+
+    // Histogram of plain values, exported as recorded
+    public Histogram histogram(String name, String help, long... bounds) {
+        return register(new Histogram(name, help, 1, bounds), Histogram.class);
+    }
+
+    private <M extends Metric> M register(M metric, Class<M> type) {
+        Metric existing = metrics.putIfAbsent(metric.name, metric);
+        if (existing == null) {
+            return metric;
+        }
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException(metric.name + " is already registered as a " + existing.type());
+        }
+        return type.cast(existing);
+    }
+
+    // Everything in the Prometheus text exposition format, version 0.0.4
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics.values()) {
+            out.append("# HELP ").append(metric.name).append(' ').append(metric.help).append('\n');
+            out.append("# TYPE ").append(metric.name).append(' ').append(metric.type()).append('\n');
+            metric.write(out);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package geoguesser.engine.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Serves a registry at http://127.0.0.1:<port>/metrics for Prometheus to scrape.
+// Bound to loopback only; put a reverse proxy or the node's agent in front of it on a shared host.
+public final class PrometheusEndpoint {
+    public static final String PORT_PROPERTY = "geoguesser.metricsPort";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+
+    private PrometheusEndpoint(HttpServer server) {
+        this.server = server;
+    }
+
+    public static PrometheusEndpoint start(MetricsRegistry registry, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // One scrape at a time is plenty; the default executor runs handlers on the dispatcher thread
+        server.setExecutor(null);
+        server.start();
+        return new PrometheusEndpoint(server);
+    }
+
+    // Starts the endpoint if -Dgeoguesser.metricsPort is set, otherwise does nothing and returns null
+    public static PrometheusEndpoint startFromSystemProperty(MetricsRegistry registry) {
+        Integer port = Integer.getInteger(PORT_PROPERTY);
+        if (port == null) {
+            return null;
+        }
+        try {
+            PrometheusEndpoint endpoint = start(registry, port);
+            System.out.println("Metrics at http://127.0.0.1:" + endpoint.getPort() + "/metrics");
+            return endpoint;
+        } catch (IOException e) {
+            System.err.println("Could not start metrics endpoint on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+}
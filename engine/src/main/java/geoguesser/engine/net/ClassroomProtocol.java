@@ -0,0 +1,177 @@
+package geoguesser.engine.net;
+
+import geoguesser.engine.Leaderboard;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Messages of classroom mode, where one server runs the rounds for a whole room of desktop clients.
+// Wire frames, payloads per type:
+//   client -> server
+//     HELLO         string username
+//     GUESS         int round, double x, double y           (map pixels)
+//   server -> client
+//     WELCOME       int playerId
+//     ROUND_START   int round, int totalRounds, int locationId, int millisLeft
+//     GUESS_RESULT  int round, int points, int totalScore
+//     STANDINGS     int round, int players, byte count, count x (string username, int score)
+//     ROUND_END     int round, int locationId
+//     GAME_OVER     int roundsPlayed
+// The server's clock is the one that counts: millisLeft is what remained when the round start was
+// sent, and a guess scores the seconds left when it arrives.
+public final class ClassroomProtocol {
+    public static final int DEFAULT_PORT = 5555;
+    // No classroom message comes close; anything bigger is a confused or hostile peer
+    public static final int MAX_FRAME_BYTES = 4096;
+    // Largest encoded message (STANDINGS with STANDINGS_SIZE long names), for scratch buffers
+    public static final int MAX_MESSAGE_BYTES = 2048;
+    public static final int STANDINGS_SIZE = Leaderboard.MAX_RANKINGS;
+
+    public static final int HELLO = 1;
+    public static final int GUESS = 2;
+
+    public static final int WELCOME = 11;
+    public static final int ROUND_START = 12;
+    public static final int GUESS_RESULT = 13;
+    public static final int STANDINGS = 14;
+    public static final int ROUND_END = 15;
+    public static final int GAME_OVER = 16;
+
+    // Usernames are capped like in the single-player game
+    public static final int MAX_USERNAME_LENGTH = 12;
+
+    private ClassroomProtocol() {
+    }
+
+    public interface ClientMessages {
+        void hello(String username);
+
+        void guessed(int round, double x, double y);
+    }
+
+    public interface ServerMessages {
+        void welcome(int playerId);
+
+        void roundStarted(int round, int totalRounds, int locationId, int millisLeft);
+
+        void guessScored(int round, int points, int totalScore);
+
+        void standings(int round, int players, List<Leaderboard.PlayerScore> top);
+
+        void roundEnded(int round, int locationId);
+
+        void gameOver(int roundsPlayed);
+    }
+
+    public static void hello(ByteBuffer out, String username) {
+        int start = Wire.begin(out, HELLO);
+        Wire.putString(out, username);
+        Wire.end(out, start);
+    }
+
+    public static void guess(ByteBuffer out, int round, double x, double y) {
+        int start = Wire.begin(out, GUESS);
+        out.putInt(round).putDouble(x).putDouble(y);
+        Wire.end(out, start);
+    }
+
+    public static void welcome(ByteBuffer out, int playerId) {
+        int start = Wire.begin(out, WELCOME);
+        out.putInt(playerId);
+        Wire.end(out, start);
+    }
+
+    public static void roundStart(ByteBuffer out, int round, int totalRounds, int locationId, int millisLeft) {
+        int start = Wire.begin(out, ROUND_START);
+        out.putInt(round).putInt(totalRounds).putInt(locationId).putInt(millisLeft);
+        Wire.end(out, start);
+    }
+
+    public static void guessResult(ByteBuffer out, int round, int points, int totalScore) {
+        int start = Wire.begin(out, GUESS_RESULT);
+        out.putInt(round).putInt(points).putInt(totalScore);
+        Wire.end(out, start);
+    }
+
+    public static void standings(ByteBuffer out, int round, int players, List<Leaderboard.PlayerScore> top) {
+        int count = Math.min(top.size(), STANDINGS_SIZE);
+        int start = Wire.begin(out, STANDINGS);
+        out.putInt(round).putInt(players).put((byte)count);
+        for (int i = 0; i < count; i++) {
+            Wire.putString(out, top.get(i).username);
+            out.putInt(top.get(i).score);
+        }
+        Wire.end(out, start);
+    }
+
+    public static void roundEnd(ByteBuffer out, int round, int locationId) {
+        int start = Wire.begin(out, ROUND_END);
+        out.putInt(round).putInt(locationId);
+        Wire.end(out, start);
+    }
+
+    public static void gameOver(ByteBuffer out, int roundsPlayed) {
+        int start = Wire.begin(out, GAME_OVER);
+        out.putInt(roundsPlayed);
+        Wire.end(out, start);
+    }
+
+    // Decodes one frame from FrameReader.next(); unknown types are skipped so old servers and newer
+    // clients (or the other way round) still get along
+    public static void readClientMessage(ByteBuffer frame, ClientMessages visitor) throws IOException {
+        try {
+            switch (frame.get()) {
+                case HELLO:
+                    visitor.hello(Wire.getString(frame));
+                    break;
+                case GUESS:
+                    visitor.guessed(frame.getInt(), frame.getDouble(), frame.getDouble());
+                    break;
+                default:
+                    break;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated classroom message");
+        }
+    }
+
+    public static void readServerMessage(ByteBuffer frame, ServerMessages visitor) throws IOException {
+        try {
+            switch (frame.get()) {
+                case WELCOME:
+                    visitor.welcome(frame.getInt());
+                    break;
+                case ROUND_START:
+                    visitor.roundStarted(frame.getInt(), frame.getInt(), frame.getInt(), frame.getInt());
+                    break;
+                case GUESS_RESULT:
+                    visitor.guessScored(frame.getInt(), frame.getInt(), frame.getInt());
+                    break;
+                case STANDINGS: {
+                    int round = frame.getInt();
+                    int players = frame.getInt();
+                    int count = frame.get() & 0xFF;
+                    List<Leaderboard.PlayerScore> top = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        top.add(new Leaderboard.PlayerScore(Wire.getString(frame), frame.getInt()));
+                    }
+                    visitor.standings(round, players, top);
+                    break;
+                }
+                case ROUND_END:
+                    visitor.roundEnded(frame.getInt(), frame.getInt());
+                    break;
+                case GAME_OVER:
+                    visitor.gameOver(frame.getInt());
+                    break;
+                default:
+                    break;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated classroom message");
+        }
+    }
+}
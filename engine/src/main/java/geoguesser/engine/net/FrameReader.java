@@ -0,0 +1,52 @@
+package geoguesser.engine.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// Cuts the bytes arriving on a channel into Wire frames. Works for blocking channels (read() waits)
+// and non-blocking ones (read() takes what is there), and never copies a frame: next() hands out a
+// view of the receive buffer.
+public final class FrameReader {
+    private final ByteBuffer buffer;
+    private final int maxFrameBytes;
+    // Start of the bytes not yet handed out by next(); the buffer's position is the end
+    private int readPosition;
+
+    // maxFrameBytes bounds a single frame (type and payload); a peer sending more is cut off
+    public FrameReader(int maxFrameBytes) {
+        this.maxFrameBytes = maxFrameBytes;
+        this.buffer = ByteBuffer.allocate(4 + maxFrameBytes);
+    }
+
+    // Reads whatever the channel has. Returns the byte count, or -1 at the end of the stream.
+    // Frames returned by next() before this call are no longer valid afterwards.
+    public int read(ReadableByteChannel channel) throws IOException {
+        if (readPosition > 0) {
+            buffer.flip();
+            buffer.position(readPosition);
+            buffer.compact();
+            readPosition = 0;
+        }
+        return channel.read(buffer);
+    }
+
+    // The next complete frame positioned at its type byte, or null if it hasn't fully arrived yet
+    public ByteBuffer next() throws IOException {
+        int available = buffer.position() - readPosition;
+        if (available < 4) {
+            return null;
+        }
+        int length = buffer.getInt(readPosition);
+        if (length < 1 || length > maxFrameBytes) {
+            throw new IOException("Bad frame length " + length);
+        }
+        if (available < 4 + length) {
+            return null;
+        }
+        ByteBuffer frame = buffer.duplicate();
+        frame.limit(readPosition + 4 + length).position(readPosition + 4);
+        readPosition += 4 + length;
+        return frame.slice();
+    }
+}
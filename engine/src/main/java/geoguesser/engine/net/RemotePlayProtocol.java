@@ -0,0 +1,207 @@
+package geoguesser.engine.net;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+// Messages of remote play, where a RemotePlayServer runs a player's game (picks the rounds, streams
+// the photos, keeps the clock and the score) and the desktop client only draws it. Wire frames:
+//   client -> server
+//     NEW_GAME      int seq, string username, byte rounds             acked by GAME_STARTED
+//     CREDIT        int bytes                                          more photo bytes it can take
+//     CLOCK_START   int round                                          photo is on screen
+//     GUESS         int seq, int round, double x, double y             acked by RESULT
+//     TIMEOUT       int seq, int round                                 acked by RESULT
+//   server -> client
+//     GAME_STARTED  int seq, int totalRounds
+//     ROUND         int round, string photoName, int photoBytes
+//     PHOTO_CHUNK   int round, int offset, then the bytes up to the end of the frame
+//     RESULT        int seq, int round, int locationId, byte timedOut, int points, int totalScore
+//     GAME_END      int rounds, int totalScore
+//     ERROR         int seq, string message
+// Requests carry a sequence number and are acked in order, so a client can send several without
+// waiting (pipelining): the RESULT of a guess is followed in the same write by the next ROUND and
+// its first photo chunks.
+// Photo bytes are flow-controlled by credit, like an HTTP/2 window: the server sends PHOTO_CHUNKs only
+// while the client has granted bytes, and the client grants them back as its decoder consumes them.
+// A client that stops reading (result dialog up, slow decoder) stops the stream after one window.
+public final class RemotePlayProtocol {
+    public static final int DEFAULT_PORT = 5556;
+    // Photo bytes per chunk, and the credit a client starts with
+    public static final int CHUNK_BYTES = 16 * 1024;
+    public static final int INITIAL_CREDIT = 256 * 1024;
+    public static final int MAX_FRAME_BYTES = CHUNK_BYTES + 64;
+    public static final int MAX_MESSAGE_BYTES = 1024;
+    // PHOTO_CHUNK frame up to the photo bytes: length, type, round, offset
+    public static final int CHUNK_HEADER_BYTES = Wire.HEADER_BYTES + 8;
+
+    public static final int NEW_GAME = 1;
+    public static final int CREDIT = 2;
+    public static final int CLOCK_START = 3;
+    public static final int GUESS = 4;
+    public static final int TIMEOUT = 5;
+
+    public static final int GAME_STARTED = 11;
+    public static final int ROUND = 12;
+    public static final int PHOTO_CHUNK = 13;
+    public static final int RESULT = 14;
+    public static final int GAME_END = 15;
+    public static final int ERROR = 16;
+
+    private RemotePlayProtocol() {
+    }
+
+    public interface ClientMessages {
+        void newGame(int seq, String username, int rounds);
+
+        void credit(int bytes);
+
+        void clockStarted(int round);
+
+        void guessed(int seq, int round, double x, double y);
+
+        void timedOut(int seq, int round);
+    }
+
+    public interface ServerMessages {
+        void gameStarted(int seq, int totalRounds);
+
+        void roundStarted(int round, String photoName, int photoBytes);
+
+        // data is a view of the receive buffer, positioned at the chunk's bytes; copy what is kept
+        void photoChunk(int round, int offset, ByteBuffer data);
+
+        void result(int seq, int round, int locationId, boolean timedOut, int points, int totalScore);
+
+        void gameEnded(int rounds, int totalScore);
+
+        void error(int seq, String message);
+    }
+
+    public static void newGame(ByteBuffer out, int seq, String username, int rounds) {
+        int start = Wire.begin(out, NEW_GAME);
+        out.putInt(seq);
+        Wire.putString(out, username);
+        out.put((byte)rounds);
+        Wire.end(out, start);
+    }
+
+    public static void credit(ByteBuffer out, int bytes) {
+        int start = Wire.begin(out, CREDIT);
+        out.putInt(bytes);
+        Wire.end(out, start);
+    }
+
+    public static void clockStart(ByteBuffer out, int round) {
+        int start = Wire.begin(out, CLOCK_START);
+        out.putInt(round);
+        Wire.end(out, start);
+    }
+
+    public static void guess(ByteBuffer out, int seq, int round, double x, double y) {
+        int start = Wire.begin(out, GUESS);
+        out.putInt(seq).putInt(round).putDouble(x).putDouble(y);
+        Wire.end(out, start);
+    }
+
+    public static void timeout(ByteBuffer out, int seq, int round) {
+        int start = Wire.begin(out, TIMEOUT);
+        out.putInt(seq).putInt(round);
+        Wire.end(out, start);
+    }
+
+    public static void gameStarted(ByteBuffer out, int seq, int totalRounds) {
+        int start = Wire.begin(out, GAME_STARTED);
+        out.putInt(seq).putInt(totalRounds);
+        Wire.end(out, start);
+    }
+
+    public static void round(ByteBuffer out, int round, String photoName, int photoBytes) {
+        int start = Wire.begin(out, ROUND);
+        out.putInt(round);
+        Wire.putString(out, photoName);
+        out.putInt(photoBytes);
+        Wire.end(out, start);
+    }
+
+    // Just the header; the chunk's bytes follow as a separate buffer (a slice of the photo, no copy)
+    public static void photoChunkHeader(ByteBuffer out, int round, int offset, int length) {
+        out.putInt(1 + 8 + length).put((byte)PHOTO_CHUNK).putInt(round).putInt(offset);
+    }
+
+    public static void result(ByteBuffer out, int seq, int round, int locationId, boolean timedOut, int points,
+                              int totalScore) {
+        int start = Wire.begin(out, RESULT);
+        out.putInt(seq).putInt(round).putInt(locationId).put((byte)(timedOut ? 1 : 0)).putInt(points).putInt(totalScore);
+        Wire.end(out, start);
+    }
+
+    public static void gameEnd(ByteBuffer out, int rounds, int totalScore) {
+        int start = Wire.begin(out, GAME_END);
+        out.putInt(rounds).putInt(totalScore);
+        Wire.end(out, start);
+    }
+
+    public static void error(ByteBuffer out, int seq, String message) {
+        int start = Wire.begin(out, ERROR);
+        out.putInt(seq);
+        Wire.putString(out, message);
+        Wire.end(out, start);
+    }
+
+    public static void readClientMessage(ByteBuffer frame, ClientMessages visitor) throws IOException {
+        try {
+            switch (frame.get()) {
+                case NEW_GAME:
+                    visitor.newGame(frame.getInt(), Wire.getString(frame), frame.get() & 0xFF);
+                    break;
+                case CREDIT:
+                    visitor.credit(frame.getInt());
+                    break;
+                case CLOCK_START:
+                    visitor.clockStarted(frame.getInt());
+                    break;
+                case GUESS:
+                    visitor.guessed(frame.getInt(), frame.getInt(), frame.getDouble(), frame.getDouble());
+                    break;
+                case TIMEOUT:
+                    visitor.timedOut(frame.getInt(), frame.getInt());
+                    break;
+                default:
+                    break;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated remote play message");
+        }
+    }
+
+    public static void readServerMessage(ByteBuffer frame, ServerMessages visitor) throws IOException {
+        try {
+            switch (frame.get()) {
+                case GAME_STARTED:
+                    visitor.gameStarted(frame.getInt(), frame.getInt());
+                    break;
+                case ROUND:
+                    visitor.roundStarted(frame.getInt(), Wire.getString(frame), frame.getInt());
+                    break;
+                case PHOTO_CHUNK:
+                    visitor.photoChunk(frame.getInt(), frame.getInt(), frame);
+                    break;
+                case RESULT:
+                    visitor.result(frame.getInt(), frame.getInt(), frame.getInt(), frame.get() != 0, frame.getInt(),
+                            frame.getInt());
+                    break;
+                case GAME_END:
+                    visitor.gameEnded(frame.getInt(), frame.getInt());
+                    break;
+                case ERROR:
+                    visitor.error(frame.getInt(), Wire.getString(frame));
+                    break;
+                default:
+                    break;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated remote play message");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package geoguesser.engine.net;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Framing shared by the game's network protocols. Every message is one frame (big-endian):
+//   int length   bytes that follow (type and payload), at least 1
+//   byte type    message type, defined by the protocol (ClassroomProtocol, ...)
+//   payload      per type; strings are an unsigned short byte count and UTF-8
+// Messages are encoded into a reusable scratch buffer between begin() and end(); FrameReader cuts
+// them apart again on the other side.
+public final class Wire {
+    public static final int HEADER_BYTES = 5;
+
+    private Wire() {
+    }
+
+    // Starts a frame at the buffer's position; returns where it starts, for end()
+    public static int begin(ByteBuffer out, int type) {
+        int start = out.position();
+        out.putInt(0);
+        out.put((byte)type);
+        return start;
+    }
+
+    // Fills in the length of the frame started at start, now that its payload is written
+    public static void end(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    // Copies the frames in scratch (from 0 to its position) into a read-only direct buffer of exactly
+    // their size, ready to go out on any number of channels through duplicate(). Clears scratch.
+    public static ByteBuffer seal(ByteBuffer scratch) {
+        scratch.flip();
+        ByteBuffer sealed = ByteBuffer.allocateDirect(scratch.remaining());
+        sealed.put(scratch).flip();
+        scratch.clear();
+        return sealed.asReadOnlyBuffer();
+    }
+
+    public static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for the wire: " + bytes.length + " bytes");
+        }
+        out.putShort((short)bytes.length);
+        out.put(bytes);
+    }
+
+    public static String getString(ByteBuffer in) throws IOException {
+        int length = getUnsignedShort(in);
+        if (length > in.remaining()) {
+            throw new IOException("String runs past the end of its frame");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int getUnsignedShort(ByteBuffer in) throws IOException {
+        try {
+            return in.getShort() & 0xFFFF;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Frame too short");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package geoguesser.engine.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+
+// Plays a recorded session back through the real game rules, as fast as it can be read.
+// Checks, per round:
+//  - the location is the one the recorded seed draws (LocationCatalog.drawRound), so rounds weren't picked;
+//    for adaptive games, whose draws depend on the statistics of the time, that it exists and wasn't repeated
+//  - the points are what ScoreRules gives for the recorded guess and seconds left
+//  - the seconds left fit the time between the countdown starting and the guess
+//  - hints were only bought with enough points
+// and at the end that the recorded total is the replayed one.
+// Used to audit disputed leaderboard entries:
+//   java -cp geoguesser-engine.jar geoguesser.engine.replay.SessionAudit replays/
+// and, with --repeat N, as a load source replaying every session N times.
+public final class SessionAudit implements SessionLog.Visitor {
+    // The countdown ticks once a second, so a guess can land up to a tick early
+    private static final int CLOCK_SLACK_SECONDS = 1;
+
+    private final List<Location> catalog;
+    private final List<String> problems = new ArrayList<>();
+    private Random random;
+    private List<Location> remaining;
+    private boolean adaptive;
+
+    private String username;
+    private long startMillis;
+    private int totalRounds;
+    private int rounds;
+    private int score;
+    private int recordedScore = -1;
+
+    private int round;
+    private Location location;
+    private int clockStartedAt = -1;
+
+    public SessionAudit() {
+        this(LocationCatalog.all());
+    }
+
+    // Catalog the recorded game drew from, in catalog order
+    public SessionAudit(List<Location> catalog) {
+        this.catalog = catalog;
+    }
+
+    public static SessionAudit audit(InputStream in) throws IOException {
+        SessionAudit audit = new SessionAudit();
+        SessionLog.read(in, audit);
+        return audit;
+    }
+
+    @Override
+    public void sessionStarted(long seed, String username, int totalRounds, long startMillis, int selection) {
+        this.random = new Random(seed);
+        this.adaptive = selection == SessionLog.SELECTION_ADAPTIVE;
+        this.remaining = new ArrayList<>(catalog);
+        this.username = username;
+        this.totalRounds = totalRounds;
+        this.startMillis = startMillis;
+    }
+
+    @Override
+    public void roundStarted(int atMillis, int round, int locationId) {
+        if (round != this.round + 1) {
+            problem(round, "follows round " + this.round);
+        }
+        if (round > totalRounds) {
+            problem(round, "is beyond the game's " + totalRounds + " rounds");
+        }
+        this.round = round;
+        rounds++;
+        clockStartedAt = -1;
+
+        if (remaining.isEmpty()) {
+            problem(round, "started with no locations left");
+            location = null;
+            return;
+        }
+        if (adaptive) {
+            location = removeById(locationId);
+            if (location == null) {
+                problem(round, "recorded location " + locationId + " is unknown or was already played");
+            }
+            return;
+        }
+        Location drawn = LocationCatalog.drawRound(random, remaining);
+        if (drawn.getId() != locationId) {
+            problem(round, "recorded location " + locationId + " but the seed draws " + drawn.getId());
+        }
+        location = drawn;
+    }
+
+    @Override
+    public void clockStarted(int atMillis, int round) {
+        clockStartedAt = atMillis;
+    }
+
+    @Override
+    public void hintUsed(int atMillis, int round, int cost) {
+        if (cost != ScoreRules.HINT_COST) {
+            problem(round, "hint cost " + cost + " instead of " + ScoreRules.HINT_COST);
+        }
+        if (score < cost) {
+            problem(round, "hint bought with only " + score + " points");
+        }
+        score -= cost;
+    }
+
+    @Override
+    public void guessed(int atMillis, int round, double x, double y, int secondsLeft, int points) {
+        if (location == null || round != this.round) {
+            problem(round, "guess outside a round");
+            return;
+        }
+        if (secondsLeft < 0 || secondsLeft > ScoreRules.ROUND_SECONDS) {
+            problem(round, secondsLeft + " seconds left is out of range");
+        }
+        if (clockStartedAt < 0) {
+            problem(round, "guess before the countdown started");
+        } else {
+            int elapsedSeconds = (atMillis - clockStartedAt) / 1000;
+            if (secondsLeft > ScoreRules.ROUND_SECONDS - elapsedSeconds + CLOCK_SLACK_SECONDS) {
+                problem(round, secondsLeft + " seconds left after " + elapsedSeconds + " s on the clock");
+            }
+        }
+
+        int expected = ScoreRules.roundPoints(location.distanceTo(x, y), secondsLeft);
+        if (points != expected) {
+            problem(round, "recorded " + points + " points, rules give " + expected);
+        }
+        score += expected;
+        location = null;
+    }
+
+    @Override
+    public void timedOut(int atMillis, int round) {
+        location = null;
+    }
+
+    @Override
+    public void sessionEnded(int atMillis, int totalScore) {
+        recordedScore = totalScore;
+        if (totalScore != score) {
+            problems.add("recorded total " + totalScore + ", replayed total " + score);
+        }
+    }
+
+    private Location removeById(int locationId) {
+        for (int i = 0; i < remaining.size(); i++) {
+            if (remaining.get(i).getId() == locationId) {
+                return remaining.remove(i);
+            }
+        }
+        return null;
+    }
+
+    private void problem(int round, String message) {
+        problems.add("round " + round + ": " + message);
+    }
+
+    public boolean isConsistent() {
+        return problems.isEmpty() && recordedScore >= 0;
+    }
+
+    public boolean isFinished() {
+        return recordedScore >= 0;
+    }
+
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getReplayedScore() {
+        return score;
+    }
+
+    // -1 if the session never ended (the game was closed mid-round)
+    public int getRecordedScore() {
+        return recordedScore;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int repeat = 0;
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--repeat") && i + 1 < args.length) {
+                repeat = Integer.parseInt(args[++i]);
+            } else {
+                collect(new File(args[i]), files);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: SessionAudit [--repeat N] <session.ggr | directory>...");
+            System.exit(2);
+        }
+
+        List<byte[]> logs = new ArrayList<>();
+        int inconsistent = 0;
+        for (File file : files) {
+            byte[] log = Files.readAllBytes(file.toPath());
+            logs.add(log);
+            SessionAudit audit = audit(new ByteArrayInputStream(log));
+            String status = !audit.isFinished() ? "UNFINISHED" : audit.isConsistent() ? "OK" : "MISMATCH";
+            System.out.printf("%-10s %s  %s  rounds=%d recorded=%d replayed=%d%n", status, file.getName(),
+                    audit.getUsername(), audit.getRounds(), audit.getRecordedScore(), audit.getReplayedScore());
+            for (String problem : audit.getProblems()) {
+                System.out.println("           " + problem);
+            }
+            if (audit.isFinished() && !audit.isConsistent()) {
+                inconsistent++;
+            }
+        }
+
+        if (repeat > 0) {
+            long rounds = 0;
+            long start = System.nanoTime();
+            for (int r = 0; r < repeat; r++) {
+                for (byte[] log : logs) {
+                    rounds += audit(new ByteArrayInputStream(log)).getRounds();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Replayed %,d rounds in %.2f s (%,.0f rounds/minute)%n", rounds, seconds, rounds / seconds * 60);
+        }
+        System.exit(inconsistent == 0 ? 0 : 1);
+    }
+
+    private static void collect(File file, List<File> files) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles((dir, name) -> name.endsWith(SessionLog.FILE_EXTENSION));
+            if (children != null) {
+                Arrays.sort(children);
+                files.addAll(Arrays.asList(children));
+            }
+        } else {
+            files.add(file);
+        }
+    }
+}
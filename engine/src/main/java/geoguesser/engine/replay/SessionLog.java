@@ -0,0 +1,157 @@
+package geoguesser.engine.replay;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Binary log of one game session, written by SessionRecorder and read back here.
+// Layout (big-endian, DataOutputStream types):
+//   header: int magic "GGR1", byte version, long seed, long startMillis, UTF username, byte totalRounds,
+//           byte selection (version 2 on; version 1 logs are SELECTION_SEEDED)
+//   events: byte type, zigzag varint ms since the previous event (the first since the start), then per type
+//     ROUND_START  varint round, varint locationId
+//     CLOCK_START  varint round                     (photo on screen, countdown running)
+//     HINT         varint round, varint cost
+//     GUESS        varint round, double x, double y, varint secondsLeft, varint points
+//     TIMEOUT      varint round
+//     END          varint totalScore
+// Varints and zigzag are the round history's (HistoryFormat). The guess stays two doubles: the audit
+// recomputes the points from it, and rounding it to 1/8 pixel like the history does could move them.
+// Versions 1 and 2 wrote an int of ms since the start and fixed-size fields (byte round, int locationId,
+// int cost, byte secondsLeft, int points, int totalScore); they are still read.
+// The seed is the one the game's Random was created with. With SELECTION_SEEDED the round draws can be
+// repeated exactly from it; with SELECTION_ADAPTIVE they also depended on the player's statistics at the
+// time (DifficultyEngine), so only the recorded locations can be checked.
+public final class SessionLog {
+    public static final String FILE_EXTENSION = ".ggr";
+
+    static final int MAGIC = 0x47475231;
+    static final int VERSION = 3;
+
+    // How the game picked its rounds
+    public static final int SELECTION_SEEDED = 0;
+    public static final int SELECTION_ADAPTIVE = 1;
+
+    static final int ROUND_START = 1;
+    static final int CLOCK_START = 2;
+    static final int HINT = 3;
+    static final int GUESS = 4;
+    static final int TIMEOUT = 5;
+    static final int END = 6;
+
+    private SessionLog() {
+    }
+
+    // Receives a session's events in the order they happened
+    public interface Visitor {
+        void sessionStarted(long seed, String username, int totalRounds, long startMillis, int selection);
+
+        void roundStarted(int atMillis, int round, int locationId);
+
+        void clockStarted(int atMillis, int round);
+
+        void hintUsed(int atMillis, int round, int cost);
+
+        void guessed(int atMillis, int round, double x, double y, int secondsLeft, int points);
+
+        void timedOut(int atMillis, int round);
+
+        void sessionEnded(int atMillis, int totalScore);
+    }
+
+    // Feeds every event to the visitor. A log cut short (game killed mid-round) just stops early.
+    public static void read(InputStream input, Visitor visitor) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a session log");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported session log version " + version);
+        }
+        long seed = in.readLong();
+        long startMillis = in.readLong();
+        String username = in.readUTF();
+        int totalRounds = in.readUnsignedByte();
+        int selection = version >= 2 ? in.readUnsignedByte() : SELECTION_SEEDED;
+        visitor.sessionStarted(seed, username, totalRounds, startMillis, selection);
+
+        boolean varints = version >= 3;
+        int at = 0;
+        while (true) {
+            int type = in.read();
+            if (type < 0) {
+                return;
+            }
+            try {
+                at = varints ? at + (int)unzigzag(readVarint(in)) : in.readInt();
+                switch (type) {
+                    case ROUND_START:
+                        visitor.roundStarted(at, readByte(in, varints), readInt(in, varints));
+                        break;
+                    case CLOCK_START:
+                        visitor.clockStarted(at, readByte(in, varints));
+                        break;
+                    case HINT:
+                        visitor.hintUsed(at, readByte(in, varints), readInt(in, varints));
+                        break;
+                    case GUESS:
+                        visitor.guessed(at, readByte(in, varints), in.readDouble(), in.readDouble(),
+                                readByte(in, varints), readInt(in, varints));
+                        break;
+                    case TIMEOUT:
+                        visitor.timedOut(at, readByte(in, varints));
+                        break;
+                    case END:
+                        visitor.sessionEnded(at, readInt(in, varints));
+                        return;
+                    default:
+                        throw new IOException("Unknown session event type " + type);
+                }
+            } catch (EOFException e) {
+                return;
+            }
+        }
+    }
+
+    // A field that was a byte before version 3
+    private static int readByte(DataInput in, boolean varints) throws IOException {
+        return varints ? (int)readVarint(in) : in.readUnsignedByte();
+    }
+
+    // A field that was an int before version 3
+    private static int readInt(DataInput in, boolean varints) throws IOException {
+        return varints ? (int)readVarint(in) : in.readInt();
+    }
+
+    static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int)value);
+    }
+
+    static long readVarint(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,161 @@
+package geoguesser.engine.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Records one game session as a SessionLog. Events are kept in memory (a 5-round game is under
+// 200 bytes) and written out once the game ends. Timestamps are taken from the wall clock
+// relative to the start of the session.
+public final class SessionRecorder {
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final long startMillis;
+    private int lastAt;
+    private boolean ended;
+
+    public SessionRecorder(long seed, String username, int totalRounds) {
+        this(seed, username, totalRounds, System.currentTimeMillis());
+    }
+
+    public SessionRecorder(long seed, String username, int totalRounds, long startMillis) {
+        this(seed, username, totalRounds, SessionLog.SELECTION_SEEDED, startMillis);
+    }
+
+    // selection is SessionLog.SELECTION_SEEDED or SELECTION_ADAPTIVE
+    public SessionRecorder(long seed, String username, int totalRounds, int selection, long startMillis) {
+        this.startMillis = startMillis;
+        try {
+            out.writeInt(SessionLog.MAGIC);
+            out.writeByte(SessionLog.VERSION);
+            out.writeLong(seed);
+            out.writeLong(startMillis);
+            out.writeUTF(username);
+            out.writeByte(totalRounds);
+            out.writeByte(selection);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void roundStarted(int round, int locationId) {
+        roundStarted(now(), round, locationId);
+    }
+
+    public void roundStarted(int atMillis, int round, int locationId) {
+        try {
+            event(SessionLog.ROUND_START, atMillis, round);
+            SessionLog.writeVarint(out, locationId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void clockStarted(int round) {
+        clockStarted(now(), round);
+    }
+
+    public void clockStarted(int atMillis, int round) {
+        try {
+            event(SessionLog.CLOCK_START, atMillis, round);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void hintUsed(int round, int cost) {
+        hintUsed(now(), round, cost);
+    }
+
+    public void hintUsed(int atMillis, int round, int cost) {
+        try {
+            event(SessionLog.HINT, atMillis, round);
+            SessionLog.writeVarint(out, cost);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void guessed(int round, double x, double y, int secondsLeft, int points) {
+        guessed(now(), round, x, y, secondsLeft, points);
+    }
+
+    public void guessed(int atMillis, int round, double x, double y, int secondsLeft, int points) {
+        try {
+            event(SessionLog.GUESS, atMillis, round);
+            out.writeDouble(x);
+            out.writeDouble(y);
+            SessionLog.writeVarint(out, secondsLeft);
+            SessionLog.writeVarint(out, points);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void timedOut(int round) {
+        timedOut(now(), round);
+    }
+
+    public void timedOut(int atMillis, int round) {
+        try {
+            event(SessionLog.TIMEOUT, atMillis, round);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void sessionEnded(int totalScore) {
+        sessionEnded(now(), totalScore);
+    }
+
+    public void sessionEnded(int atMillis, int totalScore) {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        try {
+            out.writeByte(SessionLog.END);
+            writeTime(atMillis);
+            SessionLog.writeVarint(out, totalScore);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    public void writeTo(OutputStream target) throws IOException {
+        buffer.writeTo(target);
+    }
+
+    private void event(int type, int atMillis, int round) throws IOException {
+        if (ended) {
+            throw new IllegalStateException("Session already ended");
+        }
+        out.writeByte(type);
+        writeTime(atMillis);
+        SessionLog.writeVarint(out, round);
+    }
+
+    // As a delta from the previous event; zigzag, since callers may pass times out of order
+    private void writeTime(int atMillis) throws IOException {
+        SessionLog.writeVarint(out, SessionLog.zigzag((long)atMillis - lastAt));
+        lastAt = atMillis;
+    }
+
+    private int now() {
+        return (int)(System.currentTimeMillis() - startMillis);
+    }
+}
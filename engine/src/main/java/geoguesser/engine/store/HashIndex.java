@@ -0,0 +1,187 @@
+package geoguesser.engine.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// The memory-mapped hash table of index.bin (see StoreFormat): key hash -> record offset, linear
+// probing. It only knows hashes; KeyValueStore checks the key at a slot's record, so two keys with
+// the same hash both work. Slots are never emptied (a delete points its slot at a tombstone), which
+// keeps probing simple; compaction starts a fresh table without them.
+final class HashIndex implements Closeable {
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int used;
+
+    private HashIndex(Path file) {
+        this.file = file;
+    }
+
+    // Maps an existing index as it is; the caller decides whether to trust it (isClean, getLogEnd)
+    static HashIndex open(Path file) throws IOException {
+        HashIndex index = new HashIndex(file);
+        index.map(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        if (index.map.getInt(StoreFormat.H_MAGIC) != StoreFormat.INDEX_MAGIC
+                || index.map.getInt(StoreFormat.H_VERSION) != StoreFormat.VERSION) {
+            index.close();
+            throw new IOException("Not a store index: " + file);
+        }
+        return index;
+    }
+
+    // A new, empty index, replacing whatever was at file
+    static HashIndex create(Path file, int capacity) throws IOException {
+        HashIndex index = new HashIndex(file);
+        index.map(createFile(file, capacity));
+        return index;
+    }
+
+    private static FileChannel createFile(Path file, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    StoreFormat.INDEX_HEADER_BYTES + (long)capacity * StoreFormat.SLOT_BYTES);
+            map.putInt(StoreFormat.H_MAGIC, StoreFormat.INDEX_MAGIC);
+            map.putInt(StoreFormat.H_VERSION, StoreFormat.VERSION);
+            map.putInt(StoreFormat.H_CAPACITY, capacity);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(FileChannel newChannel) throws IOException {
+        try {
+            if (newChannel.size() < StoreFormat.INDEX_HEADER_BYTES) {
+                throw new IOException("Damaged store index: " + file);
+            }
+            MappedByteBuffer newMap = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, newChannel.size());
+            int newCapacity = newMap.getInt(StoreFormat.H_CAPACITY);
+            if (Integer.bitCount(newCapacity) != 1
+                    || newChannel.size() != StoreFormat.INDEX_HEADER_BYTES + (long)newCapacity * StoreFormat.SLOT_BYTES) {
+                throw new IOException("Damaged store index: " + file);
+            }
+            channel = newChannel;
+            map = newMap;
+            capacity = newCapacity;
+            used = map.getInt(StoreFormat.H_USED);
+        } catch (IOException | RuntimeException e) {
+            newChannel.close();
+            throw e;
+        }
+    }
+
+    // First slot to look at for a hash; follow with next() until the key or an empty slot turns up
+    int firstSlot(long hash) {
+        return (int)hash & (capacity - 1);
+    }
+
+    int next(int slot) {
+        return (slot + 1) & (capacity - 1);
+    }
+
+    long hashAt(int slot) {
+        return map.getLong(StoreFormat.INDEX_HEADER_BYTES + slot * StoreFormat.SLOT_BYTES);
+    }
+
+    long offsetAt(int slot) {
+        return map.getLong(StoreFormat.INDEX_HEADER_BYTES + slot * StoreFormat.SLOT_BYTES + 8);
+    }
+
+    void setOffset(int slot, long offset) {
+        map.putLong(StoreFormat.INDEX_HEADER_BYTES + slot * StoreFormat.SLOT_BYTES + 8, offset);
+    }
+
+    // Fills an empty slot found by probing; may grow the table, so slot numbers don't survive it
+    void insert(int slot, long hash, long offset) throws IOException {
+        int position = StoreFormat.INDEX_HEADER_BYTES + slot * StoreFormat.SLOT_BYTES;
+        map.putLong(position, hash);
+        map.putLong(position + 8, offset);
+        used++;
+        map.putInt(StoreFormat.H_USED, used);
+        if (used * 100L > capacity * (long)StoreFormat.MAX_FILL_PERCENT) {
+            grow();
+        }
+    }
+
+    // Used slots, tombstones included
+    int getUsed() {
+        return used;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    // Rehashes into a table twice the size, written next to the file and then moved over it
+    private void grow() throws IOException {
+        Path bigger = file.resolveSibling(file.getFileName() + ".grow");
+        HashIndex target = create(bigger, capacity * 2);
+        for (int slot = 0; slot < capacity; slot++) {
+            long offset = offsetAt(slot);
+            if (offset != 0) {
+                long hash = hashAt(slot);
+                int free = target.firstSlot(hash);
+                while (target.offsetAt(free) != 0) {
+                    free = target.next(free);
+                }
+                int position = StoreFormat.INDEX_HEADER_BYTES + free * StoreFormat.SLOT_BYTES;
+                target.map.putLong(position, hash);
+                target.map.putLong(position + 8, offset);
+            }
+        }
+        target.used = used;
+        target.map.putInt(StoreFormat.H_USED, used);
+        target.map.putLong(StoreFormat.H_DEAD_BYTES, getDeadBytes());
+        target.channel.close(); // The mapping stays valid
+        channel.close();
+        Files.move(bigger, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = target.map;
+        capacity = target.capacity;
+    }
+
+    long getDeadBytes() {
+        return map.getLong(StoreFormat.H_DEAD_BYTES);
+    }
+
+    void setDeadBytes(long deadBytes) {
+        map.putLong(StoreFormat.H_DEAD_BYTES, deadBytes);
+    }
+
+    long getLogEnd() {
+        return map.getLong(StoreFormat.H_LOG_END);
+    }
+
+    boolean isClean() {
+        return map.getInt(StoreFormat.H_CLEAN) == 1;
+    }
+
+    // Clean is written last and forced, so a clean index on disk always has its table written out
+    void markClean(long logEnd) {
+        map.putLong(StoreFormat.H_LOG_END, logEnd);
+        map.force();
+        map.putInt(StoreFormat.H_CLEAN, 1);
+        map.force(0, StoreFormat.INDEX_HEADER_BYTES);
+    }
+
+    // From here on the index may run ahead of or behind the log on disk, so a crash means a rebuild
+    void markDirty() {
+        map.putInt(StoreFormat.H_CLEAN, 0);
+        map.force(0, StoreFormat.INDEX_HEADER_BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,375 @@
+package geoguesser.engine.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Small embedded key-value store: string keys, byte[] values, one directory (see StoreFormat).
+// Every put/delete is appended to data.log (the write-ahead log, which is also the data) with one
+// positional write, so it survives the process dying as soon as put() returns; sync() forces it to
+// the disk as well. A memory-mapped hash index finds a key's latest record, so a lookup is a probe
+// in the mapping plus one read from the log, a few microseconds.
+// After a crash the index is rebuilt from the log on open. Overwritten and deleted records are
+// dropped by compact(), which put() runs by itself once they are most of the log.
+// Not thread-safe.
+public final class KeyValueStore implements Closeable {
+    // Below this much garbage the log is left alone
+    private static final long MIN_COMPACT_BYTES = 1024 * 1024;
+    // Records up to this size come back with a single read
+    private static final int READ_AHEAD_BYTES = 4096;
+
+    private final Path dir;
+    private FileChannel log;
+    private HashIndex index;
+    private long logEnd;
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_AHEAD_BYTES);
+    // Where the last findSlot() stopped: the key's slot (found) or the empty one ending the probe
+    private int probeSlot;
+    // Record bytes at the last found key's offset
+    private int foundRecordBytes;
+    private int foundValueLength;
+
+    private KeyValueStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public static KeyValueStore open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        KeyValueStore store = new KeyValueStore(dir);
+        try {
+            store.openFiles();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            store.closeFiles();
+            throw e;
+        }
+    }
+
+    private void openFiles() throws IOException {
+        Path logFile = dir.resolve(StoreFormat.LOG_FILE);
+        Path indexFile = dir.resolve(StoreFormat.INDEX_FILE);
+        log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(StoreFormat.LOG_HEADER_BYTES);
+            header.putInt(StoreFormat.LOG_MAGIC).put((byte)StoreFormat.VERSION).flip();
+            log.write(header, 0);
+            log.force(false);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(StoreFormat.LOG_HEADER_BYTES);
+            readFully(header, 0);
+            if (header.getInt(0) != StoreFormat.LOG_MAGIC || header.get(4) != StoreFormat.VERSION) {
+                throw new IOException("Not a store log: " + logFile);
+            }
+        }
+        logEnd = log.size();
+
+        if (Files.exists(indexFile)) {
+            try {
+                index = HashIndex.open(indexFile);
+                if (!index.isClean() || index.getLogEnd() != logEnd) {
+                    index.close();
+                    index = null;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Rebuilding store index: " + e.getMessage());
+            }
+        }
+        if (index == null) {
+            recover(indexFile);
+        }
+        index.markDirty();
+    }
+
+    // Replays the log into a fresh index, stopping at the first record that is torn or damaged and
+    // cutting the log there: it was being written when the process died, so it never returned
+    private void recover(Path indexFile) throws IOException {
+        long start = System.nanoTime();
+        index = HashIndex.create(indexFile, StoreFormat.MIN_CAPACITY);
+        long position = StoreFormat.LOG_HEADER_BYTES;
+        long deadBytes = 0;
+        int records = 0;
+        long end = log.size();
+        while (position + StoreFormat.RECORD_HEADER_BYTES <= end) {
+            int length = readRecord(position, end - position);
+            if (length < 0) {
+                break;
+            }
+            byte[] key = new byte[buffer.getInt(4)];
+            buffer.get(StoreFormat.RECORD_HEADER_BYTES, key);
+            boolean tombstone = buffer.getInt(8) == StoreFormat.TOMBSTONE;
+            deadBytes += point(key, StoreFormat.hash(key), position);
+            if (tombstone) {
+                deadBytes += length;
+            }
+            position += length;
+            records++;
+        }
+        if (position < end) {
+            System.err.printf("Store log %s: dropping %d bytes after a damaged record at %d%n", dir, end - position, position);
+            log.truncate(position);
+            log.force(false);
+        }
+        logEnd = position;
+        index.setDeadBytes(deadBytes);
+        if (records > 0) {
+            System.err.printf("Store %s recovered: %d records replayed in %.1f ms%n", dir, records,
+                    (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    // Reads and checks the record at position into buffer; its length, or -1 if it isn't whole and intact
+    private int readRecord(long position, long available) throws IOException {
+        ensureBuffer((int)Math.min(READ_AHEAD_BYTES, available));
+        buffer.clear().limit((int)Math.min(buffer.capacity(), available));
+        readFully(buffer, position);
+        int keyLength = buffer.getInt(4);
+        int valueLength = buffer.getInt(8);
+        if (keyLength < 1 || keyLength > StoreFormat.MAX_KEY_BYTES || valueLength < StoreFormat.TOMBSTONE
+                || valueLength > StoreFormat.MAX_VALUE_BYTES) {
+            return -1;
+        }
+        int length = StoreFormat.recordBytes(keyLength, valueLength);
+        if (length > available) {
+            return -1;
+        }
+        if (length > buffer.limit()) {
+            ensureBuffer(length);
+            buffer.clear().limit(length);
+            readFully(buffer, position);
+        }
+        return StoreFormat.crc(buffer, 0, length) == buffer.getInt(0) ? length : -1;
+    }
+
+    public byte[] get(String key) throws IOException {
+        byte[] keyBytes = StoreFormat.keyBytes(key);
+        if (!findSlot(keyBytes, StoreFormat.hash(keyBytes)) || foundValueLength == StoreFormat.TOMBSTONE) {
+            return null;
+        }
+        byte[] value = new byte[foundValueLength];
+        long offset = index.offsetAt(probeSlot);
+        if (foundRecordBytes <= buffer.limit()) {
+            buffer.get(StoreFormat.RECORD_HEADER_BYTES + keyBytes.length, value); // Came with the key check
+        } else {
+            readFully(ByteBuffer.wrap(value), offset + StoreFormat.RECORD_HEADER_BYTES + keyBytes.length);
+        }
+        return value;
+    }
+
+    public boolean contains(String key) throws IOException {
+        byte[] keyBytes = StoreFormat.keyBytes(key);
+        return findSlot(keyBytes, StoreFormat.hash(keyBytes)) && foundValueLength != StoreFormat.TOMBSTONE;
+    }
+
+    public void put(String key, byte[] value) throws IOException {
+        if (value.length > StoreFormat.MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("Value too large: " + value.length + " bytes");
+        }
+        write(StoreFormat.keyBytes(key), value, value.length);
+    }
+
+    public void delete(String key) throws IOException {
+        byte[] keyBytes = StoreFormat.keyBytes(key);
+        if (findSlot(keyBytes, StoreFormat.hash(keyBytes)) && foundValueLength != StoreFormat.TOMBSTONE) {
+            write(keyBytes, null, StoreFormat.TOMBSTONE);
+        }
+    }
+
+    // Appends the record, then points the index at it
+    private void write(byte[] key, byte[] value, int valueLength) throws IOException {
+        int length = StoreFormat.recordBytes(key.length, valueLength);
+        ensureBuffer(length);
+        buffer.clear();
+        buffer.putInt(0).putInt(key.length).putInt(valueLength).put(key);
+        if (value != null) {
+            buffer.put(value);
+        }
+        buffer.putInt(0, StoreFormat.crc(buffer, 0, length));
+        buffer.flip();
+        long offset = logEnd;
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += log.write(buffer, position);
+        }
+        logEnd = position;
+
+        long dead = point(key, StoreFormat.hash(key), offset);
+        if (valueLength == StoreFormat.TOMBSTONE) {
+            dead += length;
+        }
+        index.setDeadBytes(index.getDeadBytes() + dead);
+        buffer.clear().limit(0); // No longer the record at probeSlot
+        long deadBytes = index.getDeadBytes();
+        if (deadBytes > MIN_COMPACT_BYTES && deadBytes * 2 > logEnd) {
+            compact();
+        }
+    }
+
+    // Points key's slot at the record at offset; returns the size of the record it replaces, now dead
+    private long point(byte[] key, long hash, long offset) throws IOException {
+        if (findSlot(key, hash)) {
+            index.setOffset(probeSlot, offset);
+            return foundRecordBytes;
+        }
+        index.insert(probeSlot, hash, offset);
+        return 0;
+    }
+
+    // Probes for key. True with probeSlot at its slot and its record's start in buffer, false with
+    // probeSlot at the empty slot where it would go.
+    private boolean findSlot(byte[] key, long hash) throws IOException {
+        int slot = index.firstSlot(hash);
+        long offset;
+        while ((offset = index.offsetAt(slot)) != 0) {
+            if (index.hashAt(slot) == hash && keyAt(offset, key)) {
+                probeSlot = slot;
+                return true;
+            }
+            slot = index.next(slot);
+        }
+        probeSlot = slot;
+        return false;
+    }
+
+    // Reads the start of the record at offset (usually all of it) and compares its key
+    private boolean keyAt(long offset, byte[] key) throws IOException {
+        int want = StoreFormat.RECORD_HEADER_BYTES + key.length;
+        buffer.clear().limit((int)Math.min(buffer.capacity(), logEnd - offset));
+        if (buffer.limit() < want) {
+            return false;
+        }
+        readFully(buffer, offset);
+        int keyLength = buffer.getInt(4);
+        if (keyLength != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(StoreFormat.RECORD_HEADER_BYTES + i) != key[i]) {
+                return false;
+            }
+        }
+        foundValueLength = buffer.getInt(8);
+        foundRecordBytes = StoreFormat.recordBytes(keyLength, foundValueLength);
+        return true;
+    }
+
+    // Forces everything put so far to the disk
+    public void sync() throws IOException {
+        log.force(false);
+    }
+
+    // Rewrites the log with only the latest record of each live key, in a new file that replaces the
+    // old one once it is complete; the index is rebuilt alongside and marked dirty, as usual
+    public void compact() throws IOException {
+        long start = System.nanoTime();
+        long oldEnd = logEnd;
+        Path compactLog = dir.resolve(StoreFormat.LOG_FILE + ".compact");
+        Path compactIndex = dir.resolve(StoreFormat.INDEX_FILE + ".compact");
+        HashIndex fresh = HashIndex.create(compactIndex, StoreFormat.MIN_CAPACITY);
+        int live = 0;
+        try (FileChannel out = FileChannel.open(compactLog, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(StoreFormat.LOG_HEADER_BYTES);
+            header.putInt(StoreFormat.LOG_MAGIC).put((byte)StoreFormat.VERSION).flip();
+            long position = out.write(header, 0);
+            for (int slot = 0; slot < index.getCapacity(); slot++) {
+                long offset = index.offsetAt(slot);
+                if (offset == 0) {
+                    continue;
+                }
+                int length = readRecord(offset, logEnd - offset);
+                if (length < 0) {
+                    throw new IOException("Damaged record at " + offset + " while compacting " + dir);
+                }
+                if (buffer.getInt(8) == StoreFormat.TOMBSTONE) {
+                    continue;
+                }
+                long hash = index.hashAt(slot);
+                int free = fresh.firstSlot(hash);
+                while (fresh.offsetAt(free) != 0) {
+                    free = fresh.next(free);
+                }
+                fresh.insert(free, hash, position);
+                buffer.position(0).limit(length);
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer, position);
+                }
+                live++;
+            }
+            out.force(false);
+            logEnd = position;
+        } catch (IOException | RuntimeException e) {
+            fresh.close();
+            logEnd = oldEnd;
+            throw e;
+        }
+        // The new log goes in first; if we die before the index follows, the old index is dirty and
+        // gets rebuilt from the new log
+        log.close();
+        index.close();
+        Files.move(compactLog, dir.resolve(StoreFormat.LOG_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        fresh.close();
+        Files.move(compactIndex, dir.resolve(StoreFormat.INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        log = FileChannel.open(dir.resolve(StoreFormat.LOG_FILE), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = HashIndex.open(dir.resolve(StoreFormat.INDEX_FILE));
+        index.setDeadBytes(0);
+        index.markDirty();
+        buffer.clear().limit(0);
+        System.err.printf("Store %s compacted: %d live keys, %d -> %d bytes in %.1f ms%n", dir, live, oldEnd, logEnd,
+                (System.nanoTime() - start) / 1e6);
+    }
+
+    // Live keys plus deleted ones not yet compacted away
+    public int getSlotsUsed() {
+        return index.getUsed();
+    }
+
+    public long getLogBytes() {
+        return logEnd;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            log.force(false);
+            index.markClean(logEnd);
+        } finally {
+            closeFiles();
+        }
+    }
+
+    private void closeFiles() throws IOException {
+        try {
+            if (log != null) {
+                log.close();
+            }
+        } finally {
+            if (index != null) {
+                index.close();
+            }
+        }
+    }
+
+    private void ensureBuffer(int bytes) {
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+        }
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = log.read(target, position);
+            if (read < 0) {
+                throw new IOException("Store log ends early at " + position);
+            }
+            position += read;
+        }
+        target.flip();
+    }
+}
@@ -0,0 +1,142 @@
+package geoguesser.engine.store;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// What the game keeps about a player, as stored in a KeyValueStore: the profile with its running
+// stats and personal best under "profile/<username>", and the player's recent games under
+// "games/<username>" (a separate key, so looking up a profile doesn't drag the list along).
+public final class PlayerProfile {
+    private static final int VERSION = 1;
+    // Games kept per player, newest last
+    public static final int MAX_GAMES = 100;
+
+    public static final int MODE_SINGLE = 0;
+    public static final int MODE_CLASSROOM = 1;
+    public static final int MODE_REMOTE = 2;
+
+    public final String username;
+    public long createdMillis;
+    public long lastPlayedMillis;
+    public int gamesPlayed;
+    public int roundsPlayed;
+    public int roundsTimedOut;
+    public long totalPoints;
+    public int bestScore;
+    public long bestScoreMillis;
+
+    public static final class Game {
+        public final long startMillis;
+        public final int score;
+        public final int rounds;
+        public final int mode;
+
+        public Game(long startMillis, int score, int rounds, int mode) {
+            this.startMillis = startMillis;
+            this.score = score;
+            this.rounds = rounds;
+            this.mode = mode;
+        }
+    }
+
+    public PlayerProfile(String username, long createdMillis) {
+        this.username = username;
+        this.createdMillis = createdMillis;
+    }
+
+    public static String profileKey(String username) {
+        return "profile/" + username;
+    }
+
+    public static String gamesKey(String username) {
+        return "games/" + username;
+    }
+
+    // Folds a finished game into the stats; true if it is a new personal best
+    public boolean gameFinished(Game game, int timedOut) {
+        lastPlayedMillis = Math.max(lastPlayedMillis, game.startMillis);
+        gamesPlayed++;
+        roundsPlayed += game.rounds;
+        roundsTimedOut += timedOut;
+        totalPoints += game.score;
+        if (game.score > bestScore) {
+            bestScore = game.score;
+            bestScoreMillis = game.startMillis;
+            return true;
+        }
+        return false;
+    }
+
+    public double getAverageScore() {
+        return gamesPlayed == 0 ? 0 : (double)totalPoints / gamesPlayed;
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(1 + 8 * 5 + 4 * 4);
+        out.put((byte)VERSION)
+                .putLong(createdMillis).putLong(lastPlayedMillis)
+                .putInt(gamesPlayed).putInt(roundsPlayed).putInt(roundsTimedOut)
+                .putLong(totalPoints)
+                .putInt(bestScore).putLong(bestScoreMillis);
+        return out.array();
+    }
+
+    public static PlayerProfile fromBytes(String username, byte[] bytes) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.get() != VERSION) {
+                throw new IOException("Unknown profile version for " + username);
+            }
+            PlayerProfile profile = new PlayerProfile(username, in.getLong());
+            profile.lastPlayedMillis = in.getLong();
+            profile.gamesPlayed = in.getInt();
+            profile.roundsPlayed = in.getInt();
+            profile.roundsTimedOut = in.getInt();
+            profile.totalPoints = in.getLong();
+            profile.bestScore = in.getInt();
+            profile.bestScoreMillis = in.getLong();
+            return profile;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated profile for " + username);
+        }
+    }
+
+    // Encodes the newest MAX_GAMES games: byte version, int count, count x (long start, int score,
+    // byte rounds, byte mode)
+    public static byte[] gamesToBytes(List<Game> games) {
+        int from = Math.max(0, games.size() - MAX_GAMES);
+        ByteBuffer out = ByteBuffer.allocate(1 + 4 + (games.size() - from) * 14);
+        out.put((byte)VERSION).putInt(games.size() - from);
+        for (Game game : games.subList(from, games.size())) {
+            out.putLong(game.startMillis).putInt(game.score).put((byte)game.rounds).put((byte)game.mode);
+        }
+        return out.array();
+    }
+
+    public static List<Game> gamesFromBytes(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            return Collections.emptyList();
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.get() != VERSION) {
+                throw new IOException("Unknown game list version");
+            }
+            int count = in.getInt();
+            if (count < 0 || count > MAX_GAMES) {
+                throw new IOException("Bad game count " + count);
+            }
+            List<Game> games = new ArrayList<>(count + 1);
+            for (int i = 0; i < count; i++) {
+                games.add(new Game(in.getLong(), in.getInt(), in.get() & 0xFF, in.get()));
+            }
+            return games;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated game list");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package geoguesser.engine.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// On-disk layout of a KeyValueStore directory. Version 1:
+//
+//   data.log      the write-ahead log and the only copy of the data
+//     header      int LOG_MAGIC "GGS1", byte version
+//     record*     int crc (CRC32 of everything after it), int keyLength, int valueLength
+//                 (TOMBSTONE for a delete), key bytes (UTF-8), value bytes
+//   index.bin     open-addressing hash table over the log, memory-mapped
+//     header      int INDEX_MAGIC, int version, int capacity (slots, a power of two), int used,
+//                 long logEnd, long deadBytes, int clean, padding to INDEX_HEADER_BYTES
+//     slot*       long keyHash, long record offset in data.log (0 = empty)
+//
+// A put appends its record to the log and then points the key's slot at it; the latest record of
+// a key wins. The index is marked clean only by close(), with logEnd matching the log; any other
+// index is thrown away on open and rebuilt by replaying the log, which also cuts off a record
+// torn by a crash (its CRC doesn't match).
+final class StoreFormat {
+    static final int LOG_MAGIC = 0x47475331;
+    static final int INDEX_MAGIC = 0x47475349;
+    static final int VERSION = 1;
+
+    static final String LOG_FILE = "data.log";
+    static final String INDEX_FILE = "index.bin";
+
+    static final int LOG_HEADER_BYTES = 5;
+    static final int RECORD_HEADER_BYTES = 12;
+    static final int TOMBSTONE = -1;
+    // Keys are short names; values are a player's records, a few KB at most
+    static final int MAX_KEY_BYTES = 1024;
+    static final int MAX_VALUE_BYTES = 16 * 1024 * 1024;
+
+    static final int INDEX_HEADER_BYTES = 64;
+    static final int SLOT_BYTES = 16;
+    static final int MIN_CAPACITY = 1024;
+    // The table grows past this fill, in percent, to keep probe sequences short
+    static final int MAX_FILL_PERCENT = 70;
+
+    // Index header field offsets
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_CAPACITY = 8;
+    static final int H_USED = 12;
+    static final int H_LOG_END = 16;
+    static final int H_DEAD_BYTES = 24;
+    static final int H_CLEAN = 32;
+
+    private StoreFormat() {
+    }
+
+    static byte[] keyBytes(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Key must be 1-" + MAX_KEY_BYTES + " bytes: " + key);
+        }
+        return bytes;
+    }
+
+    // FNV-1a, finished with the MurmurHash3 mixer so the low bits (the slot) depend on every byte
+    static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static int recordBytes(int keyLength, int valueLength) {
+        return RECORD_HEADER_BYTES + keyLength + Math.max(0, valueLength);
+    }
+
+    // CRC of a record laid out in buffer from start: everything after the crc field
+    static int crc(ByteBuffer buffer, int start, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer view = buffer.duplicate();
+        view.limit(start + length).position(start + 4);
+        crc.update(view);
+        return (int)crc.getValue();
+    }
+}
@@ -0,0 +1,155 @@
+package geoguesser.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Checks every window against a plain filter over all scores ever added, while the clock runs over
+// day rollovers and both semester starts, with scores arriving late, out of order, from earlier
+// semesters and from the future, and after saving and loading the board back in shuffled order.
+class TimeWindowedLeaderboardTest {
+    private static final ZoneId ZONE = ZoneId.of("Asia/Karachi");
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+
+    @Test
+    void windowsMatchAFilterOverEveryScore() throws IOException {
+        Random random = new Random(49);
+        TimeWindowedLeaderboard board = new TimeWindowedLeaderboard(ZONE);
+        List<TimeWindowedLeaderboard.Entry> all = new ArrayList<>();
+        List<Integer> scores = distinctScores(random, 20_000);
+        // From before the Spring start to past the Fall one
+        long now = millis(LocalDate.of(2024, 1, 20)) + 9 * HOUR;
+        long end = millis(LocalDate.of(2024, 10, 15));
+
+        while (now < end) {
+            now += (long)(random.nextDouble() * 30 * HOUR);
+            for (int i = random.nextInt(6); i > 0; i--) {
+                long millis;
+                int kind = random.nextInt(20);
+                if (kind == 0) {
+                    millis = now - (long)(random.nextDouble() * 800 * DAY); // An old score, maybe last year
+                } else if (kind == 1) {
+                    millis = now + (long)(random.nextDouble() * 5 * DAY); // A skewed clock
+                } else {
+                    millis = now - (long)(random.nextDouble() * 10 * DAY);
+                }
+                String username = "p" + random.nextInt(50);
+                int score = scores.remove(scores.size() - 1);
+                board.add(username, score, millis, now);
+                all.add(new TimeWindowedLeaderboard.Entry(username, score, Math.min(millis, now)));
+            }
+            for (TimeWindowedLeaderboard.Window window : TimeWindowedLeaderboard.Window.values()) {
+                assertEquals(expected(all, window, now), describe(board.top(window, now)), window + " at " + now);
+            }
+        }
+
+        // Saved and loaded back in any order, the boards come out the same
+        List<String> lines = new ArrayList<>();
+        for (TimeWindowedLeaderboard.Entry entry : board.entries()) {
+            lines.add(entry.username + "," + entry.score + "," + entry.millis);
+        }
+        Collections.shuffle(lines, random);
+        TimeWindowedLeaderboard loaded = new TimeWindowedLeaderboard(ZONE);
+        loaded.load(new BufferedReader(new StringReader(String.join("\n", lines))), now);
+        for (TimeWindowedLeaderboard.Window window : TimeWindowedLeaderboard.Window.values()) {
+            assertEquals(expected(all, window, now), describe(loaded.top(window, now)), window + " after load");
+        }
+    }
+
+    @Test
+    void aFutureScoreDoesNotHideToday() {
+        TimeWindowedLeaderboard board = new TimeWindowedLeaderboard(ZONE);
+        long now = millis(LocalDate.of(2024, 3, 10)) + 12 * HOUR;
+        board.add("today", 500, now - HOUR, now);
+        board.add("skewed", 900, now + 30 * DAY, now);
+
+        // The skewed score counts as made now, and today's board still has today's score
+        assertEquals(List.of("skewed:900", "today:500"),
+                describe(board.top(TimeWindowedLeaderboard.Window.DAILY, now)));
+        assertEquals(List.of("skewed:900", "today:500"),
+                describe(board.top(TimeWindowedLeaderboard.Window.DAILY, now + HOUR)));
+        assertEquals(List.of(), describe(board.top(TimeWindowedLeaderboard.Window.DAILY, now + DAY)));
+    }
+
+    @Test
+    void loadingFutureLinesClampsThem() throws IOException {
+        TimeWindowedLeaderboard board = new TimeWindowedLeaderboard(ZONE);
+        long now = millis(LocalDate.of(2024, 9, 2)) + 10 * HOUR;
+        String lines = "later," + 700 + "," + (now + 400 * DAY) + "\n"
+                + "early," + 300 + "," + (now - 2 * HOUR) + "\n"
+                + "broken,line\n";
+        board.load(new BufferedReader(new StringReader(lines)), now);
+
+        assertEquals(List.of("later:700", "early:300"), describe(board.top(TimeWindowedLeaderboard.Window.DAILY, now)));
+        assertEquals(List.of("later:700", "early:300"),
+                describe(board.top(TimeWindowedLeaderboard.Window.SEMESTER, now)));
+    }
+
+    // The window's top MAX_RANKINGS by a filter over every score
+    private static List<String> expected(List<TimeWindowedLeaderboard.Entry> all, TimeWindowedLeaderboard.Window window,
+                                         long nowMillis) {
+        long today = day(nowMillis);
+        List<Leaderboard.PlayerScore> matching = new ArrayList<>();
+        for (TimeWindowedLeaderboard.Entry entry : all) {
+            long day = day(entry.millis);
+            boolean in;
+            switch (window) {
+                case DAILY:
+                    in = day == today;
+                    break;
+                case WEEKLY:
+                    in = day > today - TimeWindowedLeaderboard.DAYS && day <= today;
+                    break;
+                case SEMESTER:
+                    in = day <= today && TimeWindowedLeaderboard.semesterOf(day) == TimeWindowedLeaderboard.semesterOf(today);
+                    break;
+                default:
+                    in = true;
+            }
+            if (in) {
+                matching.add(entry);
+            }
+        }
+        // Scores are distinct, so no tie-break is needed
+        matching.sort(Comparator.comparingInt((Leaderboard.PlayerScore score) -> score.score).reversed());
+        return describe(matching.subList(0, Math.min(matching.size(), Leaderboard.MAX_RANKINGS)));
+    }
+
+    private static List<String> describe(List<? extends Leaderboard.PlayerScore> scores) {
+        List<String> described = new ArrayList<>();
+        for (Leaderboard.PlayerScore score : scores) {
+            described.add(score.username + ":" + score.score);
+        }
+        return described;
+    }
+
+    private static List<Integer> distinctScores(Random random, int count) {
+        List<Integer> scores = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            scores.add(i);
+        }
+        Collections.shuffle(scores, random);
+        return scores;
+    }
+
+    private static long millis(LocalDate date) {
+        return date.atStartOfDay(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static long day(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZONE).toLocalDate().toEpochDay();
+    }
+}
@@ -0,0 +1,92 @@
+package geoguesser.engine.difficulty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sample frequencies against the weights, by a chi-square test over a fixed seed
+class AliasTableTest {
+    private static final int SAMPLES = 500_000;
+    // Upper 0.1% point of chi-square with 13 degrees of freedom
+    private static final double CHI_SQUARE_13_999 = 34.53;
+
+    @Test
+    void samplesInProportionToTheWeights() {
+        // 16 weights, two of them zero: 13 degrees of freedom over the other 14
+        double[] weights = {1, 2, 3, 0, 10, 0.5, 7, 7, 0.01, 4, 0, 25, 1, 3, 6, 0.25};
+        AliasTable table = new AliasTable(32);
+        table.build(weights, weights.length);
+
+        long[] counts = sample(table, new Random(42));
+        assertEquals(0, counts[3]);
+        assertEquals(0, counts[10]);
+        double chiSquare = chiSquare(weights, counts);
+        assertTrue(chiSquare < CHI_SQUARE_13_999, "chi-square " + chiSquare);
+    }
+
+    @Test
+    void aRebuildReplacesTheOldTable() {
+        AliasTable table = new AliasTable(16);
+        table.build(new double[] {5, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, 16);
+        // Fewer weights than before, in a longer array: only the first count may come up
+        double[] weights = {0, 3, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 9, 9};
+        table.build(weights, 14);
+        assertEquals(14, table.size());
+
+        long[] counts = sample(table, new Random(43));
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[14]);
+        assertEquals(0, counts[15]);
+        double[] used = new double[14];
+        System.arraycopy(weights, 0, used, 0, 14);
+        assertTrue(chiSquare(used, counts) < CHI_SQUARE_13_999);
+    }
+
+    @Test
+    void aSingleWeightAlwaysComesUp() {
+        AliasTable table = new AliasTable(4);
+        table.build(new double[] {0.3}, 1);
+        Random random = new Random(44);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, table.sample(random));
+        }
+    }
+
+    @Test
+    void rejectsBadWeights() {
+        AliasTable table = new AliasTable(4);
+        assertThrows(IllegalArgumentException.class, () -> table.build(new double[] {0, 0}, 2));
+        assertThrows(IllegalArgumentException.class, () -> table.build(new double[] {1, -1}, 2));
+        assertThrows(IllegalArgumentException.class, () -> table.build(new double[] {1, Double.NaN}, 2));
+        assertThrows(IllegalArgumentException.class, () -> table.build(new double[5], 5));
+    }
+
+    private static long[] sample(AliasTable table, Random random) {
+        long[] counts = new long[16];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+        return counts;
+    }
+
+    // Over the categories with a weight; the zero ones are checked to be empty separately
+    private static double chiSquare(double[] weights, long[] counts) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double chiSquare = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                double expected = SAMPLES * weights[i] / total;
+                double diff = counts[i] - expected;
+                chiSquare += diff * diff / expected;
+            }
+        }
+        return chiSquare;
+    }
+}
@@ -0,0 +1,119 @@
+package geoguesser.engine.difficulty;
+
+import geoguesser.engine.ScoreRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Round draws: no location twice in a game while results keep moving locations between bins, the
+// scan that takes over once rejection keeps hitting played locations, and the target following
+// the scores.
+class DifficultyEngineTest {
+
+    @Test
+    void noLocationRepeatsWithinAGame() {
+        Random random = new Random(42);
+        int size = 300;
+        DifficultyEngine engine = new DifficultyEngine(size);
+        for (int g = 0; g < 40; g++) {
+            engine.startGame();
+            assertEquals(size, engine.remaining());
+            boolean[] seen = new boolean[size];
+            for (int round = 0; round < size; round++) {
+                int id = engine.nextRound(random);
+                assertTrue(id >= 0 && id < size, "draw " + id);
+                assertFalse(seen[id], "location " + id + " twice in game " + g);
+                seen[id] = true;
+                // Results all over the range, so locations change bins between draws
+                if (random.nextInt(4) == 0) {
+                    engine.recordTimeout(id, random.nextBoolean());
+                } else {
+                    engine.recordGuess(id, random.nextDouble() * 400, random.nextBoolean(),
+                            random.nextInt(ScoreRules.BASE_POINTS + 1));
+                }
+            }
+            assertEquals(0, engine.remaining());
+            assertEquals(-1, engine.nextRound(random));
+        }
+    }
+
+    @Test
+    void fallsBackToAScanWhenRejectionKeepsFailing() {
+        Random random = new Random(43);
+        int size = 2000;
+        // One location the player is very bad at; everything else untouched sits at the prior
+        LocationStats stats = new LocationStats(size);
+        int hard = 1234;
+        for (int i = 0; i < 500; i++) {
+            stats.recordGuess(hard, 1000, true);
+        }
+        DifficultyEngine engine = new DifficultyEngine(size, stats);
+        assertTrue(engine.difficulty(hard) > 0.7);
+
+        // Every location comes up exactly once even though the last ones are rarely drawn
+        boolean[] seen = new boolean[size];
+        for (int round = 0; round < size; round++) {
+            int id = engine.nextRound(random);
+            assertTrue(id >= 0, "ran out after " + round);
+            assertFalse(seen[id], "location " + id + " twice");
+            seen[id] = true;
+        }
+        assertEquals(-1, engine.nextRound(random));
+        assertTrue(engine.getFallbackDraws() > 0);
+
+        // A fresh game draws from the bins again
+        engine.startGame();
+        long fallbacks = engine.getFallbackDraws();
+        for (int round = 0; round < 20; round++) {
+            engine.nextRound(random);
+        }
+        assertEquals(fallbacks, engine.getFallbackDraws());
+    }
+
+    @Test
+    void theTargetFollowsTheScores() {
+        DifficultyEngine engine = new DifficultyEngine(10);
+        double start = engine.getTarget();
+        for (int i = 0; i < 5; i++) {
+            engine.recordGuess(i, 0, false, ScoreRules.BASE_POINTS);
+        }
+        assertTrue(engine.getTarget() > start);
+        for (int i = 0; i < 50; i++) {
+            engine.recordTimeout(i % 10, false);
+        }
+        assertEquals(0.05, engine.getTarget(), 1e-12);
+    }
+
+    @Test
+    void roundsNearTheTargetComeUpMoreOften() {
+        Random random = new Random(44);
+        int size = 200;
+        LocationStats stats = new LocationStats(size);
+        // Half the catalog easy, half hard; the target starts in between at 0.5 and then drops
+        for (int id = 0; id < size; id++) {
+            for (int i = 0; i < 50; i++) {
+                if (id < size / 2) {
+                    stats.recordGuess(id, 5, false);
+                } else {
+                    stats.recordTimeout(id, true);
+                }
+            }
+        }
+        DifficultyEngine engine = new DifficultyEngine(size, stats);
+        for (int i = 0; i < 20; i++) {
+            engine.recordGuess(0, 5, false, 0);
+        }
+        int easy = 0;
+        for (int g = 0; g < 200; g++) {
+            engine.startGame();
+            if (engine.nextRound(random) < size / 2) {
+                easy++;
+            }
+        }
+        assertTrue(easy > 180, "easy first rounds " + easy);
+    }
+}
@@ -0,0 +1,76 @@
+package geoguesser.engine.difficulty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Merging statistics gathered in pieces gives the same numbers as one pass over all the rounds,
+// however the rounds are split and whichever side has room for the higher ids.
+class LocationStatsTest {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void mergeEqualsASinglePass() {
+        Random random = new Random(42);
+        for (int c = 0; c < 50; c++) {
+            int locations = 1 + random.nextInt(40);
+            LocationStats single = new LocationStats(locations);
+            // Pieces sized smaller than the catalog, so merging has to grow the arrays
+            LocationStats[] pieces = new LocationStats[1 + random.nextInt(5)];
+            for (int p = 0; p < pieces.length; p++) {
+                pieces[p] = new LocationStats(1 + random.nextInt(locations));
+            }
+
+            for (int i = random.nextInt(5000); i > 0; i--) {
+                int id = random.nextInt(locations);
+                boolean hint = random.nextInt(3) == 0;
+                LocationStats piece = pieces[random.nextInt(pieces.length)];
+                if (random.nextInt(5) == 0) {
+                    single.recordTimeout(id, hint);
+                    piece.recordTimeout(id, hint);
+                } else {
+                    // Large and spread out, so a naive variance would lose precision
+                    double error = 1e4 + random.nextGaussian() * 50 + id;
+                    single.recordGuess(id, error, hint);
+                    piece.recordGuess(id, error, hint);
+                }
+            }
+
+            LocationStats merged = new LocationStats(1);
+            for (LocationStats piece : pieces) {
+                merged.merge(piece);
+            }
+            for (int id = 0; id < locations; id++) {
+                assertSame(single, merged, id);
+            }
+        }
+    }
+
+    @Test
+    void mergingNothingChangesNothing() {
+        LocationStats stats = new LocationStats(3);
+        stats.recordGuess(1, 10, false);
+        stats.recordGuess(1, 30, true);
+        stats.recordTimeout(2, false);
+        stats.merge(new LocationStats(8));
+
+        assertEquals(2, stats.getRounds(1));
+        assertEquals(20, stats.getMeanError(1), TOLERANCE);
+        assertEquals(Math.sqrt(200), stats.getErrorStdDev(1), TOLERANCE);
+        assertEquals(0.5, stats.getHintRate(1), TOLERANCE);
+        assertEquals(1.0, stats.getTimeoutRate(2), TOLERANCE);
+        assertEquals(0, stats.getRounds(7));
+    }
+
+    private static void assertSame(LocationStats expected, LocationStats actual, int id) {
+        String where = "location " + id;
+        assertEquals(expected.getRounds(id), actual.getRounds(id), where);
+        assertEquals(expected.getGuesses(id), actual.getGuesses(id), where);
+        assertEquals(expected.getMeanError(id), actual.getMeanError(id), TOLERANCE * 1e4, where);
+        assertEquals(expected.getErrorStdDev(id), actual.getErrorStdDev(id), TOLERANCE * 1e4, where);
+        assertEquals(expected.getTimeoutRate(id), actual.getTimeoutRate(id), TOLERANCE, where);
+        assertEquals(expected.getHintRate(id), actual.getHintRate(id), TOLERANCE, where);
+    }
+}
@@ -0,0 +1,71 @@
+package geoguesser.engine.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The parallel counts match a plain count of the same guesses, on a file a writer still has open
+// (no footer, so the block index comes from walking the blocks) and split over many leaf tasks.
+class GuessDensityTest {
+    private static final int MAP_WIDTH = 1000;
+    private static final int MAP_HEIGHT = 800;
+    private static final int CELL = GuessDensity.DEFAULT_CELL_SIZE;
+    private static final int LOCATIONS = 60;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void countsMatchAPlainCountWhileTheWriterIsOpen() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(41);
+        int columns = (MAP_WIDTH + CELL - 1) / CELL;
+        int rows = (MAP_HEIGHT + CELL - 1) / CELL;
+        int[][] expected = new int[LOCATIONS][columns * rows];
+        long[] guesses = new long[LOCATIONS];
+        long timestamp = 1_700_000_000_000L;
+
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            // Small blocks, well over the MIN_BLOCKS_PER_TASK of one leaf
+            for (int block = 0; block < 300; block++) {
+                for (int i = 0; i < 40; i++) {
+                    timestamp += random.nextInt(20_000);
+                    int id = random.nextInt(LOCATIONS);
+                    if (random.nextInt(10) == 0) {
+                        writer.timedOut(timestamp, timestamp, 1, id, false);
+                        continue;
+                    }
+                    // Some guesses land off the map and are not counted
+                    double x = random.nextDouble() * (MAP_WIDTH + 100) - 50;
+                    double y = random.nextDouble() * (MAP_HEIGHT + 100) - 50;
+                    writer.guessed(timestamp, timestamp, 1, id, false, x, y, 30, 500);
+                    // Counted from the coordinates the file keeps
+                    double storedX = Math.round(x * HistoryFormat.COORDINATE_SCALE) / (double)HistoryFormat.COORDINATE_SCALE;
+                    double storedY = Math.round(y * HistoryFormat.COORDINATE_SCALE) / (double)HistoryFormat.COORDINATE_SCALE;
+                    if (storedX >= 0 && storedY >= 0 && storedX < MAP_WIDTH && storedY < MAP_HEIGHT) {
+                        expected[id][(int)storedY / CELL * columns + (int)storedX / CELL]++;
+                        guesses[id]++;
+                    }
+                }
+                writer.flush();
+            }
+
+            GuessDensity density = GuessDensity.aggregate(file, MAP_WIDTH, MAP_HEIGHT, CELL);
+            assertEquals(columns, density.getColumns());
+            assertEquals(rows, density.getRows());
+            for (int id = 0; id < LOCATIONS; id++) {
+                assertEquals(guesses[id], density.getGuessCount(id), "location " + id);
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        assertEquals(expected[id][row * columns + column], density.getCount(id, column, row));
+                    }
+                }
+            }
+        }
+    }
+}
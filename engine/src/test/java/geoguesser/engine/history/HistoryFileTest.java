@@ -0,0 +1,385 @@
+package geoguesser.engine.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Writes random rounds with HistoryWriter and checks HistoryReader gives every field back: across
+// several blocks and reopened writers, without a footer (writer killed), from a saved tail, with a
+// torn last block and a damaged footer, and after seek() and readBlocks().
+class HistoryFileTest {
+    // Several 64 KB blocks' worth
+    private static final int EVENTS = 20_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackEveryRoundAcrossBlocksAndReopens() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(40);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+
+        for (int session = 0; session < 3; session++) {
+            try (HistoryWriter writer = HistoryWriter.open(file)) {
+                write(writer, random, clock, EVENTS / 3, written);
+            }
+        }
+
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            assertTrue(reader.getBlockCount() > 3, "expected several blocks, got " + reader.getBlockCount());
+            assertEquals(written.size(), reader.getEventCount());
+            assertRounds(written, readAll(reader));
+        }
+    }
+
+    @Test
+    void findsFlushedBlocksWhenTheWriterDiedBeforeTheFooter() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Path killed = dir.resolve("killed.ggh");
+        Random random = new Random(41);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            for (int game = 0; game < 50; game++) {
+                write(writer, random, clock, 5, written);
+                writer.flush();
+            }
+            // What a killed process leaves behind: the flushed blocks and no footer
+            Files.copy(file, killed);
+            write(writer, random, clock, 5, new ArrayList<>());
+        }
+
+        try (HistoryReader reader = HistoryReader.open(killed)) {
+            assertEquals(50, reader.getBlockCount());
+            assertRounds(written, readAll(reader));
+        }
+
+        // A writer continues such a file, and the footer is back afterwards
+        try (HistoryWriter writer = HistoryWriter.open(killed)) {
+            write(writer, random, clock, 100, written);
+        }
+        try (FileChannel channel = FileChannel.open(killed, StandardOpenOption.READ)) {
+            assertEquals(51, BlockIndex.load(channel).size());
+        }
+        try (HistoryReader reader = HistoryReader.open(killed)) {
+            assertRounds(written, readAll(reader));
+        }
+    }
+
+    @Test
+    void aSavedTailComesBackAfterAKill() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Path killed = dir.resolve("killed.ggh");
+        Random random = new Random(46);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            // Games end without writing small blocks
+            for (int game = 0; game < 50; game++) {
+                write(writer, random, clock, 5, written);
+                writer.saveTail();
+            }
+            Files.copy(file, killed);
+            Files.copy(tail(file), tail(killed));
+            write(writer, random, clock, 5, new ArrayList<>());
+        }
+        assertFalse(Files.exists(tail(file)));
+        try (HistoryReader reader = HistoryReader.open(killed)) {
+            assertEquals(0, reader.getBlockCount());
+        }
+
+        // The next writer turns the tail into one block and carries on after it
+        try (HistoryWriter writer = HistoryWriter.open(killed)) {
+            assertFalse(Files.exists(tail(killed)));
+            write(writer, random, clock, 10, written);
+        }
+        try (HistoryReader reader = HistoryReader.open(killed)) {
+            assertEquals(2, reader.getBlockCount());
+            assertRounds(written, readAll(reader));
+        }
+    }
+
+    @Test
+    void dropsAStaleOrDamagedTail() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(47);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+        Path stale = dir.resolve("stale.tail");
+
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            write(writer, random, clock, 5, written);
+            writer.saveTail();
+            Files.copy(tail(file), stale);
+            // Those events go into a block; a tail still lying around must not add them twice
+            writer.flush();
+            assertFalse(Files.exists(tail(file)));
+        }
+        Files.copy(stale, tail(file));
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            write(writer, random, clock, 5, written);
+        }
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            assertRounds(written, readAll(reader));
+        }
+
+        // A tail cut short by a crash is dropped too
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            write(writer, random, clock, 5, new ArrayList<>());
+            writer.saveTail();
+            byte[] bytes = Files.readAllBytes(tail(file));
+            Files.copy(file, dir.resolve("torn.ggh"));
+            Files.write(tail(dir.resolve("torn.ggh")), Arrays.copyOf(bytes, bytes.length - 3));
+        }
+        try (HistoryWriter writer = HistoryWriter.open(dir.resolve("torn.ggh"))) {
+            assertFalse(Files.exists(tail(dir.resolve("torn.ggh"))));
+        }
+        try (HistoryReader reader = HistoryReader.open(dir.resolve("torn.ggh"))) {
+            assertRounds(written, readAll(reader));
+        }
+    }
+
+    @Test
+    void dropsATornLastBlock() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(42);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+        List<Integer> blockSizes = new ArrayList<>();
+
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            for (int game = 0; game < 10; game++) {
+                int events = 1 + random.nextInt(20);
+                write(writer, random, clock, events, written);
+                writer.flush();
+                blockSizes.add(events);
+            }
+        }
+        long lastBlock;
+        long dataEnd;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            BlockIndex index = BlockIndex.load(channel);
+            lastBlock = index.offset(index.size() - 1);
+            dataEnd = index.dataEnd;
+        }
+        // Footer gone and the last block cut in the middle of its body
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(lastBlock + HistoryFormat.BLOCK_HEADER_BYTES + (dataEnd - lastBlock - HistoryFormat.BLOCK_HEADER_BYTES) / 2);
+        }
+        List<RoundRecord> kept = written.subList(0, written.size() - blockSizes.get(blockSizes.size() - 1));
+
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            assertEquals(9, reader.getBlockCount());
+            assertRounds(kept, readAll(reader));
+        }
+
+        // Appending overwrites the torn block
+        List<RoundRecord> continued = new ArrayList<>(kept);
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            write(writer, random, clock, 30, continued);
+        }
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            assertRounds(continued, readAll(reader));
+        }
+    }
+
+    @Test
+    void scansWhenTheFooterIsDamaged() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(43);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            write(writer, random, clock, EVENTS, written);
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5A; // Trailer magic
+        Files.write(file, bytes);
+
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            assertRounds(written, readAll(reader));
+        }
+    }
+
+    @Test
+    void seekLandsOnTheFirstRoundAtOrAfterTheTimestamp() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(44);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            for (int game = 0; game < 40; game++) {
+                write(writer, random, clock, 1 + random.nextInt(600), written);
+                if (random.nextBoolean()) {
+                    writer.flush();
+                }
+            }
+        }
+
+        long first = written.get(0).timestamp;
+        long last = written.get(written.size() - 1).timestamp;
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            RoundRecord record = new RoundRecord();
+            for (int i = 0; i < 2000; i++) {
+                long target = i % 4 == 0 ? written.get(random.nextInt(written.size())).timestamp
+                        : first - 1000 + (long)(random.nextDouble() * (last - first + 2000));
+                int expected = firstAtOrAfter(written, target);
+
+                reader.seek(target);
+                if (expected == written.size()) {
+                    assertFalse(reader.next(record), "nothing at or after " + target);
+                } else {
+                    assertTrue(reader.next(record));
+                    assertEquals(describe(written.get(expected)), describe(record), "seek(" + target + ")");
+                    // And the reader carries on from there
+                    if (expected + 1 < written.size()) {
+                        assertTrue(reader.next(record));
+                        assertEquals(describe(written.get(expected + 1)), describe(record));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void seekFindsEqualTimestampsAtTheEndOfThePreviousBlock() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            writer.timedOut(100, 0, 1, 1, false);
+            writer.timedOut(200, 0, 2, 2, false);
+            writer.timedOut(200, 0, 3, 3, false);
+            writer.flush();
+            writer.timedOut(200, 0, 4, 4, false);
+            writer.timedOut(300, 0, 5, 5, false);
+        }
+
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            RoundRecord record = new RoundRecord();
+            reader.seek(200);
+            assertTrue(reader.next(record));
+            assertEquals(2, record.round);
+        }
+    }
+
+    @Test
+    void blockRangesTogetherReadTheWholeFile() throws IOException {
+        Path file = dir.resolve("history.ggh");
+        Random random = new Random(45);
+        List<RoundRecord> written = new ArrayList<>();
+        long[] clock = {1_700_000_000_000L};
+        try (HistoryWriter writer = HistoryWriter.open(file)) {
+            write(writer, random, clock, EVENTS, written);
+        }
+
+        List<RoundRecord> read = new ArrayList<>();
+        int blocks;
+        try (HistoryReader reader = HistoryReader.open(file)) {
+            blocks = reader.getBlockCount();
+        }
+        for (int from = 0; from < blocks; from += 2) {
+            try (HistoryReader reader = HistoryReader.open(file)) {
+                reader.readBlocks(from, Math.min(blocks, from + 2));
+                read.addAll(readAll(reader));
+            }
+        }
+        assertRounds(written, read);
+    }
+
+    // Appends count random rounds, keeping what the reader should give back (coordinates are stored
+    // in 1/8 map pixels). Timestamps never go backwards but repeat now and then.
+    private static void write(HistoryWriter writer, Random random, long[] clock, int count, List<RoundRecord> written)
+            throws IOException {
+        long sessionStart = clock[0];
+        for (int i = 0; i < count; i++) {
+            clock[0] += random.nextInt(8) == 0 ? 0 : random.nextInt(20_000);
+            RoundRecord record = new RoundRecord();
+            record.timestamp = clock[0];
+            record.sessionStart = sessionStart;
+            record.round = 1 + i % 5;
+            record.locationId = random.nextInt(1000);
+            record.hintUsed = random.nextInt(4) == 0;
+            record.timedOut = random.nextInt(10) == 0;
+            if (record.timedOut) {
+                writer.timedOut(record.timestamp, sessionStart, record.round, record.locationId, record.hintUsed);
+            } else {
+                double x = random.nextDouble() * 1200;
+                double y = random.nextDouble() * 900;
+                record.x = Math.round(x * HistoryFormat.COORDINATE_SCALE) / (double)HistoryFormat.COORDINATE_SCALE;
+                record.y = Math.round(y * HistoryFormat.COORDINATE_SCALE) / (double)HistoryFormat.COORDINATE_SCALE;
+                record.secondsLeft = random.nextInt(61);
+                record.points = random.nextInt(1001);
+                writer.guessed(record.timestamp, sessionStart, record.round, record.locationId, record.hintUsed,
+                        x, y, record.secondsLeft, record.points);
+            }
+            written.add(record);
+        }
+    }
+
+    private static Path tail(Path file) {
+        return file.resolveSibling(file.getFileName() + HistoryFormat.TAIL_SUFFIX);
+    }
+
+    private static List<RoundRecord> readAll(HistoryReader reader) throws IOException {
+        List<RoundRecord> read = new ArrayList<>();
+        RoundRecord record = new RoundRecord();
+        while (reader.next(record)) {
+            read.add(copy(record));
+        }
+        return read;
+    }
+
+    private static int firstAtOrAfter(List<RoundRecord> rounds, long timestamp) {
+        for (int i = 0; i < rounds.size(); i++) {
+            if (rounds.get(i).timestamp >= timestamp) {
+                return i;
+            }
+        }
+        return rounds.size();
+    }
+
+    private static RoundRecord copy(RoundRecord from) {
+        RoundRecord to = new RoundRecord();
+        to.timestamp = from.timestamp;
+        to.sessionStart = from.sessionStart;
+        to.round = from.round;
+        to.locationId = from.locationId;
+        to.timedOut = from.timedOut;
+        to.hintUsed = from.hintUsed;
+        to.x = from.x;
+        to.y = from.y;
+        to.secondsLeft = from.secondsLeft;
+        to.points = from.points;
+        return to;
+    }
+
+    // RoundRecord has no equals(), so rounds are compared through a string of every field
+    private static void assertRounds(List<RoundRecord> expected, List<RoundRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(describe(expected.get(i)), describe(actual.get(i)), "round " + i);
+        }
+    }
+
+    private static String describe(RoundRecord r) {
+        return r.timestamp + "/" + r.sessionStart + "/" + r.round + "/" + r.locationId + "/" + r.timedOut + "/"
+                + r.hintUsed + "/" + r.x + "/" + r.y + "/" + r.secondsLeft + "/" + r.points;
+    }
+}
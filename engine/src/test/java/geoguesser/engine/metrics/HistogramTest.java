@@ -0,0 +1,93 @@
+package geoguesser.engine.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The exposition must follow Prometheus "le" (less than or equal) semantics exactly, whatever fine
+// bucket a value shares with its neighbours; the counts are checked against a plain count of the
+// recorded values.
+class HistogramTest {
+    @Test
+    void bucketsCountExactlyTheValuesAtOrBelowTheirBound() {
+        MetricsRegistry registry = new MetricsRegistry();
+        long[] bounds = {0, 100, 250, 500, 750, 1000};
+        Histogram points = registry.histogram("points", "Round points", bounds);
+        Random random = new Random(36);
+        List<Long> values = new ArrayList<>();
+        // Every bound, either side of it, and the values that share a fine bucket with 1000
+        for (long bound : bounds) {
+            values.add(bound);
+            values.add(bound + 1);
+            values.add(Math.max(0, bound - 1));
+        }
+        for (long v = 990; v <= 1030; v++) {
+            values.add(v);
+        }
+        for (int i = 0; i < 5000; i++) {
+            values.add((long)random.nextInt(1200));
+        }
+        for (long value : values) {
+            points.record(value);
+        }
+
+        String scrape = registry.scrape();
+        for (long bound : bounds) {
+            long expected = values.stream().filter(v -> v <= bound).count();
+            assertEquals(expected, sample(scrape, "points_bucket{le=\"" + bound + "\"}"), "le=" + bound);
+        }
+        assertEquals(values.size(), sample(scrape, "points_bucket{le=\"+Inf\"}"));
+        assertEquals(values.size(), sample(scrape, "points_count"));
+        assertEquals(values.stream().mapToLong(Long::longValue).sum(), sample(scrape, "points_sum"));
+    }
+
+    @Test
+    void timerBoundsAreExactInNanoseconds() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram timer = registry.timer("frame_seconds", "Frame time", 0.001, 0.016, 0.1);
+        long[] nanos = {1_000_000, 1_000_001, 15_999_999, 16_000_000, 16_000_001, 17_000_000, 100_000_000, 250_000_000};
+        for (long value : nanos) {
+            timer.record(value);
+        }
+
+        String scrape = registry.scrape();
+        assertEquals(1, sample(scrape, "frame_seconds_bucket{le=\"0.001\"}"));
+        assertEquals(4, sample(scrape, "frame_seconds_bucket{le=\"0.016\"}"));
+        assertEquals(7, sample(scrape, "frame_seconds_bucket{le=\"0.1\"}"));
+        assertEquals(8, sample(scrape, "frame_seconds_bucket{le=\"+Inf\"}"));
+    }
+
+    @Test
+    void quantilesStayWithinTheFineBucketWidth() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram histogram = registry.histogram("values", "Values", 10, 100);
+        Random random = new Random(360);
+        long[] sorted = new long[20_000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = (long)(Math.exp(random.nextDouble() * 30));
+            histogram.record(sorted[i]);
+        }
+        Arrays.sort(sorted);
+        for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            long exact = sorted[(int)Math.ceil(quantile * sorted.length) - 1];
+            long reported = histogram.valueAtQuantile(quantile);
+            assertTrue(reported >= exact && reported <= exact + exact / 16 + 1,
+                    "p" + quantile + ": " + reported + " for " + exact);
+        }
+    }
+
+    private static long sample(String scrape, String series) {
+        for (String line : scrape.split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Long.parseLong(line.substring(series.length() + 1));
+            }
+        }
+        throw new AssertionError(series + " not in\n" + scrape);
+    }
+}
@@ -0,0 +1,312 @@
+package geoguesser.engine.replay;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Records seeded games the way MainGame does and replays them: every event comes back as recorded,
+// honest games pass the audit, and games with a score changed anywhere are rejected. Logs from
+// before the varint encoding still read.
+class SessionAuditTest {
+    private static final int ROUNDS = 5;
+
+    @Test
+    void recordedGamesReplayAsRecorded() throws IOException {
+        Random player = new Random(39);
+        for (int game = 0; game < 200; game++) {
+            Game recorded = play(player.nextLong(), player, 0);
+            byte[] log = recorded.recorder.toByteArray();
+
+            Collector collected = new Collector();
+            SessionLog.read(new ByteArrayInputStream(log), collected);
+            assertEquals(recorded.events, collected.events);
+
+            SessionAudit audit = SessionAudit.audit(new ByteArrayInputStream(log));
+            assertTrue(audit.isConsistent(), () -> audit.getProblems().toString());
+            assertEquals(ROUNDS, audit.getRounds());
+            assertEquals(recorded.total, audit.getReplayedScore());
+            assertEquals(recorded.total, audit.getRecordedScore());
+            assertEquals("player", audit.getUsername());
+        }
+    }
+
+    @Test
+    void aTamperedScoreIsRejected() throws IOException {
+        Random player = new Random(40);
+        for (int game = 0; game < 50; game++) {
+            long seed = player.nextLong();
+            // The same game with one round's points raised, and the total raised to match
+            Game tampered = play(seed, new Random(game), 1 + game % ROUNDS);
+            SessionAudit audit = SessionAudit.audit(new ByteArrayInputStream(tampered.recorder.toByteArray()));
+            assertTrue(audit.isFinished());
+            assertFalse(audit.isConsistent());
+            assertTrue(audit.getProblems().get(0).contains("points, rules give"), audit.getProblems().toString());
+        }
+
+        // Only the total changed
+        Game honest = play(41, new Random(41), 0);
+        SessionRecorder recorder = new SessionRecorder(41, "player", ROUNDS, 0);
+        SessionLog.read(new ByteArrayInputStream(honest.recorder.toByteArray()), new Rerecorder(recorder, 100));
+        SessionAudit audit = SessionAudit.audit(new ByteArrayInputStream(recorder.toByteArray()));
+        assertFalse(audit.isConsistent());
+        assertEquals(List.of("recorded total " + (honest.total + 100) + ", replayed total " + honest.total),
+                audit.getProblems());
+    }
+
+    @Test
+    void aLogCutShortIsUnfinished() throws IOException {
+        byte[] log = play(42, new Random(42), 0).recorder.toByteArray();
+        for (int length : new int[] {log.length - 1, log.length / 2, 40}) {
+            SessionAudit audit = SessionAudit.audit(new ByteArrayInputStream(Arrays.copyOf(log, length)));
+            assertFalse(audit.isFinished());
+            assertFalse(audit.isConsistent());
+        }
+    }
+
+    @Test
+    void readsVersionTwoLogs() throws IOException {
+        Game game = play(43, new Random(43), 0);
+        byte[] old = versionTwo(game.recorder.toByteArray());
+        assertTrue(old.length > game.recorder.toByteArray().length);
+
+        Collector collected = new Collector();
+        SessionLog.read(new ByteArrayInputStream(old), collected);
+        assertEquals(game.events, collected.events);
+        assertTrue(SessionAudit.audit(new ByteArrayInputStream(old)).isConsistent());
+    }
+
+    private static final class Game {
+        final SessionRecorder recorder;
+        final List<String> events = new ArrayList<>();
+        int total;
+
+        Game(SessionRecorder recorder) {
+            this.recorder = recorder;
+        }
+    }
+
+    // Plays a seeded game like MainGame: seeded draws, the odd hint and timeout, guesses near the spot.
+    // A tamperedRound above 0 gets 10 points more than the rules give, and the total counts them.
+    private static Game play(long seed, Random player, int tamperedRound) {
+        Random random = new Random(seed);
+        List<Location> remaining = new ArrayList<>(LocationCatalog.all());
+        Game game = new Game(new SessionRecorder(seed, "player", ROUNDS, 0));
+        game.events.add("start " + seed + " player " + ROUNDS + " 0 " + SessionLog.SELECTION_SEEDED);
+        int at = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            Location location = LocationCatalog.drawRound(random, remaining);
+            game.recorder.roundStarted(at, round, location.getId());
+            game.events.add("round " + at + " " + round + " " + location.getId());
+            at += 50 + player.nextInt(200);
+            game.recorder.clockStarted(at, round);
+            game.events.add("clock " + at + " " + round);
+            if (game.total >= ScoreRules.HINT_COST && player.nextInt(4) == 0) {
+                game.recorder.hintUsed(at + 500, round, ScoreRules.HINT_COST);
+                game.events.add("hint " + (at + 500) + " " + round + " " + ScoreRules.HINT_COST);
+                game.total -= ScoreRules.HINT_COST;
+            }
+            if (player.nextInt(8) == 0 && round != tamperedRound) {
+                at += ScoreRules.ROUND_SECONDS * 1000;
+                game.recorder.timedOut(at, round);
+                game.events.add("timeout " + at + " " + round);
+                continue;
+            }
+            int seconds = 1 + player.nextInt(ScoreRules.ROUND_SECONDS - 1);
+            at += seconds * 1000;
+            double x = location.getMapX() + player.nextGaussian() * 40;
+            double y = location.getMapY() + player.nextGaussian() * 40;
+            int secondsLeft = ScoreRules.ROUND_SECONDS - seconds;
+            int points = ScoreRules.roundPoints(location.distanceTo(x, y), secondsLeft) + (round == tamperedRound ? 10 : 0);
+            game.recorder.guessed(at, round, x, y, secondsLeft, points);
+            game.events.add("guess " + at + " " + round + " " + x + " " + y + " " + secondsLeft + " " + points);
+            game.total += points;
+        }
+        game.recorder.sessionEnded(at, game.total);
+        game.events.add("end " + at + " " + game.total);
+        return game;
+    }
+
+    // The same log in the version 2 layout: int millis since the start and fixed-size fields
+    private static byte[] versionTwo(byte[] log) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        SessionLog.read(new ByteArrayInputStream(log), new SessionLog.Visitor() {
+            @Override
+            public void sessionStarted(long seed, String username, int totalRounds, long startMillis, int selection) {
+                write(() -> {
+                    out.writeInt(SessionLog.MAGIC);
+                    out.writeByte(2);
+                    out.writeLong(seed);
+                    out.writeLong(startMillis);
+                    out.writeUTF(username);
+                    out.writeByte(totalRounds);
+                    out.writeByte(selection);
+                });
+            }
+
+            @Override
+            public void roundStarted(int atMillis, int round, int locationId) {
+                write(() -> {
+                    event(SessionLog.ROUND_START, atMillis, round);
+                    out.writeInt(locationId);
+                });
+            }
+
+            @Override
+            public void clockStarted(int atMillis, int round) {
+                write(() -> event(SessionLog.CLOCK_START, atMillis, round));
+            }
+
+            @Override
+            public void hintUsed(int atMillis, int round, int cost) {
+                write(() -> {
+                    event(SessionLog.HINT, atMillis, round);
+                    out.writeInt(cost);
+                });
+            }
+
+            @Override
+            public void guessed(int atMillis, int round, double x, double y, int secondsLeft, int points) {
+                write(() -> {
+                    event(SessionLog.GUESS, atMillis, round);
+                    out.writeDouble(x);
+                    out.writeDouble(y);
+                    out.writeByte(secondsLeft);
+                    out.writeInt(points);
+                });
+            }
+
+            @Override
+            public void timedOut(int atMillis, int round) {
+                write(() -> event(SessionLog.TIMEOUT, atMillis, round));
+            }
+
+            @Override
+            public void sessionEnded(int atMillis, int totalScore) {
+                write(() -> {
+                    out.writeByte(SessionLog.END);
+                    out.writeInt(atMillis);
+                    out.writeInt(totalScore);
+                });
+            }
+
+            private void event(int type, int atMillis, int round) throws IOException {
+                out.writeByte(type);
+                out.writeInt(atMillis);
+                out.writeByte(round);
+            }
+        });
+        return buffer.toByteArray();
+    }
+
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private static void write(Write write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // Every event as a string, to compare logs field by field
+    private static final class Collector implements SessionLog.Visitor {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void sessionStarted(long seed, String username, int totalRounds, long startMillis, int selection) {
+            events.add("start " + seed + " " + username + " " + totalRounds + " " + startMillis + " " + selection);
+        }
+
+        @Override
+        public void roundStarted(int atMillis, int round, int locationId) {
+            events.add("round " + atMillis + " " + round + " " + locationId);
+        }
+
+        @Override
+        public void clockStarted(int atMillis, int round) {
+            events.add("clock " + atMillis + " " + round);
+        }
+
+        @Override
+        public void hintUsed(int atMillis, int round, int cost) {
+            events.add("hint " + atMillis + " " + round + " " + cost);
+        }
+
+        @Override
+        public void guessed(int atMillis, int round, double x, double y, int secondsLeft, int points) {
+            events.add("guess " + atMillis + " " + round + " " + x + " " + y + " " + secondsLeft + " " + points);
+        }
+
+        @Override
+        public void timedOut(int atMillis, int round) {
+            events.add("timeout " + atMillis + " " + round);
+        }
+
+        @Override
+        public void sessionEnded(int atMillis, int totalScore) {
+            events.add("end " + atMillis + " " + totalScore);
+        }
+    }
+
+    // Copies a log into a recorder, changing only the recorded total
+    private static final class Rerecorder implements SessionLog.Visitor {
+        private final SessionRecorder recorder;
+        private final int extra;
+
+        Rerecorder(SessionRecorder recorder, int extra) {
+            this.recorder = recorder;
+            this.extra = extra;
+        }
+
+        @Override
+        public void sessionStarted(long seed, String username, int totalRounds, long startMillis, int selection) {
+        }
+
+        @Override
+        public void roundStarted(int atMillis, int round, int locationId) {
+            recorder.roundStarted(atMillis, round, locationId);
+        }
+
+        @Override
+        public void clockStarted(int atMillis, int round) {
+            recorder.clockStarted(atMillis, round);
+        }
+
+        @Override
+        public void hintUsed(int atMillis, int round, int cost) {
+            recorder.hintUsed(atMillis, round, cost);
+        }
+
+        @Override
+        public void guessed(int atMillis, int round, double x, double y, int secondsLeft, int points) {
+            recorder.guessed(atMillis, round, x, y, secondsLeft, points);
+        }
+
+        @Override
+        public void timedOut(int atMillis, int round) {
+            recorder.timedOut(atMillis, round);
+        }
+
+        @Override
+        public void sessionEnded(int atMillis, int totalScore) {
+            recorder.sessionEnded(atMillis, totalScore + extra);
+        }
+    }
+}
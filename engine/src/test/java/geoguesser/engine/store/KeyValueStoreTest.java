@@ -0,0 +1,234 @@
+package geoguesser.engine.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs random puts, deletes and gets against a KeyValueStore and a HashMap side by side and checks
+// they agree: across clean reopens, after a crash (the files as a killed process leaves them), with
+// a torn or damaged last record, and through compaction and index growth.
+class KeyValueStoreTest {
+    // More than MIN_CAPACITY * MAX_FILL_PERCENT, so the index has to grow
+    private static final int KEYS = 3000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void randomOperationsMatchAMapAcrossReopens() throws IOException {
+        Path storeDir = dir.resolve("store");
+        Random random = new Random(50);
+        Map<String, byte[]> model = new HashMap<>();
+
+        for (int session = 0; session < 8; session++) {
+            try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+                assertMatches(model, store);
+                randomOperations(store, model, random, 4000);
+                assertTrue(store.getSlotsUsed() >= model.size());
+            }
+        }
+        assertTrue(model.size() > StoreFormat.MIN_CAPACITY, "expected the index to grow, " + model.size() + " keys");
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            assertMatches(model, store);
+        }
+    }
+
+    @Test
+    void recoversEverythingPutBeforeACrash() throws IOException {
+        Path storeDir = dir.resolve("store");
+        Path crashed = dir.resolve("crashed");
+        Random random = new Random(51);
+        Map<String, byte[]> model = new HashMap<>();
+
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            randomOperations(store, model, random, 6000);
+            // What a killed process leaves behind: the log and a dirty index
+            copyStore(storeDir, crashed);
+            randomOperations(store, new HashMap<>(model), random, 100);
+        }
+
+        try (KeyValueStore store = KeyValueStore.open(crashed)) {
+            assertMatches(model, store);
+            // And carries on from there
+            randomOperations(store, model, random, 2000);
+        }
+        try (KeyValueStore store = KeyValueStore.open(crashed)) {
+            assertMatches(model, store);
+        }
+    }
+
+    @Test
+    void dropsATornLastRecord() throws IOException {
+        Path storeDir = dir.resolve("store");
+        Random random = new Random(52);
+        Map<String, byte[]> model = new HashMap<>();
+        long before;
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            randomOperations(store, model, random, 1000);
+            before = store.getLogBytes();
+            store.put("torn", new byte[300]);
+        }
+
+        // The put was cut short in the middle of its value
+        Path log = storeDir.resolve(StoreFormat.LOG_FILE);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(before + 100);
+        }
+
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            assertEquals(before, store.getLogBytes());
+            assertNull(store.get("torn"));
+            assertMatches(model, store);
+            // Appending overwrites the torn record
+            randomOperations(store, model, random, 500);
+        }
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            assertMatches(model, store);
+        }
+    }
+
+    @Test
+    void dropsADamagedLastRecordAfterACrash() throws IOException {
+        Path storeDir = dir.resolve("store");
+        Path crashed = dir.resolve("crashed");
+        Random random = new Random(53);
+        Map<String, byte[]> model = new HashMap<>();
+        byte[] old = value(random, 50);
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            randomOperations(store, model, random, 1000);
+            store.put("damaged", old);
+            model.put("damaged", old);
+            store.put("damaged", value(random, 50));
+            copyStore(storeDir, crashed);
+        }
+
+        // A clean index is trusted as it is; after a crash every record is checked
+        Path log = crashed.resolve(StoreFormat.LOG_FILE);
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 0x5A; // Last byte of the last record; its CRC no longer matches
+        Files.write(log, bytes);
+
+        try (KeyValueStore store = KeyValueStore.open(crashed)) {
+            assertMatches(model, store);
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveKeys() throws IOException {
+        Path storeDir = dir.resolve("store");
+        Random random = new Random(54);
+        Map<String, byte[]> model = new HashMap<>();
+
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            randomOperations(store, model, random, 3000);
+            for (String key : new ArrayList<>(model.keySet())) {
+                if (random.nextBoolean()) {
+                    store.delete(key);
+                    model.remove(key);
+                }
+            }
+            long before = store.getLogBytes();
+            store.compact();
+            assertTrue(store.getLogBytes() < before);
+            assertEquals(model.size(), store.getSlotsUsed());
+            assertMatches(model, store);
+            randomOperations(store, model, random, 500);
+        }
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            assertMatches(model, store);
+        }
+    }
+
+    @Test
+    void compactsByItselfWhenMostOfTheLogIsGarbage() throws IOException {
+        Path storeDir = dir.resolve("store");
+        Random random = new Random(55);
+        Map<String, byte[]> model = new HashMap<>();
+
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            long largest = 0;
+            // A few keys rewritten over and over: the log would be 20 MB without compaction
+            for (int i = 0; i < 2000; i++) {
+                String key = "profile/player" + random.nextInt(10);
+                byte[] value = value(random, 10_000);
+                store.put(key, value);
+                model.put(key, value);
+                largest = Math.max(largest, store.getLogBytes());
+            }
+            assertTrue(largest < 4 * 1024 * 1024, "log grew to " + largest + " bytes");
+            assertMatches(model, store);
+        }
+        try (KeyValueStore store = KeyValueStore.open(storeDir)) {
+            assertMatches(model, store);
+        }
+    }
+
+    // Puts (small values, and some over the read-ahead), overwrites, deletes and gets over KEYS keys
+    private static void randomOperations(KeyValueStore store, Map<String, byte[]> model, Random random, int count)
+            throws IOException {
+        for (int i = 0; i < count; i++) {
+            String key = "key/" + random.nextInt(KEYS);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                byte[] value = value(random, random.nextInt(20) == 0 ? 6000 : 200);
+                store.put(key, value);
+                model.put(key, value);
+            } else if (op < 8) {
+                store.delete(key);
+                model.remove(key);
+            } else {
+                byte[] expected = model.get(key);
+                byte[] actual = store.get(key);
+                if (expected == null) {
+                    assertNull(actual, key);
+                } else {
+                    assertArrayEquals(expected, actual, key);
+                }
+            }
+        }
+    }
+
+    private static byte[] value(Random random, int maxLength) {
+        byte[] value = new byte[random.nextInt(maxLength + 1)];
+        random.nextBytes(value);
+        return value;
+    }
+
+    private static void assertMatches(Map<String, byte[]> model, KeyValueStore store) throws IOException {
+        for (int i = 0; i < KEYS; i++) {
+            String key = "key/" + i;
+            if (!model.containsKey(key)) {
+                assertNull(store.get(key), key);
+                assertFalse(store.contains(key), key);
+            }
+        }
+        for (Map.Entry<String, byte[]> entry : model.entrySet()) {
+            assertTrue(store.contains(entry.getKey()), entry.getKey());
+            assertArrayEquals(entry.getValue(), store.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    private static void copyStore(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        List<String> files = List.of(StoreFormat.LOG_FILE, StoreFormat.INDEX_FILE);
+        for (String file : files) {
+            Files.copy(from.resolve(file), to.resolve(file));
+        }
+    }
+}
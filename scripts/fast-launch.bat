@@ -0,0 +1,25 @@
+@echo off
+rem Fast launch using an AppCDS archive (JDK 13+). See fast-launch.sh for details.
+rem   scripts\fast-launch.bat            build + train on first use, then launch
+rem   scripts\fast-launch.bat --retrain  rebuild the jar and the archive
+setlocal
+
+set JAR=desktop-client\target\geoguesser.jar
+set JSA=desktop-client\target\geoguesser.jsa
+
+if "%1"=="--retrain" goto build
+if not exist %JAR% goto build
+goto train
+
+:build
+echo Building %JAR%
+call mvn -B -q -DskipTests package -pl desktop-client -am || exit /b 1
+if exist %JSA% del %JSA%
+
+:train
+if not exist %JSA% (
+    echo Training run, writing %JSA%
+    java -XX:ArchiveClassesAtExit=%JSA% -cp %JAR% geoguesser.client.CdsTraining || exit /b 1
+)
+
+java -XX:SharedArchiveFile=%JSA% -Xshare:auto -jar %JAR%
@@ -0,0 +1,27 @@
+#!/bin/sh
+# Fast launch using an AppCDS archive (JDK 13+).
+#
+#   scripts/fast-launch.sh            build + train on first use, then launch
+#   scripts/fast-launch.sh --retrain  rebuild the jar and the archive (after code changes)
+#
+# The archive is produced by a scripted training run (CdsTraining: menu -> leaderboard -> game)
+# with -XX:ArchiveClassesAtExit, so the classes the normal flow needs, Swing and FlatLaf included,
+# are memory-mapped from the archive instead of being loaded and verified on every start.
+# An archive only matches the exact jar it was trained on, so it is retrained whenever the jar is newer.
+set -e
+
+JAR=desktop-client/target/geoguesser.jar
+JSA=desktop-client/target/geoguesser.jsa
+
+if [ "$1" = "--retrain" ] || [ ! -f "$JAR" ]; then
+    echo "Building $JAR"
+    mvn -B -q -DskipTests package -pl desktop-client -am
+fi
+
+if [ ! -f "$JSA" ] || [ "$JAR" -nt "$JSA" ]; then
+    echo "Training run, writing $JSA"
+    rm -f "$JSA"
+    java -XX:ArchiveClassesAtExit="$JSA" -cp "$JAR" geoguesser.client.CdsTraining
+fi
+
+exec java -XX:SharedArchiveFile="$JSA" -Xshare:auto -jar "$JAR"
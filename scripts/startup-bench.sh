@@ -0,0 +1,36 @@
+#!/bin/sh
+# Repeatable startup benchmark: time to interactive with and without the CDS archive.
+#
+#   scripts/startup-bench.sh [runs]     (default 10 runs each)
+#
+# Each run starts the full app (splash, asset warm-up, main menu) with
+# -Dgeoguesser.exitWhenInteractive=true, so it exits as soon as the menu is up, and reads the
+# "interactive N ms after JVM start" line Main prints. Needs a display.
+# Run scripts/fast-launch.sh once first so the jar and archive exist.
+set -e
+
+RUNS=${1:-10}
+JAR=desktop-client/target/geoguesser.jar
+JSA=desktop-client/target/geoguesser.jsa
+
+if [ ! -f "$JSA" ]; then
+    echo "No archive at $JSA - run scripts/fast-launch.sh first" >&2
+    exit 1
+fi
+
+measure() {
+    label=$1
+    shift
+    total=0
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        ms=$(java "$@" -Dgeoguesser.exitWhenInteractive=true -jar "$JAR" \
+                | sed -n 's/.*interactive \([0-9]*\) ms.*/\1/p')
+        total=$((total + ms))
+        i=$((i + 1))
+    done
+    echo "$label: $((total / RUNS)) ms average time to interactive over $RUNS runs"
+}
+
+measure "Default CDS only" -Xshare:auto
+measure "AppCDS archive  " -XX:SharedArchiveFile="$JSA" -Xshare:auto
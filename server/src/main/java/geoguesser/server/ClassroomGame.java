@@ -0,0 +1,235 @@
+package geoguesser.server;
+
+import geoguesser.engine.Leaderboard;
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.net.ClassroomProtocol;
+import geoguesser.engine.net.Wire;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// The rules of a classroom game, without any networking: everyone in the room gets the same round at
+// the same moment, and it ends when the clock runs out or everyone has guessed. Then the answer is up
+// for RESULTS_MILLIS and the next round starts. Scoring is ScoreRules with the seconds left on the
+// server's clock, so a slow laptop doesn't get extra time.
+// Messages are encoded once and handed to the Fanout as a sealed buffer; a broadcast to the whole
+// room is the same buffer for everyone. Not thread-safe: ClassroomServer calls it from its selector
+// thread only. A Fanout must not call back into the game (leave()) from broadcast() or send(); it
+// drops slow players after the game call returns.
+final class ClassroomGame {
+    static final int DEFAULT_ROUNDS = 5;
+    // How long a round's answer and standings stay up before the next round
+    static final int RESULTS_MILLIS = 5000;
+    // Live standings go out at most this often while guesses are coming in
+    static final int STANDINGS_INTERVAL_MILLIS = 250;
+
+    interface Fanout {
+        void broadcast(ByteBuffer message);
+
+        void send(int playerId, ByteBuffer message);
+
+        int audience();
+    }
+
+    private enum State { LOBBY, ROUND, RESULTS }
+
+    private static final class Player {
+        final int id;
+        final String username;
+        int score;
+        int guessedRound;
+
+        Player(int id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+    }
+
+    private final Fanout fanout;
+    private final Random random = new Random();
+    private final Map<Integer, Player> players = new HashMap<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(ClassroomProtocol.MAX_MESSAGE_BYTES);
+
+    private State state = State.LOBBY;
+    private List<Location> remaining;
+    private Location location;
+    private int round;
+    private int totalRounds;
+    private int roundMillis;
+    // End of the round (ROUND) or start of the next one (RESULTS)
+    private long deadline;
+    private int guesses;
+    private boolean standingsDirty;
+    private long nextStandingsAt;
+
+    ClassroomGame(Fanout fanout) {
+        this.fanout = fanout;
+    }
+
+    int getPlayerCount() {
+        return players.size();
+    }
+
+    boolean isRunning() {
+        return state != State.LOBBY;
+    }
+
+    // Players can come in at any time; during a round they get it with the time that is left
+    void join(int playerId, String username, long now) {
+        players.put(playerId, new Player(playerId, username));
+        if (state == State.ROUND) {
+            ClassroomProtocol.roundStart(scratch, round, totalRounds, location.getId(), (int)(deadline - now));
+            fanout.send(playerId, Wire.seal(scratch));
+        }
+        if (state != State.LOBBY) {
+            standingsDirty = true;
+        }
+    }
+
+    void leave(int playerId, long now) {
+        Player player = players.remove(playerId);
+        if (player == null || state == State.LOBBY) {
+            return;
+        }
+        standingsDirty = true;
+        if (state == State.ROUND) {
+            if (player.guessedRound == round) {
+                guesses--;
+            }
+            if (everyoneGuessed()) {
+                endRound(now);
+            }
+        }
+    }
+
+    boolean start(int rounds, int roundSeconds, long now) {
+        if (state != State.LOBBY) {
+            return false;
+        }
+        for (Player player : players.values()) {
+            player.score = 0;
+            player.guessedRound = 0;
+        }
+        remaining = new ArrayList<>(LocationCatalog.all());
+        totalRounds = Math.min(rounds, remaining.size());
+        roundMillis = roundSeconds * 1000;
+        round = 0;
+        startRound(now);
+        return true;
+    }
+
+    void guessed(int playerId, int guessRound, double x, double y, long now) {
+        Player player = players.get(playerId);
+        if (player == null || state != State.ROUND || guessRound != round || player.guessedRound == round
+                || !Double.isFinite(x) || !Double.isFinite(y)) {
+            return; // Late, duplicate or garbage
+        }
+        player.guessedRound = round;
+        int secondsLeft = (int)Math.min(roundMillis / 1000, Math.max(0, (deadline - now + 999) / 1000));
+        int points = ScoreRules.roundPoints(location.distanceTo(x, y), secondsLeft);
+        player.score += points;
+        guesses++;
+        ClassroomProtocol.guessResult(scratch, round, points, player.score);
+        fanout.send(playerId, Wire.seal(scratch));
+
+        standingsDirty = true;
+        if (everyoneGuessed()) {
+            endRound(now);
+        }
+    }
+
+    // When tick() next has something to do, or Long.MAX_VALUE if it can wait for the next message
+    long nextWakeup() {
+        long wakeup = state == State.LOBBY ? Long.MAX_VALUE : deadline;
+        return standingsDirty ? Math.min(wakeup, nextStandingsAt) : wakeup;
+    }
+
+    void tick(long now) {
+        if (state == State.ROUND && now >= deadline) {
+            endRound(now);
+        } else if (state == State.RESULTS && now >= deadline) {
+            startRound(now);
+        }
+        if (standingsDirty && now >= nextStandingsAt) {
+            sendStandings(now);
+        }
+    }
+
+    private boolean everyoneGuessed() {
+        return guesses >= players.size();
+    }
+
+    private void startRound(long now) {
+        round++;
+        location = LocationCatalog.drawRound(random, remaining);
+        state = State.ROUND;
+        deadline = now + roundMillis;
+        guesses = 0;
+
+        ClassroomProtocol.roundStart(scratch, round, totalRounds, location.getId(), roundMillis);
+        long start = System.nanoTime();
+        fanout.broadcast(Wire.seal(scratch));
+        System.out.printf("Round %d/%d: %s, sent to %d players in %.2f ms%n", round, totalRounds, location,
+                fanout.audience(), (System.nanoTime() - start) / 1e6);
+    }
+
+    private void endRound(long now) {
+        // The round is over before anyone hears about it, so nothing a broadcast sets off (a player
+        // leaving) can end it a second time
+        boolean last = round >= totalRounds;
+        state = last ? State.LOBBY : State.RESULTS;
+        deadline = now + RESULTS_MILLIS;
+
+        System.out.printf("Round %d over: %d of %d players guessed%n", round, guesses, players.size());
+        ClassroomProtocol.roundEnd(scratch, round, location.getId());
+        fanout.broadcast(Wire.seal(scratch));
+        sendStandings(now);
+
+        if (last) {
+            ClassroomProtocol.gameOver(scratch, round);
+            fanout.broadcast(Wire.seal(scratch));
+            printStandings();
+        }
+    }
+
+    private void sendStandings(long now) {
+        standingsDirty = false;
+        nextStandingsAt = now + STANDINGS_INTERVAL_MILLIS;
+        ClassroomProtocol.standings(scratch, round, players.size(), top());
+        fanout.broadcast(Wire.seal(scratch));
+    }
+
+    // Best STANDINGS_SIZE players, best first; ties go to whoever joined first. A bounded heap, so a
+    // room of thousands costs n log 10 per update rather than a full sort.
+    private List<Leaderboard.PlayerScore> top() {
+        PriorityQueue<Player> heap = new PriorityQueue<>(ClassroomProtocol.STANDINGS_SIZE + 1,
+                (a, b) -> a.score != b.score ? Integer.compare(a.score, b.score) : Integer.compare(b.id, a.id));
+        for (Player player : players.values()) {
+            heap.add(player);
+            if (heap.size() > ClassroomProtocol.STANDINGS_SIZE) {
+                heap.poll();
+            }
+        }
+        Leaderboard.PlayerScore[] top = new Leaderboard.PlayerScore[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            Player player = heap.poll();
+            top[i] = new Leaderboard.PlayerScore(player.username, player.score);
+        }
+        return List.of(top);
+    }
+
+    private void printStandings() {
+        System.out.println("Game over after " + round + " rounds:");
+        int rank = 1;
+        for (Leaderboard.PlayerScore score : top()) {
+            System.out.printf("  %2d. %-12s %6d%n", rank++, score.username, score.score);
+        }
+    }
+}
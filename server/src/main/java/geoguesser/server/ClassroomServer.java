@@ -0,0 +1,314 @@
+package geoguesser.server;
+
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.net.ClassroomProtocol;
+import geoguesser.engine.net.FrameReader;
+import geoguesser.engine.net.Wire;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Classroom mode server: one thread, one Selector, any number of desktop clients. The host types
+// "start" on the console and everyone connected plays the same rounds (ClassroomGame).
+// A broadcast is encoded once into a read-only direct buffer and every client gets a duplicate()
+// of it - its own position over the same bytes - so fanning out to a thousand clients is a thousand
+// write() calls and no copies. Whatever a client's socket can't take right away waits in its queue
+// until the selector says it is writable; a client that falls MAX_QUEUED_BYTES behind is dropped
+// rather than buffered for without bound.
+// Dropping a client never calls back into the game while the game is fanning out: the player is
+// queued in leaving and leaves once the game call that dropped them has returned (applyLeaves).
+//   ClassroomServer [port]          (default ClassroomProtocol.DEFAULT_PORT)
+public final class ClassroomServer implements ClassroomGame.Fanout, ClassroomProtocol.ClientMessages {
+    static final int MAX_QUEUED_BYTES = 64 * 1024;
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final int playerId;
+        final FrameReader reader = new FrameReader(ClassroomProtocol.MAX_FRAME_BYTES);
+        final Outbox outbox;
+        boolean joined;
+
+        Connection(SocketChannel channel, SelectionKey key, int playerId) {
+            this.channel = channel;
+            this.key = key;
+            this.playerId = playerId;
+            this.outbox = new Outbox(channel, key);
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel acceptor;
+    private final ClassroomGame game = new ClassroomGame(this);
+    private final Map<Integer, Connection> connections = new HashMap<>();
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private int nextPlayerId = 1;
+    private int joinedCount;
+    // The connection whose messages are being decoded, for the ClientMessages callbacks
+    private Connection reading;
+    // Players dropped since the last game call returned, oldest first
+    private final List<Integer> leaving = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private ClassroomServer(Selector selector, ServerSocketChannel acceptor) {
+        this.selector = selector;
+        this.acceptor = acceptor;
+    }
+
+    public static ClassroomServer open(int port) throws IOException {
+        Selector selector = Selector.open();
+        ServerSocketChannel acceptor = ServerSocketChannel.open();
+        acceptor.bind(new InetSocketAddress(port), 1024);
+        acceptor.configureBlocking(false);
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        return new ClassroomServer(selector, acceptor);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress)acceptor.getLocalAddress()).getPort();
+    }
+
+    // Runs something on the selector thread, which owns the game and every connection
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    public void startGame(int rounds, int roundSeconds) {
+        execute(() -> {
+            if (!game.start(rounds, roundSeconds, System.currentTimeMillis())) {
+                System.out.println("A game is already running");
+            }
+        });
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // The selector loop; returns after stop()
+    public void run() throws IOException {
+        try {
+            while (running) {
+                long wakeup = game.nextWakeup();
+                long timeout = wakeup == Long.MAX_VALUE ? 0 : Math.max(1, wakeup - System.currentTimeMillis());
+                selector.select(this::handle, timeout);
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                    applyLeaves();
+                }
+                game.tick(System.currentTimeMillis());
+                applyLeaves();
+            }
+        } finally {
+            for (Connection connection : new ArrayList<>(connections.values())) {
+                connection.channel.close();
+            }
+            acceptor.close();
+            selector.close();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection)key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.outbox.flush();
+            }
+        } catch (IOException e) {
+            close(connection);
+        }
+        applyLeaves();
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = acceptor.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                Connection connection = new Connection(channel, key, nextPlayerId++);
+                key.attach(connection);
+                connections.put(connection.playerId, connection);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not accept connection: " + e.getMessage());
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.reader.read(connection.channel) < 0) {
+            close(connection);
+            return;
+        }
+        reading = connection;
+        ByteBuffer frame;
+        while (connection.key.isValid() && (frame = connection.reader.next()) != null) {
+            ClassroomProtocol.readClientMessage(frame, this);
+        }
+    }
+
+    public void hello(String username) {
+        Connection connection = reading;
+        if (connection.joined) {
+            return;
+        }
+        String name = username.trim();
+        if (name.length() > ClassroomProtocol.MAX_USERNAME_LENGTH) {
+            name = name.substring(0, ClassroomProtocol.MAX_USERNAME_LENGTH);
+        }
+        if (name.isEmpty()) {
+            name = "player" + connection.playerId;
+        }
+        connection.joined = true;
+        joinedCount++;
+        ByteBuffer scratch = ByteBuffer.allocate(Wire.HEADER_BYTES + 4);
+        ClassroomProtocol.welcome(scratch, connection.playerId);
+        send(connection.playerId, Wire.seal(scratch));
+        if (!connection.key.isValid()) {
+            return;
+        }
+        game.join(connection.playerId, name, System.currentTimeMillis());
+    }
+
+    public void guessed(int round, double x, double y) {
+        if (reading.joined) {
+            game.guessed(reading.playerId, round, x, y, System.currentTimeMillis());
+        }
+    }
+
+    public void broadcast(ByteBuffer message) {
+        List<Connection> tooSlow = null;
+        for (Connection connection : connections.values()) {
+            if (connection.joined && !enqueue(connection, message.duplicate())) {
+                if (tooSlow == null) {
+                    tooSlow = new ArrayList<>();
+                }
+                tooSlow.add(connection);
+            }
+        }
+        if (tooSlow != null) {
+            for (Connection connection : tooSlow) {
+                close(connection);
+            }
+        }
+    }
+
+    public void send(int playerId, ByteBuffer message) {
+        Connection connection = connections.get(playerId);
+        if (connection != null && !enqueue(connection, message.duplicate())) {
+            close(connection);
+        }
+    }
+
+    public int audience() {
+        return joinedCount;
+    }
+
+    // Writes what the socket takes now and queues the rest; false if the client has to go
+    private boolean enqueue(Connection connection, ByteBuffer message) {
+        try {
+            connection.outbox.add(message);
+            connection.outbox.flush();
+        } catch (IOException e) {
+            return false;
+        }
+        if (connection.outbox.getQueuedBytes() > MAX_QUEUED_BYTES) {
+            System.err.println("Dropping player " + connection.playerId + ": " + connection.outbox.getQueuedBytes()
+                    + " bytes behind");
+            return false;
+        }
+        return true;
+    }
+
+    private void close(Connection connection) {
+        if (connections.remove(connection.playerId) == null) {
+            return;
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Going away anyway
+        }
+        if (connection.joined) {
+            joinedCount--;
+            leaving.add(connection.playerId);
+        }
+    }
+
+    // Takes the dropped players out of the game. Only called between game calls: leave() may end the
+    // round, and its broadcasts may drop more players, who are handled by the same loop.
+    private void applyLeaves() {
+        for (int i = 0; i < leaving.size(); i++) {
+            game.leave(leaving.get(i), System.currentTimeMillis());
+        }
+        leaving.clear();
+    }
+
+    private void printStatus() {
+        System.out.println(joinedCount + " players joined, " + connections.size() + " connections"
+                + (game.isRunning() ? ", game running" : ", waiting for start"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ClassroomProtocol.DEFAULT_PORT;
+        ClassroomServer server = open(port);
+        System.out.println("Classroom server on port " + server.getPort());
+        System.out.println("Commands: start [rounds] [seconds per round], status, quit");
+
+        Thread console = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String[] words = line.trim().split("\\s+");
+                    try {
+                        if (words[0].equals("start")) {
+                            int rounds = words.length > 1 ? Integer.parseInt(words[1]) : ClassroomGame.DEFAULT_ROUNDS;
+                            int seconds = words.length > 2 ? Integer.parseInt(words[2]) : ScoreRules.ROUND_SECONDS;
+                            server.startGame(rounds, seconds);
+                        } else if (words[0].equals("status")) {
+                            server.execute(server::printStatus);
+                        } else if (words[0].equals("quit")) {
+                            break;
+                        } else if (!words[0].isEmpty()) {
+                            System.out.println("Unknown command: " + words[0]);
+                        }
+                    } catch (NumberFormatException e) {
+                        System.out.println("Not a number: " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Console: " + e.getMessage());
+            }
+            server.stop();
+        }, "classroom-console");
+        console.setDaemon(true);
+        console.start();
+
+        server.run();
+    }
+}
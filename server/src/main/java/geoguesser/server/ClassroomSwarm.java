@@ -0,0 +1,151 @@
+package geoguesser.server;
+
+import geoguesser.engine.Leaderboard;
+import geoguesser.engine.net.ClassroomProtocol;
+import geoguesser.engine.net.FrameReader;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// Load tool for the classroom server: a room full of bots on one selector thread. Each bot joins,
+// guesses a random spot a few seconds into every round and counts what it receives. Per round it
+// prints how far apart the first and last bot got the round start, which is the fan-out spread.
+//   ClassroomSwarm [host] [port] [bots]        then "start" on the server console
+public final class ClassroomSwarm {
+    private static final int MAP_SIZE = 500;
+    // Bots guess somewhere in this window after the round starts
+    private static final int MIN_GUESS_MILLIS = 500;
+    private static final int MAX_GUESS_MILLIS = 5000;
+
+    private final Random random = new Random();
+    private final PriorityQueue<long[]> pendingGuesses = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private final List<Bot> bots = new ArrayList<>();
+    private int gameOvers;
+    private int standingsReceived;
+    private long firstStart;
+    private long lastStart;
+    private int startsThisRound;
+    private String leader = "";
+
+    private final class Bot implements ClassroomProtocol.ServerMessages {
+        final int index;
+        final SocketChannel channel;
+        final FrameReader reader = new FrameReader(ClassroomProtocol.MAX_FRAME_BYTES);
+        final ByteBuffer out = ByteBuffer.allocate(256);
+
+        Bot(int index, SocketChannel channel) {
+            this.index = index;
+            this.channel = channel;
+        }
+
+        void send() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        public void welcome(int playerId) {
+        }
+
+        public void roundStarted(int round, int totalRounds, int locationId, int millisLeft) {
+            long now = System.nanoTime();
+            if (startsThisRound == 0) {
+                firstStart = now;
+            }
+            lastStart = now;
+            if (++startsThisRound == bots.size()) {
+                System.out.printf("Round %d/%d start reached %d bots within %.2f ms%n", round, totalRounds,
+                        bots.size(), (lastStart - firstStart) / 1e6);
+                startsThisRound = 0;
+            }
+            long at = System.currentTimeMillis() + MIN_GUESS_MILLIS
+                    + random.nextInt(MAX_GUESS_MILLIS - MIN_GUESS_MILLIS);
+            pendingGuesses.add(new long[]{at, index, round});
+        }
+
+        public void guessScored(int round, int points, int totalScore) {
+        }
+
+        public void standings(int round, int players, List<Leaderboard.PlayerScore> top) {
+            standingsReceived++;
+            if (index == 0 && !top.isEmpty() && !top.get(0).username.equals(leader)) {
+                leader = top.get(0).username;
+                System.out.println("  round " + round + ": " + leader + " leads with " + top.get(0).score + " of "
+                        + players + " players");
+            }
+        }
+
+        public void roundEnded(int round, int locationId) {
+        }
+
+        public void gameOver(int roundsPlayed) {
+            gameOvers++;
+        }
+    }
+
+    private void run(String host, int port, int count) throws IOException {
+        Selector selector = Selector.open();
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        for (int i = 0; i < count; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            Bot bot = new Bot(i, channel);
+            channel.register(selector, SelectionKey.OP_READ, bot);
+            bots.add(bot);
+            ClassroomProtocol.hello(bot.out, "bot" + i);
+            bot.send();
+        }
+        System.out.println(count + " bots joined; start the game on the server");
+
+        while (gameOvers < bots.size()) {
+            long now = System.currentTimeMillis();
+            long timeout = pendingGuesses.isEmpty() ? 0 : Math.max(1, pendingGuesses.peek()[0] - now);
+            selector.select(key -> {
+                Bot bot = (Bot)key.attachment();
+                try {
+                    if (bot.reader.read(bot.channel) < 0) {
+                        throw new IOException("Server closed the connection");
+                    }
+                    ByteBuffer frame;
+                    while ((frame = bot.reader.next()) != null) {
+                        ClassroomProtocol.readServerMessage(frame, bot);
+                    }
+                } catch (IOException e) {
+                    System.err.println("bot" + bot.index + ": " + e.getMessage());
+                    key.cancel();
+                    gameOvers++;
+                }
+            }, timeout);
+
+            now = System.currentTimeMillis();
+            while (!pendingGuesses.isEmpty() && pendingGuesses.peek()[0] <= now) {
+                long[] guess = pendingGuesses.poll();
+                Bot bot = bots.get((int)guess[1]);
+                ClassroomProtocol.guess(bot.out, (int)guess[2], random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+                bot.send();
+            }
+        }
+        System.out.println("Game over for all bots; " + standingsReceived + " standings updates received");
+        for (Bot bot : bots) {
+            bot.channel.close();
+        }
+        selector.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : ClassroomProtocol.DEFAULT_PORT;
+        int bots = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        new ClassroomSwarm().run(host, port, bots);
+    }
+}
@@ -0,0 +1,62 @@
+package geoguesser.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// Outgoing buffers of one non-blocking connection. add() only queues; flush() hands the socket as
+// many queued buffers as it takes in one gathering write (a chunk header and its photo slice, a
+// result and the next round...) and keeps OP_WRITE registered while anything is left over.
+// Buffers are written as they are, so callers can queue duplicates of shared or mapped data.
+final class Outbox {
+    private static final int MAX_BATCH = 16;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+    private final ByteBuffer[] batch = new ByteBuffer[MAX_BATCH];
+    private long queuedBytes;
+
+    Outbox(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    void add(ByteBuffer buffer) {
+        queue.add(buffer);
+        queuedBytes += buffer.remaining();
+    }
+
+    // Bytes queued and not yet taken by the socket
+    long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    void flush() throws IOException {
+        while (!queue.isEmpty()) {
+            int count = 0;
+            for (ByteBuffer buffer : queue) {
+                batch[count++] = buffer;
+                if (count == MAX_BATCH) {
+                    break;
+                }
+            }
+            queuedBytes -= channel.write(batch, 0, count);
+            boolean full = batch[count - 1].hasRemaining();
+            Arrays.fill(batch, 0, count, null);
+            while (!queue.isEmpty() && !queue.peek().hasRemaining()) {
+                queue.poll();
+            }
+            if (full) {
+                break; // The socket took what it could; OP_WRITE says when it takes more
+            }
+        }
+        int interest = queue.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (key.interestOps() != interest) {
+            key.interestOps(interest);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package geoguesser.server;
+
+import geoguesser.engine.Location;
+import geoguesser.engine.LocationCatalog;
+import geoguesser.engine.ScoreRules;
+import geoguesser.engine.net.FrameReader;
+import geoguesser.engine.net.RemotePlayProtocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Runs single-player games for thin desktop clients (RemotePlayProtocol): picks the rounds, streams
+// the photos, keeps the clock and scores the guesses, so the client only draws. One thread and one
+// Selector for every session.
+// Photos are memory-mapped once at startup and streamed as slices of the mapping: a PHOTO_CHUNK is
+// a 13-byte header plus a view of the file, written together with one gathering write. A session
+// sends photo bytes only while it has the client's credit and its socket has drained below a chunk,
+// so neither a slow decoder nor a slow network makes the server buffer photos. Replies are not
+// under credit, so a client that pipelines requests without reading them is dropped once
+// MAX_QUEUED_BYTES are waiting for it, as ClassroomServer does with slow clients.
+//   java -cp classroom-server.jar geoguesser.server.RemotePlayServer [port] [photo directory]
+public final class RemotePlayServer implements RemotePlayProtocol.ClientMessages {
+    public static final String DEFAULT_PHOTO_DIR = "desktop-client/src/main/resources/assets";
+    // Late guesses are still scored (with no time bonus) within this much of the round's end
+    static final int GRACE_MILLIS = 2000;
+    // An honest client has at most a photo chunk and a few replies queued
+    static final int MAX_QUEUED_BYTES = 128 * 1024;
+
+    private static final class Session {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final Outbox outbox;
+        final FrameReader reader = new FrameReader(RemotePlayProtocol.MAX_FRAME_BYTES);
+        // Small messages of the current read, handed to the outbox in one piece
+        final ByteBuffer pending = ByteBuffer.allocate(4 * RemotePlayProtocol.MAX_MESSAGE_BYTES);
+        final Random random = new Random();
+        List<Location> remaining;
+        Location location;
+        boolean inGame;
+        boolean answered;
+        int round;
+        int totalRounds;
+        int totalScore;
+        long roundSentAt;
+        long clockStartedAt;
+        long credit;
+        // The part of the current round's photo still to send, null once it is all out
+        ByteBuffer photo;
+
+        Session(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            this.outbox = new Outbox(channel, key);
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel acceptor;
+    private final ByteBuffer[] photos;
+    private Session current;
+    private volatile boolean running = true;
+
+    private RemotePlayServer(Selector selector, ServerSocketChannel acceptor, ByteBuffer[] photos) {
+        this.selector = selector;
+        this.acceptor = acceptor;
+        this.photos = photos;
+    }
+
+    public static RemotePlayServer open(int port, Path photoDir) throws IOException {
+        ByteBuffer[] photos = new ByteBuffer[LocationCatalog.size()];
+        for (Location location : LocationCatalog.all()) {
+            try (FileChannel file = FileChannel.open(photoDir.resolve(location.getImage()), StandardOpenOption.READ)) {
+                photos[location.getId()] = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            }
+        }
+        Selector selector = Selector.open();
+        ServerSocketChannel acceptor = ServerSocketChannel.open();
+        acceptor.bind(new InetSocketAddress(port), 256);
+        acceptor.configureBlocking(false);
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        return new RemotePlayServer(selector, acceptor, photos);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress)acceptor.getLocalAddress()).getPort();
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // The selector loop; returns after stop()
+    public void run() throws IOException {
+        try {
+            while (running) {
+                selector.select(this::handle);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Session session = (Session)key.attachment();
+        try {
+            if (key.isReadable()) {
+                if (session.reader.read(session.channel) < 0) {
+                    close(session);
+                    return;
+                }
+                current = session;
+                ByteBuffer frame;
+                while ((frame = session.reader.next()) != null) {
+                    RemotePlayProtocol.readClientMessage(frame, this);
+                    if (session.pending.position() > RemotePlayProtocol.MAX_MESSAGE_BYTES) {
+                        commitPending(session); // A long pipelined burst
+                        if (tooFarBehind(session)) {
+                            return;
+                        }
+                    }
+                }
+            }
+            // Until the socket is full (OP_WRITE brings us back) or the credit or the photo runs out
+            do {
+                pump(session);
+                session.outbox.flush();
+            } while (session.outbox.getQueuedBytes() == 0 && session.photo != null && session.credit > 0);
+            tooFarBehind(session);
+        } catch (IOException e) {
+            close(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = acceptor.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Session(channel, key));
+            }
+        } catch (IOException e) {
+            System.err.println("Could not accept connection: " + e.getMessage());
+        }
+    }
+
+    // Drops the session if its replies pile up unread; true if it was dropped
+    private boolean tooFarBehind(Session session) {
+        if (session.outbox.getQueuedBytes() <= MAX_QUEUED_BYTES) {
+            return false;
+        }
+        System.err.println("Dropping remote player: " + session.outbox.getQueuedBytes() + " bytes behind");
+        close(session);
+        return true;
+    }
+
+    private void close(Session session) {
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Going away anyway
+        }
+    }
+
+    public void newGame(int seq, String username, int rounds) {
+        Session session = current;
+        if (rounds < 1) {
+            RemotePlayProtocol.error(session.pending, seq, "A game needs at least one round");
+            return;
+        }
+        session.remaining = new ArrayList<>(LocationCatalog.all());
+        session.totalRounds = Math.min(rounds, session.remaining.size());
+        session.round = 0;
+        session.totalScore = 0;
+        session.inGame = true;
+        RemotePlayProtocol.gameStarted(session.pending, seq, session.totalRounds);
+        startRound(session);
+    }
+
+    public void credit(int bytes) {
+        if (bytes > 0) {
+            current.credit += bytes;
+        }
+    }
+
+    public void clockStarted(int round) {
+        Session session = current;
+        if (session.inGame && round == session.round && session.clockStartedAt == 0) {
+            session.clockStartedAt = System.currentTimeMillis();
+        }
+    }
+
+    public void guessed(int seq, int round, double x, double y) {
+        Session session = current;
+        if (!checkRound(session, seq, round)) {
+            return;
+        }
+        // The clock runs from when the photo was on screen, or from when it was sent if the client never said
+        long start = session.clockStartedAt != 0 ? session.clockStartedAt : session.roundSentAt;
+        long elapsed = System.currentTimeMillis() - start;
+        if (elapsed > ScoreRules.ROUND_SECONDS * 1000L + GRACE_MILLIS || !Double.isFinite(x) || !Double.isFinite(y)) {
+            timedOut(seq, round);
+            return;
+        }
+        int secondsLeft = (int)Math.max(0, ScoreRules.ROUND_SECONDS - elapsed / 1000);
+        int points = ScoreRules.roundPoints(session.location.distanceTo(x, y), secondsLeft);
+        session.totalScore += points;
+        finishRound(session, seq, false, points);
+    }
+
+    public void timedOut(int seq, int round) {
+        Session session = current;
+        if (checkRound(session, seq, round)) {
+            finishRound(session, seq, true, 0);
+        }
+    }
+
+    private boolean checkRound(Session session, int seq, int round) {
+        if (!session.inGame || round != session.round || session.answered) {
+            RemotePlayProtocol.error(session.pending, seq, "Round " + round + " is not being played");
+            return false;
+        }
+        return true;
+    }
+
+    // The result, and right behind it the next round, so the client never waits a round trip for it
+    private void finishRound(Session session, int seq, boolean timedOut, int points) {
+        session.answered = true;
+        RemotePlayProtocol.result(session.pending, seq, session.round, session.location.getId(), timedOut, points,
+                session.totalScore);
+        if (session.round >= session.totalRounds) {
+            session.inGame = false;
+            session.photo = null;
+            RemotePlayProtocol.gameEnd(session.pending, session.round, session.totalScore);
+        } else {
+            startRound(session);
+        }
+    }
+
+    private void startRound(Session session) {
+        session.round++;
+        session.location = LocationCatalog.drawRound(session.random, session.remaining);
+        session.answered = false;
+        session.clockStartedAt = 0;
+        session.roundSentAt = System.currentTimeMillis();
+        // Whatever is left of the last photo is dropped; the client abandons it on this ROUND
+        session.photo = photos[session.location.getId()].duplicate();
+        RemotePlayProtocol.round(session.pending, session.round, session.location.getImage(),
+                session.photo.remaining());
+    }
+
+    // Queues pending messages, then photo chunks while the client has credit and the socket keeps up
+    private void pump(Session session) {
+        commitPending(session);
+        ByteBuffer photo = session.photo;
+        while (photo != null && session.credit > 0 && session.outbox.getQueuedBytes() < RemotePlayProtocol.CHUNK_BYTES) {
+            int length = (int)Math.min(Math.min(RemotePlayProtocol.CHUNK_BYTES, session.credit), photo.remaining());
+            ByteBuffer header = ByteBuffer.allocate(RemotePlayProtocol.CHUNK_HEADER_BYTES);
+            RemotePlayProtocol.photoChunkHeader(header, session.round, photo.position(), length);
+            ByteBuffer data = photo.duplicate();
+            data.limit(photo.position() + length);
+            photo.position(photo.position() + length);
+            session.outbox.add(header.flip());
+            session.outbox.add(data);
+            session.credit -= length;
+            if (!photo.hasRemaining()) {
+                session.photo = null;
+                photo = null;
+            }
+        }
+    }
+
+    private void commitPending(Session session) {
+        ByteBuffer pending = session.pending;
+        if (pending.position() > 0) {
+            pending.flip();
+            session.outbox.add(ByteBuffer.allocate(pending.remaining()).put(pending).flip());
+            pending.clear();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : RemotePlayProtocol.DEFAULT_PORT;
+        Path photoDir = Paths.get(args.length > 1 ? args[1] : DEFAULT_PHOTO_DIR);
+        RemotePlayServer server = open(port, photoDir);
+        System.out.println("Remote play server on port " + server.getPort() + ", photos from " + photoDir.toAbsolutePath());
+        server.run();
+    }
+}
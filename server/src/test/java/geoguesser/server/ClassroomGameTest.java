@@ -0,0 +1,83 @@
+package geoguesser.server;
+
+import geoguesser.engine.net.ClassroomProtocol;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// A round must end exactly once, even when a player goes away while its end is being broadcast
+class ClassroomGameTest {
+    // Records the type of every broadcast, and drops a player the moment a given type goes out
+    private static final class RecordingFanout implements ClassroomGame.Fanout {
+        final List<Integer> broadcasts = new ArrayList<>();
+        ClassroomGame game;
+        int dropOn = -1;
+        int dropPlayer;
+
+        public void broadcast(ByteBuffer message) {
+            int type = message.get(4);
+            broadcasts.add(type);
+            if (type == dropOn) {
+                dropOn = -1;
+                game.leave(dropPlayer, 0);
+            }
+        }
+
+        public void send(int playerId, ByteBuffer message) {
+        }
+
+        public int audience() {
+            return 2;
+        }
+
+        int count(int type) {
+            return Collections.frequency(broadcasts, type);
+        }
+    }
+
+    @Test
+    void lastRoundEndsOnceWhenAPlayerLeavesDuringRoundEnd() {
+        RecordingFanout fanout = new RecordingFanout();
+        ClassroomGame game = new ClassroomGame(fanout);
+        fanout.game = game;
+        game.join(1, "ana", 0);
+        game.join(2, "bo", 0);
+        game.start(1, 60, 0);
+
+        fanout.dropOn = ClassroomProtocol.ROUND_END;
+        fanout.dropPlayer = 2;
+        game.guessed(1, 1, 100, 100, 1000);
+        game.guessed(2, 1, 200, 200, 2000);
+
+        assertEquals(1, fanout.count(ClassroomProtocol.ROUND_END));
+        assertEquals(1, fanout.count(ClassroomProtocol.GAME_OVER));
+        assertFalse(game.isRunning());
+    }
+
+    @Test
+    void roundEndsOnceAndTheNextOneFollows() {
+        RecordingFanout fanout = new RecordingFanout();
+        ClassroomGame game = new ClassroomGame(fanout);
+        fanout.game = game;
+        game.join(1, "ana", 0);
+        game.join(2, "bo", 0);
+        game.start(2, 60, 0);
+
+        fanout.dropOn = ClassroomProtocol.STANDINGS;
+        fanout.dropPlayer = 1;
+        game.guessed(1, 1, 100, 100, 1000);
+        game.guessed(2, 1, 200, 200, 2000);
+        assertEquals(1, fanout.count(ClassroomProtocol.ROUND_END));
+
+        game.tick(2000 + ClassroomGame.RESULTS_MILLIS);
+        assertEquals(2, fanout.count(ClassroomProtocol.ROUND_START));
+        assertEquals(1, fanout.count(ClassroomProtocol.ROUND_END));
+        assertEquals(0, fanout.count(ClassroomProtocol.GAME_OVER));
+    }
+}
@@ -0,0 +1,61 @@
+package geoguesser.server;
+
+import geoguesser.engine.net.RemotePlayProtocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RemotePlayServerTest {
+    private RemotePlayServer server;
+    private Thread thread;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        // Tests run in the server module
+        server = RemotePlayServer.open(0, Paths.get("..", RemotePlayServer.DEFAULT_PHOTO_DIR));
+        thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, "remote-play-test");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @AfterEach
+    void stopServer() throws InterruptedException {
+        server.stop();
+        thread.join(5000);
+    }
+
+    // Every TIMEOUT for a round that isn't being played gets an ERROR three times its size; a client
+    // that never reads them must be dropped long before 32 MB of requests
+    @Test
+    void dropsAClientThatPipelinesWithoutReading() throws IOException {
+        try (SocketChannel channel = SocketChannel.open()) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            channel.connect(new InetSocketAddress("localhost", server.getPort()));
+            ByteBuffer burst = ByteBuffer.allocate(64 * 1024);
+            while (burst.remaining() >= RemotePlayProtocol.MAX_MESSAGE_BYTES) {
+                RemotePlayProtocol.timeout(burst, 1, 99);
+            }
+            burst.flip();
+            assertThrows(IOException.class, () -> {
+                for (int sent = 0; sent < 32 * 1024 * 1024; sent += burst.limit()) {
+                    channel.write(burst.duplicate());
+                }
+            });
+        }
+    }
+}
@@ -1,5 +0,0 @@
-public class Main {
-    public static void main(String[] args) {
-        MainMenu Main = new MainMenu();
-    }
-}
\ No newline at end of file